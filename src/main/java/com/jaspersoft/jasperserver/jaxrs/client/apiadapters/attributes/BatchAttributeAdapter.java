@@ -22,16 +22,21 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.attributes;
 
 import com.jaspersoft.jasperserver.dto.authority.hypermedia.HypermediaAttribute;
 import com.jaspersoft.jasperserver.dto.authority.hypermedia.HypermediaAttributesListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ResourceMediaType;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.JsonListReader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.MimeTypeUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestBuilder;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.MandatoryParameterNotFoundException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -126,10 +131,25 @@ public class BatchAttributeAdapter extends AbstractAdapter {
     }
 
     public OperationResult<HypermediaAttributesListWrapper> search() {
-        JerseyRequest<HypermediaAttributesListWrapper> jerseyRequest = buildSearchRequest();
+        JerseyRequest<HypermediaAttributesListWrapper> jerseyRequest = buildSearchRequest(HypermediaAttributesListWrapper.class);
         return jerseyRequest.get();
     }
 
+    public RequestFuture<OperationResult<HypermediaAttributesListWrapper>> asyncSearch() {
+        return buildSearchRequest(HypermediaAttributesListWrapper.class).asyncGet();
+    }
+
+    /**
+     * Reads found attributes one by one from the response stream instead of building the whole list.
+     * The reader must be closed if it's not read to the end.
+     */
+    public JsonListReader<HypermediaAttribute> streamSearch() {
+        JerseyRequest<InputStream> request = buildSearchRequest(InputStream.class);
+        request.setAccept("application/attributes.collection" + ResourceMediaType.RESOURCE_JSON_TYPE);
+        request.setStreaming(true);
+        return JsonListReader.of(request.get(), HypermediaAttribute.class, null);
+    }
+
     public <R> RequestExecution asyncGet(final Callback<OperationResult<HypermediaAttributesListWrapper>, R> callback) {
         final JerseyRequest<HypermediaAttributesListWrapper> request = buildRequest();
         request.addParams(params);
@@ -139,10 +159,14 @@ public class BatchAttributeAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttributesListWrapper>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     public OperationResult<HypermediaAttributesListWrapper> delete() {
         return buildRequest().delete();
     }
@@ -156,11 +180,19 @@ public class BatchAttributeAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttributesListWrapper>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     public OperationResult<HypermediaAttributesListWrapper> createOrUpdate(HypermediaAttributesListWrapper attributesListWrapper) {
+        return buildUpdateRequest().put(filterAttributes(attributesListWrapper));
+    }
+
+    private HypermediaAttributesListWrapper filterAttributes(HypermediaAttributesListWrapper attributesListWrapper) {
         if (attributesListWrapper == null) {
             throw new MandatoryParameterNotFoundException("Attributes are required");
         }
@@ -174,9 +206,12 @@ public class BatchAttributeAdapter extends AbstractAdapter {
             }
             attributesListWrapper.setProfileAttributes(list);
         }
+        return attributesListWrapper;
+    }
+
+    private RequestBuilder<HypermediaAttributesListWrapper> buildUpdateRequest() {
         return buildRequest()
-                .setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/hal+{mime}"))
-                .put(attributesListWrapper);
+                .setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/hal+{mime}"));
     }
 
     public <R> RequestExecution asyncCreateOrUpdate(final HypermediaAttributesListWrapper attributesList,
@@ -189,10 +224,14 @@ public class BatchAttributeAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttributesListWrapper>> asyncCreateOrUpdate(HypermediaAttributesListWrapper attributesListWrapper) {
+        return buildUpdateRequest().asyncPut(filterAttributes(attributesListWrapper));
+    }
+
     private JerseyRequest<HypermediaAttributesListWrapper> buildRequest() {
         path.add(SERVICE_URI);
         JerseyRequest<HypermediaAttributesListWrapper> request = JerseyRequest.buildRequest(
@@ -207,10 +246,10 @@ public class BatchAttributeAdapter extends AbstractAdapter {
         return request;
     }
 
-    private JerseyRequest<HypermediaAttributesListWrapper> buildSearchRequest() {
-        JerseyRequest<HypermediaAttributesListWrapper> request = JerseyRequest.buildRequest(
+    private <T> JerseyRequest<T> buildSearchRequest(Class<T> responseClass) {
+        JerseyRequest<T> request = JerseyRequest.buildRequest(
                 sessionStorage,
-                HypermediaAttributesListWrapper.class,
+                responseClass,
                 new String[]{SERVICE_URI}, new DefaultErrorHandler());
         if (includePermissions) {
             request.addParam("_embedded", "permission");
@@ -27,6 +27,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.MimeTypeUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -77,10 +78,14 @@ public class SingleAttributeAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttribute>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
 
     public OperationResult<HypermediaAttribute> delete() {
         return buildRequest().delete();
@@ -96,10 +101,14 @@ public class SingleAttributeAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttribute>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     /**
      * @deprecated Replaced by {@link SingleAttributeAdapter#createOrUpdate(HypermediaAttribute)}.
      */
@@ -110,11 +119,7 @@ public class SingleAttributeAdapter extends AbstractAdapter {
 
 
     public OperationResult<HypermediaAttribute> createOrUpdate(HypermediaAttribute attribute) {
-        JerseyRequest<HypermediaAttribute> request = buildRequest();
-        if (includePermissions) {
-            request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/hal+{mime}"));
-        }
-        return request.put(attribute);
+        return buildUpdateRequest().put(attribute);
     }
 
     public <R> RequestExecution asyncCreateOrUpdate(final HypermediaAttribute userAttribute,
@@ -126,10 +131,22 @@ public class SingleAttributeAdapter extends AbstractAdapter {
                 callback.execute(request.put(userAttribute));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<HypermediaAttribute>> asyncCreateOrUpdate(HypermediaAttribute attribute) {
+        return buildUpdateRequest().asyncPut(attribute);
+    }
+
+    private JerseyRequest<HypermediaAttribute> buildUpdateRequest() {
+        JerseyRequest<HypermediaAttribute> request = buildRequest();
+        if (includePermissions) {
+            request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/hal+{mime}"));
+        }
+        return request;
+    }
+
     private JerseyRequest<HypermediaAttribute> buildRequest() {
 
         String[] uri = path.toArray(new String[path.size()]);
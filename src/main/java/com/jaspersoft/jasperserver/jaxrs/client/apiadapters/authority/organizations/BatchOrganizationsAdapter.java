@@ -26,6 +26,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -69,10 +70,16 @@ public class BatchOrganizationsAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<OrganizationsListWrapper>> asyncGet() {
+        JerseyRequest<OrganizationsListWrapper> request = buildRequest(OrganizationsListWrapper.class);
+        request.addParams(params);
+        return request.asyncGet();
+    }
+
 
     private <T> JerseyRequest<T> buildRequest(Class<T> responseType) {
         return JerseyRequest.buildRequest(sessionStorage, responseType, 
@@ -26,6 +26,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -57,10 +58,14 @@ public class SingleOrganizationAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientTenant>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     public OperationResult<ClientTenant> createOrUpdate(ClientTenant clientTenant) {
         return buildRequest().put(clientTenant);
     }
@@ -74,10 +79,14 @@ public class SingleOrganizationAdapter extends AbstractAdapter {
                 callback.execute(request.put(clientTenant));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientTenant>> asyncCreateOrUpdate(ClientTenant clientTenant) {
+        return buildRequest().asyncPut(clientTenant);
+    }
+
     /**
      * Saves Organization. Use this method only if you want to create a new single Organization
      * with or without passing OrganizationParameter.
@@ -91,6 +100,13 @@ public class SingleOrganizationAdapter extends AbstractAdapter {
                 : request.post(clientTenant);
     }
 
+    public RequestFuture<OperationResult<ClientTenant>> asyncCreate() {
+        JerseyRequest<ClientTenant> request = request();
+        return params.size() != 0
+                ? request.addParams(params).asyncPost(clientTenant)
+                : request.asyncPost(clientTenant);
+    }
+
     /**
      * Adds parameter to the URI
      *
@@ -120,10 +136,14 @@ public class SingleOrganizationAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientTenant>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     private JerseyRequest<ClientTenant> buildRequest() {
         return JerseyRequest.buildRequest(
                 sessionStorage,
@@ -26,6 +26,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -76,7 +77,16 @@ public class BatchRolesRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<RolesListWrapper>> asyncGet() {
+        JerseyRequest<RolesListWrapper> request = buildRequest(sessionStorage,
+                RolesListWrapper.class,
+                uri.toArray(new String[uri.size()]),
+                new DefaultErrorHandler());
+        request.addParams(params);
+        return request.asyncGet();
+    }
 }
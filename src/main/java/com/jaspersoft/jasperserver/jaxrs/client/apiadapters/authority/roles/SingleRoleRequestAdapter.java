@@ -26,6 +26,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -61,10 +62,14 @@ public class SingleRoleRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientRole>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     public OperationResult<ClientRole> createOrUpdate(ClientRole user) {
         return buildRequest().put(user);
     }
@@ -77,10 +82,14 @@ public class SingleRoleRequestAdapter extends AbstractAdapter {
                 callback.execute(request.put(user));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientRole>> asyncCreateOrUpdate(ClientRole role) {
+        return buildRequest().asyncPut(role);
+    }
+
     public OperationResult<ClientRole> delete() {
         return buildRequest().delete();
     }
@@ -94,10 +103,14 @@ public class SingleRoleRequestAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientRole>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     private JerseyRequest<ClientRole> buildRequest() {
         return JerseyRequest.buildRequest(sessionStorage, ClientRole.class, roleUri.toArray(new String[roleUri.size()]), new DefaultErrorHandler());
     }
@@ -21,16 +21,21 @@
 
 package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.authority.users;
 
+import com.jaspersoft.jasperserver.dto.authority.ClientUser;
 import com.jaspersoft.jasperserver.dto.authority.UsersListWrapper;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.JsonListReader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.InputStream;
 import java.util.ArrayList;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -66,12 +71,31 @@ public class BatchUsersRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<UsersListWrapper>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
+    /**
+     * Reads found users one by one from the response stream instead of building the whole list.
+     * The reader must be closed if it's not read to the end.
+     */
+    public JsonListReader<ClientUser> streamGet() {
+        JerseyRequest<InputStream> request = buildRequest(InputStream.class);
+        request.setAccept(MediaType.APPLICATION_JSON);
+        request.setStreaming(true);
+        return JsonListReader.of(request.get(), ClientUser.class, null);
+    }
+
     private JerseyRequest<UsersListWrapper> buildRequest() {
-        JerseyRequest<UsersListWrapper> request = JerseyRequest.buildRequest(sessionStorage, UsersListWrapper.class,
+        return buildRequest(UsersListWrapper.class);
+    }
+
+    private <T> JerseyRequest<T> buildRequest(Class<T> responseClass) {
+        JerseyRequest<T> request = JerseyRequest.buildRequest(sessionStorage, responseClass,
                 uri.toArray(new String[uri.size()]), new DefaultErrorHandler());
         request.addParams(params);
         return request;
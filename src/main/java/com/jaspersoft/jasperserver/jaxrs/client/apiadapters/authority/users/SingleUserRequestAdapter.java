@@ -5,6 +5,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -47,10 +48,14 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientUser>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
 
     public OperationResult<ClientUser> createOrUpdate(ClientUser user) {
         return buildRequest().put(user);
@@ -65,10 +70,14 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.put(user));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientUser>> asyncCreateOrUpdate(ClientUser user) {
+        return buildRequest().asyncPut(user);
+    }
+
 
     public OperationResult<ClientUser> delete() {
         return buildRequest().delete();
@@ -82,10 +91,14 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientUser>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
 
     private JerseyRequest<ClientUser> buildRequest() {
         uri.add(user.getUsername());
@@ -182,7 +195,7 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
@@ -212,7 +225,7 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.put(user));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
@@ -244,7 +257,7 @@ public class SingleUserRequestAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
@@ -23,7 +23,9 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.bundles;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SnapshotCache;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import java.util.Locale;
@@ -64,6 +66,69 @@ public class BundlesService extends AbstractAdapter {
         return buildBundleRequest(name).get();
     }
 
+    /**
+     * @return all bundles of the locale from the snapshot shared by sessions of the client,
+     * see {@link SnapshotCache}
+     */
+    public Map<String, Map<String, String>> allBundlesSnapshot() {
+        return snapshot(snapshotKey(null), allBundlesLoader());
+    }
+
+    /**
+     * @return bundle of the locale from the snapshot shared by sessions of the client
+     */
+    public Map<String, String> bundleSnapshot(final String name) {
+        final Locale snapshotLocale = locale;
+        return snapshot(snapshotKey(name), new SnapshotCache.Loader<Map<String, String>>() {
+            @Override
+            public Map<String, String> load() {
+                return new BundlesService(sessionStorage).forLocale(snapshotLocale).bundle(name).getEntity();
+            }
+        });
+    }
+
+    /**
+     * Loads snapshot of all bundles of the locale in background.
+     */
+    public RequestFuture<Map<String, Map<String, String>>> warmUp() {
+        SnapshotCache cache = sessionStorage.getSnapshotCache();
+        if (cache == null) {
+            return RequestFuture.completed(allBundlesLoader().load());
+        }
+        return cache.getAsync(snapshotKey(null), allBundlesLoader());
+    }
+
+    /**
+     * Removes snapshots of bundles of all locales.
+     */
+    public BundlesService invalidateSnapshots() {
+        SnapshotCache cache = sessionStorage.getSnapshotCache();
+        if (cache != null) {
+            cache.invalidate(SERVICE_URI + ":");
+        }
+        return this;
+    }
+
+    private SnapshotCache.Loader<Map<String, Map<String, String>>> allBundlesLoader() {
+        final Locale snapshotLocale = locale;
+        return new SnapshotCache.Loader<Map<String, Map<String, String>>>() {
+            @Override
+            public Map<String, Map<String, String>> load() {
+                return new BundlesService(sessionStorage).forLocale(snapshotLocale).allBundles().getEntity();
+            }
+        };
+    }
+
+    private <T> T snapshot(String key, SnapshotCache.Loader<T> loader) {
+        SnapshotCache cache = sessionStorage.getSnapshotCache();
+        return cache != null ? cache.get(key, loader) : loader.load();
+    }
+
+    private String snapshotKey(String bundleName) {
+        String key = SERVICE_URI + ":" + (locale != null ? locale.toString() : "") + ":";
+        return bundleName != null ? key + bundleName : key;
+    }
+
     private JerseyRequest<Map<String, String>> buildBundleRequest(String bundleName) {
         JerseyRequest<Map<String, String>> request =
                 JerseyRequest.buildRequest(sessionStorage, new GenericType<Map<String, String>>() {
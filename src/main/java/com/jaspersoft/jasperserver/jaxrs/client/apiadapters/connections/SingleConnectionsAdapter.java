@@ -10,6 +10,7 @@ import com.jaspersoft.jasperserver.dto.resources.ClientSemanticLayerDataSource;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.MimeTypeUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.MandatoryParameterNotFoundException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -44,8 +45,15 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
         this.metadataMimeType = metadataMimeType;
     }
 
-    @SuppressWarnings("unchecked")
     public OperationResult<C> create(C connection) {
+        return prepareCreateRequest(connection).post(connection);
+    }
+
+    public RequestFuture<OperationResult<C>> asyncCreate(C connection) {
+        return prepareCreateRequest(connection).asyncPost(connection);
+    }
+
+    private JerseyRequest<C> prepareCreateRequest(C connection) {
         if (!isConnectionTypeValid(connection)) {
             throw new IllegalArgumentException("Unsupported connectionClass type");
         }
@@ -58,7 +66,7 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
                     .setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(),
                             connectionMimeType + "+{mime}"));
         }
-        return jerseyRequest.post(connection);
+        return jerseyRequest;
     }
 
     public OperationResult<C> get() {
@@ -66,7 +74,19 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
         return jerseyRequest.get();
     }
 
+    public RequestFuture<OperationResult<C>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     public OperationResult<C> update(C connection) {
+        return prepareUpdateRequest(connection).put(connection);
+    }
+
+    public RequestFuture<OperationResult<C>> asyncUpdate(C connection) {
+        return prepareUpdateRequest(connection).asyncPut(connection);
+    }
+
+    private JerseyRequest<C> prepareUpdateRequest(C connection) {
         if (!isConnectionTypeValid(connection)) {
             throw new IllegalArgumentException("Unsupported connectionClass type");
         }
@@ -76,13 +96,17 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
                     .setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration()
                             , connectionMimeType + "+{mime}"));
         }
-        return jerseyRequest.put(connection);
+        return jerseyRequest;
     }
 
     public OperationResult delete() {
         return buildRequest().delete();
     }
 
+    public RequestFuture<OperationResult<C>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     protected JerseyRequest<C> buildRequest() {
         if (uuId == null || uuId.isEmpty()) {
             throw new MandatoryParameterNotFoundException("Uuid of the connection must be specified");
@@ -94,6 +118,14 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
     }
 
     public OperationResult<M> metadata() {
+        return prepareMetadataRequest().get();
+    }
+
+    public RequestFuture<OperationResult<M>> asyncMetadata() {
+        return prepareMetadataRequest().asyncGet();
+    }
+
+    private JerseyRequest<M> prepareMetadataRequest() {
         if (uuId == null || uuId.isEmpty()) {
             throw new MandatoryParameterNotFoundException("Uuid of the connection must be specified");
         }
@@ -105,10 +137,18 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
         );
         jerseyRequest.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration()
                 , metadataMimeType + "+{mime}"));
-        return jerseyRequest.get();
+        return jerseyRequest;
     }
 
     public OperationResult<M> createAndGetMetadata(C connection) {
+        return prepareCreateAndGetMetadataRequest(connection).post(connection);
+    }
+
+    public RequestFuture<OperationResult<M>> asyncCreateAndGetMetadata(C connection) {
+        return prepareCreateAndGetMetadataRequest(connection).asyncPost(connection);
+    }
+
+    private JerseyRequest<M> prepareCreateAndGetMetadataRequest(C connection) {
         if (!isConnectionTypeValid(connection)) {
             throw new IllegalArgumentException("Unsupported connectionClass type");
         }
@@ -122,7 +162,7 @@ public class SingleConnectionsAdapter<C, M> extends AbstractAdapter {
         jerseyRequest
                 .setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration()
                         , metadataMimeType + "+{mime}"));
-        return jerseyRequest.post(connection);
+        return jerseyRequest;
     }
 
     protected <T> Boolean isConnectionTypeValid(T connection) {
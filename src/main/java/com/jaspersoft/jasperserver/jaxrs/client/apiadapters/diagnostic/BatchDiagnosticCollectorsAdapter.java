@@ -4,6 +4,7 @@ import com.jaspersoft.jasperserver.dto.common.PatchDescriptor;
 import com.jaspersoft.jasperserver.dto.logcapture.CollectorSettingsList;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -26,14 +27,26 @@ public class BatchDiagnosticCollectorsAdapter extends AbstractAdapter {
         return buildRequest().get();
     }
 
+    public RequestFuture<OperationResult<CollectorSettingsList>> asyncCollectorsSettings() {
+        return buildRequest().asyncGet();
+    }
+
 
     public OperationResult<InputStream> collectorsContent() {
+        return prepareContentRequest().get();
+    }
+
+    public RequestFuture<OperationResult<InputStream>> asyncCollectorsContent() {
+        return prepareContentRequest().asyncGet();
+    }
+
+    private JerseyRequest<InputStream> prepareContentRequest() {
         JerseyRequest<InputStream> request = JerseyRequest.buildRequest(sessionStorage,
                 InputStream.class,
                 new String[]{"diagnostic", "collectors", "content"},
                 new DefaultErrorHandler());
         request.setAccept("application/zip");
-        return request.get();
+        return request;
     }
 
     public OperationResult<CollectorSettingsList> delete() {
@@ -41,12 +54,22 @@ public class BatchDiagnosticCollectorsAdapter extends AbstractAdapter {
         return buildRequest().delete();
     }
 
+    public RequestFuture<OperationResult<CollectorSettingsList>> asyncDelete() {
+        return buildRequest().asyncDelete();
+    }
+
     public OperationResult<CollectorSettingsList> updateCollectorsSettings(PatchDescriptor newData) {
         return buildRequest()
                 .addHeader("X-HTTP-Method-Override", "PATCH")
                 .post(newData);
     }
 
+    public RequestFuture<OperationResult<CollectorSettingsList>> asyncUpdateCollectorsSettings(PatchDescriptor newData) {
+        return buildRequest()
+                .addHeader("X-HTTP-Method-Override", "PATCH")
+                .asyncPost(newData);
+    }
+
 
     protected JerseyRequest<CollectorSettingsList> buildRequest() {
         return JerseyRequest.buildRequest(sessionStorage,
@@ -4,6 +4,7 @@ import com.jaspersoft.jasperserver.dto.common.PatchDescriptor;
 import com.jaspersoft.jasperserver.dto.logcapture.CollectorSettings;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -34,16 +35,31 @@ public class SingleDiagnosticCollectorAdapter extends AbstractAdapter {
                 new DefaultErrorHandler()).post(collector);
     }
 
+    public RequestFuture<OperationResult<CollectorSettings>> asyncCreate() {
+        return JerseyRequest.buildRequest(sessionStorage,
+                CollectorSettings.class,
+                new String[]{"diagnostic", "collectors"},
+                new DefaultErrorHandler()).asyncPost(collector);
+    }
+
     public OperationResult<CollectorSettings> delete() {
         return buildCollectorRequest()
                 .delete();
     }
 
+    public RequestFuture<OperationResult<CollectorSettings>> asyncDelete() {
+        return buildCollectorRequest().asyncDelete();
+    }
+
 
     public OperationResult<CollectorSettings> collectorSettings() {
         return buildCollectorRequest().get();
     }
 
+    public RequestFuture<OperationResult<CollectorSettings>> asyncCollectorSettings() {
+        return buildCollectorRequest().asyncGet();
+    }
+
     /**
      * This method can be used to stop the
      * collector by setting "status" to "STOPPED" in the request.
@@ -54,19 +70,37 @@ public class SingleDiagnosticCollectorAdapter extends AbstractAdapter {
         return buildCollectorRequest().put(newData);
     }
 
+    public RequestFuture<OperationResult<CollectorSettings>> asyncUpdateCollectorSettings(CollectorSettings newData) {
+        return buildCollectorRequest().asyncPut(newData);
+    }
+
     public OperationResult<CollectorSettings> updateCollectorSettings(PatchDescriptor newData) {
         return buildCollectorRequest()
                 .addHeader("X-HTTP-Method-Override", "PATCH")
                 .post(newData);
     }
 
+    public RequestFuture<OperationResult<CollectorSettings>> asyncUpdateCollectorSettings(PatchDescriptor newData) {
+        return buildCollectorRequest()
+                .addHeader("X-HTTP-Method-Override", "PATCH")
+                .asyncPost(newData);
+    }
+
     public OperationResult<InputStream> collectorContent() {
+        return prepareContentRequest().get();
+    }
+
+    public RequestFuture<OperationResult<InputStream>> asyncCollectorContent() {
+        return prepareContentRequest().asyncGet();
+    }
+
+    private JerseyRequest<InputStream> prepareContentRequest() {
         JerseyRequest<InputStream> request = JerseyRequest.buildRequest(sessionStorage,
                 InputStream.class,
                 new String[]{"diagnostic", "collectors", collector.getId(), "content"},
                 new DefaultErrorHandler());
         request.setAccept("application/zip");
-        return request.get();
+        return request;
     }
 
     protected JerseyRequest<CollectorSettings> buildCollectorRequest() {
@@ -23,6 +23,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.domain;
 import com.jaspersoft.jasperserver.dto.domain.DomainMetaData;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -40,11 +41,19 @@ public class DomainMetadataAdapter extends AbstractAdapter {
     }
 
     public OperationResult<DomainMetaData> retrieve() {
+        return buildRequest().get();
+    }
+
+    public RequestFuture<OperationResult<DomainMetaData>> asyncRetrieve() {
+        return buildRequest().asyncGet();
+    }
+
+    private JerseyRequest<DomainMetaData> buildRequest() {
         return JerseyRequest.buildRequest(
                 sessionStorage,
                 DomainMetaData.class,
                 path.toArray(new String[path.size()]),
                 new DefaultErrorHandler()
-        ).get();
+        );
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.exportservice;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Unzips an export archive in a single pass while it is received, so the archive is neither
+ * stored in a temporary file nor read twice.
+ */
+public class ExportArchiveReader {
+
+    private final InputStream archive;
+
+    public ExportArchiveReader(InputStream archive) {
+        if (archive == null) {
+            throw new JSClientException("Response has no export archive to read");
+        }
+        this.archive = archive;
+    }
+
+    /**
+     * Passes every entry of the archive to the visitor and releases the connection.
+     *
+     * @return number of visited entries
+     */
+    public static int read(OperationResult<InputStream> result, ExportEntryVisitor visitor) {
+        try {
+            return new ExportArchiveReader(result.getEntity()).read(visitor);
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Passes every entry of the archive to the visitor and closes the archive stream. An exception of the
+     * visitor stops the reading, it is rethrown with the name of the entry and its own message.
+     *
+     * @return number of visited entries
+     */
+    public int read(ExportEntryVisitor visitor) {
+        ZipInputStream zip = new ZipInputStream(archive);
+        int count = 0;
+        try {
+            InputStream content = new FilterInputStream(zip) {
+                @Override
+                public void close() {
+                    // the entry is closed by the reader
+                }
+            };
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                try {
+                    visitor.visit(entry, content);
+                } catch (IOException e) {
+                    throw new JSClientException("Unable to process entry " + entry.getName() + ": " + e.getMessage(), e);
+                }
+                zip.closeEntry();
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new JSClientException("Unable to read export archive", e);
+        } finally {
+            try {
+                zip.close();
+            } catch (IOException ignored) {
+                // the archive is read already
+            }
+        }
+    }
+
+    /**
+     * Unpacks the archive into the directory, existing files are overwritten. Entries which would be
+     * written outside of the directory are rejected.
+     *
+     * @return number of written files
+     */
+    public int extractTo(File directory) {
+        final File root;
+        try {
+            root = directory.getCanonicalFile();
+        } catch (IOException e) {
+            throw new JSClientException("Unable to resolve directory " + directory, e);
+        }
+        if (!root.isDirectory() && !root.mkdirs()) {
+            throw new JSClientException("Unable to create directory " + directory);
+        }
+        final int[] files = new int[1];
+        read(new ExportEntryVisitor() {
+            @Override
+            public void visit(ZipEntry entry, InputStream content) throws IOException {
+                File target = new File(root, entry.getName()).getCanonicalFile();
+                if (!target.getPath().startsWith(root.getPath() + File.separator)) {
+                    throw new JSClientException("Entry is outside of the target directory: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    target.mkdirs();
+                    return;
+                }
+                File parent = target.getParentFile();
+                if (!parent.isDirectory() && !parent.mkdirs()) {
+                    throw new IOException("Unable to create directory " + parent);
+                }
+                FileTransferUtil.transfer(content, target);
+                files[0]++;
+            }
+        });
+        return files[0];
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.exportservice;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Receives entries of an export archive while it is downloaded. Entries of the catalog are grouped
+ * by the first segment of the name: <code>resources/</code>, <code>users/</code>, <code>roles/</code>,
+ * <code>jobs/</code> and so on, <code>index.xml</code> lists the exported items.
+ */
+public interface ExportEntryVisitor {
+
+    /**
+     * @param entry   zip entry, its size is usually unknown until the content is read
+     * @param content uncompressed content of the entry, it ends with the entry and must be read before
+     *                the method returns. Closing it has no effect, entries which are not read are skipped.
+     */
+    void visit(ZipEntry entry, InputStream content) throws IOException;
+}
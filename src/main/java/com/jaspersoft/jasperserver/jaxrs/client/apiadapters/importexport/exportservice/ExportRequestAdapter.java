@@ -23,14 +23,20 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.export
 import com.jaspersoft.jasperserver.dto.importexport.State;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.PollScheduler;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RangeDownloader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ExportFailedException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
 import java.io.InputStream;
 import java.util.Arrays;
+import javax.ws.rs.core.MultivaluedMap;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildRequest;
 
@@ -41,12 +47,23 @@ public class ExportRequestAdapter extends AbstractAdapter {
 
     private static final String STATE_URI = "state";
     private final String taskId;
+    private boolean streaming;
 
     public ExportRequestAdapter(SessionStorage sessionStorage, String taskId) {
         super(sessionStorage);
         this.taskId = taskId;
     }
 
+    /**
+     * @param streaming whether the archive returned by <code>fetch()</code> and <code>asyncFetch</code> methods
+     *                  is read directly from the connection instead of being buffered in memory. A streamed
+     *                  result must be closed, or its stream read to the end and closed, to release the connection.
+     */
+    public ExportRequestAdapter streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     public OperationResult<State> state() {
         return buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI, taskId, STATE_URI}).get();
     }
@@ -59,56 +76,165 @@ public class ExportRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
-    public OperationResult<InputStream> fetch() {
-        State state;
-        while (!"finished".equals((state = state().getEntity()).getPhase())) {
-            if ("failed".equals(state.getPhase())) {
-                if (state.getError() != null) {
-                    throw new ExportFailedException(state.getError().getMessage(), Arrays.asList(state.getError()));
-                } else {
-                    throw new ExportFailedException(state.getMessage());
+    public RequestFuture<OperationResult<State>> asyncState() {
+        return buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI, taskId, STATE_URI}).asyncGet();
+    }
+
+    /**
+     * Waits for the export to finish without blocking any thread, the state is checked by
+     * the poll scheduler of the client.
+     *
+     * @return future completed with the final state or failed with {@link ExportFailedException}
+     */
+    public RequestFuture<State> awaitCompletion() {
+        return PollScheduler.of(sessionStorage).poll(new PollScheduler.Poll<State>() {
+            @Override
+            public State check() {
+                State state = state().getEntity();
+                if ("finished".equals(state.getPhase())) {
+                    return state;
+                }
+                if ("failed".equals(state.getPhase())) {
+                    if (state.getError() != null) {
+                        throw new ExportFailedException(state.getError().getMessage(), Arrays.asList(state.getError()));
+                    } else {
+                        throw new ExportFailedException(state.getMessage());
+                    }
                 }
+                return null;
             }
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException ignored) {
-                // NOP
+        });
+    }
+
+    /**
+     * Waits for the export to finish and downloads the archive, which is buffered in memory
+     * unless {@link #streaming(boolean)} is set.
+     */
+    public OperationResult<InputStream> fetch() {
+        return fetch(streaming);
+    }
+
+    private OperationResult<InputStream> fetch(boolean streaming) {
+        PollScheduler.await(awaitCompletion());
+        return buildExportFileRequest(streaming).get();
+    }
+
+    /**
+     * Waits for the export to finish and writes the archive directly to the file.
+     */
+    public File fetchTo(File target) {
+        return FileTransferUtil.writeToFile(fetch(true), target);
+    }
+
+    /**
+     * Builds a downloader of large archives, which waits for the export to finish before the first
+     * request, then requests parallel ranges and resumes broken downloads.
+     */
+    public RangeDownloader downloader() {
+        return new RangeDownloader(new Callback<MultivaluedMap<String, String>, OperationResult<InputStream>>() {
+            private volatile boolean finished;
+
+            @Override
+            public OperationResult<InputStream> execute(MultivaluedMap<String, String> headers) {
+                if (!finished) {
+                    PollScheduler.await(awaitCompletion());
+                    finished = true;
+                }
+                JerseyRequest<InputStream> request = buildExportFileRequest(true);
+                for (String name : headers.keySet()) {
+                    request.addHeader(name, headers.getFirst(name));
+                }
+                return request.get();
             }
+        }, sessionStorage);
+    }
+
+    /**
+     * Waits for the export to finish and passes entries of the archive to the visitor while it is downloaded.
+     *
+     * @return number of visited entries
+     */
+    public int fetch(ExportEntryVisitor visitor) {
+        return ExportArchiveReader.read(fetch(true), visitor);
+    }
+
+    /**
+     * Waits for the export to finish and unpacks the archive into the directory while it is downloaded.
+     *
+     * @return number of written files
+     */
+    public int fetchAndExtract(File directory) {
+        OperationResult<InputStream> result = fetch(true);
+        try {
+            return new ExportArchiveReader(result.getEntity()).extractTo(directory);
+        } finally {
+            result.close();
         }
-        JerseyRequest<InputStream> request = buildRequest(sessionStorage, InputStream.class, new String[]{SERVICE_URI, taskId, EXPORT_FILE});
-        request.setAccept("application/zip");
-        return request.get();
     }
 
     public <R> RequestExecution asyncFetch(final Callback<OperationResult<InputStream>, R> callback) {
-        final JerseyRequest<InputStream> request = buildRequest(sessionStorage, InputStream.class, new String[]{SERVICE_URI, taskId, EXPORT_FILE});
-        request.setAccept("application/zip");
-        RequestExecution task = new RequestExecution(new Runnable() {
+        final JerseyRequest<InputStream> request = buildExportFileRequest(streaming);
+        final RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                State state;
-                while (!"finished".equals((state = state().getEntity()).getPhase())) {
-                    if ("failed".equals(state.getPhase())) {
-                        if (state.getError() != null) {
-                            throw new ExportFailedException(state.getError().getMessage(), Arrays.asList(state.getError()));
-                        } else {
-                            throw new ExportFailedException(state.getMessage());
-                        }
-                    }
-                    try {
-                        Thread.sleep(500);
-                    } catch (InterruptedException ignored) {
-                        // NOP
-                    }
-                }
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        RequestFuture<State> completion = awaitCompletion();
+        task.setFuture(completion);
+        completion.onSuccess(new Callback<State, Void>() {
+            @Override
+            public Void execute(State data) {
+                ThreadPoolUtil.runAsynchronously(task, sessionStorage);
+                return null;
+            }
+        });
         return task;
     }
+
+    public RequestFuture<OperationResult<InputStream>> asyncFetch() {
+        return asyncFetch(streaming);
+    }
+
+    private RequestFuture<OperationResult<InputStream>> asyncFetch(final boolean streaming) {
+        return awaitCompletion().thenCompose(new Callback<State, RequestFuture<OperationResult<InputStream>>>() {
+            @Override
+            public RequestFuture<OperationResult<InputStream>> execute(State data) {
+                return buildExportFileRequest(streaming).asyncGet();
+            }
+        });
+    }
+
+    /**
+     * The archive is read by the thread which completes the download, the visitor should not wait
+     * for other requests of the client.
+     *
+     * @return future completed with the number of visited entries
+     */
+    public RequestFuture<Integer> asyncFetch(final ExportEntryVisitor visitor) {
+        return asyncFetch(true).then(new Callback<OperationResult<InputStream>, Integer>() {
+            @Override
+            public Integer execute(OperationResult<InputStream> data) {
+                return ExportArchiveReader.read(data, visitor);
+            }
+        });
+    }
+
+    protected JerseyRequest<InputStream> buildExportFileRequest() {
+        JerseyRequest<InputStream> request = buildRequest(sessionStorage, InputStream.class, new String[]{SERVICE_URI, taskId, EXPORT_FILE});
+        request.setAccept("application/zip");
+        return request;
+    }
+
+    private JerseyRequest<InputStream> buildExportFileRequest(boolean streaming) {
+        JerseyRequest<InputStream> request = buildExportFileRequest();
+        if (streaming) {
+            request.setStreaming(true);
+        }
+        return request;
+    }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.export
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.dto.importexport.ExportTask;
@@ -132,7 +133,14 @@ public class ExportTaskAdapter extends AbstractAdapter {
                 callback.execute(request.post(localCopy));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<State>> asyncCreate() {
+        // Guarantee that exportTask won't be modified from another thread
+        ExportTask localCopy = new ExportTask(exportTask);
+        return buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI},
+                new DefaultErrorHandler()).asyncPost(localCopy);
+    }
 }
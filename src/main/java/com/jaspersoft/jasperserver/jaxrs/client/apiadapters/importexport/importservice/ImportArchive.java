@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.importservice;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Import archive which is zipped while it is uploaded. Entries are compressed by a separate thread into
+ * a pipe, the request reads the other end of the pipe, so the upload starts immediately and memory usage
+ * does not depend on the archive size. The thread is started by the first read of the stream returned
+ * by {@link #open()} and stops when the archive is written or the stream is closed.
+ */
+public class ImportArchive {
+
+    public static final int DEFAULT_PIPE_SIZE = 64 * 1024;
+
+    private final Map<String, Object> entries = new LinkedHashMap<String, Object>();
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int pipeSize = DEFAULT_PIPE_SIZE;
+
+    /**
+     * Adds files of the directory and its subdirectories, entry names are relative to the directory,
+     * so an unpacked export catalog is imported as is.
+     */
+    public ImportArchive addDirectory(File directory) {
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        addChildren(directory, "");
+        return this;
+    }
+
+    public ImportArchive addFile(String entryName, File file) {
+        entries.put(entryName, file);
+        return this;
+    }
+
+    /**
+     * Adds an entry read from the stream, the stream is closed after the entry is written.
+     */
+    public ImportArchive addEntry(String entryName, InputStream content) {
+        entries.put(entryName, content);
+        return this;
+    }
+
+    /**
+     * @param compressionLevel level from <code>0</code> to <code>9</code>, lower levels reduce CPU usage
+     *                         when the network is faster than compression
+     */
+    public ImportArchive compressionLevel(int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION
+                && (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Illegal compression level: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    public ImportArchive pipeSize(int pipeSize) {
+        if (pipeSize < 1) {
+            throw new IllegalArgumentException("Pipe size should be positive");
+        }
+        this.pipeSize = pipeSize;
+        return this;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return stream of the zipped archive, it can be read once. A failure to read an entry is rethrown
+     * by the stream as {@link IOException} instead of the end of the archive.
+     */
+    public InputStream open() {
+        return new ArchiveInputStream(new LinkedHashMap<String, Object>(entries));
+    }
+
+    private void addChildren(File directory, String prefix) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            throw new IllegalArgumentException("Cannot list directory " + directory);
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                addChildren(child, prefix + child.getName() + "/");
+            } else {
+                entries.put(prefix + child.getName(), child);
+            }
+        }
+    }
+
+    private void writeEntries(Map<String, Object> content, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 8192));
+        zip.setLevel(compressionLevel);
+        byte[] buffer = new byte[8192];
+        for (Map.Entry<String, Object> entry : content.entrySet()) {
+            InputStream in = entry.getValue() instanceof File
+                    ? new FileInputStream((File) entry.getValue())
+                    : (InputStream) entry.getValue();
+            try {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+                zip.closeEntry();
+            } finally {
+                in.close();
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private class ArchiveInputStream extends InputStream {
+
+        private final Map<String, Object> content;
+        private PipedInputStream pipe;
+        private volatile Throwable failure;
+        private boolean closed;
+
+        private ArchiveInputStream(Map<String, Object> content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = pipe().read();
+            return read < 0 ? end() : read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = pipe().read(b, off, len);
+            return read < 0 ? end() : read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return pipe != null ? pipe.available() : 0;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            closed = true;
+            if (pipe != null) {
+                pipe.close();
+            }
+        }
+
+        private synchronized PipedInputStream pipe() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (pipe == null) {
+                pipe = new PipedInputStream(pipeSize);
+                final PipedOutputStream out = new PipedOutputStream(pipe);
+                Thread writer = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            writeEntries(content, out);
+                        } catch (Throwable e) {
+                            failure = e;
+                        } finally {
+                            try {
+                                out.close();
+                            } catch (IOException ignored) {
+                                // the reader has closed the pipe
+                            }
+                        }
+                    }
+                }, "import-archive-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+            return pipe;
+        }
+
+        private int end() throws IOException {
+            if (failure != null) {
+                throw new IOException("Cannot build import archive: " + failure.getMessage(), failure);
+            }
+            return -1;
+        }
+    }
+}
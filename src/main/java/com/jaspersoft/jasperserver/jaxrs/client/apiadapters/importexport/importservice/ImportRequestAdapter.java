@@ -26,9 +26,12 @@ import com.jaspersoft.jasperserver.dto.importexport.State;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.PollScheduler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import java.util.LinkedList;
@@ -76,11 +79,38 @@ public class ImportRequestAdapter extends AbstractAdapter {
                 .get();
     }
 
+    /**
+     * Waits for the import to finish without blocking any thread, the state is checked by
+     * the poll scheduler of the client.
+     *
+     * @return future completed with the final state or failed with {@link JSClientException}
+     * if the import failed
+     */
+    public RequestFuture<State> awaitCompletion() {
+        return PollScheduler.of(sessionStorage).poll(new PollScheduler.Poll<State>() {
+            @Override
+            public State check() {
+                State state = state().getEntity();
+                if ("finished".equals(state.getPhase())) {
+                    return state;
+                }
+                if ("failed".equals(state.getPhase())) {
+                    throw new JSClientException(state.getError() != null ? state.getError().getMessage() : state.getMessage());
+                }
+                return null;
+            }
+        });
+    }
+
     public OperationResult<ImportTask> getTask() {
         return buildTaskRequest()
                 .get();
     }
 
+    public RequestFuture<OperationResult<ImportTask>> asyncGetTask() {
+        return buildTaskRequest().asyncGet();
+    }
+
     protected JerseyRequest<ImportTask> buildTaskRequest() {
         return buildRequest(sessionStorage, ImportTask.class,
                 new String[]{IMPORT_URI, taskId}, new DefaultErrorHandler());
@@ -91,11 +121,19 @@ public class ImportRequestAdapter extends AbstractAdapter {
                 .put(task);
     }
 
+    public RequestFuture<OperationResult<ImportTask>> asyncRestartTask(ImportTask task) {
+        return buildTaskRequest().asyncPut(task);
+    }
+
     public OperationResult<ImportTask> cancelTask() {
         return buildTaskRequest()
                 .delete();
     }
 
+    public RequestFuture<OperationResult<ImportTask>> asyncCancelTask() {
+        return buildTaskRequest().asyncDelete();
+    }
+
     public <R> RequestExecution asyncState(final Callback<OperationResult<State>, R> callback) {
         final JerseyRequest<State> request = buildRequest(sessionStorage, State.class, new String[]{IMPORT_URI, taskId, STATE_URI});
         RequestExecution task = new RequestExecution(new Runnable() {
@@ -104,7 +142,13 @@ public class ImportRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<State>> asyncState() {
+        return buildRequest(sessionStorage, State.class,
+                new String[]{IMPORT_URI, taskId, STATE_URI}, new DefaultErrorHandler())
+                .asyncGet();
+    }
 }
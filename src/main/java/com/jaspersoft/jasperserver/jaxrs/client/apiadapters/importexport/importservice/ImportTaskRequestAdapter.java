@@ -24,9 +24,13 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.import
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ProgressInputStream;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.TransferListener;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.dto.importexport.State;
@@ -34,6 +38,8 @@ import com.jaspersoft.jasperserver.dto.importexport.State;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildRequest;
@@ -41,7 +47,10 @@ import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildR
 public class ImportTaskRequestAdapter extends AbstractAdapter {
 
     public static final String SERVICE_URI = "import";
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
     private final MultivaluedMap<String, String> params;
+    private int chunkSize;
+    private TransferListener progressListener;
 
     public ImportTaskRequestAdapter(SessionStorage sessionStorage) {
         super(sessionStorage);
@@ -63,6 +72,30 @@ public class ImportTaskRequestAdapter extends AbstractAdapter {
         return this;
     }
 
+    /**
+     * Sends the archive with chunked transfer encoding, it is read from the file or the stream
+     * while it is uploaded instead of being buffered in memory first.
+     */
+    public ImportTaskRequestAdapter streaming() {
+        return streaming(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ImportTaskRequestAdapter streaming(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param listener receives the number of archive bytes sent, the total is known for files only
+     */
+    public ImportTaskRequestAdapter progress(TransferListener listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
      public OperationResult<State> create(File zipArchive) {
         return createImport(zipArchive);
      }
@@ -79,23 +112,79 @@ public class ImportTaskRequestAdapter extends AbstractAdapter {
         return asyncCreateImport(zipArchive, callback);
     }
 
+    public RequestFuture<OperationResult<State>> asyncCreate(File zipArchive) {
+        return asyncCreateImport(zipArchive);
+    }
+
+    public RequestFuture<OperationResult<State>> asyncCreate(InputStream zipArchive) {
+        return asyncCreateImport(zipArchive);
+    }
+
+    /**
+     * Uploads the archive while it is zipped, the request is always streaming.
+     */
+    public OperationResult<State> create(ImportArchive archive) {
+        return streamingIfNotSet().createImport(archive.open());
+    }
+
+    public <R> RequestExecution asyncCreate(ImportArchive archive, Callback<OperationResult<State>, R> callback) {
+        return streamingIfNotSet().asyncCreateImport(archive.open(), callback);
+    }
+
+    public RequestFuture<OperationResult<State>> asyncCreate(ImportArchive archive) {
+        return streamingIfNotSet().asyncCreateImport(archive.open());
+    }
+
     private OperationResult<State> createImport(Object zipArchive) {
         JerseyRequest<State> request = buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI}, new DefaultErrorHandler());
         request.setContentType("application/zip").addParams(params);
-        return request.post(zipArchive);
+        return prepareStreaming(request).post(prepareEntity(zipArchive));
+    }
+
+    private RequestFuture<OperationResult<State>> asyncCreateImport(Object zipArchive) {
+        JerseyRequest<State> request = buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI}, new DefaultErrorHandler());
+        request.setContentType("application/zip").addParams(params);
+        return prepareStreaming(request).asyncPost(prepareEntity(zipArchive));
     }
 
     private <R> RequestExecution asyncCreateImport(final Object zipArchive, final Callback<OperationResult<State>, R> callback) {
         final JerseyRequest<State> request = buildRequest(sessionStorage, State.class, new String[]{SERVICE_URI});
         request.setContentType("application/zip").addParams(params);
+        prepareStreaming(request);
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.post(zipArchive));
+                callback.execute(request.post(prepareEntity(zipArchive)));
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    private ImportTaskRequestAdapter streamingIfNotSet() {
+        return chunkSize > 0 ? this : streaming();
+    }
+
+    private JerseyRequest<State> prepareStreaming(JerseyRequest<State> request) {
+        if (chunkSize > 0) {
+            request.setChunkedEncoding(chunkSize);
+        }
+        return request;
+    }
+
+    private Object prepareEntity(Object zipArchive) {
+        if (progressListener == null) {
+            return zipArchive;
+        }
+        if (zipArchive instanceof File) {
+            File file = (File) zipArchive;
+            try {
+                return new ProgressInputStream(new FileInputStream(file), file.length(), progressListener);
+            } catch (FileNotFoundException e) {
+                throw new JSClientException("Cannot read import archive " + file, e);
+            }
+        }
+        return new ProgressInputStream((InputStream) zipArchive, -1, progressListener);
+    }
 }
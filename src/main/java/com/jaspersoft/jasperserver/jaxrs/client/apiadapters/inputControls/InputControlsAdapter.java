@@ -4,6 +4,7 @@ import com.jaspersoft.jasperserver.dto.reports.inputcontrols.ReportInputControl;
 import com.jaspersoft.jasperserver.dto.reports.inputcontrols.ReportInputControlsListWrapper;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.MandatoryParameterNotFoundException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -48,11 +49,20 @@ public class InputControlsAdapter extends AbstractAdapter{
         return buildRequest().get();
     }
 
+    public RequestFuture<OperationResult<ReportInputControlsListWrapper>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     public OperationResult<ReportInputControlsListWrapper> reorder(List<ReportInputControl> inputControls){
         ReportInputControlsListWrapper wrapper = new ReportInputControlsListWrapper(inputControls);
         return buildRequest().put(wrapper);
     }
 
+    public RequestFuture<OperationResult<ReportInputControlsListWrapper>> asyncReorder(List<ReportInputControl> inputControls) {
+        ReportInputControlsListWrapper wrapper = new ReportInputControlsListWrapper(inputControls);
+        return buildRequest().asyncPut(wrapper);
+    }
+
     private JerseyRequest<ReportInputControlsListWrapper> buildRequest(){
         path.add(REPORTS_URI);
         path.addAll(Arrays.asList(containerUri.split("/")));
@@ -2,6 +2,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.inputControls;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.MandatoryParameterNotFoundException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -61,6 +62,16 @@ public class InputControlsValuesAdapter extends AbstractAdapter{
     }
 
     public OperationResult<InputControlStateListWrapper> run() {
+        prepareRun();
+        return buildRequest().post(valuesToArrays());
+    }
+
+    public RequestFuture<OperationResult<InputControlStateListWrapper>> asyncRun() {
+        prepareRun();
+        return buildRequest().asyncPost(valuesToArrays());
+    }
+
+    private void prepareRun() {
         if (inputControlsValues.size() == 0) {
             throw new MandatoryParameterNotFoundException();
         }
@@ -69,13 +80,16 @@ public class InputControlsValuesAdapter extends AbstractAdapter{
             String[] idsArray = keySet.toArray(new String[keySet.size()]);
             ids.append(StringUtils.join(idsArray, ";"));
         }
-        return buildRequest().post(valuesToArrays());
     }
 
     public OperationResult<InputControlStateListWrapper> get(){
         return buildRequest().get();
     }
 
+    public RequestFuture<OperationResult<InputControlStateListWrapper>> asyncGet() {
+        return buildRequest().asyncGet();
+    }
+
     private JerseyRequest<InputControlStateListWrapper> buildRequest(){
         path.add(REPORTS_URI);
         path.addAll(Arrays.asList(containerUri.split("/")));
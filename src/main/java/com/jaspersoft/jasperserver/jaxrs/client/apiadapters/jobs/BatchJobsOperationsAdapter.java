@@ -23,20 +23,25 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.jobs;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.JsonListReader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.Job;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.JobIdListWrapper;
+import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.JobSummary;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.jaxb.wrappers.JobSummaryListWrapper;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.reportjobmodel.ReportJobModel;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.xml.bind.JAXBContext;
@@ -77,24 +82,43 @@ public class BatchJobsOperationsAdapter extends AbstractAdapter {
     }
 
     public OperationResult<JobSummaryListWrapper> search(Job searchCriteria) {
-        JerseyRequest<JobSummaryListWrapper> request = prepareSearchRequest(searchCriteria);
+        JerseyRequest<JobSummaryListWrapper> request = prepareSearchRequest(JobSummaryListWrapper.class, searchCriteria);
         return request.get();
     }
 
     public <R> RequestExecution asyncSearch(final Job searchCriteria, final Callback<OperationResult<JobSummaryListWrapper>, R> callback) {
-        final JerseyRequest<JobSummaryListWrapper> request = prepareSearchRequest(searchCriteria);
+        final JerseyRequest<JobSummaryListWrapper> request = prepareSearchRequest(JobSummaryListWrapper.class, searchCriteria);
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
-    private JerseyRequest<JobSummaryListWrapper> prepareSearchRequest(Job searchCriteria) {
-        JerseyRequest<JobSummaryListWrapper> request = buildRequest(sessionStorage, JobSummaryListWrapper.class, new String[]{SERVICE_URI});
+    public RequestFuture<OperationResult<JobSummaryListWrapper>> asyncSearch() {
+        return asyncSearch(null);
+    }
+
+    public RequestFuture<OperationResult<JobSummaryListWrapper>> asyncSearch(Job searchCriteria) {
+        return prepareSearchRequest(JobSummaryListWrapper.class, searchCriteria).asyncGet();
+    }
+
+    /**
+     * Reads found jobs one by one from the response stream instead of building the whole list.
+     * The reader must be closed if it's not read to the end.
+     */
+    public JsonListReader<JobSummary> streamSearch(Job searchCriteria) {
+        JerseyRequest<InputStream> request = prepareSearchRequest(InputStream.class, searchCriteria);
+        request.setAccept(MediaType.APPLICATION_JSON);
+        request.setStreaming(true);
+        return JsonListReader.of(request.get(), JobSummary.class, "jobsummary");
+    }
+
+    private <T> JerseyRequest<T> prepareSearchRequest(Class<T> responseClass, Job searchCriteria) {
+        JerseyRequest<T> request = buildRequest(sessionStorage, responseClass, new String[]{SERVICE_URI});
         request.addParams(params);
         if (searchCriteria != null) {
             String criteriaJson = buildJson(searchCriteria);
@@ -165,10 +189,22 @@ public class BatchJobsOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.post(jobJson));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<JobIdListWrapper>> asyncUpdate(ReportJobModel jobModel) {
+        JerseyRequest<JobIdListWrapper> request = buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI});
+        request.addParams(params);
+        String content;
+        if (sessionStorage.getConfiguration().getContentMimeType() == MimeType.JSON) {
+            content = buildJson(jobModel);
+        } else {
+            content = buildXml(jobModel);
+        }
+        return request.asyncPost(content);
+    }
+
     private List<Long> getIds() {
         List<Long> ids = new ArrayList<Long>();
         List<String> idsTemp = params.get(JobsParameter.JOB_ID.getName());
@@ -195,10 +231,15 @@ public class BatchJobsOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.post(jobIdListWrapper));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<JobIdListWrapper>> asyncPause() {
+        JobIdListWrapper jobIdListWrapper = new JobIdListWrapper(getIds());
+        return buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI, PAUSE}).asyncPost(jobIdListWrapper);
+    }
+
     public OperationResult<JobIdListWrapper> resume() {
         JobIdListWrapper jobIdListWrapper = new JobIdListWrapper(getIds());
         return buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI, RESUME}).post(jobIdListWrapper);
@@ -213,10 +254,15 @@ public class BatchJobsOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.post(jobIdListWrapper));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<JobIdListWrapper>> asyncResume() {
+        JobIdListWrapper jobIdListWrapper = new JobIdListWrapper(getIds());
+        return buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI, RESUME}).asyncPost(jobIdListWrapper);
+    }
+
     public OperationResult<JobIdListWrapper> restart() {
         JobIdListWrapper jobIdListWrapper = new JobIdListWrapper(getIds());
         return buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI, RESTART}).post(jobIdListWrapper);
@@ -231,7 +277,12 @@ public class BatchJobsOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.post(jobIdListWrapper));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<JobIdListWrapper>> asyncRestart() {
+        JobIdListWrapper jobIdListWrapper = new JobIdListWrapper(getIds());
+        return buildRequest(sessionStorage, JobIdListWrapper.class, new String[]{SERVICE_URI, RESTART}).asyncPost(jobIdListWrapper);
+    }
 }
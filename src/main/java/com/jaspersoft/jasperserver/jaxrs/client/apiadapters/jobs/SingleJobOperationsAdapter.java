@@ -23,6 +23,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.jobs;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.JRSVersion;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.Job;
@@ -42,7 +43,7 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
 
     public OperationResult<Job> get() {
         JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId});
-        if (sessionStorage.getConfiguration().getJrsVersion().compareTo(JRSVersion.v5_5_0) > 0) {
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
             request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
         } else {
             request.setAccept("application/job+json");
@@ -52,7 +53,7 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
 
     public <R> RequestExecution asyncGet(final Callback<OperationResult<Job>, R> callback) {
         final JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId});
-        if (sessionStorage.getConfiguration().getJrsVersion().compareTo(JRSVersion.v5_5_0) > 0) {
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
             request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
         } else {
             request.setAccept("application/job+json");
@@ -63,10 +64,20 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Job>> asyncGet() {
+        JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId});
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
+            request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
+        } else {
+            request.setAccept("application/job+json");
+        }
+        return request.asyncGet();
+    }
+
     public OperationResult<JobState> state() {
         return buildRequest(sessionStorage, JobState.class, new String[]{SERVICE_URI, jobId, STATE}).get();
     }
@@ -79,13 +90,17 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<JobState>> asyncState() {
+        return buildRequest(sessionStorage, JobState.class, new String[]{SERVICE_URI, jobId, STATE}).asyncGet();
+    }
+
     public OperationResult<Job> update(Job job) {
         JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId}, new JobValidationErrorHandler());
-        if (sessionStorage.getConfiguration().getJrsVersion().compareTo(JRSVersion.v5_5_0) > 0) {
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
             request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
             request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
         } else {
@@ -97,7 +112,7 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
 
     public <R> RequestExecution asyncUpdate(final Job job, final Callback<OperationResult<Job>, R> callback) {
         final JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId}, new JobValidationErrorHandler());
-        if (sessionStorage.getConfiguration().getJrsVersion().compareTo(JRSVersion.v5_5_0) > 0) {
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
             request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
             request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
         } else {
@@ -110,10 +125,22 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.post(job));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Job>> asyncUpdate(Job job) {
+        JerseyRequest<Job> request = buildRequest(sessionStorage, Job.class, new String[]{SERVICE_URI, jobId}, new JobValidationErrorHandler());
+        if (ServerCapabilities.jrsVersionOf(sessionStorage).compareTo(JRSVersion.v5_5_0) > 0) {
+            request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
+            request.setAccept(MimeTypeUtil.toCorrectAcceptMime(sessionStorage.getConfiguration(), "application/job+{mime}"));
+        } else {
+            request.setContentType("application/job+json");
+            request.setAccept("application/job+json");
+        }
+        return request.asyncPost(job);
+    }
+
     public OperationResult delete() {
         return buildRequest(sessionStorage, Object.class, new String[]{SERVICE_URI, jobId}).delete();
     }
@@ -126,7 +153,11 @@ public class SingleJobOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<Object>> asyncDelete() {
+        return buildRequest(sessionStorage, Object.class, new String[]{SERVICE_URI, jobId}).asyncDelete();
+    }
 }
@@ -22,6 +22,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.jobs.calendar;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.WithEntityOperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.jobs.ReportJobCalendar;
@@ -133,10 +134,20 @@ public class SingleCalendarOperationsAdapter extends AbstractAdapter {
                 callback.execute(convertToLocalCalendarType(request.get()));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Calendar>> asyncGet() {
+        return buildRequest(sessionStorage, ReportJobCalendar.class, new String[]{JOBS, CALENDARS, calendarName}).asyncGet()
+                .then(new Callback<OperationResult<ReportJobCalendar>, OperationResult<Calendar>>() {
+                    @Override
+                    public OperationResult<Calendar> execute(OperationResult<ReportJobCalendar> data) {
+                        return convertToLocalCalendarType(data);
+                    }
+                });
+    }
+
     public OperationResult delete() {
         return buildRequest(sessionStorage, Object.class, new String[]{JOBS, CALENDARS, calendarName}).delete();
     }
@@ -149,10 +160,14 @@ public class SingleCalendarOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Object>> asyncDelete() {
+        return buildRequest(sessionStorage, Object.class, new String[]{JOBS, CALENDARS, calendarName}).asyncDelete();
+    }
+
     public OperationResult<ReportJobCalendar> createNew(Calendar calendarDescriptor) {
         JerseyRequest<ReportJobCalendar> request = buildRequest(sessionStorage, ReportJobCalendar.class, new String[]{JOBS, CALENDARS, calendarName});
         request.addParams(params);
@@ -168,7 +183,13 @@ public class SingleCalendarOperationsAdapter extends AbstractAdapter {
                 callback.execute(request.put(calendarDescriptor));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<ReportJobCalendar>> asyncCreateNew(Calendar calendarDescriptor) {
+        JerseyRequest<ReportJobCalendar> request = buildRequest(sessionStorage, ReportJobCalendar.class, new String[]{JOBS, CALENDARS, calendarName});
+        request.addParams(params);
+        return request.asyncPut(calendarDescriptor);
+    }
 }
@@ -26,6 +26,7 @@ import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.MimeTypeUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -70,10 +71,16 @@ public class PermissionResourceRequestAdapter extends AbstractAdapter {
                 callback.execute(request.put(permissions));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<RepositoryPermissionListWrapper>> asyncCreateOrUpdate(RepositoryPermissionListWrapper permissions) {
+        JerseyRequest<RepositoryPermissionListWrapper> request = buildReauest();
+        request.setContentType(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), "application/collection+{mime}"));
+        return request.asyncPut(permissions);
+    }
+
 
 
     public PermissionResourceRequestAdapter param(PermissionResourceParameter resourceParam, String value) {
@@ -96,10 +103,16 @@ public class PermissionResourceRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<RepositoryPermissionListWrapper>> asyncGet() {
+        JerseyRequest<RepositoryPermissionListWrapper> request = buildReauest();
+        request.addParams(params);
+        return request.asyncGet();
+    }
+
     public OperationResult delete(){
         return buildReauest().delete();
     }
@@ -112,10 +125,14 @@ public class PermissionResourceRequestAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<RepositoryPermissionListWrapper>> asyncDelete() {
+        return buildReauest().asyncDelete();
+    }
+
     protected JerseyRequest<RepositoryPermissionListWrapper> buildReauest() {
         path.add(PERMISSIONS_URI);
         path.addAll(Arrays.asList(resourceUri.split("/")));
@@ -56,7 +56,7 @@ public class PermissionsService extends AbstractAdapter {
                 callback.execute(request.post(permission));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
@@ -75,7 +75,7 @@ public class PermissionsService extends AbstractAdapter {
                 callback.execute(request.post(permissions));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 }
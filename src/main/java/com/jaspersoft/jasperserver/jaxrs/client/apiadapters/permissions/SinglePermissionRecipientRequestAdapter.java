@@ -23,6 +23,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.permissions;
 import com.jaspersoft.jasperserver.dto.permissions.RepositoryPermission;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import java.util.ArrayList;
 
@@ -53,10 +54,14 @@ public class SinglePermissionRecipientRequestAdapter extends AbstractAdapter {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<RepositoryPermission>> asyncGet() {
+        return getBuilder(RepositoryPermission.class).asyncGet();
+    }
+
     public OperationResult<RepositoryPermission> createOrUpdate(RepositoryPermission permission) {
         return getBuilder(RepositoryPermission.class).put(permission);
     }
@@ -69,10 +74,14 @@ public class SinglePermissionRecipientRequestAdapter extends AbstractAdapter {
                 callback.execute(request.put(permission));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<RepositoryPermission>> asyncCreateOrUpdate(RepositoryPermission permission) {
+        return getBuilder(RepositoryPermission.class).asyncPut(permission);
+    }
+
     public OperationResult delete() {
         return getBuilder(Object.class).delete();
     }
@@ -85,10 +94,14 @@ public class SinglePermissionRecipientRequestAdapter extends AbstractAdapter {
                 callback.execute(request.delete());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Object>> asyncDelete() {
+        return getBuilder(Object.class).asyncDelete();
+    }
+
     private <T> JerseyRequest<T> getBuilder(Class<T> responseClass) {
 
         JerseyRequest<T> request = buildRequest(sessionStorage, responseClass, path.toArray(new String[path.size()]));
@@ -23,6 +23,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.query;
 import com.jaspersoft.jasperserver.dto.query.QueryResult;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -43,6 +44,14 @@ public class QueryExecutorAdapter extends AbstractAdapter {
     }
 
     public OperationResult<QueryResult> execute() {
+        return prepareRequest().post(query);
+    }
+
+    public RequestFuture<OperationResult<QueryResult>> asyncExecute() {
+        return prepareRequest().asyncPost(query);
+    }
+
+    private JerseyRequest<QueryResult> prepareRequest() {
         path.add(QUERY_EXECUTOR_URI);
         path.addAll(Arrays.asList(resourceUri.split("/")));
         JerseyRequest<QueryResult> req = JerseyRequest.buildRequest(
@@ -53,7 +62,7 @@ public class QueryExecutorAdapter extends AbstractAdapter {
         );
 
         req.setContentType("application/xml");
-        return req.post(query);
+        return req;
     }
 
     public String getResourceUri() {
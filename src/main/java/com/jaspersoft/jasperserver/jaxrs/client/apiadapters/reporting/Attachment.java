@@ -1,10 +1,20 @@
 package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
 public class Attachment {
 
     private String name;
     private String mimeType;
     private byte[] content;
+    private File file;
 
     public String getName() {
         return name;
@@ -22,11 +32,67 @@ public class Attachment {
         this.mimeType = mimeType;
     }
 
+    /**
+     * @return content of the attachment. If it was stored in a temporary file it is read into memory,
+     * use {@link #getContentStream()} to avoid it.
+     */
     public byte[] getContent() {
+        if (content == null && file != null) {
+            byte[] fileContent = new byte[(int) file.length()];
+            DataInputStream stream = new DataInputStream(getContentStream());
+            try {
+                stream.readFully(fileContent);
+                return fileContent;
+            } catch (IOException e) {
+                throw new JSClientException("Error while reading attachment content", e);
+            } finally {
+                closeQuietly(stream);
+            }
+        }
         return content;
     }
 
     public void setContent(byte[] content) {
         this.content = content;
     }
+
+    /**
+     * @return temporary file with content of a large attachment or <code>null</code> if the content is kept in memory
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    public InputStream getContentStream() {
+        if (file != null) {
+            try {
+                return new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                throw new JSClientException("Attachment file was removed: " + file, e);
+            }
+        }
+        return content != null ? new ByteArrayInputStream(content) : null;
+    }
+
+    /**
+     * Deletes the temporary file with the content, the attachment cannot be read afterwards.
+     */
+    public void release() {
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // NOP
+        }
+    }
 }
@@ -23,19 +23,32 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.PollScheduler;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ReportOutputCache;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RestClientConfiguration;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ReportExportException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.AttachmentDescriptor;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ExportDescriptor;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionStatusEntity;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildRequest;
 
@@ -46,8 +59,13 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
     public static final String OUTPUT_RESOURCE = "outputResource";
     public static final String ATTACHMENTS = "attachments";
     public static final String STATUS = "status";
+    private static final int BUFFER_SIZE = 8192;
+
     private String requestId;
     private String exportId;
+    private int attachmentsParallelism = 4;
+    private long spillThreshold = 1024 * 1024;
+    private boolean streaming;
 
     public ExportExecutionRequestBuilder(SessionStorage sessionStorage, String requestId, String exportId) {
         super(sessionStorage);
@@ -55,24 +73,92 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
         this.exportId = exportId;
     }
 
+    /**
+     * @param parallelism maximum number of attachments of HTML report downloaded at the same time
+     */
+    public ExportExecutionRequestBuilder attachmentsParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        this.attachmentsParallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param threshold size in bytes above which content of HTML report attachment is stored
+     *                  in a temporary file instead of memory
+     */
+    public ExportExecutionRequestBuilder spillThreshold(long threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Spill threshold should not be negative");
+        }
+        this.spillThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * @param streaming whether output and attachments returned by <code>outputResource</code> and
+     *                  <code>attachment</code> methods are read directly from the connection instead of being
+     *                  buffered in memory. A streamed result must be closed, or its stream read to the end and
+     *                  closed, to release the connection.
+     */
+    public ExportExecutionRequestBuilder streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     /**
      * <code>OperationResult</code> should be parametrized with <code>String</code> if you're exporting HTML,
      * in other cases it should be parametrized with <code>InputStream</code>
      */
-    private OperationResult outputResource(boolean isHtmlExport) {
-        return buildRequest(sessionStorage, isHtmlExport ? String.class : InputStream.class,
-                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, OUTPUT_RESOURCE})
-                .get();
+    private OperationResult outputResource(boolean isHtmlExport, boolean streaming) {
+        JerseyRequest<?> request = buildRequest(sessionStorage, isHtmlExport ? String.class : InputStream.class,
+                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, OUTPUT_RESOURCE});
+        if (streaming) {
+            request.setStreaming(true);
+        }
+        return request.get();
     }
 
+    /**
+     * Downloads the export output. If report output cache is configured, the output of the export
+     * is downloaded only once. The output is buffered in memory unless {@link #streaming(boolean)} is set.
+     */
     public OperationResult<InputStream> outputResource() {
-        return outputResource(false);
+        return cachedOutputResource(streaming);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OperationResult<InputStream> cachedOutputResource(boolean streaming) {
+        RestClientConfiguration configuration = sessionStorage.getConfiguration();
+        ReportOutputCache cache = configuration != null ? configuration.getReportOutputCache() : null;
+        if (cache == null) {
+            return outputResource(false, streaming);
+        }
+        String exportUri = REPORT_EXECUTIONS + "/" + requestId + "/" + EXPORTS + "/" + exportId;
+        String user = sessionStorage.getCredentials() != null ? sessionStorage.getCredentials().getUsername() : null;
+        String key = ReportOutputCache.keyOf(user, exportUri, null, null, null, null, null);
+        OperationResult<InputStream> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return cache.put(key, exportUri, outputResource(false, streaming));
+    }
+
+    /**
+     * Writes the export output directly to the file.
+     */
+    public File outputResourceTo(File target) {
+        return FileTransferUtil.writeToFile(cachedOutputResource(true), target);
     }
 
     public <R> RequestExecution asyncOutputResource(final Callback<OperationResult<InputStream>, R> callback) {
         final JerseyRequest<InputStream> request =
                 buildRequest(sessionStorage, InputStream.class,
                         new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, OUTPUT_RESOURCE});
+        if (streaming) {
+            request.setStreaming(true);
+        }
 
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
@@ -81,25 +167,84 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<InputStream>> asyncOutputResource() {
+        JerseyRequest<InputStream> request = buildRequest(sessionStorage, InputStream.class,
+                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, OUTPUT_RESOURCE});
+        if (streaming) {
+            request.setStreaming(true);
+        }
+        return request.asyncGet();
+    }
+
+    /**
+     * Downloads the attachment once the export is ready. The content is buffered in memory
+     * unless {@link #streaming(boolean)} is set.
+     */
     public OperationResult<InputStream> attachment(String attachmentId) {
+        return attachment(attachmentId, streaming);
+    }
+
+    private OperationResult<InputStream> attachment(String attachmentId, boolean streaming) {
 
         if ("".equals(attachmentId) || "/".equals(attachmentId))
             throw new IllegalArgumentException("'attachmentId' mustn't be an empty string");
 
-        while (!"ready".equals(status().getEntity().getValue())) {
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException ignored) {
+        PollScheduler.await(awaitCompletion());
+        return buildAttachmentRequest(attachmentId, streaming).get();
+    }
+
+    public RequestFuture<OperationResult<InputStream>> asyncAttachment(final String attachmentId) {
+
+        if ("".equals(attachmentId) || "/".equals(attachmentId))
+            throw new IllegalArgumentException("'attachmentId' mustn't be an empty string");
+
+        return awaitCompletion().thenCompose(new Callback<ReportExecutionStatusEntity, RequestFuture<OperationResult<InputStream>>>() {
+            @Override
+            public RequestFuture<OperationResult<InputStream>> execute(ReportExecutionStatusEntity data) {
+                return buildAttachmentRequest(attachmentId, streaming).asyncGet();
+            }
+        });
+    }
+
+    /**
+     * Waits for the export to become ready without blocking any thread, the status is checked by
+     * the poll scheduler of the client.
+     *
+     * @return future completed with the final status or failed with {@link ReportExportException}
+     * if the export failed or was cancelled
+     */
+    public RequestFuture<ReportExecutionStatusEntity> awaitCompletion() {
+        return PollScheduler.of(sessionStorage).poll(new PollScheduler.Poll<ReportExecutionStatusEntity>() {
+            @Override
+            public ReportExecutionStatusEntity check() {
+                ReportExecutionStatusEntity status = status().getEntity();
+                String value = status.getValue();
+                if ("ready".equals(value)) {
+                    return status;
+                }
+                if ("failed".equals(value) || "cancelled".equals(value)) {
+                    throw new ReportExportException("Export " + exportId + " is " + value);
+                }
+                return null;
             }
+        });
+    }
+
+    private JerseyRequest<InputStream> buildAttachmentRequest(String attachmentId, boolean streaming) {
+        JerseyRequest<InputStream> request = buildRequest(sessionStorage, InputStream.class,
+                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, ATTACHMENTS, attachmentId});
+        if (streaming) {
+            request.setStreaming(true);
         }
+        return request;
+    }
 
-        return buildRequest(sessionStorage, InputStream.class,
-                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, ATTACHMENTS, attachmentId})
-                .get();
+    public File attachmentTo(String attachmentId, File target) {
+        return FileTransferUtil.writeToFile(attachment(attachmentId, true), target);
     }
 
     public <R> RequestExecution asyncAttachment(final String attachmentId, final Callback<OperationResult<InputStream>, R> callback) {
@@ -107,24 +252,24 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
         if ("".equals(attachmentId) || "/".equals(attachmentId))
             throw new IllegalArgumentException("'attachmentId' mustn't be an empty string");
 
-        final JerseyRequest<InputStream> request =
-                buildRequest(sessionStorage, InputStream.class,
-                        new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, ATTACHMENTS, attachmentId});
+        final JerseyRequest<InputStream> request = buildAttachmentRequest(attachmentId, streaming);
 
-        RequestExecution task = new RequestExecution(new Runnable() {
+        final RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                while (!"ready".equals(status().getEntity().getValue())) {
-                    try {
-                        Thread.sleep(500);
-                    } catch (InterruptedException ignored) {
-                    }
-                }
                 callback.execute(request.get());
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        RequestFuture<ReportExecutionStatusEntity> completion = awaitCompletion();
+        task.setFuture(completion);
+        completion.onSuccess(new Callback<ReportExecutionStatusEntity, Void>() {
+            @Override
+            public Void execute(ReportExecutionStatusEntity data) {
+                ThreadPoolUtil.runAsynchronously(task, sessionStorage);
+                return null;
+            }
+        });
         return task;
     }
 
@@ -146,28 +291,32 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportExecutionStatusEntity>> asyncStatus() {
+        return buildRequest(sessionStorage, ReportExecutionStatusEntity.class,
+                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, STATUS})
+                .asyncGet();
+    }
+
+    /**
+     * Downloads the markup and all attachments. Attachments larger than the spill threshold are stored in
+     * temporary files, which are deleted only by {@link HtmlReport#release()} or {@link Attachment#release()},
+     * so the report must be released when it is no longer needed. Files of a failed download are deleted.
+     */
     public HtmlReport htmlReport(ExportDescriptor htmlExport) {
         //if (exportId.toLowerCase().startsWith("html") && htmlExport.getId().toLowerCase().startsWith("html")) {
             HtmlReport htmlReport = new HtmlReport(htmlExport.getId());
 
-            OperationResult<String> markup = outputResource(true);
+            OperationResult<String> markup = outputResource(true, false);
             htmlReport.setHtml(markup.getEntity());
 
             List<AttachmentDescriptor> attachments = htmlExport.getAttachments();
-            if (attachments != null) {
-                for (AttachmentDescriptor attachmentDescriptor : attachments) {
-                    String fileName = attachmentDescriptor.getFileName();
-                    OperationResult<InputStream> streamOperationResult = attachment(fileName);
-
-                    Attachment attachment = new Attachment();
-                    attachment.setName(attachmentDescriptor.getFileName());
-                    attachment.setMimeType(attachmentDescriptor.getContentType());
-                    attachment.setContent(toByteArray(streamOperationResult.getEntity()));
-
+            if (attachments != null && !attachments.isEmpty()) {
+                PollScheduler.await(awaitCompletion());
+                for (Attachment attachment : fetchAttachments(attachments).join()) {
                     htmlReport.addAttachment(attachment);
                 }
             }
@@ -185,26 +334,170 @@ public class ExportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
-    private byte[] toByteArray(InputStream is) {
-        try {
-            List<Byte> bytes = new ArrayList<Byte>();
-            byte[] buff = new byte[1024];
-            while (is.read(buff) != -1) {
-                for (byte b : buff)
-                    bytes.add(b);
+    /**
+     * Downloads the report once the export is ready. Markup and attachments are requested together
+     * with non-blocking requests, no thread waits while the export is in progress or while the
+     * content is downloaded. The report must be released as the one of {@link #htmlReport(ExportDescriptor)}.
+     */
+    public RequestFuture<HtmlReport> asyncHtmlReport(final ExportDescriptor htmlExport) {
+        return awaitCompletion().thenCompose(new Callback<ReportExecutionStatusEntity, RequestFuture<HtmlReport>>() {
+            @Override
+            public RequestFuture<HtmlReport> execute(ReportExecutionStatusEntity data) {
+                return fetchHtmlReport(htmlExport);
+            }
+        });
+    }
+
+    private RequestFuture<HtmlReport> fetchHtmlReport(ExportDescriptor htmlExport) {
+        final HtmlReport htmlReport = new HtmlReport(htmlExport.getId());
+        List<AttachmentDescriptor> descriptors = htmlExport.getAttachments();
+        final RequestFuture<List<Attachment>> attachments = descriptors != null && !descriptors.isEmpty()
+                ? fetchAttachments(descriptors)
+                : RequestFuture.completed(Collections.<Attachment>emptyList());
+
+        RequestFuture<OperationResult<String>> markup = buildRequest(sessionStorage, String.class,
+                new String[]{REPORT_EXECUTIONS, requestId, EXPORTS, exportId, OUTPUT_RESOURCE})
+                .asyncGet();
+        return markup.thenCompose(new Callback<OperationResult<String>, RequestFuture<HtmlReport>>() {
+            @Override
+            public RequestFuture<HtmlReport> execute(OperationResult<String> data) {
+                htmlReport.setHtml(data.getEntity());
+                return attachments.then(new Callback<List<Attachment>, HtmlReport>() {
+                    @Override
+                    public HtmlReport execute(List<Attachment> data) {
+                        for (Attachment attachment : data) {
+                            htmlReport.addAttachment(attachment);
+                        }
+                        return htmlReport;
+                    }
+                });
+            }
+        }).onFailure(new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable failure) {
+                // attachments downloaded before the markup failed are not returned to anybody
+                attachments.onSuccess(new Callback<List<Attachment>, Void>() {
+                    @Override
+                    public Void execute(List<Attachment> data) {
+                        for (Attachment attachment : data) {
+                            attachment.release();
+                        }
+                        return null;
+                    }
+                });
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Downloads attachments of the ready export with non-blocking requests. Attachments are split
+     * into as many chains as the parallelism allows, each chain requests its next attachment when
+     * the previous one is read. If any download fails, temporary files of the others are deleted.
+     */
+    private RequestFuture<List<Attachment>> fetchAttachments(final List<AttachmentDescriptor> descriptors) {
+        final AtomicReferenceArray<Attachment> attachments = new AtomicReferenceArray<Attachment>(descriptors.size());
+        final AtomicBoolean failed = new AtomicBoolean();
+        int chains = Math.min(attachmentsParallelism, descriptors.size());
+        List<RequestFuture<Void>> downloads = new ArrayList<RequestFuture<Void>>(chains);
+        for (int i = 0; i < chains; i++) {
+            downloads.add(fetchAttachments(descriptors, i, chains, attachments, failed));
+        }
+        return RequestFuture.allOf(downloads).then(new Callback<List<Void>, List<Attachment>>() {
+            @Override
+            public List<Attachment> execute(List<Void> data) {
+                List<Attachment> result = new ArrayList<Attachment>(attachments.length());
+                for (int i = 0; i < attachments.length(); i++) {
+                    result.add(attachments.get(i));
+                }
+                return result;
             }
+        }).onFailure(new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable data) {
+                failed.set(true);
+                for (int i = 0; i < attachments.length(); i++) {
+                    Attachment attachment = attachments.get(i);
+                    if (attachment != null) {
+                        attachment.release();
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private RequestFuture<Void> fetchAttachments(final List<AttachmentDescriptor> descriptors, final int index,
+                                                 final int step, final AtomicReferenceArray<Attachment> attachments,
+                                                 final AtomicBoolean failed) {
+        if (index >= descriptors.size() || failed.get()) {
+            return RequestFuture.completed(null);
+        }
+        final AttachmentDescriptor descriptor = descriptors.get(index);
+        return buildAttachmentRequest(descriptor.getFileName(), true).asyncGet()
+                .thenCompose(new Callback<OperationResult<InputStream>, RequestFuture<Void>>() {
+                    @Override
+                    public RequestFuture<Void> execute(OperationResult<InputStream> result) {
+                        Attachment attachment = toAttachment(descriptor, result);
+                        attachments.set(index, attachment);
+                        if (failed.get()) {
+                            attachment.release();
+                        }
+                        return fetchAttachments(descriptors, index + step, step, attachments, failed);
+                    }
+                });
+    }
+
+    private Attachment toAttachment(AttachmentDescriptor descriptor, OperationResult<InputStream> result) {
+        Attachment attachment = new Attachment();
+        attachment.setName(descriptor.getFileName());
+        attachment.setMimeType(descriptor.getContentType());
+        try {
+            readContent(result.getEntity(), attachment);
+        } finally {
+            result.close();
+        }
+        return attachment;
+    }
 
-            byte[] result = new byte[bytes.size()];
-            for (int i = 0; i < bytes.size(); i++) {
-                result[i] = bytes.get(i);
+    /**
+     * Copies the content with bulk reads. Content larger than the spill threshold is moved
+     * to a temporary file instead of being kept in memory.
+     */
+    private void readContent(InputStream is, Attachment attachment) {
+        if (is == null) {
+            attachment.setContent(new byte[0]);
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+                if (buffer.size() > spillThreshold) {
+                    attachment.setFile(spillToFile(buffer, is));
+                    return;
+                }
             }
-            return result;
+            attachment.setContent(buffer.toByteArray());
+        } catch (IOException e) {
+            throw new JSClientException("Error while reading attachment content", e);
+        }
+    }
+
+    private File spillToFile(ByteArrayOutputStream head, InputStream rest) throws IOException {
+        File file = File.createTempFile("jrs-attachment-", ".tmp");
+        try {
+            FileTransferUtil.transfer(new SequenceInputStream(new ByteArrayInputStream(head.toByteArray()), rest), file);
         } catch (IOException e) {
-            throw new JSClientException("Error while reading thumbnail content", e);
+            file.delete();
+            throw e;
         }
+        return file;
     }
 }
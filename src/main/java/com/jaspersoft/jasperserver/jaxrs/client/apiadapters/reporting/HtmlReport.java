@@ -76,4 +76,13 @@ public class HtmlReport {
         this.attachmentsPrefix = attachmentsPrefix;
     }
 
+    /**
+     * Deletes temporary files of large attachments.
+     */
+    public void release() {
+        for (Attachment attachment : attachments) {
+            attachment.release();
+        }
+    }
+
 }
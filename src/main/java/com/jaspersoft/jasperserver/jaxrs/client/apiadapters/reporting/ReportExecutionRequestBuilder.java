@@ -23,6 +23,8 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ExportExecutionDescriptor;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ExportExecutionOptions;
@@ -59,10 +61,39 @@ public class ReportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportExecutionStatusEntity>> asyncStatus() {
+        return buildRequest(sessionStorage, ReportExecutionStatusEntity.class, new String[]{REPORT_EXECUTIONS_URI, requestId, STATUS_URI})
+                .asyncGet();
+    }
+
+    /**
+     * Waits for the report execution to become ready without blocking any thread, the status is checked by
+     * the poll scheduler of the client.
+     *
+     * @return future completed with the final status or failed with {@link JSClientException}
+     * if the execution failed or was cancelled
+     */
+    public RequestFuture<ReportExecutionStatusEntity> awaitCompletion() {
+        return PollScheduler.of(sessionStorage).poll(new PollScheduler.Poll<ReportExecutionStatusEntity>() {
+            @Override
+            public ReportExecutionStatusEntity check() {
+                ReportExecutionStatusEntity status = status().getEntity();
+                String value = status.getValue();
+                if ("ready".equals(value)) {
+                    return status;
+                }
+                if ("failed".equals(value) || "cancelled".equals(value)) {
+                    throw new JSClientException("Report execution " + requestId + " is " + value);
+                }
+                return null;
+            }
+        });
+    }
+
     public OperationResult<ReportExecutionDescriptor> executionDetails() {
         return buildRequest(sessionStorage, ReportExecutionDescriptor.class, new String[]{REPORT_EXECUTIONS_URI, requestId})
                 .get();
@@ -79,10 +110,15 @@ public class ReportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportExecutionDescriptor>> asyncExecutionDetails() {
+        return buildRequest(sessionStorage, ReportExecutionDescriptor.class, new String[]{REPORT_EXECUTIONS_URI, requestId})
+                .asyncGet();
+    }
+
     public OperationResult<ReportExecutionStatusEntity> cancelExecution() {
         ReportExecutionStatusEntity statusEntity = new ReportExecutionStatusEntity();
         statusEntity.setValue("cancelled");
@@ -103,10 +139,17 @@ public class ReportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportExecutionStatusEntity>> asyncCancelExecution() {
+        ReportExecutionStatusEntity statusEntity = new ReportExecutionStatusEntity();
+        statusEntity.setValue("cancelled");
+        return buildRequest(sessionStorage, ReportExecutionStatusEntity.class, new String[]{REPORT_EXECUTIONS_URI, requestId, STATUS_URI})
+                .asyncPut(statusEntity);
+    }
+
     public ExportExecutionRequestBuilder export(String exportId) {
         return new ExportExecutionRequestBuilder(sessionStorage, requestId, exportId);
     }
@@ -128,8 +171,13 @@ public class ReportExecutionRequestBuilder extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ExportExecutionDescriptor>> asyncRunExport(ExportExecutionOptions exportExecutionOptions) {
+        return buildRequest(sessionStorage, ExportExecutionDescriptor.class, new String[]{REPORT_EXECUTIONS_URI, requestId, EXPORTS_URI})
+                .asyncPost(exportExecutionOptions);
+    }
+
 }
@@ -22,6 +22,7 @@
 package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch.ReportBatchRunner;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionDescriptor;
@@ -38,14 +39,22 @@ public class ReportingService extends AbstractAdapter {
     }
 
     public OperationResult<ReportExecutionDescriptor> newReportExecutionRequest(ReportExecutionRequest request) {
+        return prepareExecutionRequest(request)
+                .post(request);
+    }
+
+    public RequestFuture<OperationResult<ReportExecutionDescriptor>> asyncNewReportExecutionRequest(ReportExecutionRequest request) {
+        return prepareExecutionRequest(request).asyncPost(request);
+    }
+
+    private JerseyRequest<ReportExecutionDescriptor> prepareExecutionRequest(ReportExecutionRequest request) {
         JerseyRequest<ReportExecutionDescriptor> jerseyRequest = buildRequest(sessionStorage,
                 ReportExecutionDescriptor.class,
                 new String[]{REPORT_EXECUTIONS_URI});
         if (request.getTimeZone() != null) {
             jerseyRequest.addHeader("Accept-Timezone", request.getTimeZone().getID());
         }
-        return jerseyRequest
-                .post(request);
+        return jerseyRequest;
     }
 
     public <R> RequestExecution asyncNewReportExecutionRequest(final ReportExecutionRequest reportExecutionRequest, final Callback<OperationResult<ReportExecutionDescriptor>, R> callback) {
@@ -56,7 +65,7 @@ public class ReportingService extends AbstractAdapter {
                 callback.execute(request.post(reportExecutionRequest));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
@@ -72,4 +81,8 @@ public class ReportingService extends AbstractAdapter {
         return new ReportsAdapter(sessionStorage, reportUnitUri);
     }
 
+    public ReportBatchRunner batch() {
+        return new ReportBatchRunner(sessionStorage);
+    }
+
 }
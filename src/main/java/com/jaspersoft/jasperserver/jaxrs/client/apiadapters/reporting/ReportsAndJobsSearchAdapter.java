@@ -23,9 +23,13 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionDescriptor;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionListWrapper;
 
+import java.io.InputStream;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -63,10 +67,31 @@ public class ReportsAndJobsSearchAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportExecutionListWrapper>> asyncFind() {
+        JerseyRequest<ReportExecutionListWrapper> request =
+                buildRequest();
+        request.addParams(params);
+        return request.asyncGet();
+    }
+
+    /**
+     * Reads found executions one by one from the response stream instead of building the whole list.
+     * The reader must be closed if it's not read to the end.
+     */
+    public JsonListReader<ReportExecutionDescriptor> streamFind() {
+        JerseyRequest<InputStream> request = JerseyRequest.buildRequest(sessionStorage,
+                InputStream.class,
+                new String[]{REPORT_EXECUTIONS_URI});
+        request.addParams(params);
+        request.setAccept(MediaType.APPLICATION_JSON);
+        request.setStreaming(true);
+        return JsonListReader.of(request.get(), ReportExecutionDescriptor.class, "reportExecution");
+    }
+
     protected JerseyRequest<ReportExecutionListWrapper> buildRequest() {
         return JerseyRequest.buildRequest(sessionStorage,
                 ReportExecutionListWrapper.class,
@@ -23,17 +23,23 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ReportOutputCache;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RestClientConfiguration;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.TimeZone;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,6 +57,7 @@ public class RunReportAdapter extends AbstractAdapter {
     private  TimeZone timeZone;
     private String[] pages = new String[0];
     private ArrayList<String> path = new ArrayList<String>();
+    private boolean streaming;
 
     public RunReportAdapter(SessionStorage sessionStorage, String reportUnitUri, String format) {
         super(sessionStorage);
@@ -97,6 +104,16 @@ public class RunReportAdapter extends AbstractAdapter {
         return this.forTimeZone(TimeZone.getTimeZone(timeZoneId));
     }
 
+    /**
+     * @param streaming whether the report output is read directly from the connection instead of being buffered
+     *                  in memory. A streamed result must be closed, or its stream read to the end and closed,
+     *                  to release the connection.
+     */
+    public RunReportAdapter streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     public RunReportAdapter parameter(String name, String... value) {
         params.addAll(name, Arrays.asList(value));
         return this;
@@ -109,25 +126,103 @@ public class RunReportAdapter extends AbstractAdapter {
 
     }
 
+    /**
+     * Runs the report. If report output cache is configured, the output is served from it when possible.
+     * The output is buffered in memory unless {@link #streaming(boolean)} is set.
+     */
     public OperationResult<InputStream> run() {
-        JerseyRequest<InputStream> request = prepareRunRequest();
-        return request.get();
+        return run(streaming);
+    }
+
+    /**
+     * Runs the report and writes its output directly to the file.
+     */
+    public File runTo(File target) {
+        return FileTransferUtil.writeToFile(run(true), target);
+    }
+
+    private OperationResult<InputStream> run(boolean streaming) {
+        ReportOutputCache cache = outputCache();
+        if (cache == null) {
+            return prepareRunRequest(streaming).get();
+        }
+        String key = cacheKey();
+        OperationResult<InputStream> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return cache.put(key, reportUnitUri, prepareRunRequest(streaming).get());
     }
 
     public <R> RequestExecution asyncRun(final Callback<OperationResult<InputStream>, R> callback) {
-        final JerseyRequest<InputStream> request = prepareRunRequest();
+        final JerseyRequest<InputStream> request = prepareRunRequest(streaming);
+
+        final ReportOutputCache cache = outputCache();
+        final String key = cache != null ? cacheKey() : null;
 
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.get());
+                if (cache == null) {
+                    callback.execute(request.get());
+                    return;
+                }
+                OperationResult<InputStream> cached = cache.get(key);
+                callback.execute(cached != null ? cached : cache.put(key, reportUnitUri, request.get()));
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<InputStream>> asyncRun() {
+        final ReportOutputCache cache = outputCache();
+        if (cache == null) {
+            return prepareRunRequest(streaming).asyncGet();
+        }
+        final String key = cacheKey();
+        OperationResult<InputStream> cached = cache.get(key);
+        if (cached != null) {
+            return RequestFuture.completed(cached);
+        }
+        return prepareRunRequest(streaming).asyncGet().then(new Callback<OperationResult<InputStream>, OperationResult<InputStream>>() {
+            @Override
+            public OperationResult<InputStream> execute(OperationResult<InputStream> result) {
+                return cache.put(key, reportUnitUri, result);
+            }
+        });
+    }
+
+    private ReportOutputCache outputCache() {
+        RestClientConfiguration configuration = sessionStorage.getConfiguration();
+        return configuration != null ? configuration.getReportOutputCache() : null;
+    }
+
+    private String cacheKey() {
+        StringBuilder joinedPages = new StringBuilder();
+        for (String page : pages) {
+            if (joinedPages.length() > 0) {
+                joinedPages.append(',');
+            }
+            joinedPages.append(page);
+        }
+        String user = sessionStorage.getCredentials() != null ? sessionStorage.getCredentials().getUsername() : null;
+        Locale locale = sessionStorage.getUserLocale();
+        TimeZone outputTimeZone = timeZone != null ? timeZone : sessionStorage.getUserTimeZone();
+        return ReportOutputCache.keyOf(user, reportUnitUri, format, params, joinedPages.toString(),
+                locale != null ? locale.toString() : null,
+                outputTimeZone != null ? outputTimeZone.getID() : null);
+    }
+
+    private JerseyRequest<InputStream> prepareRunRequest(boolean streaming) {
+        JerseyRequest<InputStream> request = prepareRunRequest();
+        if (streaming) {
+            request.setStreaming(true);
+        }
+        return request;
+    }
+
     private JerseyRequest<InputStream> prepareRunRequest() {
         path.add(SERVICE_URI);
         path.addAll(Arrays.asList((reportUnitUri + "." + format).split("/")));
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+/**
+ * Point-in-time snapshot of the batch counters.
+ */
+public class BatchStats {
+
+    private final long succeeded;
+    private final long failed;
+    private final long skipped;
+    private final int running;
+    private final long elapsedMillis;
+    private final long averageLatencyMillis;
+    private final long maxLatencyMillis;
+
+    public BatchStats(long succeeded, long failed, long skipped, int running,
+                      long elapsedMillis, long averageLatencyMillis, long maxLatencyMillis) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.running = running;
+        this.elapsedMillis = elapsedMillis;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return number of tasks skipped because they were completed by previous run
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return number of tasks currently in progress
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return average time in milliseconds from the start of a task to its output being written
+     */
+    public long getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    /**
+     * @return finished (succeeded or failed) tasks per second
+     */
+    public double getThroughput() {
+        return elapsedMillis > 0 ? (succeeded + failed) * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStats{" +
+                "succeeded=" + succeeded +
+                ", failed=" + failed +
+                ", skipped=" + skipped +
+                ", running=" + running +
+                ", elapsedMillis=" + elapsedMillis +
+                ", averageLatencyMillis=" + averageLatencyMillis +
+                ", maxLatencyMillis=" + maxLatencyMillis +
+                '}';
+    }
+}
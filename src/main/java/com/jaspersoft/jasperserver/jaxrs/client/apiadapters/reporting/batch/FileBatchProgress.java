@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Journal of finished tasks in a text file, one task id per line. Ids found in the file
+ * when it is opened are skipped by the runner.
+ */
+public class FileBatchProgress implements BatchProgress, Closeable {
+
+    private static final String ENCODING = "UTF-8";
+
+    private final Set<String> completed = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Writer journal;
+
+    public FileBatchProgress(File file) {
+        try {
+            if (file.exists()) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.length() > 0) {
+                            completed.add(line);
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+            journal = new OutputStreamWriter(new FileOutputStream(file, true), ENCODING);
+        } catch (IOException e) {
+            throw new JSClientException("Cannot open progress journal " + file, e);
+        }
+    }
+
+    @Override
+    public boolean isCompleted(String taskId) {
+        return completed.contains(taskId);
+    }
+
+    @Override
+    public void completed(String taskId) {
+        if (completed.add(taskId)) {
+            synchronized (journal) {
+                try {
+                    journal.write(taskId);
+                    journal.write('\n');
+                    journal.flush();
+                } catch (IOException e) {
+                    throw new JSClientException("Cannot write progress journal", e);
+                }
+            }
+        }
+    }
+
+    public int getCompletedCount() {
+        return completed.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (journal) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Writes each output to <code>{directory}/{task id}.{format}</code>. The file is written under a temporary
+ * name and renamed when complete, so an interrupted batch never leaves truncated outputs.
+ */
+public class FileReportSink implements ReportSink {
+
+    private static final Log log = LogFactory.getLog(FileReportSink.class);
+
+    private final File directory;
+
+    public FileReportSink(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create directory " + directory);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public void write(ReportTask task, InputStream output) throws IOException {
+        File target = getFile(task);
+        File partial = new File(directory, target.getName() + ".part");
+        try {
+            FileTransferUtil.transfer(output, partial);
+        } catch (IOException e) {
+            partial.delete();
+            throw e;
+        }
+        if (target.exists() && !target.delete() || !partial.renameTo(target)) {
+            partial.delete();
+            throw new IOException("Cannot move output to " + target);
+        }
+    }
+
+    @Override
+    public void failed(ReportTask task, Exception cause) {
+        log.warn("Report task " + task.getId() + " failed", cause);
+    }
+
+    public File getFile(ReportTask task) {
+        return new File(directory, task.getId() + "." + task.getFormat());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Passes outputs to a consumer through a queue. Output is read into memory, so this sink is meant
+ * for small reports. A bounded queue slows the batch down to the pace of the consumer.
+ */
+public class QueueReportSink implements ReportSink {
+
+    private final BlockingQueue<ReportOutput> queue;
+
+    public QueueReportSink(BlockingQueue<ReportOutput> queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void write(ReportTask task, InputStream output) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = output.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        put(new ReportOutput(task, content.toByteArray(), null));
+    }
+
+    @Override
+    public void failed(ReportTask task, Exception cause) {
+        try {
+            put(new ReportOutput(task, null, cause));
+        } catch (IOException e) {
+            // interrupted, the runner is being stopped
+        }
+    }
+
+    private void put(ReportOutput output) throws IOException {
+        try {
+            queue.put(output);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for space in the queue");
+        }
+    }
+}
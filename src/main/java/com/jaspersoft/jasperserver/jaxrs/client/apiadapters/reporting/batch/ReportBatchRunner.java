@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import com.jaspersoft.jasperserver.dto.reports.ReportParameter;
+import com.jaspersoft.jasperserver.dto.reports.ReportParameters;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.ReportExecutionRequestBuilder;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.ReportingService;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.ReportsAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.RunReportAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.TaskRunner;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionDescriptor;
+import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionStatusEntity;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many reports with bounded concurrency. Tasks are taken lazily from an iterator, so the batch
+ * can be generated on the fly, and at most <code>concurrency</code> of them are in progress at the same
+ * time. Requests are non-blocking, a thread of the asynchronous executor is used only to write an
+ * output to the sink. Failed tasks are reported to the sink and do not stop the batch.
+ */
+public class ReportBatchRunner extends AbstractAdapter {
+
+    private int concurrency = 4;
+    private BatchRunMode mode = BatchRunMode.REPORTS;
+    private ReportSink sink;
+    private BatchProgress progress;
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private volatile TaskRunner runner = new TaskRunner(concurrency);
+    private volatile long startedAt;
+
+    public ReportBatchRunner(SessionStorage sessionStorage) {
+        super(sessionStorage);
+    }
+
+    public ReportBatchRunner concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public ReportBatchRunner mode(BatchRunMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public ReportBatchRunner sink(ReportSink sink) {
+        this.sink = sink;
+        return this;
+    }
+
+    /**
+     * @param progress journal of finished tasks, tasks completed by previous runs are skipped
+     */
+    public ReportBatchRunner progress(BatchProgress progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    public BatchStats run(Iterable<ReportTask> tasks) {
+        return run(tasks.iterator());
+    }
+
+    /**
+     * Runs all tasks and waits until they are finished.
+     *
+     * @return final counters of the batch
+     */
+    public BatchStats run(Iterator<ReportTask> tasks) {
+        if (sink == null) {
+            throw new IllegalStateException("Sink of the batch is not set");
+        }
+        reset();
+        try {
+            runner.run(new PendingTasks(tasks));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while running the batch", e);
+        }
+        return getStats();
+    }
+
+    /**
+     * @return current counters, can be called from other threads while the batch is running
+     */
+    public BatchStats getStats() {
+        long done = succeeded.get();
+        return new BatchStats(done, failed.get(), skipped.get(), runner.getRunning(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                done > 0 ? TimeUnit.NANOSECONDS.toMillis(totalLatency.get() / done) : 0,
+                TimeUnit.NANOSECONDS.toMillis(maxLatency.get()));
+    }
+
+    private void reset() {
+        succeeded.set(0);
+        failed.set(0);
+        skipped.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+        runner = new TaskRunner(concurrency);
+        startedAt = System.nanoTime();
+    }
+
+    private RequestFuture<?> start(final ReportTask task) {
+        final long started = System.nanoTime();
+        RequestFuture<OperationResult<InputStream>> output;
+        try {
+            output = execute(task);
+        } catch (RuntimeException e) {
+            output = RequestFuture.failed(e);
+        }
+        return output.then(new Callback<OperationResult<InputStream>, Void>() {
+            @Override
+            public Void execute(OperationResult<InputStream> result) {
+                write(task, result);
+                return null;
+            }
+        }).onSuccess(new Callback<Void, Void>() {
+            @Override
+            public Void execute(Void data) {
+                finish(task, started, null);
+                return null;
+            }
+        }).onFailure(new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable data) {
+                finish(task, started, data);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Starts the report of the task.
+     *
+     * @return future completed with the output of the report
+     */
+    protected RequestFuture<OperationResult<InputStream>> execute(ReportTask task) {
+        return mode == BatchRunMode.REPORT_EXECUTIONS ? runExecution(task) : runReport(task);
+    }
+
+    private void write(ReportTask task, OperationResult<InputStream> result) {
+        try {
+            InputStream content = result.getEntity();
+            if (content == null) {
+                throw new JSClientException("Report of task " + task.getId() + " has no content");
+            }
+            sink.write(task, content);
+        } catch (IOException e) {
+            throw new JSClientException("Cannot write output of task " + task.getId(), e);
+        } finally {
+            result.close();
+        }
+    }
+
+    private void finish(ReportTask task, long started, Throwable failure) {
+        if (failure == null) {
+            long latency = System.nanoTime() - started;
+            totalLatency.addAndGet(latency);
+            long max;
+            while (latency > (max = maxLatency.get()) && !maxLatency.compareAndSet(max, latency)) {
+                // retry
+            }
+            succeeded.incrementAndGet();
+            if (progress != null) {
+                progress.completed(task.getId());
+            }
+        } else {
+            failed.incrementAndGet();
+            sink.failed(task, failure instanceof Exception ? (Exception) failure : new JSClientException(failure));
+        }
+    }
+
+    private RequestFuture<OperationResult<InputStream>> runReport(ReportTask task) {
+        ReportsAdapter report = new ReportsAdapter(sessionStorage, task.getReportUnitUri());
+        RunReportAdapter run = task.getPageRange() != null
+                ? report.prepareForRun(task.getFormat(), task.getPageRange())
+                : report.prepareForRun(task.getFormat(), task.getPages());
+        for (Map.Entry<String, List<String>> parameter : task.getParameters().entrySet()) {
+            run.parameter(parameter.getKey(), parameter.getValue());
+        }
+        return run.forTimeZone(task.getTimeZone()).streaming(true).asyncRun();
+    }
+
+    private RequestFuture<OperationResult<InputStream>> runExecution(ReportTask task) {
+        ReportExecutionRequest request = new ReportExecutionRequest()
+                .setReportUnitUri(task.getReportUnitUri())
+                .setAsync(true)
+                .setOutputFormat(task.getFormat())
+                .setTimeZone(task.getTimeZone());
+        if (task.getPageRange() != null) {
+            request.setPages(task.getPageRange().getRange());
+        } else if (task.getPages().length == 1) {
+            request.setPages(String.valueOf(task.getPages()[0]));
+        } else if (task.getPages().length > 1) {
+            throw new IllegalArgumentException("Report executions support a single page or a page range only");
+        }
+        if (!task.getParameters().isEmpty()) {
+            request.setParameters(toReportParameters(task.getParameters()));
+        }
+
+        final ReportingService service = new ReportingService(sessionStorage);
+        return service.asyncNewReportExecutionRequest(request).thenCompose(
+                new Callback<OperationResult<ReportExecutionDescriptor>, RequestFuture<OperationResult<InputStream>>>() {
+                    @Override
+                    public RequestFuture<OperationResult<InputStream>> execute(OperationResult<ReportExecutionDescriptor> result) {
+                        ReportExecutionDescriptor descriptor = result.getEntity();
+                        if (descriptor.getExports() == null || descriptor.getExports().isEmpty()) {
+                            throw new JSClientException("Report execution " + descriptor.getRequestId() + " has no exports");
+                        }
+                        final String exportId = descriptor.getExports().get(0).getId();
+                        final ReportExecutionRequestBuilder execution = service.reportExecutionRequest(descriptor.getRequestId());
+                        return execution.awaitCompletion().thenCompose(
+                                new Callback<ReportExecutionStatusEntity, RequestFuture<OperationResult<InputStream>>>() {
+                                    @Override
+                                    public RequestFuture<OperationResult<InputStream>> execute(ReportExecutionStatusEntity status) {
+                                        return execution.export(exportId).streaming(true).asyncOutputResource();
+                                    }
+                                });
+                    }
+                });
+    }
+
+    private static ReportParameters toReportParameters(Map<String, List<String>> parameters) {
+        List<ReportParameter> list = new ArrayList<ReportParameter>(parameters.size());
+        for (Map.Entry<String, List<String>> entry : parameters.entrySet()) {
+            ReportParameter parameter = new ReportParameter();
+            parameter.setName(entry.getKey());
+            parameter.setValues(entry.getValue());
+            list.add(parameter);
+        }
+        return new ReportParameters(list);
+    }
+
+    /**
+     * Tasks of the batch which are not completed by previous runs, read from the source one by one
+     * when the runner has a free slot.
+     */
+    private class PendingTasks implements Iterator<TaskRunner.Task> {
+
+        private final Iterator<ReportTask> source;
+        private ReportTask next;
+
+        PendingTasks(Iterator<ReportTask> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                ReportTask task = source.next();
+                if (progress != null && progress.isCompleted(task.getId())) {
+                    skipped.incrementAndGet();
+                } else {
+                    next = task;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public TaskRunner.Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ReportTask task = next;
+            next = null;
+            return new TaskRunner.Task() {
+                @Override
+                public RequestFuture<?> start() {
+                    return ReportBatchRunner.this.start(task);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
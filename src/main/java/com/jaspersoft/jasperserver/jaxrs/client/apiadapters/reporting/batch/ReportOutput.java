@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+/**
+ * Output of a single task as it is passed to {@link QueueReportSink}.
+ */
+public class ReportOutput {
+
+    private final ReportTask task;
+    private final byte[] content;
+    private final Exception failure;
+
+    public ReportOutput(ReportTask task, byte[] content, Exception failure) {
+        this.task = task;
+        this.content = content;
+        this.failure = failure;
+    }
+
+    public ReportTask getTask() {
+        return task;
+    }
+
+    /**
+     * @return content of the report or <code>null</code> if the task failed
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+}
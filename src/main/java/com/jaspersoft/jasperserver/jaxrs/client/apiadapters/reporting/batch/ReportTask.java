@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.PageRange;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.ReportOutputFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Single report run of a batch. The id identifies the task in sinks and in the progress journal,
+ * so it must be unique and stable between runs of the same batch.
+ */
+public class ReportTask {
+
+    private final String id;
+    private final String reportUnitUri;
+    private final String format;
+    private final Map<String, List<String>> parameters = new LinkedHashMap<String, List<String>>();
+    private Integer[] pages = new Integer[0];
+    private PageRange pageRange;
+    private TimeZone timeZone;
+
+    public ReportTask(String id, String reportUnitUri, ReportOutputFormat format) {
+        this(id, reportUnitUri, format.toString().toLowerCase());
+    }
+
+    public ReportTask(String id, String reportUnitUri, String format) {
+        if (id == null || reportUnitUri == null || format == null) {
+            throw new IllegalArgumentException("Task id, report unit URI and format are mandatory");
+        }
+        this.id = id;
+        this.reportUnitUri = reportUnitUri;
+        this.format = format.toLowerCase();
+    }
+
+    public ReportTask parameter(String name, String... values) {
+        return parameter(name, Arrays.asList(values));
+    }
+
+    public ReportTask parameter(String name, List<String> values) {
+        List<String> current = parameters.get(name);
+        if (current == null) {
+            current = new ArrayList<String>();
+            parameters.put(name, current);
+        }
+        current.addAll(values);
+        return this;
+    }
+
+    public ReportTask pages(Integer... pages) {
+        this.pages = pages;
+        this.pageRange = null;
+        return this;
+    }
+
+    public ReportTask pages(PageRange range) {
+        this.pageRange = range;
+        this.pages = new Integer[0];
+        return this;
+    }
+
+    public ReportTask forTimeZone(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        return this;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getReportUnitUri() {
+        return reportUnitUri;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Map<String, List<String>> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    public Integer[] getPages() {
+        return pages;
+    }
+
+    public PageRange getPageRange() {
+        return pageRange;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportTask{" +
+                "id='" + id + '\'' +
+                ", reportUnitUri='" + reportUnitUri + '\'' +
+                ", format='" + format + '\'' +
+                '}';
+    }
+}
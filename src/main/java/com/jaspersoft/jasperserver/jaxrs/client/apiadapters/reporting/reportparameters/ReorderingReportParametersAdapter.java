@@ -24,6 +24,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.reportpar
 import com.jaspersoft.jasperserver.dto.reports.inputcontrols.ReportInputControl;
 import com.jaspersoft.jasperserver.dto.reports.inputcontrols.ReportInputControlsListWrapper;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 
 import java.util.List;
@@ -60,7 +61,13 @@ public class ReorderingReportParametersAdapter extends ReportParametersAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
+
+    public RequestFuture<OperationResult<ReportInputControlsListWrapper>> asyncReorder(List<ReportInputControl> inputControls) {
+        ReportInputControlsListWrapper wrapper = new ReportInputControlsListWrapper(inputControls);
+        return buildRequest(sessionStorage, ReportInputControlsListWrapper.class, new String[]{REPORTS_URI, reportUnitUri, INPUT_CONTROLS_URI})
+                .asyncPut(wrapper);
+    }
 }
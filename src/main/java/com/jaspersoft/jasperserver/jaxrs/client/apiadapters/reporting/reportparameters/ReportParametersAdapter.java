@@ -25,6 +25,7 @@ import com.jaspersoft.jasperserver.dto.reports.ReportParameters;
 import com.jaspersoft.jasperserver.dto.reports.inputcontrols.ReportInputControlsListWrapper;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 
@@ -76,10 +77,14 @@ public class ReportParametersAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ReportInputControlsListWrapper>> asyncGet() {
+        return prepareRequest().asyncPost(ReportParametersUtils.toReportParameters(params));
+    }
+
     private JerseyRequest<ReportInputControlsListWrapper> prepareRequest(){
         JerseyRequest<ReportInputControlsListWrapper> request =
                 buildRequest(sessionStorage, ReportInputControlsListWrapper.class,
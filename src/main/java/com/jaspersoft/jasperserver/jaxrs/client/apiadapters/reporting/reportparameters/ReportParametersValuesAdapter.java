@@ -24,6 +24,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.reportpar
 import com.jaspersoft.jasperserver.dto.reports.ReportParameters;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.inputcontrols.InputControlStateListWrapper;
@@ -72,10 +73,14 @@ public class ReportParametersValuesAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<InputControlStateListWrapper>> asyncGet() {
+        return prepareRequest().asyncPost(ReportParametersUtils.toReportParameters(params));
+    }
+
     private JerseyRequest<InputControlStateListWrapper> prepareRequest() {
         JerseyRequest<InputControlStateListWrapper> request =
                 buildRequest(sessionStorage, InputControlStateListWrapper.class,
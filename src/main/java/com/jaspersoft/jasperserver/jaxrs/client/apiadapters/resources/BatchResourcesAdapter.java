@@ -21,11 +21,16 @@
 package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources;
 
 import com.jaspersoft.jasperserver.dto.resources.ClientResourceListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.*;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 
+import java.io.InputStream;
+import java.util.List;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -33,6 +38,7 @@ import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildR
 
 public class BatchResourcesAdapter extends AbstractAdapter {
     public static final String SERVICE_URI = "resources";
+    public static final int DEFAULT_PAGE_SIZE = 100;
     private MultivaluedMap<String, String> params;
 
     public BatchResourcesAdapter(SessionStorage sessionStorage) {
@@ -59,12 +65,57 @@ public class BatchResourcesAdapter extends AbstractAdapter {
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientResourceListWrapper>> asyncSearch() {
+        return getBuilder(ClientResourceListWrapper.class).asyncGet();
+    }
+
+    /**
+     * Reads found resources one by one from the response stream instead of building the whole list.
+     * The reader must be closed if it's not read to the end.
+     */
+    public JsonListReader<ClientResourceLookup> streamSearch() {
+        JerseyRequest<InputStream> request = getBuilder(InputStream.class);
+        request.setAccept(MediaType.APPLICATION_JSON);
+        request.setStreaming(true);
+        return JsonListReader.of(request.get(), ClientResourceLookup.class, "resourceLookup");
+    }
+
+    /**
+     * Iterates over all found resources requesting them by pages of 100 resources.
+     */
+    public ResourceSearchIterator searchIterator() {
+        return searchIterator(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Iterates over all found resources requesting them by pages of the given size. The next page
+     * is requested while the current one is consumed. Search parameters are fixed when the iterator is created,
+     * <code>offset</code> parameter is used as the start position and <code>limit</code> is replaced by the page size.
+     */
+    public ResourceSearchIterator searchIterator(final int pageSize) {
+        final MultivaluedMap<String, String> searchParams = new MultivaluedHashMap<String, String>(params);
+        String offset = searchParams.getFirst(ResourceSearchParameter.OFFSET.getName());
+        searchParams.putSingle(ResourceSearchParameter.LIMIT.getName(), String.valueOf(pageSize));
+        return new ResourceSearchIterator(pageSize, offset != null ? Integer.parseInt(offset) : 0,
+                new Callback<Integer, RequestFuture<OperationResult<ClientResourceListWrapper>>>() {
+                    @Override
+                    public RequestFuture<OperationResult<ClientResourceListWrapper>> execute(Integer pageOffset) {
+                        MultivaluedMap<String, String> pageParams = new MultivaluedHashMap<String, String>(searchParams);
+                        pageParams.putSingle(ResourceSearchParameter.OFFSET.getName(), String.valueOf(pageOffset));
+                        JerseyRequest<ClientResourceListWrapper> request = buildRequest(sessionStorage,
+                                ClientResourceListWrapper.class, new String[]{SERVICE_URI}, new DefaultErrorHandler());
+                        request.addParams(pageParams);
+                        return request.asyncGet();
+                    }
+                });
+    }
+
     public OperationResult delete(){
-        return getBuilder(Object.class).delete();
+        return invalidated(getBuilder(Object.class).delete());
     }
 
     public <R> RequestExecution asyncDelete(final Callback<OperationResult, R> callback) {
@@ -73,14 +124,46 @@ public class BatchResourcesAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.delete());
+                callback.execute(invalidated(request.delete()));
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Object>> asyncDelete() {
+        RequestFuture<OperationResult<Object>> future = getBuilder(Object.class).asyncDelete();
+        if (metadataCache() == null) {
+            return future;
+        }
+        return future.then(new Callback<OperationResult<Object>, OperationResult<Object>>() {
+            @Override
+            public OperationResult<Object> execute(OperationResult<Object> data) {
+                return invalidated(data);
+            }
+        });
+    }
+
+    /**
+     * Removes the deleted resources from resource metadata cache.
+     */
+    private <T> T invalidated(T result) {
+        ResourceMetadataCache cache = metadataCache();
+        List<String> uris = params.get(ResourceSearchParameter.RESOURCE_URI.getName());
+        if (cache != null && uris != null) {
+            for (String uri : uris) {
+                cache.invalidate(uri);
+            }
+        }
+        return result;
+    }
+
+    private ResourceMetadataCache metadataCache() {
+        RestClientConfiguration configuration = sessionStorage.getConfiguration();
+        return configuration != null ? configuration.getResourceMetadataCache() : null;
+    }
+
     private <T> JerseyRequest<T> getBuilder(Class<T> responseClass) {
         JerseyRequest<T> request = buildRequest(sessionStorage, responseClass, new String[]{SERVICE_URI}, new DefaultErrorHandler());
         request.addParams(params);
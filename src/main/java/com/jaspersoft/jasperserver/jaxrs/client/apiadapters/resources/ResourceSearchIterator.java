@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Lazy iterator over the results of a resources search. Pages are requested with <code>limit</code>
+ * and <code>offset</code> parameters, the next page is requested as soon as the current one is received,
+ * so the network round trip overlaps with consumption of the current page.
+ * Iteration stops on an empty page, on a partial page without <code>Next-Offset</code> header
+ * or when <code>Total-Count</code> results are returned.
+ * Close the iterator if it's abandoned before the end, to cancel the prefetched page.
+ */
+public class ResourceSearchIterator implements Iterator<ClientResourceLookup>, Closeable {
+
+    public static final String TOTAL_COUNT_HEADER = "Total-Count";
+    public static final String NEXT_OFFSET_HEADER = "Next-Offset";
+
+    private final int pageSize;
+    private final Callback<Integer, RequestFuture<OperationResult<ClientResourceListWrapper>>> pageLoader;
+
+    private RequestFuture<OperationResult<ClientResourceListWrapper>> pending;
+    private Iterator<ClientResourceLookup> current = Collections.<ClientResourceLookup>emptyList().iterator();
+    private int nextOffset;
+    private Integer totalCount;
+    private int returned;
+    private int pages;
+    private boolean lastPage;
+    private boolean closed;
+
+    /**
+     * @param pageLoader requests page of the given size starting at the offset passed to the callback
+     */
+    ResourceSearchIterator(int pageSize, int offset,
+                           Callback<Integer, RequestFuture<OperationResult<ClientResourceListWrapper>>> pageLoader) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageSize = pageSize;
+        this.nextOffset = offset;
+        this.pageLoader = pageLoader;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed) {
+                return false;
+            }
+            if (pending == null) {
+                if (lastPage) {
+                    return false;
+                }
+                pending = pageLoader.execute(nextOffset);
+            }
+            RequestFuture<OperationResult<ClientResourceListWrapper>> page = pending;
+            pending = null;
+            readPage(page.join());
+            if (!lastPage) {
+                pending = pageLoader.execute(nextOffset);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized ClientResourceLookup next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        returned++;
+        return current.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Resources can't be removed by search iterator");
+    }
+
+    /**
+     * Cancels the prefetched page, the iterator returns no more resources.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        current = Collections.<ClientResourceLookup>emptyList().iterator();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * @return total number of found resources or <code>null</code> if the server didn't report it yet
+     */
+    public synchronized Integer getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized int getPageCount() {
+        return pages;
+    }
+
+    private void readPage(OperationResult<ClientResourceListWrapper> result) {
+        pages++;
+        Response response = result.getResponse();
+        ClientResourceListWrapper entity = result.getResponseStatus() == Response.Status.NO_CONTENT.getStatusCode()
+                ? null
+                : result.getEntity();
+        List<ClientResourceLookup> lookups = entity != null && entity.getResourceLookups() != null
+                ? entity.getResourceLookups()
+                : Collections.<ClientResourceLookup>emptyList();
+        Integer total = intHeader(response, TOTAL_COUNT_HEADER);
+        if (total != null) {
+            totalCount = total;
+        }
+        Integer serverNextOffset = intHeader(response, NEXT_OFFSET_HEADER);
+        nextOffset = serverNextOffset != null ? serverNextOffset : nextOffset + lookups.size();
+        current = lookups.iterator();
+        lastPage = lookups.isEmpty()
+                || serverNextOffset == null && lookups.size() < pageSize
+                || totalCount != null && returned + lookups.size() >= totalCount;
+    }
+
+    private static Integer intHeader(Response response, String name) {
+        String value = response != null ? response.getHeaderString(name) : null;
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -25,10 +25,13 @@ import com.jaspersoft.jasperserver.dto.resources.ClientReportUnit;
 import com.jaspersoft.jasperserver.dto.resources.ClientSecureMondrianConnection;
 import com.jaspersoft.jasperserver.dto.resources.ClientSemanticLayerDataSource;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.crawler.RepositoryCrawler;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index.RepositoryIndexSync;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.support.builder.DomainResourceBuilder;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.support.builder.MondrianConnectionResourceBuilder;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.support.builder.ReportUnitResourceBuilder;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.support.builder.SecureMondrianConnectionResourceBuilder;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.upload.BulkUploader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.support.ResourceBuilderFactory.getBuilder;
@@ -47,6 +50,18 @@ public class ResourcesService extends AbstractAdapter {
         return new SingleResourceAdapter(sessionStorage, uri);
     }
 
+    public RepositoryCrawler crawler() {
+        return new RepositoryCrawler(sessionStorage);
+    }
+
+    public RepositoryIndexSync indexSync() {
+        return new RepositoryIndexSync(sessionStorage);
+    }
+
+    public BulkUploader bulkUploader() {
+        return new BulkUploader(sessionStorage);
+    }
+
 
     /**
      * Additional features to work with such resources as
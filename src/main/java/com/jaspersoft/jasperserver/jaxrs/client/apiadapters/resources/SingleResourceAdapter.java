@@ -27,19 +27,26 @@ import com.jaspersoft.jasperserver.dto.resources.ClientSemanticLayerDataSource;
 import com.jaspersoft.jasperserver.dto.resources.ResourceMediaType;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.FileTransferUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.MimeTypeUtil;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RangeDownloader;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ResourceMetadataCache;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RestClientConfiguration;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.ThreadPoolUtil;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.CachedEntityOperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.sun.jersey.multipart.FormDataMultiPart;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -49,7 +56,7 @@ public class SingleResourceAdapter extends AbstractAdapter {
     public static final String REGEX = "/";
     private final String resourceUri;
     private final MultivaluedMap<String, String> params;
-    private ArrayList<String> path = new ArrayList<String>();
+    private boolean streaming;
 
     public SingleResourceAdapter(SessionStorage sessionStorage, String resourceUri) {
         super(sessionStorage);
@@ -62,23 +69,122 @@ public class SingleResourceAdapter extends AbstractAdapter {
         return this;
     }
 
+    /**
+     * @param streaming whether content returned by <code>downloadBinary</code> methods is read directly from
+     *                  the connection instead of being buffered in memory. A streamed result must be closed,
+     *                  or its stream read to the end and closed, to release the connection.
+     */
+    public SingleResourceAdapter streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * Requests descriptor of the resource. If resource metadata cache is configured, a valid descriptor
+     * is served from it.
+     */
     public OperationResult<ClientResource> details() {
-        JerseyRequest<ClientResource> request = prepareDetailsRequest();
-        return request.get();
+        ResourceMetadataCache cache = metadataCache();
+        if (cache == null) {
+            return prepareDetailsRequest().get();
+        }
+        String key = metadataKey();
+        ClientResource cached = cache.get(key);
+        if (cached != null) {
+            return new CachedEntityOperationResult<ClientResource>(cached);
+        }
+        long stamp = cache.stamp();
+        return storeDetails(cache, key, stamp, prepareDetailsRequest().get());
     }
 
     public <R> RequestExecution asyncDetails(final Callback<OperationResult<ClientResource>, R> callback) {
         final JerseyRequest<ClientResource> request = prepareDetailsRequest();
+        final ResourceMetadataCache cache = metadataCache();
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.get());
+                if (cache == null) {
+                    callback.execute(request.get());
+                    return;
+                }
+                String key = metadataKey();
+                ClientResource cached = cache.get(key);
+                if (cached != null) {
+                    callback.execute(new CachedEntityOperationResult<ClientResource>(cached));
+                } else {
+                    long stamp = cache.stamp();
+                    callback.execute(storeDetails(cache, key, stamp, request.get()));
+                }
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientResource>> asyncDetails() {
+        final ResourceMetadataCache cache = metadataCache();
+        if (cache == null) {
+            return prepareDetailsRequest().asyncGet();
+        }
+        final String key = metadataKey();
+        ClientResource cached = cache.get(key);
+        if (cached != null) {
+            return RequestFuture.<OperationResult<ClientResource>>completed(new CachedEntityOperationResult<ClientResource>(cached));
+        }
+        final long stamp = cache.stamp();
+        return prepareDetailsRequest().asyncGet().then(new Callback<OperationResult<ClientResource>, OperationResult<ClientResource>>() {
+            @Override
+            public OperationResult<ClientResource> execute(OperationResult<ClientResource> result) {
+                return storeDetails(cache, key, stamp, result);
+            }
+        });
+    }
+
+    private OperationResult<ClientResource> storeDetails(ResourceMetadataCache cache, String key, long stamp,
+                                                         OperationResult<ClientResource> result) {
+        if (result.getResponseStatus() != 200) {
+            return result;
+        }
+        ClientResource loaded = result.getEntity();
+        ClientResource stored = cache.put(key, resourceUri, loaded, stamp);
+        return stored == loaded ? result : new CachedEntityOperationResult<ClientResource>(stored);
+    }
+
+    private ResourceMetadataCache metadataCache() {
+        RestClientConfiguration configuration = sessionStorage.getConfiguration();
+        return configuration != null ? configuration.getResourceMetadataCache() : null;
+    }
+
+    private String metadataKey() {
+        String user = sessionStorage.getCredentials() != null ? sessionStorage.getCredentials().getUsername() : null;
+        return ResourceMetadataCache.keyOf(user, resourceUri, params);
+    }
+
+    /**
+     * Removes the written resources from resource metadata cache.
+     */
+    private <T> T invalidated(T result, String... resourceUris) {
+        ResourceMetadataCache cache = metadataCache();
+        if (cache != null) {
+            for (String uri : resourceUris) {
+                cache.invalidate(uri);
+            }
+        }
+        return result;
+    }
+
+    private <T> RequestFuture<T> invalidatedOnSuccess(RequestFuture<T> future, final String... resourceUris) {
+        if (metadataCache() == null) {
+            return future;
+        }
+        return future.then(new Callback<T, T>() {
+            @Override
+            public T execute(T data) {
+                return invalidated(data, resourceUris);
+            }
+        });
+    }
+
     private JerseyRequest<ClientResource> prepareDetailsRequest() {
         JerseyRequest<ClientResource> request = buildRequest(ClientResource.class);
         request.addParams(params);
@@ -96,24 +202,62 @@ public class SingleResourceAdapter extends AbstractAdapter {
         return "/".equals(resourceUri) || "".equals(resourceUri);
     }
 
+    /**
+     * @return content of the file resource, buffered in memory unless {@link #streaming(boolean)} is set
+     */
     public OperationResult<InputStream> downloadBinary() {
-        return buildRequest(InputStream.class).get();
+        return prepareDownloadRequest(streaming).get();
+    }
+
+    /**
+     * Writes content of the file resource directly to the target file.
+     */
+    public File downloadBinaryTo(File target) {
+        return FileTransferUtil.writeToFile(prepareDownloadRequest(true).get(), target);
+    }
+
+    /**
+     * Builds a downloader of large file resources, which requests parallel ranges and resumes broken downloads.
+     */
+    public RangeDownloader binaryDownloader() {
+        return new RangeDownloader(new Callback<MultivaluedMap<String, String>, OperationResult<InputStream>>() {
+            @Override
+            public OperationResult<InputStream> execute(MultivaluedMap<String, String> headers) {
+                JerseyRequest<InputStream> request = prepareDownloadRequest(true);
+                for (String name : headers.keySet()) {
+                    request.addHeader(name, headers.getFirst(name));
+                }
+                return request.get();
+            }
+        }, sessionStorage);
     }
 
     public <R> RequestExecution asyncDownloadBinary(final Callback<OperationResult<InputStream>, R> callback) {
-        final JerseyRequest<InputStream> request = buildRequest(InputStream.class);
+        final JerseyRequest<InputStream> request = prepareDownloadRequest(streaming);
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
                 callback.execute(request.get());
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<InputStream>> asyncDownloadBinary() {
+        return prepareDownloadRequest(streaming).asyncGet();
+    }
+
+    private JerseyRequest<InputStream> prepareDownloadRequest(boolean streaming) {
+        JerseyRequest<InputStream> request = buildRequest(InputStream.class);
+        if (streaming) {
+            request.setStreaming(true);
+        }
+        return request;
+    }
+
     public OperationResult<ClientResource> createOrUpdate(ClientResource resource) {
-        return prepareCreateOrUpdateRequest(resource).put(resource);
+        return invalidated(prepareCreateOrUpdateRequest(resource).put(resource), resourceUri);
     }
 
     public <R> RequestExecution asyncCreateOrUpdate(final ClientResource resource, final Callback<OperationResult<ClientResource>, R> callback) {
@@ -121,15 +265,19 @@ public class SingleResourceAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.put(resource));
+                callback.execute(invalidated(request.put(resource), resourceUri));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientResource>> asyncCreateOrUpdate(ClientResource resource) {
+        return invalidatedOnSuccess(prepareCreateOrUpdateRequest(resource).asyncPut(resource), resourceUri);
+    }
+
     public OperationResult<ClientResource> createNew(ClientResource resource) {
-        return prepareCreateOrUpdateRequest(resource).post(resource);
+        return invalidated(prepareCreateOrUpdateRequest(resource).post(resource), resourceUri);
     }
 
     public <R> RequestExecution asyncCreateNew(final ClientResource resource, final Callback<OperationResult<ClientResource>, R> callback) {
@@ -137,13 +285,17 @@ public class SingleResourceAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.post(resource));
+                callback.execute(invalidated(request.post(resource), resourceUri));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientResource>> asyncCreateNew(ClientResource resource) {
+        return invalidatedOnSuccess(prepareCreateOrUpdateRequest(resource).asyncPost(resource), resourceUri);
+    }
+
     private JerseyRequest<ClientResource> prepareCreateOrUpdateRequest(ClientResource resource) {
         Class<? extends ClientResource> resourceType = ResourcesTypeResolverUtil.getResourceType(resource);
         JerseyRequest<? extends ClientResource> request = buildRequest(resourceType);
@@ -163,9 +315,9 @@ public class SingleResourceAdapter extends AbstractAdapter {
     private OperationResult<ClientResource> copyOrMove(boolean moving, String fromUri) {
         JerseyRequest<ClientResource> request = prepareCopyOrMoveRequest(fromUri);
         if (moving) {
-            return request.put("");
+            return invalidated(request.put(""), resourceUri, fromUri);
         } else {
-            return request.post(null);
+            return invalidated(request.post(null), resourceUri);
         }
     }
 
@@ -177,18 +329,26 @@ public class SingleResourceAdapter extends AbstractAdapter {
             public void run() {
                 OperationResult<ClientResource> result;
                 if (moving) {
-                    result = request.put("");
+                    result = invalidated(request.put(""), resourceUri, fromUri);
                 } else {
-                    result = request.post(null);
+                    result = invalidated(request.post(null), resourceUri);
                 }
                 callback.execute(result);
             }
         });
 
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientResource>> asyncCopyFrom(String fromUri) {
+        return invalidatedOnSuccess(prepareCopyOrMoveRequest(fromUri).asyncPost(null), resourceUri);
+    }
+
+    public RequestFuture<OperationResult<ClientResource>> asyncMoveFrom(String fromUri) {
+        return invalidatedOnSuccess(prepareCopyOrMoveRequest(fromUri).asyncPut(""), resourceUri, fromUri);
+    }
+
     private JerseyRequest<ClientResource> prepareCopyOrMoveRequest(String fromUri) {
         JerseyRequest<ClientResource> request = buildRequest(ClientResource.class);
         request.addParams(params);
@@ -207,7 +367,13 @@ public class SingleResourceAdapter extends AbstractAdapter {
     public <T> OperationResult<T> uploadMultipartResource(FormDataMultiPart multipartResource, Class<T> clazz) {
         JerseyRequest<T> request = buildRequest(clazz);
         request.setContentType(MediaType.MULTIPART_FORM_DATA);
-        return request.post(multipartResource);
+        return invalidated(request.post(multipartResource), resourceUri);
+    }
+
+    public <T> RequestFuture<OperationResult<T>> asyncUploadMultipartResource(FormDataMultiPart multipartResource, Class<T> clazz) {
+        JerseyRequest<T> request = buildRequest(clazz);
+        request.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return invalidatedOnSuccess(request.asyncPost(multipartResource), resourceUri);
     }
 
     public <T> OperationResult<T> get(Class<T> clazz) {
@@ -228,7 +394,7 @@ public class SingleResourceAdapter extends AbstractAdapter {
                                                   String description) {
         FormDataMultiPart form = prepareUploadForm(fileContent, fileType, label, description);
         JerseyRequest<ClientFile> request = prepareUploadFileRequest();
-        return request.post(form);
+        return invalidated(request.post(form), resourceUri);
     }
 
     public <R> RequestExecution asyncUploadFile(final File fileContent,
@@ -241,13 +407,21 @@ public class SingleResourceAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.post(form));
+                callback.execute(invalidated(request.post(form), resourceUri));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<ClientFile>> asyncUploadFile(File fileContent,
+                                                                     ClientFile.FileType fileType,
+                                                                     String label,
+                                                                     String description) {
+        FormDataMultiPart form = prepareUploadForm(fileContent, fileType, label, description);
+        return invalidatedOnSuccess(prepareUploadFileRequest().asyncPost(form), resourceUri);
+    }
+
     private FormDataMultiPart prepareUploadForm(File fileContent,
                                                 ClientFile.FileType fileType,
                                                 String label,
@@ -265,6 +439,10 @@ public class SingleResourceAdapter extends AbstractAdapter {
         JerseyRequest<ClientFile> request = buildRequest(ClientFile.class);
         request.addParams(params);
         request.setContentType(MediaType.MULTIPART_FORM_DATA);
+        // an upload replacing the existing file has the same result when repeated
+        if (Boolean.parseBoolean(params.getFirst(ResourceServiceParameter.OVERWRITE.getName()))) {
+            request.setIdempotent(true);
+        }
         return request;
     }
 
@@ -281,7 +459,7 @@ public class SingleResourceAdapter extends AbstractAdapter {
 
     public OperationResult delete() {
         JerseyRequest request = buildRequest(Object.class);
-        return request.delete();
+        return invalidated(request.delete(), resourceUri);
     }
 
     public <R> RequestExecution asyncDelete(final Callback<OperationResult, R> callback) {
@@ -289,20 +467,24 @@ public class SingleResourceAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.delete());
+                callback.execute(invalidated(request.delete(), resourceUri));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public RequestFuture<OperationResult<Object>> asyncDelete() {
+        return invalidatedOnSuccess(buildRequest(Object.class).asyncDelete(), resourceUri);
+    }
+
     public OperationResult<ClientResource> patchResource(PatchDescriptor descriptor) {
         throw new UnsupportedOperationException("Server doesn't return proper MIME-type inFolder resolve entity type");
     }
 
     public <ResourceType extends ClientResource> OperationResult<ResourceType> patchResource(Class<ResourceType> resourceTypeClass, PatchDescriptor descriptor) {
         JerseyRequest<ResourceType> request = preparePatchResourceRequest(resourceTypeClass);
-        return request.post(descriptor);
+        return invalidated(request.post(descriptor), resourceUri);
     }
 
     public <ResourceType extends ClientResource, R> RequestExecution asyncPatchResource(final Class<ResourceType> resourceTypeClass,
@@ -312,13 +494,17 @@ public class SingleResourceAdapter extends AbstractAdapter {
         RequestExecution task = new RequestExecution(new Runnable() {
             @Override
             public void run() {
-                callback.execute(request.post(descriptor));
+                callback.execute(invalidated(request.post(descriptor), resourceUri));
             }
         });
-        ThreadPoolUtil.runAsynchronously(task);
+        ThreadPoolUtil.runAsynchronously(task, sessionStorage);
         return task;
     }
 
+    public <ResourceType extends ClientResource> RequestFuture<OperationResult<ResourceType>> asyncPatchResource(Class<ResourceType> resourceTypeClass, PatchDescriptor descriptor) {
+        return invalidatedOnSuccess(preparePatchResourceRequest(resourceTypeClass).asyncPost(descriptor), resourceUri);
+    }
+
     private <ResourceType extends ClientResource> JerseyRequest<ResourceType> preparePatchResourceRequest(Class<ResourceType> resourceTypeClass) {
         JerseyRequest<ResourceType> request = buildRequest(resourceTypeClass);
         request.setAccept(MimeTypeUtil.toCorrectContentMime(sessionStorage.getConfiguration(), ResourcesTypeResolverUtil.getMimeType(resourceTypeClass)));
@@ -327,6 +513,7 @@ public class SingleResourceAdapter extends AbstractAdapter {
     }
 
     private <P> JerseyRequest<P> buildRequest(Class<P> clazz) {
+        List<String> path = new ArrayList<String>();
         path.add(SERVICE_URI);
         if (!resourceUri.equals(REGEX)) {
             path.addAll(Arrays.asList(resourceUri.split(REGEX)));
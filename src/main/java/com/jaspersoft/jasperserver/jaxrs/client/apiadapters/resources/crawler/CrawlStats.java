@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.crawler;
+
+/**
+ * Point-in-time snapshot of the crawler counters.
+ */
+public class CrawlStats {
+
+    private final long folders;
+    private final long resources;
+    private final long details;
+    private final long requests;
+    private final long failed;
+    private final int running;
+    private final long elapsedMillis;
+
+    public CrawlStats(long folders, long resources, long details, long requests, long failed, int running,
+                      long elapsedMillis) {
+        this.folders = folders;
+        this.resources = resources;
+        this.details = details;
+        this.requests = requests;
+        this.failed = failed;
+        this.running = running;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return number of listed folders
+     */
+    public long getFolders() {
+        return folders;
+    }
+
+    /**
+     * @return number of visited resources
+     */
+    public long getResources() {
+        return resources;
+    }
+
+    /**
+     * @return number of loaded full descriptors
+     */
+    public long getDetails() {
+        return details;
+    }
+
+    /**
+     * @return number of finished requests, a folder with several pages takes several requests
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return number of requests currently in progress
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return finished requests per second
+     */
+    public double getThroughput() {
+        return elapsedMillis > 0 ? requests * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlStats{" +
+                "folders=" + folders +
+                ", resources=" + resources +
+                ", details=" + details +
+                ", requests=" + requests +
+                ", failed=" + failed +
+                ", running=" + running +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.crawler;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.BatchResourcesAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.ResourceSearchIterator;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.ResourceSearchParameter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.SingleResourceAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.TaskRunner;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.core.Response;
+
+/**
+ * Walks the repository tree starting at a folder. Every folder is listed with a non-recursive search
+ * by pages, so sibling folders and pages are requested in parallel, at most <code>concurrency</code> requests
+ * are in progress at the same time. Resources of the enriched types are additionally loaded with
+ * <code>details()</code>. Found resources are passed to the visitor as soon as their page is received.
+ */
+public class RepositoryCrawler extends AbstractAdapter {
+
+    public static final String FOLDER_TYPE = "folder";
+
+    private int concurrency = 4;
+    private int pageSize = 500;
+    private int maxDepth = Integer.MAX_VALUE;
+    private Set<String> enrichedTypes = Collections.emptySet();
+    private RepositoryVisitor visitor;
+
+    private volatile TaskRunner runner = new TaskRunner(concurrency);
+
+    private final AtomicLong folders = new AtomicLong();
+    private final AtomicLong resources = new AtomicLong();
+    private final AtomicLong details = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long startedAt;
+
+    public RepositoryCrawler(SessionStorage sessionStorage) {
+        super(sessionStorage);
+    }
+
+    public RepositoryCrawler concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public RepositoryCrawler pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size should be positive");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * @param maxDepth depth of folders to list, <code>0</code> lists the start folder only
+     */
+    public RepositoryCrawler maxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * @param resourceTypes types of resources whose full descriptors are loaded and passed
+     *                      to {@link RepositoryVisitor#visitDetails(ClientResource)}
+     */
+    public RepositoryCrawler enrich(String... resourceTypes) {
+        this.enrichedTypes = new HashSet<String>(Arrays.asList(resourceTypes));
+        return this;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public RepositoryCrawler visitor(RepositoryVisitor visitor) {
+        this.visitor = visitor;
+        return this;
+    }
+
+    /**
+     * Crawls the tree and waits until all folders are listed.
+     *
+     * @return final counters of the crawl
+     */
+    public CrawlStats crawl(String folderUri) {
+        if (visitor == null) {
+            throw new IllegalStateException("Visitor of the crawler is not set");
+        }
+        reset();
+        TaskRunner runner = this.runner;
+        runner.submit(listTask(folderUri, 0, 0));
+        try {
+            runner.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while crawling the repository", e);
+        }
+        return getStats();
+    }
+
+    /**
+     * Stops the crawl, requests in progress are completed but no new requests are started.
+     */
+    public void stop() {
+        runner.stop();
+    }
+
+    /**
+     * @return current counters, can be called from other threads while the crawl is running
+     */
+    public CrawlStats getStats() {
+        return new CrawlStats(folders.get(), resources.get(), details.get(), requests.get(), failed.get(),
+                runner.getRunning(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * Requests the page of the folder children.
+     */
+    protected RequestFuture<OperationResult<ClientResourceListWrapper>> searchFolder(String folderUri, int offset) {
+        return new BatchResourcesAdapter(sessionStorage)
+                .parameter(ResourceSearchParameter.FOLDER_URI, folderUri)
+                .parameter(ResourceSearchParameter.RECURSIVE, "false")
+                .parameter(ResourceSearchParameter.LIMIT, String.valueOf(pageSize))
+                .parameter(ResourceSearchParameter.OFFSET, String.valueOf(offset))
+                .asyncSearch();
+    }
+
+    /**
+     * Requests the full descriptor of the resource.
+     */
+    protected RequestFuture<OperationResult<ClientResource>> loadDetails(String resourceUri) {
+        return new SingleResourceAdapter(sessionStorage, resourceUri).asyncDetails();
+    }
+
+    private void reset() {
+        runner = new TaskRunner(concurrency);
+        folders.set(0);
+        resources.set(0);
+        details.set(0);
+        requests.set(0);
+        failed.set(0);
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * The handlers are registered before the runner listens to the returned future,
+     * so discovered tasks are submitted before the task is counted as finished.
+     */
+    private TaskRunner.Task listTask(final String folderUri, final int offset, final int depth) {
+        return new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                RequestFuture<OperationResult<ClientResourceListWrapper>> page;
+                try {
+                    page = searchFolder(folderUri, offset);
+                } catch (RuntimeException e) {
+                    page = RequestFuture.failed(e);
+                }
+                return page.onSuccess(new Callback<OperationResult<ClientResourceListWrapper>, Void>() {
+                    @Override
+                    public Void execute(OperationResult<ClientResourceListWrapper> result) {
+                        try {
+                            readPage(folderUri, offset, depth, result);
+                            finish(null, null);
+                        } catch (RuntimeException e) {
+                            finish(folderUri, e);
+                        }
+                        return null;
+                    }
+                }).onFailure(new Callback<Throwable, Void>() {
+                    @Override
+                    public Void execute(Throwable data) {
+                        finish(folderUri, data);
+                        return null;
+                    }
+                });
+            }
+        };
+    }
+
+    private TaskRunner.Task detailsTask(final String resourceUri) {
+        return new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                RequestFuture<OperationResult<ClientResource>> descriptor;
+                try {
+                    descriptor = loadDetails(resourceUri);
+                } catch (RuntimeException e) {
+                    descriptor = RequestFuture.failed(e);
+                }
+                return descriptor.onSuccess(new Callback<OperationResult<ClientResource>, Void>() {
+                    @Override
+                    public Void execute(OperationResult<ClientResource> result) {
+                        try {
+                            visitor.visitDetails(result.getEntity());
+                            details.incrementAndGet();
+                            finish(null, null);
+                        } catch (RuntimeException e) {
+                            finish(resourceUri, e);
+                        }
+                        return null;
+                    }
+                }).onFailure(new Callback<Throwable, Void>() {
+                    @Override
+                    public Void execute(Throwable data) {
+                        finish(resourceUri, data);
+                        return null;
+                    }
+                });
+            }
+        };
+    }
+
+    private void readPage(String folderUri, int offset, int depth, OperationResult<ClientResourceListWrapper> result) {
+        ClientResourceListWrapper entity = result.getResponseStatus() == Response.Status.NO_CONTENT.getStatusCode()
+                ? null
+                : result.getEntity();
+        List<ClientResourceLookup> lookups = entity != null && entity.getResourceLookups() != null
+                ? entity.getResourceLookups()
+                : Collections.<ClientResourceLookup>emptyList();
+        if (offset == 0) {
+            folders.incrementAndGet();
+        }
+        List<TaskRunner.Task> discovered = new ArrayList<TaskRunner.Task>();
+        String nextOffset = result.getResponse() != null
+                ? result.getResponse().getHeaderString(ResourceSearchIterator.NEXT_OFFSET_HEADER)
+                : null;
+        if (nextOffset != null && !lookups.isEmpty()) {
+            discovered.add(listTask(folderUri, Integer.parseInt(nextOffset.trim()), depth));
+        } else if (nextOffset == null && lookups.size() >= pageSize) {
+            discovered.add(listTask(folderUri, offset + lookups.size(), depth));
+        }
+        for (ClientResourceLookup lookup : lookups) {
+            resources.incrementAndGet();
+            visitor.visit(lookup);
+            if (FOLDER_TYPE.equals(lookup.getResourceType())) {
+                if (depth < maxDepth) {
+                    discovered.add(listTask(lookup.getUri(), 0, depth + 1));
+                }
+            } else if (enrichedTypes.contains(lookup.getResourceType())) {
+                discovered.add(detailsTask(lookup.getUri()));
+            }
+        }
+        runner.submitAll(discovered);
+    }
+
+    private void finish(String uri, Throwable failure) {
+        requests.incrementAndGet();
+        if (failure != null) {
+            failed.incrementAndGet();
+            visitor.failed(uri, failure instanceof Exception ? (Exception) failure : new JSClientException(failure));
+        }
+    }
+}
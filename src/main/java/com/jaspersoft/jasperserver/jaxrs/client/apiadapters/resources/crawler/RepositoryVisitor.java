@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.crawler;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+
+/**
+ * Receives resources found by {@link RepositoryCrawler}. Pages of different folders are received in parallel,
+ * so the visitor must be thread safe, and a resource may be visited before the resources of its parent folder.
+ */
+public interface RepositoryVisitor {
+
+    /**
+     * Called for each resource of a crawled folder, including subfolders.
+     */
+    void visit(ClientResourceLookup lookup);
+
+    /**
+     * Called with the full descriptor of a resource whose type is enriched by the crawler.
+     */
+    void visitDetails(ClientResource resource);
+
+    /**
+     * Called when a folder could not be listed or details of a resource could not be loaded.
+     * The rest of the tree is crawled anyway.
+     */
+    void failed(String uri, Exception cause);
+}
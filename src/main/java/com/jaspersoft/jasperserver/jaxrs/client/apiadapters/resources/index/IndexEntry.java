@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index;
+
+/**
+ * Resource known by {@link RepositoryIndex}.
+ */
+public class IndexEntry {
+
+    private final String uri;
+    private final String resourceType;
+    private final Integer version;
+
+    public IndexEntry(String uri, String resourceType, Integer version) {
+        this.uri = uri;
+        this.resourceType = resourceType;
+        this.version = version;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IndexEntry)) return false;
+
+        IndexEntry that = (IndexEntry) o;
+
+        if (!uri.equals(that.uri)) return false;
+        if (resourceType != null ? !resourceType.equals(that.resourceType) : that.resourceType != null) return false;
+        return version != null ? version.equals(that.version) : that.version == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = uri.hashCode();
+        result = 31 * result + (resourceType != null ? resourceType.hashCode() : 0);
+        result = 31 * result + (version != null ? version.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexEntry{" +
+                "uri='" + uri + '\'' +
+                ", resourceType='" + resourceType + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
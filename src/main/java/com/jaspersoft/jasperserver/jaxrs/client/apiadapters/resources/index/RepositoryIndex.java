@@ -0,0 +1,596 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of repository resources: URI, resource type and version. URIs are kept in a prefix tree
+ * over path segments, chains of folders with a single child are stored in one node, segment names and
+ * resource types are shared between nodes and type and version of a resource are packed in a single
+ * <code>long</code>. Lookups do not allocate. Removing a URI removes all resources under it.
+ * The index can be saved to a file and loaded back, use {@link RepositoryIndexSync} to fill it from the server.
+ */
+public class RepositoryIndex {
+
+    private static final int MAGIC = 0x4A525349;
+    private static final int FORMAT_VERSION = 1;
+    private static final long ABSENT = 0L;
+    private static final int NO_VERSION = Integer.MIN_VALUE;
+    private static final String[] NO_SEGMENTS = new String[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String> segments = new HashMap<String, String>();
+    private final List<String> types = new ArrayList<String>();
+    private final Map<String, Integer> typeIds = new HashMap<String, Integer>();
+    private Node root = new Node(NO_SEGMENTS);
+    private int size;
+    private String watermark;
+
+    public boolean contains(String uri) {
+        lock.readLock().lock();
+        try {
+            Node node = find(uri);
+            return node != null && node.value != ABSENT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return resource type or <code>null</code> if the URI is not indexed
+     */
+    public String getType(String uri) {
+        lock.readLock().lock();
+        try {
+            Node node = find(uri);
+            return node != null && node.value != ABSENT ? types.get(typeIndex(node.value)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return version of the resource or <code>null</code> if the URI is not indexed or has no version
+     */
+    public Integer getVersion(String uri) {
+        lock.readLock().lock();
+        try {
+            Node node = find(uri);
+            return node != null && node.value != ABSENT ? version(node.value) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return indexed resource or <code>null</code>
+     */
+    public IndexEntry get(String uri) {
+        lock.readLock().lock();
+        try {
+            Node node = find(uri);
+            return node != null && node.value != ABSENT
+                    ? new IndexEntry(uri, types.get(typeIndex(node.value)), version(node.value))
+                    : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the resource or replaces its type and version.
+     */
+    public void put(String uri, String resourceType, Integer version) {
+        String[] path = split(uri);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < path.length; i++) {
+                path[i] = intern(path[i]);
+            }
+            Node node = insert(path);
+            if (node.value == ABSENT) {
+                size++;
+            }
+            node.value = pack(typeId(resourceType), version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the resource and all resources under it.
+     *
+     * @return number of removed resources
+     */
+    public int remove(String uri) {
+        lock.writeLock().lock();
+        try {
+            String[] path = split(uri);
+            List<Node> parents = new ArrayList<Node>();
+            Node node = root;
+            int matched = 0;
+            while (matched < path.length) {
+                int index = search(node.children, path[matched]);
+                if (index < 0) {
+                    return 0;
+                }
+                Node child = node.children[index];
+                int compared = Math.min(child.label.length, path.length - matched);
+                for (int i = 0; i < compared; i++) {
+                    if (!child.label[i].equals(path[matched + i])) {
+                        return 0;
+                    }
+                }
+                // URI which ends inside of the label is a folder containing only the child subtree
+                parents.add(node);
+                matched += compared;
+                node = child;
+            }
+            if (node == root) {
+                int removed = size;
+                root = new Node(NO_SEGMENTS);
+                size = 0;
+                return removed;
+            }
+            int removed = count(node);
+            size -= removed;
+            detach(parents, node);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node(NO_SEGMENTS);
+            size = 0;
+            segments.clear();
+            types.clear();
+            typeIds.clear();
+            watermark = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return latest update date of resources loaded by synchronization or <code>null</code> if the index was
+     * never synchronized
+     */
+    public String getWatermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void setWatermark(String watermark) {
+        lock.writeLock().lock();
+        try {
+            this.watermark = watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces content of this index with content of the other one.
+     */
+    public void replaceWith(RepositoryIndex other) {
+        if (other == this) {
+            return;
+        }
+        lock.writeLock().lock();
+        other.lock.readLock().lock();
+        try {
+            segments.clear();
+            segments.putAll(other.segments);
+            types.clear();
+            types.addAll(other.types);
+            typeIds.clear();
+            typeIds.putAll(other.typeIds);
+            root = other.root.copy();
+            size = other.size;
+            watermark = other.watermark;
+        } finally {
+            other.lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the index to the file. The file is written under a temporary name and renamed when complete.
+     */
+    public void save(File file) {
+        File partial = new File(file.getPath() + ".part");
+        lock.readLock().lock();
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(partial)));
+            try {
+                writeTo(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            partial.delete();
+            throw new JSClientException("Cannot save repository index to " + file, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (file.exists() && !file.delete() || !partial.renameTo(file)) {
+            partial.delete();
+            throw new JSClientException("Cannot move repository index to " + file);
+        }
+    }
+
+    /**
+     * @return index read from the file written by {@link #save(File)}
+     */
+    public static RepositoryIndex load(File file) {
+        RepositoryIndex index = new RepositoryIndex();
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                index.readFrom(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new JSClientException("Cannot load repository index from " + file, e);
+        }
+        return index;
+    }
+
+    private Node find(String uri) {
+        int length = uri.length();
+        int position = uri.startsWith("/") ? 1 : 0;
+        Node node = root;
+        while (position < length) {
+            Node child = findChild(node.children, uri, position, segmentEnd(uri, position));
+            if (child == null) {
+                return null;
+            }
+            for (String segment : child.label) {
+                if (position > length) {
+                    return null;
+                }
+                int end = segmentEnd(uri, position);
+                if (end - position != segment.length() || !uri.regionMatches(position, segment, 0, segment.length())) {
+                    return null;
+                }
+                position = end + 1;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private Node insert(String[] path) {
+        Node node = root;
+        int matched = 0;
+        while (matched < path.length) {
+            int index = search(node.children, path[matched]);
+            if (index < 0) {
+                String[] label = new String[path.length - matched];
+                System.arraycopy(path, matched, label, 0, label.length);
+                Node child = new Node(label);
+                node.children = insertAt(node.children, -index - 1, child);
+                return child;
+            }
+            Node child = node.children[index];
+            int common = 1;
+            while (common < child.label.length && matched + common < path.length
+                    && child.label[common].equals(path[matched + common])) {
+                common++;
+            }
+            if (common < child.label.length) {
+                child = split(node, index, common);
+            }
+            matched += common;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Splits the label of the child, so the first <code>common</code> segments form a new intermediate node.
+     */
+    private Node split(Node parent, int index, int common) {
+        Node child = parent.children[index];
+        String[] head = new String[common];
+        String[] tail = new String[child.label.length - common];
+        System.arraycopy(child.label, 0, head, 0, common);
+        System.arraycopy(child.label, common, tail, 0, tail.length);
+        Node intermediate = new Node(head);
+        child.label = tail;
+        intermediate.children = new Node[]{child};
+        parent.children[index] = intermediate;
+        return intermediate;
+    }
+
+    /**
+     * Removes the node from its parent and merges or removes parents which are left without resources.
+     */
+    private void detach(List<Node> parents, Node node) {
+        Node removed = node;
+        for (int i = parents.size() - 1; i >= 0; i--) {
+            Node parent = parents.get(i);
+            parent.children = removeAt(parent.children, search(parent.children, removed.label[0]));
+            if (parent == root || parent.value != ABSENT || parent.children.length > 1) {
+                break;
+            }
+            if (parent.children.length == 1) {
+                Node child = parent.children[0];
+                String[] label = new String[parent.label.length + child.label.length];
+                System.arraycopy(parent.label, 0, label, 0, parent.label.length);
+                System.arraycopy(child.label, 0, label, parent.label.length, child.label.length);
+                parent.label = label;
+                parent.value = child.value;
+                parent.children = child.children;
+                break;
+            }
+            removed = parent;
+        }
+    }
+
+    private int count(Node node) {
+        int count = node.value != ABSENT ? 1 : 0;
+        for (Node child : node.children) {
+            count += count(child);
+        }
+        return count;
+    }
+
+    private String intern(String segment) {
+        String interned = segments.get(segment);
+        if (interned == null) {
+            segments.put(segment, segment);
+            interned = segment;
+        }
+        return interned;
+    }
+
+    private int typeId(String type) {
+        String key = type != null ? type : "";
+        Integer id = typeIds.get(key);
+        if (id == null) {
+            id = types.size();
+            types.add(key);
+            typeIds.put(key, id);
+        }
+        return id;
+    }
+
+    private static long pack(int typeId, Integer version) {
+        return ((long) (typeId + 1) << 32) | ((version != null ? version : NO_VERSION) & 0xFFFFFFFFL);
+    }
+
+    private static int typeIndex(long value) {
+        return (int) (value >>> 32) - 1;
+    }
+
+    private static Integer version(long value) {
+        int version = (int) value;
+        return version != NO_VERSION ? version : null;
+    }
+
+    private static String[] split(String uri) {
+        List<String> path = new ArrayList<String>();
+        int length = uri.length();
+        int position = uri.startsWith("/") ? 1 : 0;
+        while (position < length) {
+            int end = segmentEnd(uri, position);
+            if (end > position) {
+                path.add(uri.substring(position, end));
+            }
+            position = end + 1;
+        }
+        return path.toArray(new String[path.size()]);
+    }
+
+    private static int segmentEnd(String uri, int position) {
+        int end = uri.indexOf('/', position);
+        return end < 0 ? uri.length() : end;
+    }
+
+    private static Node findChild(Node[] children, String uri, int start, int end) {
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(children[middle].label[0], uri, start, end);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return children[middle];
+            }
+        }
+        return null;
+    }
+
+    private static int compare(String segment, String uri, int start, int end) {
+        int length = Math.min(segment.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            int difference = segment.charAt(i) - uri.charAt(start + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return segment.length() - (end - start);
+    }
+
+    private static int search(Node[] children, String segment) {
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = children[middle].label[0].compareTo(segment);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static Node[] insertAt(Node[] nodes, int index, Node node) {
+        Node[] result = new Node[nodes.length + 1];
+        System.arraycopy(nodes, 0, result, 0, index);
+        result[index] = node;
+        System.arraycopy(nodes, index, result, index + 1, nodes.length - index);
+        return result;
+    }
+
+    private static Node[] removeAt(Node[] nodes, int index) {
+        if (nodes.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] result = new Node[nodes.length - 1];
+        System.arraycopy(nodes, 0, result, 0, index);
+        System.arraycopy(nodes, index + 1, result, index, nodes.length - index - 1);
+        return result;
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeBoolean(watermark != null);
+        if (watermark != null) {
+            out.writeUTF(watermark);
+        }
+        out.writeInt(types.size());
+        for (String type : types) {
+            out.writeUTF(type);
+        }
+        Map<String, Integer> segmentIds = new HashMap<String, Integer>();
+        List<String> segmentList = new ArrayList<String>(segments.keySet());
+        out.writeInt(segmentList.size());
+        for (String segment : segmentList) {
+            segmentIds.put(segment, segmentIds.size());
+            out.writeUTF(segment);
+        }
+        out.writeInt(size);
+        writeNode(out, root, segmentIds);
+    }
+
+    private void writeNode(DataOutputStream out, Node node, Map<String, Integer> segmentIds) throws IOException {
+        out.writeInt(node.label.length);
+        for (String segment : node.label) {
+            out.writeInt(segmentIds.get(segment));
+        }
+        out.writeLong(node.value);
+        out.writeInt(node.children.length);
+        for (Node child : node.children) {
+            writeNode(out, child, segmentIds);
+        }
+    }
+
+    private void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported repository index format");
+        }
+        watermark = in.readBoolean() ? in.readUTF() : null;
+        int typeCount = in.readInt();
+        for (int i = 0; i < typeCount; i++) {
+            typeId(in.readUTF());
+        }
+        String[] segmentTable = new String[in.readInt()];
+        for (int i = 0; i < segmentTable.length; i++) {
+            segmentTable[i] = intern(in.readUTF());
+        }
+        size = in.readInt();
+        root = readNode(in, segmentTable);
+    }
+
+    private Node readNode(DataInputStream in, String[] segmentTable) throws IOException {
+        String[] label = new String[in.readInt()];
+        for (int i = 0; i < label.length; i++) {
+            label[i] = segmentTable[in.readInt()];
+        }
+        Node node = new Node(label.length > 0 ? label : NO_SEGMENTS);
+        node.value = in.readLong();
+        int childCount = in.readInt();
+        if (childCount > 0) {
+            node.children = new Node[childCount];
+            for (int i = 0; i < childCount; i++) {
+                node.children[i] = readNode(in, segmentTable);
+            }
+        }
+        return node;
+    }
+
+    private static class Node {
+        private String[] label;
+        private Node[] children = NO_CHILDREN;
+        private long value = ABSENT;
+
+        private Node(String[] label) {
+            this.label = label;
+        }
+
+        private Node copy() {
+            Node copy = new Node(label);
+            copy.value = value;
+            if (children.length > 0) {
+                copy.children = new Node[children.length];
+                for (int i = 0; i < children.length; i++) {
+                    copy.children[i] = children[i].copy();
+                }
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.BatchResourcesAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.ResourceSearchParameter;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Fills {@link RepositoryIndex} from a recursive search of the folder. Incremental synchronization requests
+ * resources sorted by update date, the server lists the most recently updated resources first, so reading
+ * stops at the first resource updated before the watermark of the index. Deleted resources are not reported
+ * by the search, they are removed from the index by a full rebuild only.
+ */
+public class RepositoryIndexSync extends AbstractAdapter {
+
+    private static final Log log = LogFactory.getLog(RepositoryIndexSync.class);
+
+    public static final String SORT_BY_UPDATE_DATE = "updateDate";
+
+    private String folderUri = "/";
+    private int pageSize = 1000;
+    private boolean showHiddenItems;
+
+    public RepositoryIndexSync(SessionStorage sessionStorage) {
+        super(sessionStorage);
+    }
+
+    public RepositoryIndexSync folderUri(String folderUri) {
+        this.folderUri = folderUri;
+        return this;
+    }
+
+    public RepositoryIndexSync pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size should be positive");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public RepositoryIndexSync showHiddenItems(boolean showHiddenItems) {
+        this.showHiddenItems = showHiddenItems;
+        return this;
+    }
+
+    /**
+     * Adds or updates resources changed since the previous synchronization. The index which was never
+     * synchronized is rebuilt.
+     *
+     * @return number of added or updated resources
+     */
+    public int sync(RepositoryIndex index) {
+        String since = index.getWatermark();
+        if (since == null) {
+            return rebuild(index);
+        }
+        String latest = since;
+        int updated = 0;
+        Iterator<ClientResourceLookup> lookups = lookups(true);
+        try {
+            while (lookups.hasNext()) {
+                ClientResourceLookup lookup = lookups.next();
+                String updateDate = normalize(lookup.getUpdateDate());
+                if (updateDate != null && updateDate.compareTo(since) < 0) {
+                    break;
+                }
+                index.put(lookup.getUri(), lookup.getResourceType(), lookup.getVersion());
+                updated++;
+                if (updateDate != null && updateDate.compareTo(latest) > 0) {
+                    latest = updateDate;
+                }
+            }
+        } finally {
+            close(lookups);
+        }
+        index.setWatermark(latest);
+        return updated;
+    }
+
+    /**
+     * Replaces content of the index with all resources of the folder.
+     *
+     * @return number of indexed resources
+     */
+    public int rebuild(RepositoryIndex index) {
+        RepositoryIndex rebuilt = new RepositoryIndex();
+        String latest = null;
+        Iterator<ClientResourceLookup> lookups = lookups(false);
+        try {
+            while (lookups.hasNext()) {
+                ClientResourceLookup lookup = lookups.next();
+                rebuilt.put(lookup.getUri(), lookup.getResourceType(), lookup.getVersion());
+                String updateDate = normalize(lookup.getUpdateDate());
+                if (updateDate != null && (latest == null || updateDate.compareTo(latest) > 0)) {
+                    latest = updateDate;
+                }
+            }
+        } finally {
+            close(lookups);
+        }
+        rebuilt.setWatermark(latest);
+        index.replaceWith(rebuilt);
+        return rebuilt.size();
+    }
+
+    /**
+     * @param byUpdateDate whether the most recently updated resources should be returned first
+     * @return resources of the folder and its subfolders
+     */
+    protected Iterator<ClientResourceLookup> lookups(boolean byUpdateDate) {
+        BatchResourcesAdapter adapter = new BatchResourcesAdapter(sessionStorage)
+                .parameter(ResourceSearchParameter.FOLDER_URI, folderUri)
+                .parameter(ResourceSearchParameter.RECURSIVE, "true");
+        if (byUpdateDate) {
+            adapter.parameter(ResourceSearchParameter.SORT_BY, SORT_BY_UPDATE_DATE);
+        }
+        if (showHiddenItems) {
+            adapter.parameter(ResourceSearchParameter.SHOW_HIDDEN_ITEMS, "true");
+        }
+        return adapter.searchIterator(pageSize);
+    }
+
+    /**
+     * Brings both date formats used by the server to the sortable one.
+     */
+    private static String normalize(String updateDate) {
+        return updateDate != null ? updateDate.trim().replace(' ', 'T') : null;
+    }
+
+    private static void close(Iterator<?> iterator) {
+        if (iterator instanceof Closeable) {
+            try {
+                ((Closeable) iterator).close();
+            } catch (IOException e) {
+                log.debug("Failed to close search", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.upload;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientFile;
+import com.jaspersoft.jasperserver.dto.resources.ClientFolder;
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.ResourceServiceParameter;
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.SingleResourceAdapter;
+import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.TaskRunner;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ResourceNotFoundException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uploads a local directory tree into a repository folder. The folder skeleton is mapped first: every
+ * directory is looked up once and created only when missing, folders below a created folder are created
+ * without the lookup. Files are uploaded as soon as their folder is ready, at most <code>concurrency</code>
+ * requests are in progress at the same time. File content is sent as a multipart body read from disk.
+ * Transient failures are repeated by the {@link com.jaspersoft.jasperserver.jaxrs.client.core.RetryPolicy}
+ * of the client: lookups and folder creations always, file uploads only when they overwrite existing files.
+ */
+public class BulkUploader extends AbstractAdapter {
+
+    private int concurrency = 4;
+    private boolean overwrite;
+    private final Map<String, ClientFile.FileType> fileTypes = new HashMap<String, ClientFile.FileType>();
+    private ClientFile.FileType defaultFileType;
+    private UploadListener listener;
+
+    private volatile TaskRunner runner = new TaskRunner(concurrency);
+    private final Set<String> readyFolders = Collections.synchronizedSet(new HashSet<String>());
+
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong folders = new AtomicLong();
+    private final AtomicLong createdFolders = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long startedAt;
+
+    public BulkUploader(SessionStorage sessionStorage) {
+        super(sessionStorage);
+        for (ClientFile.FileType fileType : ClientFile.FileType.values()) {
+            fileTypes.put(fileType.name().toLowerCase(Locale.ENGLISH), fileType);
+        }
+        fileTypes.put("htm", ClientFile.FileType.html);
+        fileTypes.put("properties", ClientFile.FileType.prop);
+        for (String extension : Arrays.asList("png", "jpg", "jpeg", "gif", "bmp", "svg")) {
+            fileTypes.put(extension, ClientFile.FileType.img);
+        }
+        for (String extension : Arrays.asList("ttf", "otf")) {
+            fileTypes.put(extension, ClientFile.FileType.font);
+        }
+    }
+
+    public BulkUploader concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @param overwrite replace files which already exist in the repository. Such an upload has the same
+     *                  result when it is sent again, so it is repeated after transient failures
+     */
+    public BulkUploader overwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+        return this;
+    }
+
+    /**
+     * Maps files with the extension to the file type, extensions equal to the file type names
+     * and common image and font extensions are mapped by default.
+     */
+    public BulkUploader fileType(String extension, ClientFile.FileType fileType) {
+        fileTypes.put(extension.toLowerCase(Locale.ENGLISH), fileType);
+        return this;
+    }
+
+    /**
+     * @param fileType type of files with unknown extensions, when <code>null</code> such files are skipped
+     */
+    public BulkUploader defaultFileType(ClientFile.FileType fileType) {
+        this.defaultFileType = fileType;
+        return this;
+    }
+
+    public BulkUploader listener(UploadListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Uploads content of the directory into the folder and waits until all files are processed.
+     * Hidden files and directories are ignored.
+     *
+     * @return final counters of the upload
+     */
+    public UploadStats upload(File directory, String folderUri) {
+        if (directory == null || !directory.isDirectory()) {
+            throw new IllegalArgumentException("Directory to upload does not exist: " + directory);
+        }
+        reset();
+        TaskRunner runner = this.runner;
+        runner.submit(folderTask(directory, folderUri, false));
+        try {
+            runner.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while uploading " + directory, e);
+        }
+        return getStats();
+    }
+
+    /**
+     * Stops the upload, requests in progress are completed but no new requests are started.
+     */
+    public void stop() {
+        runner.stop();
+    }
+
+    /**
+     * @return current counters, can be called from other threads while the upload is running
+     */
+    public UploadStats getStats() {
+        return new UploadStats(files.get(), bytes.get(), folders.get(), createdFolders.get(), failed.get(),
+                skipped.get(), runner.getRunning(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * Requests the descriptor of the folder to find out whether it exists.
+     */
+    protected RequestFuture<OperationResult<ClientResource>> lookupFolder(String folderUri) {
+        return new SingleResourceAdapter(sessionStorage, folderUri).asyncDetails();
+    }
+
+    /**
+     * Creates the folder with the exact URI.
+     */
+    protected RequestFuture<OperationResult<ClientResource>> createFolder(String folderUri, String label) {
+        ClientFolder folder = new ClientFolder();
+        folder.setUri(folderUri);
+        folder.setLabel(label);
+        return new SingleResourceAdapter(sessionStorage, folderUri).asyncCreateOrUpdate(folder);
+    }
+
+    /**
+     * Uploads the file into the folder, the file name is used as the label of the new resource.
+     */
+    protected RequestFuture<OperationResult<ClientFile>> uploadFile(String folderUri, File file,
+                                                                   ClientFile.FileType fileType) {
+        SingleResourceAdapter folder = new SingleResourceAdapter(sessionStorage, folderUri);
+        if (overwrite) {
+            folder.parameter(ResourceServiceParameter.OVERWRITE, "true");
+        }
+        return folder.asyncUploadFile(file, fileType, file.getName(), "");
+    }
+
+    private void reset() {
+        runner = new TaskRunner(concurrency);
+        files.set(0);
+        bytes.set(0);
+        folders.set(0);
+        createdFolders.set(0);
+        failed.set(0);
+        skipped.set(0);
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * The returned futures are completed after the handlers, so tasks of a ready folder are submitted
+     * before the folder task is counted as finished.
+     */
+    private TaskRunner.Task folderTask(final File directory, final String folderUri, final boolean parentCreated) {
+        return new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                RequestFuture<Boolean> created;
+                if (readyFolders.contains(folderUri)) {
+                    created = null;
+                } else if (parentCreated) {
+                    created = create();
+                } else {
+                    RequestFuture<OperationResult<ClientResource>> lookup;
+                    try {
+                        lookup = lookupFolder(folderUri);
+                    } catch (RuntimeException e) {
+                        lookup = RequestFuture.failed(e);
+                    }
+                    // null stands for a missing folder
+                    created = lookup.then(new Callback<OperationResult<ClientResource>, Boolean>() {
+                        @Override
+                        public Boolean execute(OperationResult<ClientResource> data) {
+                            return Boolean.FALSE;
+                        }
+                    }).recover(new Callback<Throwable, Boolean>() {
+                        @Override
+                        public Boolean execute(Throwable data) {
+                            if (data instanceof ResourceNotFoundException) {
+                                return null;
+                            }
+                            throw data instanceof RuntimeException ? (RuntimeException) data : new JSClientException(data);
+                        }
+                    }).thenCompose(new Callback<Boolean, RequestFuture<Boolean>>() {
+                        @Override
+                        public RequestFuture<Boolean> execute(Boolean found) {
+                            return found != null ? RequestFuture.completed(found) : create();
+                        }
+                    });
+                }
+                if (created == null) {
+                    try {
+                        folderReady(directory, folderUri, false);
+                    } catch (RuntimeException e) {
+                        fail(directory, e);
+                    }
+                    return null;
+                }
+                return created.then(new Callback<Boolean, Void>() {
+                    @Override
+                    public Void execute(Boolean data) {
+                        folderReady(directory, folderUri, data);
+                        return null;
+                    }
+                }).recover(failure(directory));
+            }
+
+            private RequestFuture<Boolean> create() {
+                RequestFuture<OperationResult<ClientResource>> creation;
+                try {
+                    creation = createFolder(folderUri, directory.getName());
+                } catch (RuntimeException e) {
+                    creation = RequestFuture.failed(e);
+                }
+                return creation.then(new Callback<OperationResult<ClientResource>, Boolean>() {
+                    @Override
+                    public Boolean execute(OperationResult<ClientResource> data) {
+                        return Boolean.TRUE;
+                    }
+                });
+            }
+        };
+    }
+
+    private TaskRunner.Task fileTask(final File file, final String folderUri, final ClientFile.FileType fileType) {
+        return new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                RequestFuture<OperationResult<ClientFile>> upload;
+                try {
+                    upload = uploadFile(folderUri, file, fileType);
+                } catch (RuntimeException e) {
+                    upload = RequestFuture.failed(e);
+                }
+                return upload.then(new Callback<OperationResult<ClientFile>, Void>() {
+                    @Override
+                    public Void execute(OperationResult<ClientFile> data) {
+                        files.incrementAndGet();
+                        bytes.addAndGet(file.length());
+                        if (listener != null) {
+                            listener.uploaded(file, folderUri);
+                        }
+                        return null;
+                    }
+                }).recover(failure(file));
+            }
+        };
+    }
+
+    private void folderReady(File directory, String folderUri, boolean created) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            throw new JSClientException("Cannot list directory " + directory);
+        }
+        Arrays.sort(children);
+        folders.incrementAndGet();
+        if (created) {
+            createdFolders.incrementAndGet();
+        }
+        readyFolders.add(folderUri);
+        if (listener != null) {
+            listener.folderReady(directory, folderUri);
+        }
+        String prefix = folderUri.endsWith("/") ? folderUri : folderUri + "/";
+        List<TaskRunner.Task> subfolders = new ArrayList<TaskRunner.Task>();
+        List<TaskRunner.Task> uploads = new ArrayList<TaskRunner.Task>();
+        for (File child : children) {
+            if (child.isHidden() || child.getName().startsWith(".")) {
+                continue;
+            }
+            if (child.isDirectory()) {
+                subfolders.add(folderTask(child, prefix + child.getName(), created));
+            } else {
+                ClientFile.FileType fileType = resolveFileType(child);
+                if (fileType == null) {
+                    skipped.incrementAndGet();
+                } else {
+                    uploads.add(fileTask(child, folderUri, fileType));
+                }
+            }
+        }
+        subfolders.addAll(uploads);
+        runner.submitAll(subfolders);
+    }
+
+    private ClientFile.FileType resolveFileType(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        ClientFile.FileType fileType = dot >= 0
+                ? fileTypes.get(name.substring(dot + 1).toLowerCase(Locale.ENGLISH))
+                : null;
+        return fileType != null ? fileType : defaultFileType;
+    }
+
+    private Callback<Throwable, Void> failure(final File file) {
+        return new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable data) {
+                fail(file, data);
+                return null;
+            }
+        };
+    }
+
+    private void fail(File file, Throwable failure) {
+        failed.addAndGet(file.isDirectory() ? 1 + countFiles(file) : 1);
+        if (listener != null) {
+            listener.failed(file, failure instanceof Exception ? (Exception) failure : new JSClientException(failure));
+        }
+    }
+
+    private long countFiles(File directory) {
+        File[] children = directory.listFiles();
+        long count = 0;
+        if (children != null) {
+            for (File child : children) {
+                if (!child.isHidden() && !child.getName().startsWith(".")) {
+                    count += child.isDirectory() ? countFiles(child) : 1;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.upload;
+
+import java.io.File;
+
+/**
+ * Receives progress of {@link BulkUploader}. A folder is reported ready before any of its files or
+ * subfolders, files of different folders are uploaded in parallel, so implementations must be thread safe.
+ */
+public interface UploadListener {
+
+    /**
+     * Called when a local directory is mapped to an existing or a newly created repository folder.
+     */
+    void folderReady(File directory, String folderUri);
+
+    /**
+     * Called when a file is uploaded into the repository folder.
+     */
+    void uploaded(File file, String folderUri);
+
+    /**
+     * Called when a file or a directory could not be uploaded. Files of a failed
+     * directory are not uploaded and are reported as failed too.
+     */
+    void failed(File file, Exception cause);
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.upload;
+
+/**
+ * Point-in-time snapshot of the bulk uploader counters.
+ */
+public class UploadStats {
+
+    private final long files;
+    private final long bytes;
+    private final long folders;
+    private final long createdFolders;
+    private final long failed;
+    private final long skipped;
+    private final int running;
+    private final long elapsedMillis;
+
+    public UploadStats(long files, long bytes, long folders, long createdFolders, long failed, long skipped,
+                       int running, long elapsedMillis) {
+        this.files = files;
+        this.bytes = bytes;
+        this.folders = folders;
+        this.createdFolders = createdFolders;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.running = running;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return number of uploaded files
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * @return total size of uploaded files
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return number of mapped folders, both existing and created ones
+     */
+    public long getFolders() {
+        return folders;
+    }
+
+    public long getCreatedFolders() {
+        return createdFolders;
+    }
+
+    /**
+     * @return number of failed files and folders, including files of failed folders
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return number of files without a known file type
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return number of requests currently in progress
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return uploaded files per second
+     */
+    public double getFilesPerSecond() {
+        return elapsedMillis > 0 ? files * 1000.0 / elapsedMillis : 0;
+    }
+
+    /**
+     * @return uploaded bytes per second
+     */
+    public double getBytesPerSecond() {
+        return elapsedMillis > 0 ? bytes * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadStats{" +
+                "files=" + files +
+                ", bytes=" + bytes +
+                ", folders=" + folders +
+                ", createdFolders=" + createdFolders +
+                ", failed=" + failed +
+                ", skipped=" + skipped +
+                ", running=" + running +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
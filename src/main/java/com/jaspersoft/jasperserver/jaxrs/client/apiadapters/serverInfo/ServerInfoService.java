@@ -23,7 +23,9 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.serverInfo;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ServerCapabilities;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.dto.serverinfo.ServerInfo;
 import javax.ws.rs.core.MediaType;
@@ -84,4 +86,21 @@ public class ServerInfoService extends AbstractAdapter {
         return buildServerInfoRequest("datetimeFormatPattern").get();
     }
 
+    /**
+     * Requests version, edition and features of the server. Edition and features are optional,
+     * the server may not provide them.
+     */
+    public ServerCapabilities capabilities() {
+        String version = version().getEntity();
+        String edition = null;
+        String features = null;
+        try {
+            edition = edition().getEntity();
+            features = features().getEntity();
+        } catch (JSClientException ignored) {
+            // e.g. community edition has no features
+        }
+        return new ServerCapabilities(version, edition, features);
+    }
+
 }
@@ -2,13 +2,18 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.settings;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SnapshotCache;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.dto.settings.*;
 
 import javax.ws.rs.core.GenericType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Alex Krasnyanskiy
@@ -18,6 +23,20 @@ import java.util.List;
 public class SingleSettingsAdapter extends AbstractAdapter {
 
     public static final String SERVICE_URI = "settings";
+    private static final Map<String, GenericType<?>> GROUPS = new LinkedHashMap<String, GenericType<?>>();
+
+    static {
+        GROUPS.put("request", new GenericType<RequestSettings>(RequestSettings.class));
+        GROUPS.put("dataSourcePatterns", new GenericType<DataSourcePatternsSettings>(DataSourcePatternsSettings.class));
+        GROUPS.put("userTimeZones", new GenericType<List<UserTimeZone>>() {});
+        GROUPS.put("awsSettings", new GenericType<AwsSettings>(AwsSettings.class));
+        GROUPS.put("decimalFormatSymbols", new GenericType<DecimalFormatSymbolsSettings>(DecimalFormatSymbolsSettings.class));
+        GROUPS.put("dashboardSettings", new GenericType<DashboardSettings>(DashboardSettings.class));
+        GROUPS.put("globalConfiguration", new GenericType<GlobalConfigurationSettings>(GlobalConfigurationSettings.class));
+        GROUPS.put("dateTimeSettings", new GenericType<DateTimeSettings>(DateTimeSettings.class));
+        GROUPS.put("inputControls", new GenericType<InputControlsSettings>(InputControlsSettings.class));
+    }
+
     private String groupKey;
 
     public SingleSettingsAdapter(SessionStorage sessionStorage) {
@@ -29,11 +48,21 @@ public class SingleSettingsAdapter extends AbstractAdapter {
         return request(resultClass).get();
     }
 
+    public <T> RequestFuture<OperationResult<T>> asyncGroup(String group, Class<T> resultClass) {
+        this.groupKey = group;
+        return request(resultClass).asyncGet();
+    }
+
     public <T> OperationResult<T> group(String group, GenericType<T> genericType) {
         this.groupKey = group;
         return request(genericType).get();
     }
 
+    public <T> RequestFuture<OperationResult<T>> asyncGroup(String group, GenericType<T> genericType) {
+        this.groupKey = group;
+        return request(genericType).asyncGet();
+    }
+
     public OperationResult<RequestSettings> ofRequestGroup() {
         this.groupKey = "request";
         return request(RequestSettings.class).get();
@@ -79,6 +108,71 @@ public class SingleSettingsAdapter extends AbstractAdapter {
         return request(InputControlsSettings.class).get();
     }
 
+    /**
+     * @return settings group from the snapshot shared by sessions of the client, see {@link SnapshotCache}.
+     * A group should always be requested with the same type.
+     */
+    public <T> T groupSnapshot(final String group, final Class<T> resultClass) {
+        return snapshot(group, new SnapshotCache.Loader<T>() {
+            @Override
+            public T load() {
+                return new SingleSettingsAdapter(sessionStorage).group(group, resultClass).getEntity();
+            }
+        });
+    }
+
+    public <T> T groupSnapshot(final String group, final GenericType<T> genericType) {
+        return snapshot(group, new SnapshotCache.Loader<T>() {
+            @Override
+            public T load() {
+                return new SingleSettingsAdapter(sessionStorage).group(group, genericType).getEntity();
+            }
+        });
+    }
+
+    /**
+     * Loads snapshots of all settings groups of the <code>ofXxxGroup()</code> methods in parallel.
+     *
+     * @return future completed when all groups are loaded
+     */
+    public RequestFuture<List<Object>> warmUp() {
+        List<RequestFuture<Object>> loads = new ArrayList<RequestFuture<Object>>();
+        for (final Map.Entry<String, GenericType<?>> group : GROUPS.entrySet()) {
+            SnapshotCache.Loader<Object> loader = new SnapshotCache.Loader<Object>() {
+                @Override
+                public Object load() {
+                    return new SingleSettingsAdapter(sessionStorage).group(group.getKey(), group.getValue()).getEntity();
+                }
+            };
+            SnapshotCache cache = sessionStorage.getSnapshotCache();
+            loads.add(cache != null
+                    ? cache.getAsync(snapshotKey(group.getKey()), loader)
+                    : RequestFuture.completed(loader.load()));
+        }
+        return RequestFuture.allOf(loads);
+    }
+
+    /**
+     * Removes snapshots of all settings groups.
+     */
+    public SingleSettingsAdapter invalidateSnapshots() {
+        SnapshotCache cache = sessionStorage.getSnapshotCache();
+        if (cache != null) {
+            cache.invalidate(SERVICE_URI + ":");
+        }
+        return this;
+    }
+
+    private <T> T snapshot(String group, SnapshotCache.Loader<T> loader) {
+        SnapshotCache cache = sessionStorage.getSnapshotCache();
+        return cache != null ? cache.get(snapshotKey(group), loader) : loader.load();
+    }
+
+    private String snapshotKey(String group) {
+        return SERVICE_URI + ":" + (sessionStorage.getUserLocale() != null ? sessionStorage.getUserLocale().toString() : "")
+                + ":" + group;
+    }
+
     private <T> JerseyRequest<T> request(Class<T> resultClass) {
         return JerseyRequest.buildRequest(
                 sessionStorage,
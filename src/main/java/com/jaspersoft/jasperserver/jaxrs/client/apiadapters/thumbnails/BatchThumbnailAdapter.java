@@ -2,6 +2,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.thumbnails;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RequestMethod;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -66,6 +67,15 @@ public class BatchThumbnailAdapter extends AbstractAdapter {
         return  request().addParams(params).get();
     }
 
+    public RequestFuture<OperationResult<ResourceThumbnailsListWrapper>> asyncGet() {
+        if (requestMethod == RequestMethod.POST) {
+            return  request()
+                    .setContentType("application/x-www-form-urlencoded")
+                    .asyncPost(params);
+        }
+        return  request().addParams(params).asyncGet();
+    }
+
     private JerseyRequest<ResourceThumbnailsListWrapper> request() {
         JerseyRequest<ResourceThumbnailsListWrapper> jerseyRequest = JerseyRequest.buildRequest(sessionStorage, ResourceThumbnailsListWrapper.class,
                 new String[]{SERVICE_URI}, new DefaultErrorHandler());
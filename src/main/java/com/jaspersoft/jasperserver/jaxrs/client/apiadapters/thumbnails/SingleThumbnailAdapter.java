@@ -2,6 +2,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.thumbnails;
 
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.AbstractAdapter;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.MandatoryParameterNotFoundException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
@@ -42,6 +43,10 @@ public class SingleThumbnailAdapter extends AbstractAdapter {
         return request().get();
     }
 
+    public RequestFuture<OperationResult<InputStream>> asyncGet() {
+        return request().asyncGet();
+    }
+
     private JerseyRequest<InputStream> request() {
         if (reportUri == null) {
             throw new MandatoryParameterNotFoundException("URI of report should be specified");
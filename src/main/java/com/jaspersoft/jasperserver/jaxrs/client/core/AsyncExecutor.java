@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RejectionPolicy;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executors of asynchronous operations shared by all sessions of one {@link JasperserverRestClient}.
+ * Submitted tasks are counted regardless of the executor implementation, so queue depth, active and
+ * rejected tasks are available through {@link #getStats()} for custom executors as well.
+ */
+public class AsyncExecutor {
+
+    private final ExecutorService requestExecutor;
+    private final Executor callbackExecutor;
+    private final RejectionPolicy rejectionPolicy;
+    private final ExecutorService monitoredExecutor = new MonitoredExecutorService(true);
+    private final ExecutorService backgroundExecutor = new MonitoredExecutorService(false);
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AsyncExecutor(RestClientConfiguration configuration) {
+        AsyncExecutorFactory factory = configuration.getAsyncExecutorFactory();
+        if (factory == null) {
+            factory = new DefaultAsyncExecutorFactory();
+        }
+        this.requestExecutor = factory.createRequestExecutor(configuration);
+        this.callbackExecutor = factory.createCallbackExecutor(configuration);
+        this.rejectionPolicy = configuration.getRejectionPolicy();
+    }
+
+    /**
+     * @param callbackExecutor executor of completion listeners or <code>null</code> to run them on the request thread
+     */
+    public AsyncExecutor(ExecutorService requestExecutor, Executor callbackExecutor, RejectionPolicy rejectionPolicy) {
+        if (requestExecutor == null) {
+            throw new IllegalArgumentException("Request executor is not specified");
+        }
+        this.requestExecutor = requestExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * Submits task of the callback based asynchronous operation and binds its future to the execution.
+     */
+    public void execute(RequestExecution execution) {
+        execution.setFuture(monitoredExecutor.submit(execution.getTask()));
+    }
+
+    /**
+     * Runs completion listener on the callback executor or, if it is not configured or full,
+     * on the current thread.
+     */
+    public void executeCallback(Runnable callback) {
+        if (callbackExecutor != null) {
+            try {
+                callbackExecutor.execute(callback);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the response is already received, so the listener is never dropped
+                rejected.incrementAndGet();
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * @return request executor wrapped to collect statistics
+     */
+    public ExecutorService getExecutorService() {
+        return monitoredExecutor;
+    }
+
+    /**
+     * @return request executor wrapped to collect statistics, which throws {@link RejectedExecutionException}
+     * when it is full regardless of the rejection policy. It is used for background work (polls, retries,
+     * refreshes) which must never be run by the submitting thread.
+     */
+    public ExecutorService getBackgroundExecutorService() {
+        return backgroundExecutor;
+    }
+
+    public ExecutorStats getStats() {
+        return new ExecutorStats(queued.get(), active.get(), completed.get(), rejected.get());
+    }
+
+    public void shutdown() {
+        requestExecutor.shutdown();
+        if (callbackExecutor instanceof ExecutorService) {
+            ((ExecutorService) callbackExecutor).shutdown();
+        }
+    }
+
+    private class MonitoredExecutorService extends AbstractExecutorService {
+
+        private final boolean callerRuns;
+
+        private MonitoredExecutorService(boolean callerRuns) {
+            this.callerRuns = callerRuns;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            queued.incrementAndGet();
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    queued.decrementAndGet();
+                    active.incrementAndGet();
+                    try {
+                        command.run();
+                    } finally {
+                        active.decrementAndGet();
+                        completed.incrementAndGet();
+                    }
+                }
+            };
+            try {
+                requestExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                if (!callerRuns || rejectionPolicy != RejectionPolicy.CALLER_RUNS || requestExecutor.isShutdown()) {
+                    throw e;
+                }
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            requestExecutor.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return requestExecutor.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return requestExecutor.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return requestExecutor.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return requestExecutor.awaitTermination(timeout, unit);
+        }
+    }
+}
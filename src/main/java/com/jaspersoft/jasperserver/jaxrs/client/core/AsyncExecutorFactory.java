@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates executors for asynchronous operations of one {@link JasperserverRestClient}. Custom implementation
+ * can be set with {@link RestClientConfiguration#setAsyncExecutorFactory(AsyncExecutorFactory)}.
+ */
+public interface AsyncExecutorFactory {
+
+    /**
+     * @return executor which sends asynchronous requests. It is shut down when the client is closed.
+     */
+    ExecutorService createRequestExecutor(RestClientConfiguration configuration);
+
+    /**
+     * @return executor which runs completion listeners of {@link RequestFuture} or <code>null</code>
+     * to run them on the thread which received the response
+     */
+    Executor createCallbackExecutor(RestClientConfiguration configuration);
+}
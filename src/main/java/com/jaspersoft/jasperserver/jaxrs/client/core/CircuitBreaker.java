@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.CircuitState;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.CircuitBreakerOpenException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of one endpoint family. Outcomes of requests are counted in a rolling window split into
+ * buckets. When the window holds enough requests and the share of failed or slow ones reaches its threshold,
+ * the circuit opens and requests fail with {@link CircuitBreakerOpenException}. After the open duration
+ * a few probe requests are let through: the circuit closes when all of them succeed and opens again
+ * when one of them fails or is slow.
+ */
+public class CircuitBreaker {
+
+    static final int BUCKETS = 10;
+
+    private final String endpoint;
+    private final CircuitBreakers settings;
+    private final long[] epochs = new long[BUCKETS];
+    private final int[] calls = new int[BUCKETS];
+    private final int[] failures = new int[BUCKETS];
+    private final int[] slowCalls = new int[BUCKETS];
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAt;
+    private int probes;
+    private int succeededProbes;
+    private long rejected;
+
+    CircuitBreaker(String endpoint, CircuitBreakers settings) {
+        this.endpoint = endpoint;
+        this.settings = settings;
+    }
+
+    /**
+     * Lets the request through or fails it fast.
+     *
+     * @return permit which must be released when the request completes
+     * @throws CircuitBreakerOpenException when the circuit is open or all probes are in flight
+     */
+    public Permit acquire() {
+        CircuitState from = null;
+        boolean allowed = true;
+        boolean probe = false;
+        synchronized (this) {
+            if (state == CircuitState.OPEN
+                    && System.nanoTime() - openedAt >= TimeUnit.MILLISECONDS.toNanos(settings.getOpenDuration())) {
+                from = transition(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.HALF_OPEN && probes < settings.getHalfOpenProbes()) {
+                probes++;
+                probe = true;
+            } else if (state != CircuitState.CLOSED) {
+                rejected++;
+                allowed = false;
+            }
+        }
+        notifyTransition(from, CircuitState.HALF_OPEN);
+        if (!allowed) {
+            throw new CircuitBreakerOpenException(endpoint);
+        }
+        return new Permit(probe);
+    }
+
+    private void release(Permit permit, boolean failed) {
+        long duration = System.nanoTime() - permit.start;
+        long slowCallDuration = settings.getSlowCallDuration(endpoint);
+        boolean slow = slowCallDuration > 0 && duration >= TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+        CircuitState from = null;
+        CircuitState to = null;
+        synchronized (this) {
+            if (permit.probe) {
+                probes--;
+                if (state == CircuitState.HALF_OPEN) {
+                    if (failed || slow) {
+                        to = CircuitState.OPEN;
+                    } else if (++succeededProbes >= settings.getHalfOpenProbes()) {
+                        to = CircuitState.CLOSED;
+                    }
+                }
+            } else if (state == CircuitState.CLOSED) {
+                int bucket = bucket(System.nanoTime());
+                calls[bucket]++;
+                if (failed) {
+                    failures[bucket]++;
+                }
+                if (slow) {
+                    slowCalls[bucket]++;
+                }
+                if (isOverThreshold()) {
+                    to = CircuitState.OPEN;
+                }
+            }
+            if (to != null) {
+                from = transition(to);
+            }
+        }
+        notifyTransition(from, to);
+    }
+
+    private void cancel(Permit permit) {
+        if (permit.probe) {
+            synchronized (this) {
+                probes--;
+            }
+        }
+    }
+
+    private boolean isOverThreshold() {
+        int total = 0;
+        int failed = 0;
+        int slow = 0;
+        long current = System.nanoTime() / bucketNanos();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (current - epochs[i] < BUCKETS) {
+                total += calls[i];
+                failed += failures[i];
+                slow += slowCalls[i];
+            }
+        }
+        return total >= settings.getMinimumCalls()
+                && ((double) failed / total >= settings.getFailureRateThreshold()
+                || (double) slow / total >= settings.getSlowCallRateThreshold());
+    }
+
+    private int bucket(long now) {
+        long epoch = now / bucketNanos();
+        int index = (int) (epoch % BUCKETS);
+        if (epochs[index] != epoch) {
+            epochs[index] = epoch;
+            calls[index] = 0;
+            failures[index] = 0;
+            slowCalls[index] = 0;
+        }
+        return index;
+    }
+
+    private long bucketNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(settings.getWindow()) / BUCKETS;
+    }
+
+    /**
+     * @return previous state
+     */
+    private CircuitState transition(CircuitState to) {
+        CircuitState from = state;
+        state = to;
+        if (to == CircuitState.OPEN) {
+            openedAt = System.nanoTime();
+        } else if (to == CircuitState.HALF_OPEN) {
+            succeededProbes = 0;
+        } else {
+            for (int i = 0; i < BUCKETS; i++) {
+                calls[i] = 0;
+                failures[i] = 0;
+                slowCalls[i] = 0;
+            }
+        }
+        return from;
+    }
+
+    private void notifyTransition(CircuitState from, CircuitState to) {
+        if (from != null && from != to) {
+            settings.stateChanged(endpoint, from, to);
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStats getStats() {
+        long current = System.nanoTime() / bucketNanos();
+        long total = 0;
+        long failed = 0;
+        long slow = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (current - epochs[i] < BUCKETS) {
+                total += calls[i];
+                failed += failures[i];
+                slow += slowCalls[i];
+            }
+        }
+        return new CircuitBreakerStats(endpoint, state, total, failed, slow, rejected);
+    }
+
+    /**
+     * Request let through the breaker.
+     */
+    public class Permit {
+        private final boolean probe;
+        private volatile long start = System.nanoTime();
+        private boolean released;
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * Marks the moment the request is sent, so the wait for the concurrency limit or for a thread
+         * is not counted as a slow call.
+         */
+        public void sent() {
+            start = System.nanoTime();
+        }
+
+        /**
+         * @param failed <code>true</code> if the request failed because of the server or the connection
+         */
+        public void release(boolean failed) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            CircuitBreaker.this.release(this, failed);
+        }
+
+        /**
+         * Releases a cancelled request without recording its outcome.
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            CircuitBreaker.this.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.CircuitState;
+
+/**
+ * Point-in-time snapshot of a circuit breaker and its rolling window.
+ */
+public class CircuitBreakerStats {
+
+    private final String endpoint;
+    private final CircuitState state;
+    private final long calls;
+    private final long failures;
+    private final long slowCalls;
+    private final long rejected;
+
+    public CircuitBreakerStats(String endpoint, CircuitState state, long calls, long failures, long slowCalls, long rejected) {
+        this.endpoint = endpoint;
+        this.state = state;
+        this.calls = calls;
+        this.failures = failures;
+        this.slowCalls = slowCalls;
+        this.rejected = rejected;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @return number of requests in the rolling window
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getSlowCalls() {
+        return slowCalls;
+    }
+
+    /**
+     * @return number of requests failed fast since the breaker was created
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getFailureRate() {
+        return calls == 0 ? 0 : (double) failures / calls;
+    }
+
+    public double getSlowCallRate() {
+        return calls == 0 ? 0 : (double) slowCalls / calls;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerStats{" +
+                "endpoint='" + endpoint + '\'' +
+                ", state=" + state +
+                ", calls=" + calls +
+                ", failures=" + failures +
+                ", slowCalls=" + slowCalls +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.CircuitState;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breakers keyed by endpoint family, which is the first element of the request path, e.g.
+ * <code>reports</code>, <code>reportExecutions</code>, <code>resources</code>, <code>jobs</code> or
+ * <code>thumbnails</code>; <code>import</code> and <code>export</code> share the <code>importExport</code> family.
+ * A degraded subsystem opens only its own breaker, so requests to it fail fast instead of occupying threads
+ * for the whole read timeout, and requests to other subsystems go on. Settings apply to all breakers.
+ * Report and import/export requests legitimately run for minutes, so their families do not count slow calls
+ * unless a duration is set with {@link #setSlowCallDuration(String, long)}.
+ * Set it with {@link RestClientConfiguration#setCircuitBreakers(CircuitBreakers)}.
+ */
+public class CircuitBreakers {
+
+    public static final String IMPORT_EXPORT = "importExport";
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<String, CircuitBreaker>();
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+    private final ConcurrentMap<String, Long> slowCallDurations = new ConcurrentHashMap<String, Long>();
+
+    private volatile double failureRateThreshold = 0.5;
+    private volatile double slowCallRateThreshold = 0.8;
+    private volatile long slowCallDuration = 10000;
+    private volatile int minimumCalls = 20;
+    private volatile long window = 30000;
+    private volatile long openDuration = 30000;
+    private volatile int halfOpenProbes = 3;
+
+    public CircuitBreakers() {
+        slowCallDurations.put("reports", 0L);
+        slowCallDurations.put("reportExecutions", 0L);
+        slowCallDurations.put(IMPORT_EXPORT, 0L);
+    }
+
+    /**
+     * @param failureRateThreshold share of failed requests in the window which opens the circuit
+     */
+    public CircuitBreakers setFailureRateThreshold(double failureRateThreshold) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Threshold should be greater than 0 and not greater than 1");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * @param slowCallDuration      milliseconds after which a request is slow
+     * @param slowCallRateThreshold share of slow requests in the window which opens the circuit
+     */
+    public CircuitBreakers setSlowCallThreshold(long slowCallDuration, double slowCallRateThreshold) {
+        if (slowCallDuration < 1 || slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("Duration should be positive, threshold between 0 and 1");
+        }
+        this.slowCallDuration = slowCallDuration;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    /**
+     * @param endpoint         endpoint family
+     * @param slowCallDuration milliseconds after which a request of the family is slow, <code>0</code> does not
+     *                         count its slow requests
+     */
+    public CircuitBreakers setSlowCallDuration(String endpoint, long slowCallDuration) {
+        if (slowCallDuration < 0) {
+            throw new IllegalArgumentException("Duration should not be negative");
+        }
+        slowCallDurations.put(endpoint, slowCallDuration);
+        return this;
+    }
+
+    /**
+     * @param minimumCalls requests in the window before the thresholds are evaluated
+     */
+    public CircuitBreakers setMinimumCalls(int minimumCalls) {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("Minimum calls should be positive");
+        }
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * @param window milliseconds of the rolling window of recorded requests
+     */
+    public CircuitBreakers setWindow(long window) {
+        if (window < CircuitBreaker.BUCKETS) {
+            throw new IllegalArgumentException("Window should be at least " + CircuitBreaker.BUCKETS + " ms");
+        }
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * @param openDuration milliseconds requests fail fast before probes are sent
+     */
+    public CircuitBreakers setOpenDuration(long openDuration) {
+        if (openDuration < 0) {
+            throw new IllegalArgumentException("Open duration should not be negative");
+        }
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    /**
+     * @param halfOpenProbes successful probe requests which close the circuit
+     */
+    public CircuitBreakers setHalfOpenProbes(int halfOpenProbes) {
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("Probes should be positive");
+        }
+        this.halfOpenProbes = halfOpenProbes;
+        return this;
+    }
+
+    public CircuitBreakers addListener(CircuitBreakerListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public CircuitBreakers removeListener(CircuitBreakerListener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    /**
+     * @return breaker of the endpoint family, created on first use
+     */
+    public CircuitBreaker get(String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(endpoint, this);
+            breaker = breakers.putIfAbsent(endpoint, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * @return states of breakers created so far
+     */
+    public Map<String, CircuitState> getStates() {
+        Map<String, CircuitState> states = new LinkedHashMap<String, CircuitState>();
+        for (CircuitBreaker breaker : breakers.values()) {
+            states.put(breaker.getEndpoint(), breaker.getState());
+        }
+        return states;
+    }
+
+    public List<CircuitBreakerStats> getStats() {
+        List<CircuitBreakerStats> stats = new ArrayList<CircuitBreakerStats>();
+        for (CircuitBreaker breaker : breakers.values()) {
+            stats.add(breaker.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * @return endpoint family of the request path or <code>null</code> if the path is empty
+     */
+    public static String endpointOf(String[] path) {
+        if (path == null) {
+            return null;
+        }
+        for (String element : path) {
+            String segment = element != null ? element.replaceAll("^/+", "") : "";
+            int slash = segment.indexOf('/');
+            if (slash >= 0) {
+                segment = segment.substring(0, slash);
+            }
+            if (segment.length() > 0) {
+                return segment.equals("import") || segment.equals("export") ? IMPORT_EXPORT : segment;
+            }
+        }
+        return null;
+    }
+
+    void stateChanged(String endpoint, CircuitState from, CircuitState to) {
+        for (CircuitBreakerListener listener : listeners) {
+            listener.stateChanged(endpoint, from, to);
+        }
+    }
+
+    double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    long getSlowCallDuration(String endpoint) {
+        Long duration = slowCallDurations.get(endpoint);
+        return duration != null ? duration : slowCallDuration;
+    }
+
+    int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    long getWindow() {
+        return window;
+    }
+
+    long getOpenDuration() {
+        return openDuration;
+    }
+
+    int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.concurrent.ExecutorService;
+import org.glassfish.jersey.client.ClientAsyncExecutor;
+import org.glassfish.jersey.spi.ExecutorServiceProvider;
+
+/**
+ * Makes Jersey send requests of {@link javax.ws.rs.client.AsyncInvoker} on the executor of the client
+ * instead of its own unbounded pool. The executor lifecycle is managed by {@link ClientTransport}.
+ */
+@ClientAsyncExecutor
+class ClientAsyncExecutorProvider implements ExecutorServiceProvider {
+
+    private final AsyncExecutor asyncExecutor;
+
+    ClientAsyncExecutorProvider(AsyncExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public ExecutorService getExecutorService() {
+        return asyncExecutor.getExecutorService();
+    }
+
+    @Override
+    public void dispose(ExecutorService executorService) {
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.serverInfo.ServerInfoService;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.HttpCacheFilter;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.RequestTimingFilter;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionStateFilter;
+import com.jaspersoft.jasperserver.jaxrs.client.providers.CustomRepresentationTypeProvider;
+import com.sun.jersey.multipart.impl.MultiPartWriter;
+import java.security.SecureRandom;
+import java.util.logging.Logger;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.filter.LoggingFilter;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+/**
+ * Jersey client, SSL context, providers, connection pool and asynchronous executor shared
+ * by all sessions of one {@link JasperserverRestClient}. Per-session state is applied to each request
+ * by {@link SessionStateFilter}.
+ */
+public class ClientTransport {
+
+    private static final Log log = LogFactory.getLog(ClientTransport.class);
+    private static final long DETECTION_RETRY_DELAY = 60000;
+
+    private static final HostnameVerifier ALLOW_ALL_HOSTNAME_VERIFIER = new HostnameVerifier() {
+        @Override
+        public boolean verify(String s, SSLSession sslSession) {
+            return true;
+        }
+    };
+
+    private final RestClientConfiguration configuration;
+    private Client client;
+    private ConnectionPool connectionPool;
+    private AsyncExecutor asyncExecutor;
+    private PollScheduler pollScheduler;
+    private SnapshotCache snapshotCache;
+    private WebTarget rootTarget;
+    private final Object detectionLock = new Object();
+    private volatile ServerCapabilities serverCapabilities;
+    private long detectionFailedAt;
+    private volatile boolean closed;
+
+    public ClientTransport(RestClientConfiguration configuration) {
+        this.configuration = configuration;
+        init();
+    }
+
+    private SSLContext initSSL(ClientBuilder clientBuilder) {
+        try {
+            SSLContext sslContext = SSLContext.getInstance("SSL");
+            sslContext.init(null, configuration.getTrustManagers(), new SecureRandom());
+
+            clientBuilder.sslContext(sslContext);
+            clientBuilder.hostnameVerifier(ALLOW_ALL_HOSTNAME_VERIFIER);
+            return sslContext;
+        } catch (Exception e) {
+            throw new RuntimeException("Unable inFolder init SSL context", e);
+        }
+    }
+
+    private void init() {
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+        boolean pooled = Boolean.TRUE.equals(configuration.getConnectionPoolEnabled());
+        if (pooled) {
+            clientBuilder.withConfig(new ClientConfig().connectorProvider(new ApacheConnectorProvider()));
+        }
+
+        SSLContext sslContext = null;
+        if (configuration.getJasperReportsServerUrl().startsWith("https")) {
+            sslContext = initSSL(clientBuilder);
+        }
+
+        if (pooled) {
+            connectionPool = new ConnectionPool(configuration, sslContext, ALLOW_ALL_HOSTNAME_VERIFIER);
+            clientBuilder.property(ApacheClientProperties.CONNECTION_MANAGER, connectionPool.getConnectionManager());
+            // JSESSIONID is sent explicitly by SessionStateFilter, pooled connections must not keep their own cookies
+            clientBuilder.property(ApacheClientProperties.DISABLE_COOKIES, true);
+        }
+
+        asyncExecutor = new AsyncExecutor(configuration);
+        clientBuilder.register(new ClientAsyncExecutorProvider(asyncExecutor));
+        pollScheduler = new PollScheduler(configuration, asyncExecutor);
+        snapshotCache = new SnapshotCache(configuration, asyncExecutor);
+
+        client = clientBuilder.build();
+
+        Integer connectionTimeout = configuration.getConnectionTimeout();
+
+        if (connectionTimeout != null) {
+            client.property(ClientProperties.CONNECT_TIMEOUT, connectionTimeout);
+        }
+
+        Integer readTimeout = configuration.getReadTimeout();
+
+        if (readTimeout != null) {
+            client.property(ClientProperties.READ_TIMEOUT, readTimeout);
+        }
+
+        rootTarget = configTarget();
+        rootTarget.register(new SessionStateFilter());
+        rootTarget.register(new RequestTimingFilter());
+    }
+
+    /**
+     * Creates new target to server URL with all providers registered.
+     */
+    protected WebTarget configTarget() {
+        JacksonJsonProvider customRepresentationTypeProvider = new CustomRepresentationTypeProvider()
+                .configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        WebTarget target = client.target(configuration.getJasperReportsServerUrl());
+        target
+                .register(customRepresentationTypeProvider)
+                .register(JacksonFeature.class)
+                .register(MultiPartWriter.class);
+        if (configuration.getLogHttp()) {
+            target.register(initLoggingFilter());
+        }
+        if (configuration.getHttpCache() != null) {
+            target.register(new HttpCacheFilter(configuration.getHttpCache()));
+        }
+        return target;
+    }
+
+    private LoggingFilter initLoggingFilter() {
+        Logger logger = Logger.getLogger(this.getClass().getName());
+        SLF4JBridgeHandler.removeHandlersForRootLogger();
+        SLF4JBridgeHandler.install();
+
+        return new LoggingFilter(logger,
+                configuration.getLogHttpEntity());
+    }
+
+    public RestClientConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    /**
+     * @return shared target to server URL. Its configuration must not be changed, because
+     * registering anything on it affects all sessions.
+     */
+    public WebTarget getRootTarget() {
+        return rootTarget;
+    }
+
+    /**
+     * @return statistics of the keep-alive connection pool or <code>null</code> if pooling is disabled
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return connectionPool != null ? connectionPool.getStats() : null;
+    }
+
+    public AsyncExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public PollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
+    /**
+     * @return snapshots of bundles and settings shared by all sessions
+     */
+    public SnapshotCache getSnapshotCache() {
+        return snapshotCache;
+    }
+
+    /**
+     * @return capabilities of the server, detected with the given session on the first call, or <code>null</code>
+     * if detection failed. Failed detection is retried not earlier than a minute later.
+     */
+    public ServerCapabilities getServerCapabilities(SessionStorage sessionStorage) {
+        ServerCapabilities capabilities = serverCapabilities;
+        if (capabilities != null) {
+            return capabilities;
+        }
+        synchronized (detectionLock) {
+            if (serverCapabilities == null && System.currentTimeMillis() - detectionFailedAt >= DETECTION_RETRY_DELAY) {
+                try {
+                    serverCapabilities = new ServerInfoService(sessionStorage).capabilities();
+                } catch (RuntimeException e) {
+                    detectionFailedAt = System.currentTimeMillis();
+                    log.warn("Unable to detect version of the server, configured version is used", e);
+                }
+            }
+            return serverCapabilities;
+        }
+    }
+
+    public ExecutorStats getExecutorStats() {
+        return asyncExecutor.getStats();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes underlying client, releases pooled connections and stops asynchronous executor and poll scheduler.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (client != null) {
+            client.close();
+        }
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+        if (pollScheduler != null) {
+            pollScheduler.shutdown();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ConcurrencyLimitExceededException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests in flight to one server and adapts the limit to the server state.
+ * The limit grows by one after a full window of successful requests and is multiplied by the backoff
+ * ratio when a request fails with <code>429</code> or <code>5xx</code> status, fails without response or
+ * takes longer than the latency tolerance times the lowest recent latency. Requests over the limit wait
+ * in a bounded queue and are rejected with {@link ConcurrencyLimitExceededException} when it is full or
+ * the wait times out. Asynchronous requests wait without a thread, see {@link #acquireAsync()}. Latency is
+ * measured from the moment the request is sent, not from the moment the permit is granted. The initial limit
+ * of 10 matches the default core pool size of the asynchronous executor, so requests in flight are not queued
+ * by the executor. Set it with {@link RestClientConfiguration#setConcurrencyLimiter(ConcurrencyLimiter)},
+ * all sessions of the client share it.
+ */
+public class ConcurrencyLimiter {
+
+    private static final int LATENCY_WINDOW = 100;
+
+    private final Object lock = new Object();
+    private double limit = 10;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private int maxQueueSize = 100;
+    private long maxQueueWaitNanos = TimeUnit.SECONDS.toNanos(5);
+    private double backoffRatio = 0.9;
+    private double latencyTolerance = 2.0;
+
+    private int inFlight;
+    private int queued;
+    private final LinkedList<Waiter> waiters = new LinkedList<Waiter>();
+    private long baselineLatency;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecrease;
+    private boolean decreased;
+
+    private long accepted;
+    private long rejected;
+    private long overloads;
+    private long queuedRequests;
+    private long queueWaitNanos;
+    private long maxQueueWait;
+
+    /**
+     * @param initialLimit requests in flight before the limit is adapted
+     */
+    public ConcurrencyLimiter setInitialLimit(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("Limit should be positive");
+        }
+        List<Waiter> granted;
+        synchronized (lock) {
+            limit = initialLimit;
+            granted = grantWaiters(System.nanoTime());
+            lock.notifyAll();
+        }
+        complete(granted);
+        return this;
+    }
+
+    public ConcurrencyLimiter setMinLimit(int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("Minimal limit should be positive");
+        }
+        synchronized (lock) {
+            this.minLimit = minLimit;
+            limit = Math.max(limit, minLimit);
+        }
+        return this;
+    }
+
+    public ConcurrencyLimiter setMaxLimit(int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Maximal limit should be positive");
+        }
+        synchronized (lock) {
+            this.maxLimit = maxLimit;
+            limit = Math.min(limit, maxLimit);
+        }
+        return this;
+    }
+
+    /**
+     * @param maxQueueSize number of requests waiting for the limit, <code>0</code> rejects them immediately
+     */
+    public ConcurrencyLimiter setMaxQueueSize(int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("Queue size should not be negative");
+        }
+        synchronized (lock) {
+            this.maxQueueSize = maxQueueSize;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxQueueWait milliseconds a request waits for the limit before it is rejected
+     */
+    public ConcurrencyLimiter setMaxQueueWait(long maxQueueWait) {
+        if (maxQueueWait < 0) {
+            throw new IllegalArgumentException("Queue wait should not be negative");
+        }
+        synchronized (lock) {
+            this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWait);
+        }
+        return this;
+    }
+
+    /**
+     * @param backoffRatio multiplier of the limit on overload, between 0 and 1
+     */
+    public ConcurrencyLimiter setBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio should be between 0 and 1");
+        }
+        synchronized (lock) {
+            this.backoffRatio = backoffRatio;
+        }
+        return this;
+    }
+
+    /**
+     * @param latencyTolerance requests slower than this multiple of the lowest recent latency signal overload
+     */
+    public ConcurrencyLimiter setLatencyTolerance(double latencyTolerance) {
+        if (latencyTolerance <= 1) {
+            throw new IllegalArgumentException("Latency tolerance should be greater than 1");
+        }
+        synchronized (lock) {
+            this.latencyTolerance = latencyTolerance;
+        }
+        return this;
+    }
+
+    /**
+     * Waits until the request fits into the limit.
+     *
+     * @return permit which must be released when the response is received
+     * @throws ConcurrencyLimitExceededException when the queue is full or the wait timed out
+     */
+    public Permit acquire() {
+        synchronized (lock) {
+            if (inFlight < (int) limit && waiters.isEmpty()) {
+                return grant();
+            }
+            if (queued + waiters.size() >= maxQueueSize) {
+                rejected++;
+                throw new ConcurrencyLimitExceededException("Too many requests to the server: " + inFlight
+                        + " in flight, " + queued + " waiting");
+            }
+            long start = System.nanoTime();
+            long remaining = maxQueueWaitNanos;
+            queued++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected++;
+                        throw new ConcurrencyLimitExceededException("Request waited for "
+                                + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + " ms, " + inFlight + " in flight");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    remaining = maxQueueWaitNanos - (System.nanoTime() - start);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected++;
+                throw new ConcurrencyLimitExceededException("Interrupted while waiting for the concurrency limit");
+            } finally {
+                queued--;
+            }
+            long waited = System.nanoTime() - start;
+            queuedRequests++;
+            queueWaitNanos += waited;
+            maxQueueWait = Math.max(maxQueueWait, waited);
+            return grant();
+        }
+    }
+
+    /**
+     * Takes a permit without blocking the calling thread, the wait timeout is run by the shared poll scheduler.
+     *
+     * @see #acquireAsync(PollScheduler)
+     */
+    public RequestFuture<Permit> acquireAsync() {
+        return acquireAsync(PollScheduler.of(null));
+    }
+
+    /**
+     * Takes a permit without blocking the calling thread. When the request does not fit into the limit,
+     * it waits in the same bounded queue as {@link #acquire()} and the future is completed by the thread
+     * which releases a permit. A request which is still waiting after the queue wait is rejected by the scheduler,
+     * even if no permit is released meanwhile.
+     *
+     * @param scheduler scheduler which runs the wait timeout
+     * @return future completed with the permit or failed with {@link ConcurrencyLimitExceededException},
+     * a permit granted to a cancelled future is returned to the limiter
+     */
+    public RequestFuture<Permit> acquireAsync(PollScheduler scheduler) {
+        final Waiter waiter;
+        long timeout;
+        synchronized (lock) {
+            if (inFlight < (int) limit && waiters.isEmpty()) {
+                return RequestFuture.completed(grant());
+            }
+            if (queued + waiters.size() >= maxQueueSize) {
+                rejected++;
+                return RequestFuture.failed(new ConcurrencyLimitExceededException("Too many requests to the server: "
+                        + inFlight + " in flight, " + (queued + waiters.size()) + " waiting"));
+            }
+            waiter = new Waiter(System.nanoTime());
+            waiters.add(waiter);
+            timeout = TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + 1;
+        }
+        final RequestFuture<Void> expiry = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expire(waiter);
+            }
+        }, timeout);
+        waiter.future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                expiry.cancel(false);
+                synchronized (lock) {
+                    waiters.remove(waiter);
+                }
+            }
+        });
+        return waiter.future;
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (lock) {
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+            rejected++;
+        }
+        complete(Collections.singletonList(waiter));
+    }
+
+    private Permit grant() {
+        inFlight++;
+        accepted++;
+        return new Permit(System.nanoTime());
+    }
+
+    /**
+     * Grants permits to waiting asynchronous requests which fit into the limit and rejects the expired ones,
+     * the futures are completed by {@link #complete(List)} outside of the lock.
+     */
+    private List<Waiter> grantWaiters(long now) {
+        if (waiters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Waiter> done = new ArrayList<Waiter>();
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+            Waiter waiter = iterator.next();
+            long waited = now - waiter.since;
+            if (waiter.future.isDone()) {
+                iterator.remove();
+            } else if (inFlight < (int) limit) {
+                iterator.remove();
+                waiter.permit = grant();
+                queuedRequests++;
+                queueWaitNanos += waited;
+                maxQueueWait = Math.max(maxQueueWait, waited);
+                done.add(waiter);
+            } else if (waited > maxQueueWaitNanos) {
+                iterator.remove();
+                rejected++;
+                done.add(waiter);
+            }
+        }
+        return done;
+    }
+
+    private void complete(List<Waiter> waiters) {
+        for (Waiter waiter : waiters) {
+            if (waiter.permit == null) {
+                waiter.future.fail(new ConcurrencyLimitExceededException("Request waited for "
+                        + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + " ms for the concurrency limit"));
+            } else if (!waiter.future.complete(waiter.permit)) {
+                waiter.permit.cancel();
+            }
+        }
+    }
+
+    private void release(Permit permit, boolean failed) {
+        long now = System.nanoTime();
+        long latency = now - permit.start;
+        List<Waiter> granted;
+        synchronized (lock) {
+            inFlight--;
+            boolean overload = failed
+                    || baselineLatency > 0 && latency > baselineLatency * latencyTolerance;
+            if (!failed) {
+                sample(latency);
+            }
+            if (overload) {
+                overloads++;
+                // requests sent before the last decrease do not reflect it yet
+                if (!decreased || permit.start - lastDecrease >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                    decreased = true;
+                }
+            } else if (inFlight + 1 >= limit / 2) {
+                // the limit grows only while it is used, otherwise it would grow without bound at low load
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            granted = grantWaiters(now);
+            lock.notifyAll();
+        }
+        complete(granted);
+    }
+
+    private void cancel() {
+        List<Waiter> granted;
+        synchronized (lock) {
+            inFlight--;
+            granted = grantWaiters(System.nanoTime());
+            lock.notifyAll();
+        }
+        complete(granted);
+    }
+
+    private void sample(long latency) {
+        windowMinLatency = Math.min(windowMinLatency, latency);
+        if (baselineLatency == 0 || latency < baselineLatency) {
+            baselineLatency = latency;
+        }
+        if (++windowSamples >= LATENCY_WINDOW) {
+            // the lowest latency of the last window follows the server when it gets slower permanently
+            baselineLatency = windowMinLatency;
+            windowMinLatency = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    /**
+     * @return current limit of requests in flight
+     */
+    public int getLimit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    public ConcurrencyLimiterStats getStats() {
+        synchronized (lock) {
+            return new ConcurrencyLimiterStats((int) limit, inFlight, queued + waiters.size(), accepted, rejected, overloads,
+                    queuedRequests == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queueWaitNanos / queuedRequests),
+                    TimeUnit.NANOSECONDS.toMillis(maxQueueWait),
+                    TimeUnit.NANOSECONDS.toMillis(baselineLatency));
+        }
+    }
+
+    /**
+     * Place of one request within the limit.
+     */
+    public class Permit {
+        private volatile long start;
+        private boolean released;
+
+        private Permit(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Restarts the latency measurement when the request is actually sent, so the time spent
+         * in the queue of the executor is not counted as latency of the server.
+         */
+        public void sent() {
+            start = System.nanoTime();
+        }
+
+        /**
+         * @param failed <code>true</code> if the request failed because of the server or the connection
+         */
+        public void release(boolean failed) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            ConcurrencyLimiter.this.release(this, failed);
+        }
+
+        /**
+         * Releases the place of a cancelled request without affecting the limit.
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            ConcurrencyLimiter.this.cancel();
+        }
+    }
+
+    /**
+     * Asynchronous request waiting for a permit.
+     */
+    private class Waiter {
+        private final RequestFuture<Permit> future = new RequestFuture<Permit>();
+        private final long since;
+        private Permit permit;
+
+        private Waiter(long since) {
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the concurrency limiter state.
+ */
+public class ConcurrencyLimiterStats {
+
+    private final int limit;
+    private final int inFlight;
+    private final int queued;
+    private final long accepted;
+    private final long rejected;
+    private final long overloads;
+    private final long averageQueueWait;
+    private final long maxQueueWait;
+    private final long baselineLatency;
+
+    public ConcurrencyLimiterStats(int limit, int inFlight, int queued, long accepted, long rejected, long overloads,
+                                   long averageQueueWait, long maxQueueWait, long baselineLatency) {
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.overloads = overloads;
+        this.averageQueueWait = averageQueueWait;
+        this.maxQueueWait = maxQueueWait;
+        this.baselineLatency = baselineLatency;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return number of responses which signalled overload and could decrease the limit
+     */
+    public long getOverloads() {
+        return overloads;
+    }
+
+    /**
+     * @return average milliseconds waited by requests which were queued
+     */
+    public long getAverageQueueWait() {
+        return averageQueueWait;
+    }
+
+    public long getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    /**
+     * @return lowest recent latency in milliseconds, the reference for slow responses
+     */
+    public long getBaselineLatency() {
+        return baselineLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiterStats{" +
+                "limit=" + limit +
+                ", inFlight=" + inFlight +
+                ", queued=" + queued +
+                ", accepted=" + accepted +
+                ", rejected=" + rejected +
+                ", overloads=" + overloads +
+                ", averageQueueWait=" + averageQueueWait +
+                ", maxQueueWait=" + maxQueueWait +
+                ", baselineLatency=" + baselineLatency +
+                '}';
+    }
+}
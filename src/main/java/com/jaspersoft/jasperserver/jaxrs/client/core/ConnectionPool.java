@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Keep-alive connection pool used by the Apache connector when
+ * {@link RestClientConfiguration#getConnectionPoolEnabled()} is switched on.
+ * Idle and expired connections are evicted by a single daemon thread.
+ */
+public class ConnectionPool {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(RestClientConfiguration configuration, SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+        connectionManager = new PoolingHttpClientConnectionManager(buildRegistry(sslContext, hostnameVerifier));
+        connectionManager.setMaxTotal(configuration.getMaxTotalConnections());
+        connectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(configuration.getValidateAfterInactivity());
+
+        final long idleTimeout = configuration.getIdleConnectionTimeout();
+        evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "jrs-rest-client-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long period = Math.max(idleTimeout / 2, 1000L);
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                connectionManager.closeExpiredConnections();
+                connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static Registry<ConnectionSocketFactory> buildRegistry(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslContext != null
+                        ? new SSLConnectionSocketFactory(sslContext, hostnameVerifier)
+                        : SSLConnectionSocketFactory.getSocketFactory())
+                .build();
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    public ConnectionPoolStats getStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the connection pool counters.
+ */
+public class ConnectionPoolStats {
+
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    public ConnectionPoolStats(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * @return number of connections currently executing a request
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return number of requests waiting for a free connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return number of idle keep-alive connections ready for reuse
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "leased=" + leased +
+                ", pending=" + pending +
+                ", available=" + available +
+                ", max=" + max +
+                '}';
+    }
+}
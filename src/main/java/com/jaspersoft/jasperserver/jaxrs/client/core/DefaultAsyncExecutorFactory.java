@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.ExecutorMode;
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Creates bounded thread pools sized by {@link RestClientConfiguration}, or a virtual thread per task
+ * executor when it is requested and the runtime supports it.
+ */
+public class DefaultAsyncExecutorFactory implements AsyncExecutorFactory {
+
+    private static final Log log = LogFactory.getLog(DefaultAsyncExecutorFactory.class);
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    @Override
+    public ExecutorService createRequestExecutor(RestClientConfiguration configuration) {
+        if (configuration.getExecutorMode() == ExecutorMode.VIRTUAL_THREADS) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                return executor;
+            }
+            log.info("Virtual threads are not supported by this runtime, bounded thread pool is used instead.");
+        }
+        return newBoundedPool("jrs-rest-client-async-",
+                configuration.getAsyncCorePoolSize(),
+                configuration.getAsyncMaxPoolSize(),
+                configuration.getAsyncQueueCapacity());
+    }
+
+    @Override
+    public Executor createCallbackExecutor(RestClientConfiguration configuration) {
+        Integer poolSize = configuration.getCallbackPoolSize();
+        if (poolSize == null || poolSize <= 0) {
+            return null;
+        }
+        return newBoundedPool("jrs-rest-client-callback-", poolSize, poolSize, configuration.getAsyncQueueCapacity());
+    }
+
+    /**
+     * Threads above the core size are started only when the queue is full. Idle threads are released
+     * after a minute, so an unused client does not keep the JVM alive. Zero queue capacity hands tasks
+     * directly to threads.
+     */
+    protected ExecutorService newBoundedPool(String namePrefix, Integer corePoolSize, Integer maxPoolSize, Integer queueCapacity) {
+        int core = Math.max(1, corePoolSize != null ? corePoolSize : 1);
+        int max = Math.max(core, maxPoolSize != null ? maxPoolSize : core);
+        BlockingQueue<Runnable> queue = (queueCapacity != null && queueCapacity > 0)
+                ? new LinkedBlockingQueue<Runnable>(queueCapacity)
+                : new SynchronousQueue<Runnable>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(core,
+                max,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                queue,
+                new NamedThreadFactory(namePrefix),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The library is compiled for Java 6, so the Java 21 factory method is looked up reflectively.
+     *
+     * @return executor or <code>null</code> if virtual threads are not available
+     */
+    protected ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factoryMethod.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static class NamedThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String namePrefix;
+
+        NamedThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = delegate.newThread(runnable);
+            thread.setName(namePrefix + counter.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the asynchronous executor counters.
+ */
+public class ExecutorStats {
+
+    private final int queued;
+    private final int active;
+    private final long completed;
+    private final long rejected;
+
+    public ExecutorStats(int queued, int active, long completed, long rejected) {
+        this.queued = queued;
+        this.active = active;
+        this.completed = completed;
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return number of submitted tasks waiting for a thread
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * @return number of tasks being executed
+     */
+    public int getActive() {
+        return active;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return number of tasks which did not fit into the executor, including ones run by the caller
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorStats{" +
+                "queued=" + queued +
+                ", active=" + active +
+                ", completed=" + completed +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Writes response content to files through NIO channels. The content is moved in chunks by
+ * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}, which reuses the per-thread
+ * direct buffers of the JVM, so it is neither accumulated in heap nor copied into intermediate arrays.
+ */
+public class FileTransferUtil {
+
+    private static final long CHUNK_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * Writes content of the result to the file and releases the connection. Partially written file
+     * is removed if the transfer fails.
+     *
+     * @return the target file
+     */
+    public static File writeToFile(OperationResult<InputStream> result, File target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target file is not specified");
+        }
+        try {
+            InputStream content = result.getEntity();
+            if (content == null) {
+                throw new JSClientException("Response has no content to write to " + target);
+            }
+            transfer(content, target);
+            return target;
+        } catch (IOException e) {
+            target.delete();
+            throw new JSClientException("Unable to write response content to " + target, e);
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    public static long transfer(InputStream content, File target) throws IOException {
+        ReadableByteChannel source = content instanceof FileInputStream
+                ? ((FileInputStream) content).getChannel()
+                : Channels.newChannel(content);
+        FileOutputStream out = new FileOutputStream(target);
+        try {
+            FileChannel destination = out.getChannel();
+            long position = 0;
+            long transferred;
+            while ((transferred = destination.transferFrom(source, position, CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+            return position;
+        } finally {
+            try {
+                source.close();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
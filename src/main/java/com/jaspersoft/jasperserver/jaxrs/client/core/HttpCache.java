@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+/**
+ * Bounded store of GET responses with <code>ETag</code> or <code>Last-Modified</code> validators, used by
+ * {@link com.jaspersoft.jasperserver.jaxrs.client.filters.HttpCacheFilter}. Only paths matching a rule are cached.
+ * Paths of rules are relative to <code>rest_v2</code>, e.g. <code>resources</code>, the longest matching rule wins.
+ * Responses are revalidated with the server on each request unless the rule allows to serve them
+ * without revalidation for some time. Entries are kept per user and evicted least recently used first.
+ */
+public class HttpCache {
+
+    private static final Set<String> NOT_STORED_HEADERS = new HashSet<String>(Arrays.asList(
+            "content-length", "transfer-encoding", "connection", "keep-alive", "set-cookie", "date"));
+
+    private final Map<String, Long> rules = new LinkedHashMap<String, Long>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long bytes;
+    private long maxSize = 16L * 1024 * 1024;
+    private volatile long maxEntrySize = 1024 * 1024;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates cache with rules for repository resources, bundles, settings and server info.
+     */
+    public HttpCache() {
+        rules.put("resources", 0L);
+        rules.put("bundles", 0L);
+        rules.put("settings", 0L);
+        rules.put("serverInfo", 0L);
+    }
+
+    /**
+     * @param maxSize total size in bytes of cached bodies
+     */
+    public synchronized HttpCache setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        evict();
+        return this;
+    }
+
+    /**
+     * @param maxEntrySize larger bodies are not cached
+     */
+    public HttpCache setMaxEntrySize(long maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+        return this;
+    }
+
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Enables caching of the path, replaces existing rule of the same path.
+     *
+     * @param path   path relative to <code>rest_v2</code>
+     * @param maxAge time in milliseconds during which a response is served without revalidation,
+     *               <code>0</code> revalidates it on each request
+     */
+    public synchronized HttpCache addRule(String path, long maxAge) {
+        rules.put(path, maxAge);
+        return this;
+    }
+
+    public synchronized HttpCache removeRule(String path) {
+        rules.remove(path);
+        return this;
+    }
+
+    public synchronized HttpCache clearRules() {
+        rules.clear();
+        return this;
+    }
+
+    /**
+     * @return the longest rule path which is a prefix of the path, or <code>null</code> if the path is not cached
+     */
+    public synchronized String findRule(String path) {
+        String found = null;
+        for (String rule : rules.keySet()) {
+            if (path.startsWith(rule) && (found == null || rule.length() > found.length())) {
+                found = rule;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return time in milliseconds during which a response of the rule is served without revalidation
+     */
+    public synchronized long getMaxAge(String rule) {
+        Long maxAge = rules.get(rule);
+        return maxAge != null ? maxAge : 0;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        bytes += entry.body.length;
+        evict();
+    }
+
+    /**
+     * Removes all entries whose path starts with the given one.
+     */
+    public synchronized void invalidate(String path) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.path.startsWith(path)) {
+                iterator.remove();
+                bytes -= entry.body.length;
+            }
+        }
+    }
+
+    /**
+     * Removes entries of the written path, of its descendants and of its ancestors, whose listings may
+     * contain it. Entries of all users are removed, the content changed for each of them.
+     */
+    public synchronized void invalidateWritten(String path) {
+        String descendants = path.endsWith("/") ? path : path + "/";
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.path.equals(path) || entry.path.startsWith(descendants)
+                    || path.startsWith(entry.path.endsWith("/") ? entry.path : entry.path + "/")) {
+                iterator.remove();
+                bytes -= entry.body.length;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Records response served without contacting the server.
+     */
+    public void hit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Records response served after the server confirmed the entry is still valid.
+     */
+    public void revalidated(Entry entry) {
+        entry.storedAt = System.currentTimeMillis();
+        revalidations.incrementAndGet();
+    }
+
+    /**
+     * Records response of a cached path which was downloaded from the server.
+     */
+    public void miss() {
+        misses.incrementAndGet();
+    }
+
+    public synchronized HttpCacheStats getStats() {
+        return new HttpCacheStats(hits.get(), revalidations.get(), misses.get(), evictions.get(), entries.size(), bytes);
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxSize && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            bytes -= evicted.body.length;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cached body and headers of a successful response.
+     */
+    public static class Entry {
+        private final String path;
+        private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        private final byte[] body;
+        private volatile long storedAt = System.currentTimeMillis();
+
+        public Entry(String path, MultivaluedMap<String, String> headers, byte[] body) {
+            this.path = path;
+            this.body = body;
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (!NOT_STORED_HEADERS.contains(header.getKey().toLowerCase())) {
+                    this.headers.put(header.getKey(), header.getValue());
+                }
+            }
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public MultivaluedMap<String, String> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return header("ETag");
+        }
+
+        public String getLastModified() {
+            return header("Last-Modified");
+        }
+
+        public boolean isFresh(long maxAge) {
+            return maxAge > 0 && System.currentTimeMillis() - storedAt < maxAge;
+        }
+
+        private String header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return response with cached body and headers
+         */
+        public Response toResponse() {
+            Response.ResponseBuilder builder = Response.ok(body);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the HTTP cache counters.
+ */
+public class HttpCacheStats {
+
+    private final long hits;
+    private final long revalidations;
+    private final long misses;
+    private final long evictions;
+    private final int entries;
+    private final long bytes;
+
+    public HttpCacheStats(long hits, long revalidations, long misses, long evictions, int entries, long bytes) {
+        this.hits = hits;
+        this.revalidations = revalidations;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return number of responses served without contacting the server
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of responses served from the cache after the server answered <code>304 Not Modified</code>
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return share of cacheable requests whose body was served from the cache
+     */
+    public double getHitRatio() {
+        long total = hits + revalidations + misses;
+        return total == 0 ? 0 : (double) (hits + revalidations) / total;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{" +
+                "hits=" + hits +
+                ", revalidations=" + revalidations +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", entries=" + entries +
+                ", bytes=" + bytes +
+                '}';
+    }
+}
@@ -24,11 +24,10 @@ import com.jaspersoft.jasperserver.jaxrs.client.core.enums.AuthenticationType;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.AuthenticationFailedException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ResourceNotFoundException;
-import com.jaspersoft.jasperserver.jaxrs.client.filters.BasicAuthenticationFilter;
-import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionOutputFilter;
 import java.util.Locale;
 import java.util.TimeZone;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
@@ -38,6 +37,7 @@ import org.glassfish.jersey.client.ClientProperties;
 
 public class JasperserverRestClient {
     private final RestClientConfiguration configuration;
+    private volatile ClientTransport transport;
 
     public JasperserverRestClient(RestClientConfiguration configuration) {
         if (configuration == null || configuration.getJasperReportsServerUrl() == null) {
@@ -69,7 +69,7 @@ public class JasperserverRestClient {
         if (username != null && username.length() > 0 && password != null && password.length() > 0) {
             AuthenticationCredentials credentials = new AuthenticationCredentials(username, password);
             SessionStorage sessionStorage =
-                    new SessionStorage(configuration,
+                    new SessionStorage(getTransport(),
                             credentials,
                             (userLocale == null) ? Locale.getDefault() : userLocale,
                             (userTimeZone == null) ? TimeZone.getDefault() : userTimeZone);
@@ -80,7 +80,52 @@ public class JasperserverRestClient {
     }
 
     public AnonymousSession getAnonymousSession() {
-        return new AnonymousSession(new SessionStorage(configuration, null, Locale.getDefault(), TimeZone.getDefault()));
+        return new AnonymousSession(new SessionStorage(getTransport(), null, Locale.getDefault(), TimeZone.getDefault()));
+    }
+
+    /**
+     * @return transport shared by all sessions of this client, it is created on first use
+     */
+    protected ClientTransport getTransport() {
+        ClientTransport current = transport;
+        if (current == null) {
+            synchronized (this) {
+                current = transport;
+                if (current == null) {
+                    transport = current = new ClientTransport(configuration);
+                }
+            }
+        }
+        if (current.isClosed()) {
+            throw new IllegalStateException("JasperserverRestClient is closed");
+        }
+        return current;
+    }
+
+    /**
+     * @return statistics of the connection pool shared by all sessions or <code>null</code> if pooling is disabled
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        ClientTransport current = transport;
+        return current != null ? current.getConnectionPoolStats() : null;
+    }
+
+    /**
+     * @return queue depth, active and rejected tasks of the asynchronous executor shared by all sessions
+     * or <code>null</code> if no session was created yet
+     */
+    public ExecutorStats getExecutorStats() {
+        ClientTransport current = transport;
+        return current != null ? current.getExecutorStats() : null;
+    }
+
+    /**
+     * Closes shared client and releases all pooled connections. Sessions of this client can't be used afterwards.
+     */
+    public synchronized void close() {
+        if (transport != null) {
+            transport.close();
+        }
     }
 
     protected void login(SessionStorage storage) throws JSClientWebException {
@@ -88,28 +133,31 @@ public class JasperserverRestClient {
         AuthenticationCredentials credentials = storage.getCredentials();
         WebTarget rootTarget = storage.getRootTarget();
         if (configuration.getAuthenticationType() == AuthenticationType.BASIC) {
-            rootTarget.register(new BasicAuthenticationFilter(credentials));
+            // credentials are sent with each request by SessionStateFilter
             return;
         }
         Form form = new Form();
         form.param("j_username", credentials.getUsername()).param("j_password", credentials.getPassword());
         form.param("userTimezone", storage.getUserTimeZone().getID());
         form.param("userLocale", storage.getUserLocale().toString());
-        WebTarget target = rootTarget.path("/j_spring_security_check")
-                    .property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
-        Response response = target.request().post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE));
-        if (response.getStatus() == Status.FOUND.getStatusCode()) {
-            String location = response.getLocation().toString();
-            String sessionId;
-            if (!location.matches("[^?]+\\?([^&]*&)*error=1(&[^&]*)*$")) {
-                sessionId = response.getCookies().get("JSESSIONID").getValue();
-                storage.setSessionId(sessionId);
+        // redirects are switched off per request, changing the shared target would rebuild its runtime
+        WebTarget target = rootTarget.path("/j_spring_security_check");
+        Invocation.Builder request = target.request();
+        request.property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
+        Response response = request.post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE));
+        try {
+            if (response.getStatus() == Status.FOUND.getStatusCode()) {
+                String location = response.getLocation().toString();
+                if (!location.matches("[^?]+\\?([^&]*&)*error=1(&[^&]*)*$")) {
+                    storage.setSessionId(response.getCookies().get("JSESSIONID").getValue());
+                } else {
+                    throw new AuthenticationFailedException("Invalid credentials supplied. Could not login to JasperReports Server.");
+                }
             } else {
-                throw new AuthenticationFailedException("Invalid credentials supplied. Could not login to JasperReports Server.");
+                throw  new ResourceNotFoundException("Server was not found");
             }
-            rootTarget.register(new SessionOutputFilter(sessionId));
-        } else {
-            throw  new ResourceNotFoundException("Server was not found");
+        } finally {
+            response.close();
         }
     }
 
@@ -22,6 +22,8 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RequestMethod;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.CircuitBreakerOpenException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.ErrorHandler;
@@ -29,16 +31,25 @@ import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.NullEntityO
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResultFactory;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResultFactoryImpl;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.StreamingOperationResult;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.RequestTimingFilter;
 import com.sun.jersey.api.uri.UriComponent;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType.JSON;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -54,18 +65,27 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
     private final Class<ResponseType> responseClass;
     private final GenericType<ResponseType> responseGenericType;
     private final Boolean restrictedHttpMethods;
+    private final SessionStorage sessionStorage;
     private ErrorHandler errorHandler;
     private MultivaluedMap<String, String> headers;
     private WebTarget usersWebTarget;
     private String contentType;
     private String acceptType;
     private Boolean handleErrors;
+    private Integer chunkSize;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private RetryPolicy retryPolicy;
+    private Boolean idempotent;
+    private boolean streaming;
+    private CircuitBreakers circuitBreakers;
+    private CircuitBreaker circuitBreaker;
 
     protected JerseyRequest(SessionStorage sessionStorage, Class<ResponseType> responseClass) {
         operationResultFactory = new OperationResultFactoryImpl();
         this.responseClass = responseClass;
         this.responseGenericType = null;
         restrictedHttpMethods = sessionStorage.getConfiguration().getRestrictedHttpMethods();
+        this.sessionStorage = sessionStorage;
         init(sessionStorage);
 
     }
@@ -77,6 +97,7 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
         this.responseClass = (Class<ResponseType>) genericType.getRawType();
         this.responseGenericType = genericType;
         restrictedHttpMethods = sessionStorage.getConfiguration().getRestrictedHttpMethods();
+        this.sessionStorage = sessionStorage;
         init(sessionStorage);
     }
 
@@ -90,6 +111,9 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
         usersWebTarget = sessionStorage.getRootTarget()
                 .path("/rest_v2");
         handleErrors = configuration.getHandleErrors();
+        concurrencyLimiter = configuration.getConcurrencyLimiter();
+        retryPolicy = configuration.getRetryPolicy();
+        circuitBreakers = configuration.getCircuitBreakers();
     }
 
     public static <T> JerseyRequest<T> buildRequest(SessionStorage sessionStorage, Class<T> responseClass, String[] path) {
@@ -108,6 +132,10 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
 
     private static <T> JerseyRequest<T> configRequest(JerseyRequest<T> request, String[] path, ErrorHandler errorHandler) {
         request.errorHandler = errorHandler != null ? errorHandler : new DefaultErrorHandler();
+        String endpoint = CircuitBreakers.endpointOf(path);
+        if (request.circuitBreakers != null && endpoint != null) {
+            request.circuitBreaker = request.circuitBreakers.get(endpoint);
+        }
         boolean validatNnext = true;
         for (String pathElem : path) {
             if (validatNnext) {
@@ -155,11 +183,36 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
         return executeRequest(POST, request, entity);
     }
 
+    @Override
+    public RequestFuture<OperationResult<ResponseType>> asyncGet() {
+        return executeRequestAsync(GET, buildRequest(), null);
+    }
+
+    @Override
+    public RequestFuture<OperationResult<ResponseType>> asyncDelete() {
+        return executeRequestAsync(DELETE, buildRequest(), null);
+    }
+
+    @Override
+    public RequestFuture<OperationResult<ResponseType>> asyncPut(Object entity) {
+        return executeRequestAsync(PUT, buildRequest(), entity);
+    }
+
+    @Override
+    public RequestFuture<OperationResult<ResponseType>> asyncPost(Object entity) {
+        return executeRequestAsync(POST, buildRequest(), entity);
+    }
+
     private Invocation.Builder buildRequest() {
-        Invocation.Builder request = usersWebTarget.request();
+        Invocation.Builder request = sessionStorage.request(usersWebTarget);
         if (acceptType != null) {
             request = request.accept(acceptType);
         }
+        if (chunkSize != null) {
+            request = request
+                    .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                    .property(ClientProperties.CHUNKED_ENCODING_SIZE, chunkSize);
+        }
         addHeaders(request);
         return request;
     }
@@ -168,7 +221,80 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
         return executeRequest(httpMethod, request, null);
     }
 
+    /**
+     * Every repeated attempt is sent by a new builder, so headers added by the previous one
+     * (e.g. <code>X-HTTP-Method-Override</code>) are not repeated. The calling thread sleeps between
+     * attempts, so a synchronous request may block up to {@link RetryPolicy#setMaxElapsed(long)}
+     * plus the time of the last attempt; asynchronous requests wait without occupying a thread.
+     */
     private OperationResult<ResponseType> executeRequest(int httpMethod, Invocation.Builder request, Object entity) {
+        if (retryPolicy == null || !isIdempotent(httpMethod, entity)) {
+            return toOperationResult(sendLimited(httpMethod, request, entity));
+        }
+        RetryPolicy.Call call = retryPolicy.newCall();
+        while (true) {
+            long delay;
+            try {
+                Response response = sendLimited(httpMethod, request, entity);
+                delay = call.retryDelay(response);
+                if (delay < 0) {
+                    return toOperationResult(response);
+                }
+                response.close();
+            } catch (RuntimeException e) {
+                delay = call.retryDelay(e);
+                if (delay < 0) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JSClientException("Interrupted while waiting to repeat the request", e);
+            }
+            request = buildRequest();
+        }
+    }
+
+    private Response sendLimited(int httpMethod, Invocation.Builder request, Object entity) {
+        CircuitBreaker.Permit guard = circuitBreaker != null ? circuitBreaker.acquire() : null;
+        ConcurrencyLimiter.Permit permit = acquirePermit(guard);
+        Response response = null;
+        try {
+            request.property(RequestTimingFilter.LIMITER_PERMIT_PROPERTY, permit);
+            request.property(RequestTimingFilter.BREAKER_PERMIT_PROPERTY, guard);
+            response = sendRequest(httpMethod, request, entity);
+        } finally {
+            release(permit, response);
+            release(guard, response);
+        }
+        return response;
+    }
+
+    /**
+     * Requests rejected by the concurrency limiter are not recorded by the circuit breaker.
+     */
+    private ConcurrencyLimiter.Permit acquirePermit(CircuitBreaker.Permit guard) {
+        try {
+            return concurrencyLimiter != null ? concurrencyLimiter.acquire() : null;
+        } catch (RuntimeException e) {
+            if (guard != null) {
+                guard.cancel();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Streams can be sent once, other entities of idempotent requests can be sent again.
+     */
+    private boolean isIdempotent(int httpMethod, Object entity) {
+        boolean idempotent = this.idempotent != null ? this.idempotent : httpMethod != POST;
+        return idempotent && !(entity instanceof InputStream);
+    }
+
+    private Response sendRequest(int httpMethod, Invocation.Builder request, Object entity) {
         Response response = null;
         if (restrictedHttpMethods && (httpMethod != POST || httpMethod != GET)) {
             request.header("X-HTTP-Method-Override", RequestMethod.values()[httpMethod].toString());
@@ -191,10 +317,234 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
 
             if (response != null && response.getStatus() == 411 && (httpMethod != POST || httpMethod != GET)) {
                 request.header("X-HTTP-Method-Override", RequestMethod.values()[httpMethod].toString());
-                executeRequest(POST, request, entity);
+                toOperationResult(sendRequest(POST, request, entity));
             }
         }
 
+        return response;
+    }
+
+    /**
+     * Responses without status, <code>429 Too Many Requests</code> and server errors decrease the concurrency limit.
+     */
+    private static void release(ConcurrencyLimiter.Permit permit, Response response) {
+        if (permit != null) {
+            permit.release(isFailure(response));
+        }
+    }
+
+    private static void release(CircuitBreaker.Permit guard, Response response) {
+        if (guard != null) {
+            guard.release(isFailure(response));
+        }
+    }
+
+    private static boolean isFailure(Response response) {
+        return response == null || response.getStatus() == 429 || response.getStatus() >= 500;
+    }
+
+    /**
+     * Sends the request through Jersey async invoker, which runs on the executor of the client.
+     * The result is built by the thread which receives the response and listeners are notified
+     * on the callback executor if it is configured, the caller is not blocked.
+     */
+    private RequestFuture<OperationResult<ResponseType>> executeRequestAsync(int httpMethod, Invocation.Builder request, Object entity) {
+        RequestFuture<OperationResult<ResponseType>> future = new RequestFuture<OperationResult<ResponseType>>();
+        RetryPolicy.Call call = retryPolicy != null && isIdempotent(httpMethod, entity) ? retryPolicy.newCall() : null;
+        final AtomicReference<Attempt> attempt = new AtomicReference<Attempt>();
+        if (concurrencyLimiter != null || circuitBreaker != null) {
+            // registered once, repeated requests replace the permits of the current attempt
+            future.onFailure(new Callback<Throwable, Void>() {
+                @Override
+                public Void execute(Throwable failure) {
+                    Attempt current = attempt.get();
+                    if (failure instanceof CancellationException && current != null) {
+                        current.cancel();
+                    }
+                    return null;
+                }
+            });
+        }
+        sendAsync(future, call, attempt, httpMethod, request, entity);
+        return future;
+    }
+
+    /**
+     * Takes the concurrency limit without blocking: a request over the limit is sent by the thread which
+     * releases a permit. A request rejected by the limiter or by an open circuit fails its future.
+     */
+    private void sendAsync(final RequestFuture<OperationResult<ResponseType>> future, final RetryPolicy.Call call,
+                           final AtomicReference<Attempt> attempt, final int httpMethod,
+                           final Invocation.Builder request, final Object entity) {
+        if (future.isDone()) {
+            return;
+        }
+        final CircuitBreaker.Permit guard;
+        try {
+            guard = circuitBreaker != null ? circuitBreaker.acquire() : null;
+        } catch (CircuitBreakerOpenException e) {
+            future.fail(e);
+            return;
+        }
+        if (concurrencyLimiter == null) {
+            sendPermitted(future, call, attempt, httpMethod, request, entity, guard, null);
+            return;
+        }
+        RequestFuture<ConcurrencyLimiter.Permit> permit = concurrencyLimiter.acquireAsync(PollScheduler.of(sessionStorage));
+        future.setUpstream(permit);
+        permit.onSuccess(new Callback<ConcurrencyLimiter.Permit, Void>() {
+            @Override
+            public Void execute(ConcurrencyLimiter.Permit permit) {
+                sendPermitted(future, call, attempt, httpMethod, request, entity, guard, permit);
+                return null;
+            }
+        }).onFailure(new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable failure) {
+                // requests rejected by the concurrency limiter are not recorded by the circuit breaker
+                if (guard != null) {
+                    guard.cancel();
+                }
+                future.fail(failure);
+                return null;
+            }
+        });
+    }
+
+    private void sendPermitted(final RequestFuture<OperationResult<ResponseType>> future, final RetryPolicy.Call call,
+                               final AtomicReference<Attempt> attempt, final int httpMethod,
+                               final Invocation.Builder request, final Object entity,
+                               final CircuitBreaker.Permit guard, final ConcurrencyLimiter.Permit permit) {
+        if (permit != null || guard != null) {
+            Attempt current = new Attempt(guard, permit);
+            attempt.set(current);
+            // cancelled before the cancellation hook could see the permits
+            if (future.isCancelled()) {
+                current.cancel();
+            }
+        }
+        InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                release(permit, response);
+                release(guard, response);
+                long delay = call != null ? call.retryDelay(response) : -1;
+                if (delay >= 0) {
+                    response.close();
+                    retryAsync(delay, future, call, attempt, httpMethod, entity);
+                    return;
+                }
+                OperationResult<ResponseType> result;
+                try {
+                    result = toOperationResult(response);
+                } catch (Throwable e) {
+                    fail(e);
+                    return;
+                }
+                final OperationResult<ResponseType> operationResult = result;
+                notifyListeners(new Runnable() {
+                    @Override
+                    public void run() {
+                        future.complete(operationResult);
+                    }
+                });
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                release(permit, null);
+                release(guard, null);
+                long delay = call != null && !future.isDone() ? call.retryDelay(throwable) : -1;
+                if (delay >= 0) {
+                    retryAsync(delay, future, call, attempt, httpMethod, entity);
+                    return;
+                }
+                fail(throwable);
+            }
+
+            private void fail(final Throwable throwable) {
+                notifyListeners(new Runnable() {
+                    @Override
+                    public void run() {
+                        future.fail(throwable);
+                    }
+                });
+            }
+        };
+        Future<Response> responseFuture;
+        try {
+            request.property(RequestTimingFilter.LIMITER_PERMIT_PROPERTY, permit);
+            request.property(RequestTimingFilter.BREAKER_PERMIT_PROPERTY, guard);
+            responseFuture = sendRequestAsync(httpMethod, request, entity, callback);
+        } catch (RuntimeException e) {
+            release(permit, null);
+            release(guard, null);
+            future.fail(e);
+            return;
+        }
+        future.setUpstream(responseFuture);
+    }
+
+    /**
+     * Sends the request again by a new builder after the delay without occupying a thread while waiting.
+     */
+    private void retryAsync(long delay, final RequestFuture<OperationResult<ResponseType>> future, final RetryPolicy.Call call,
+                            final AtomicReference<Attempt> attempt, final int httpMethod, final Object entity) {
+        RequestFuture<Void> retry = PollScheduler.of(sessionStorage).schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sendAsync(future, call, attempt, httpMethod, buildRequest(), entity);
+                } catch (RuntimeException e) {
+                    future.fail(e);
+                }
+            }
+        }, delay);
+        future.setUpstream(retry);
+        retry.onFailure(new Callback<Throwable, Void>() {
+            @Override
+            public Void execute(Throwable data) {
+                future.fail(data);
+                return null;
+            }
+        });
+    }
+
+    private Future<Response> sendRequestAsync(int httpMethod, Invocation.Builder request, Object entity,
+                                              InvocationCallback<Response> callback) {
+        Future<Response> responseFuture;
+        if (restrictedHttpMethods && (httpMethod != POST || httpMethod != GET)) {
+            request.header("X-HTTP-Method-Override", RequestMethod.values()[httpMethod].toString());
+            responseFuture = request.async().post(Entity.entity(entity, contentType), callback);
+        } else {
+            switch (httpMethod) {
+                case DELETE:
+                    responseFuture = request.async().delete(callback);
+                    break;
+                case POST:
+                    responseFuture = request.async().post(Entity.entity(entity, contentType), callback);
+                    break;
+                case PUT:
+                    responseFuture = request.async().put(Entity.entity(entity, contentType), callback);
+                    break;
+                default:
+                    responseFuture = request.async().get(callback);
+            }
+        }
+        return responseFuture;
+    }
+
+    private void notifyListeners(Runnable completion) {
+        AsyncExecutor asyncExecutor = sessionStorage.getAsyncExecutor();
+        if (asyncExecutor != null) {
+            asyncExecutor.executeCallback(completion);
+        } else {
+            completion.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private OperationResult<ResponseType> toOperationResult(Response response) {
         if (response != null && response.getStatus() >= 400) {
             if (!handleErrors) {
                 return (responseGenericType != null) ? new NullEntityOperationResult<ResponseType>(response, responseGenericType, errorHandler)
@@ -204,6 +554,11 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
             errorHandler.handleError(response);
         }
 
+        // errors are read completely to be handled
+        if (streaming && responseClass == InputStream.class && response != null && response.getStatus() < 400
+                && response.hasEntity()) {
+            return (OperationResult<ResponseType>) new StreamingOperationResult(response);
+        }
         return (responseGenericType != null) ? operationResultFactory.getOperationResult(response, responseGenericType)
                 : operationResultFactory.getOperationResult(response, responseClass);
     }
@@ -267,4 +622,57 @@ public class JerseyRequest<ResponseType> implements RequestBuilder<ResponseType>
         return this;
     }
 
+    /**
+     * Sends the entity with chunked transfer encoding, so the connector writes it while it is read
+     * instead of buffering the whole body to compute its length.
+     */
+    public JerseyRequest<ResponseType> setChunkedEncoding(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Overrides whether the request may be repeated by the {@link RetryPolicy}. <code>GET</code>, <code>PUT</code>
+     * and <code>DELETE</code> are repeated by default, <code>POST</code> only when it is marked as idempotent,
+     * e.g. a status poll.
+     */
+    public JerseyRequest<ResponseType> setIdempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+    /**
+     * Reads binary content of a successful response directly from the connection instead of buffering it
+     * in memory. Applies to requests of <code>InputStream</code>. The content can be read only once and the stream
+     * or the result must be closed, otherwise the pooled connection is not released.
+     */
+    public JerseyRequest<ResponseType> setStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * Permits taken by the attempt being sent, released when the request is cancelled.
+     */
+    private static class Attempt {
+        private final CircuitBreaker.Permit guard;
+        private final ConcurrencyLimiter.Permit permit;
+
+        private Attempt(CircuitBreaker.Permit guard, ConcurrencyLimiter.Permit permit) {
+            this.guard = guard;
+            this.permit = permit;
+        }
+
+        private void cancel() {
+            if (permit != null) {
+                permit.cancel();
+            }
+            if (guard != null) {
+                guard.cancel();
+            }
+        }
+    }
 }
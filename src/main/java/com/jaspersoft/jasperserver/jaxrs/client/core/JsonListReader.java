@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.AnnotationIntrospector;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.introspect.JacksonAnnotationIntrospector;
+import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
+
+/**
+ * Reads elements of a JSON list wrapper one by one directly from the response stream, so only the current
+ * element is kept in memory. Elements are taken from the array field of the root object with the given name,
+ * or from the first array field if the name is <code>null</code>. Other fields are skipped.
+ * The stream is closed when the last element is read or the reader is closed.
+ */
+public class JsonListReader<T> implements Iterator<T>, Closeable {
+
+    private static final Log log = LogFactory.getLog(JsonListReader.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static {
+        MAPPER.setAnnotationIntrospector(new AnnotationIntrospector.Pair(
+                new JacksonAnnotationIntrospector(), new JaxbAnnotationIntrospector()));
+        MAPPER.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    private final InputStream stream;
+    private final Class<T> elementClass;
+    private final String fieldName;
+    private JsonParser parser;
+    private boolean positioned;
+    private boolean finished;
+    private int count;
+
+    /**
+     * @param stream       JSON content, <code>null</code> means an empty list
+     * @param elementClass class of list elements
+     * @param fieldName    name of the array field or <code>null</code> to read the first array
+     */
+    public JsonListReader(InputStream stream, Class<T> elementClass, String fieldName) {
+        this.stream = stream;
+        this.elementClass = elementClass;
+        this.fieldName = fieldName;
+        this.finished = stream == null;
+    }
+
+    /**
+     * Creates reader for content of a streamed operation result. Result without content is an empty list.
+     */
+    public static <T> JsonListReader<T> of(OperationResult<InputStream> result, Class<T> elementClass, String fieldName) {
+        return new JsonListReader<T>(result.getEntity(), elementClass, fieldName);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!positioned) {
+                positioned = true;
+                parser = MAPPER.getJsonFactory().createJsonParser(stream);
+                if (!moveToArray()) {
+                    close();
+                    return false;
+                }
+            }
+            JsonToken token = parser.getCurrentToken() != null ? parser.getCurrentToken() : parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new JSClientException("Failed to read list element: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T element = MAPPER.readValue(parser, elementClass);
+            parser.clearCurrentToken();
+            count++;
+            return element;
+        } catch (IOException e) {
+            close();
+            throw new JSClientException("Failed to read list element: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Elements can't be removed by list reader");
+    }
+
+    /**
+     * Passes all remaining elements to the consumer and closes the reader.
+     *
+     * @return number of passed elements
+     */
+    public int forEach(Callback<T, ?> consumer) {
+        int passed = 0;
+        try {
+            while (hasNext()) {
+                consumer.execute(next());
+                passed++;
+            }
+        } finally {
+            close();
+        }
+        return passed;
+    }
+
+    /**
+     * @return number of elements read so far
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (finished && parser == null) {
+            return;
+        }
+        finished = true;
+        try {
+            if (parser != null) {
+                parser.close();
+                parser = null;
+            }
+            if (stream != null) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close list stream", e);
+        }
+    }
+
+    /**
+     * Moves parser to the start of the list array.
+     *
+     * @return <code>false</code> if content has no such array
+     */
+    private boolean moveToArray() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            parser.clearCurrentToken();
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY && (fieldName == null || fieldName.equals(name))) {
+                parser.clearCurrentToken();
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Waits for server side tasks (report executions, exports, imports) to finish. Pending tasks of a client
+ * share a small scheduled executor and occupy no thread between checks, checks themselves are run on the
+ * asynchronous executor of the client. Delay between checks grows exponentially and is randomized,
+ * so tasks started at the same time do not poll the server in lock-step.
+ */
+public class PollScheduler {
+
+    /**
+     * Single check of the task state.
+     *
+     * @param <T> type of the result of finished task
+     */
+    public interface Poll<T> {
+
+        /**
+         * @return result of finished task or <code>null</code> if the task is still in progress.
+         * Thrown exception fails the task.
+         */
+        T check();
+    }
+
+    private static final double BACKOFF_MULTIPLIER = 1.5;
+    private static final double JITTER = 0.2;
+    private static volatile PollScheduler defaultScheduler;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor checkExecutor;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final long timeout;
+    private final Random random = new Random();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public PollScheduler(RestClientConfiguration configuration, AsyncExecutor asyncExecutor) {
+        this(newScheduler(configuration.getPollThreads()),
+                asyncExecutor != null ? asyncExecutor.getBackgroundExecutorService() : null,
+                valueOf(configuration.getPollInitialDelay(), 250),
+                valueOf(configuration.getPollMaxDelay(), 5000),
+                valueOf(configuration.getPollTimeout(), 0));
+    }
+
+    /**
+     * @param scheduler     executor which schedules checks
+     * @param checkExecutor executor which runs checks, <code>null</code> runs them on the scheduler. When it rejects
+     *                      a check, the check is scheduled again, so it should not run rejected tasks by itself
+     * @param initialDelay  delay in milliseconds before the second check, the first one is done immediately
+     * @param maxDelay      upper bound of the delay in milliseconds
+     * @param timeout       default deadline of a task in milliseconds, <code>0</code> waits forever
+     */
+    public PollScheduler(ScheduledExecutorService scheduler, Executor checkExecutor,
+                         long initialDelay, long maxDelay, long timeout) {
+        this.scheduler = scheduler;
+        this.checkExecutor = checkExecutor;
+        this.initialDelay = Math.max(initialDelay, 1);
+        this.maxDelay = Math.max(maxDelay, this.initialDelay);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return scheduler of the client which owns the session or shared one if the session has no client
+     */
+    public static PollScheduler of(SessionStorage sessionStorage) {
+        PollScheduler scheduler = sessionStorage != null ? sessionStorage.getPollScheduler() : null;
+        return scheduler != null ? scheduler : getDefaultScheduler();
+    }
+
+    /**
+     * Waits for the task. If the current thread is interrupted the task is cancelled
+     * and the interrupt status is restored.
+     */
+    public static <T> T await(RequestFuture<T> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while waiting for the task to finish", e);
+        } catch (ExecutionException ignored) {
+            // rethrown with original type by join()
+        }
+        return future.join();
+    }
+
+    public <T> RequestFuture<T> poll(Poll<T> poll) {
+        return poll(poll, timeout);
+    }
+
+    /**
+     * @param timeout deadline of the task in milliseconds, <code>0</code> waits forever
+     * @return future completed with the result of the task. Cancelling it stops polling.
+     */
+    public <T> RequestFuture<T> poll(Poll<T> poll, long timeout) {
+        PollTask<T> task = new PollTask<T>(poll, timeout);
+        pending.incrementAndGet();
+        task.result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                pending.decrementAndGet();
+            }
+        });
+        task.schedule(0);
+        return task.result;
+    }
+
+    /**
+     * Runs the task once after the delay on the executor which runs checks. If the executor is full,
+     * the task is postponed, it is never run by the scheduler thread.
+     *
+     * @return future completed when the task is run or failed if the executor is shut down.
+     * Cancelling it stops the task if it has not started yet.
+     */
+    public RequestFuture<Void> schedule(Runnable task, long delay) {
+        DelayedTask delayed = new DelayedTask(task);
+        delayed.schedule(delay);
+        return delayed.result;
+    }
+
+    /**
+     * @return number of tasks which are waited for
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private long nextDelay(long delay) {
+        double factor = 1 - JITTER + 2 * JITTER * random.nextDouble();
+        return Math.max((long) (delay * factor), 1);
+    }
+
+    private boolean isCheckExecutorShutdown() {
+        return checkExecutor instanceof ExecutorService && ((ExecutorService) checkExecutor).isShutdown();
+    }
+
+    private static ScheduledExecutorService newScheduler(Integer threads) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                threads != null && threads > 0 ? threads : 1,
+                new DefaultAsyncExecutorFactory.NamedThreadFactory("jrs-poll-"));
+        executor.setKeepAliveTime(60, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static long valueOf(Integer value, long defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static PollScheduler getDefaultScheduler() {
+        PollScheduler current = defaultScheduler;
+        if (current == null) {
+            synchronized (PollScheduler.class) {
+                current = defaultScheduler;
+                if (current == null) {
+                    defaultScheduler = current = new PollScheduler(new RestClientConfiguration(), null);
+                }
+            }
+        }
+        return current;
+    }
+
+    private class PollTask<T> implements Runnable {
+        private final Poll<T> poll;
+        private final RequestFuture<T> result = new RequestFuture<T>();
+        private final long timeout;
+        private final long deadline;
+        private long delay = initialDelay;
+
+        private PollTask(Poll<T> poll, long timeout) {
+            this.poll = poll;
+            this.timeout = timeout;
+            this.deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            if (checkExecutor == null) {
+                check();
+                return;
+            }
+            try {
+                checkExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        check();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (isCheckExecutorShutdown()) {
+                    result.fail(new JSClientException("Executor of checks is shut down", e));
+                    return;
+                }
+                // the executor is saturated, try again later
+                next();
+            }
+        }
+
+        private void check() {
+            if (result.isDone()) {
+                return;
+            }
+            T value;
+            try {
+                value = poll.check();
+            } catch (Throwable e) {
+                result.fail(e);
+                return;
+            }
+            if (value != null) {
+                result.complete(value);
+            } else {
+                next();
+            }
+        }
+
+        private void next() {
+            long wait = nextDelay(delay);
+            delay = Math.min((long) (delay * BACKOFF_MULTIPLIER), maxDelay);
+            if (deadline != 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    result.fail(new JSClientException("Task did not finish within " + timeout + " ms"));
+                    return;
+                }
+                wait = Math.min(wait, remaining);
+            }
+            schedule(wait);
+        }
+
+        private void schedule(long wait) {
+            try {
+                result.setUpstream(scheduler.schedule(this, wait, TimeUnit.MILLISECONDS));
+            } catch (RejectedExecutionException e) {
+                result.fail(new JSClientException("Poll scheduler is shut down", e));
+            }
+        }
+    }
+
+    private class DelayedTask implements Runnable {
+        private final Runnable task;
+        private final RequestFuture<Void> result = new RequestFuture<Void>();
+
+        private DelayedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            if (checkExecutor == null) {
+                runTask();
+                return;
+            }
+            try {
+                checkExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        runTask();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (isCheckExecutorShutdown()) {
+                    result.fail(e);
+                } else {
+                    schedule(nextDelay(initialDelay));
+                }
+            }
+        }
+
+        private void runTask() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                task.run();
+                result.complete(null);
+            } catch (Throwable e) {
+                result.fail(e);
+            }
+        }
+
+        private void schedule(long delay) {
+            try {
+                result.setUpstream(scheduler.schedule(this, delay, TimeUnit.MILLISECONDS));
+            } catch (RejectedExecutionException e) {
+                result.fail(new JSClientException("Poll scheduler is shut down", e));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts bytes read from the wrapped stream and reports them to the listener every <code>step</code> bytes
+ * and once more at the end of the stream.
+ */
+public class ProgressInputStream extends FilterInputStream {
+
+    public static final long DEFAULT_STEP = 1024 * 1024;
+
+    private final TransferListener listener;
+    private final long totalBytes;
+    private final long step;
+    private long transferred;
+    private long reported;
+    private boolean finished;
+
+    public ProgressInputStream(InputStream in, long totalBytes, TransferListener listener) {
+        this(in, totalBytes, listener, DEFAULT_STEP);
+    }
+
+    public ProgressInputStream(InputStream in, long totalBytes, TransferListener listener, long step) {
+        super(in);
+        if (step < 1) {
+            throw new IllegalArgumentException("Step should be positive");
+        }
+        this.listener = listener;
+        this.totalBytes = totalBytes;
+        this.step = step;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        count(read < 0 ? -1 : 1);
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        count(read);
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            count(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getTransferred() {
+        return transferred;
+    }
+
+    private void count(long read) {
+        if (read > 0) {
+            transferred += read;
+            if (transferred - reported >= step) {
+                report();
+            }
+        } else if (read < 0 && !finished) {
+            finished = true;
+            report();
+        }
+    }
+
+    private void report() {
+        reported = transferred;
+        listener.transferred(transferred, totalBytes);
+    }
+}
@@ -0,0 +1,644 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+/**
+ * Downloads large content into a file and survives broken connections. The first request asks for
+ * the first segment with a <code>Range</code> header. When the server answers with
+ * <code>206 Partial Content</code>, the file is preallocated and the remaining segments are requested
+ * in parallel and written at their positions. Completed segments are recorded next to the file,
+ * so a failed download started again requests only the missing segments, <code>If-Range</code>
+ * makes sure they belong to the same version of the content. When the server ignores ranges, the
+ * content is read as a single stream and a broken transfer is resumed from the last written offset
+ * of the same version of the content. Empty content, for which the first range cannot be satisfied,
+ * is written as an empty file.
+ * The content is written to <code>target.part</code> and moved to the target when it is complete.
+ * Segments are downloaded by the calling thread together with threads of the client executor, a request
+ * is repeated only when its failure is retryable according to the {@link RetryPolicy}.
+ */
+public class RangeDownloader {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 8L * 1024 * 1024;
+    public static final String PART_SUFFIX = ".part";
+    public static final String STATE_SUFFIX = ".ranges";
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+)");
+    private static final Pattern EMPTY_CONTENT_RANGE = Pattern.compile("bytes\\s+\\*/0");
+    private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+    private static final long WRITE_CHUNK = 1024 * 1024;
+
+    private final Callback<MultivaluedMap<String, String>, OperationResult<InputStream>> request;
+    private final ExecutorService executor;
+    private final RetryPolicy retryPolicy;
+    private int parallelism = 4;
+    private long segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int maxRetries = 3;
+    private TransferListener listener;
+
+    private final AtomicLong transferred = new AtomicLong();
+    private volatile long totalBytes = -1;
+
+    /**
+     * Builds a downloader which requests all segments in the calling thread and classifies failures
+     * with the default retry policy.
+     *
+     * @param request sends the download request with the given additional headers
+     */
+    public RangeDownloader(Callback<MultivaluedMap<String, String>, OperationResult<InputStream>> request) {
+        this(request, null, null);
+    }
+
+    /**
+     * Builds a downloader which uses the executor and the retry policy of the session.
+     */
+    public RangeDownloader(Callback<MultivaluedMap<String, String>, OperationResult<InputStream>> request,
+                           SessionStorage sessionStorage) {
+        this(request, sessionStorage.getAsyncExecutor().getBackgroundExecutorService(),
+                sessionStorage.getConfiguration().getRetryPolicy());
+    }
+
+    /**
+     * @param executor    runs segments in parallel with the calling thread, <code>null</code> to use
+     *                    the calling thread only
+     * @param retryPolicy decides which failed requests are repeated, <code>null</code> for the default policy
+     */
+    public RangeDownloader(Callback<MultivaluedMap<String, String>, OperationResult<InputStream>> request,
+                           ExecutorService executor, RetryPolicy retryPolicy) {
+        this.request = request;
+        this.executor = executor;
+        this.retryPolicy = retryPolicy != null ? retryPolicy : new RetryPolicy();
+    }
+
+    public RangeDownloader parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param segmentSize size of ranges requested in parallel, a resumed download keeps the size
+     *                    it was started with
+     */
+    public RangeDownloader segmentSize(long segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size should be positive");
+        }
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * @param maxRetries number of repeated requests of a segment or of a broken stream after retryable failures
+     */
+    public RangeDownloader retries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Retries should not be negative");
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    public RangeDownloader listener(TransferListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Downloads the content, resuming the previous download into the same file if it failed.
+     *
+     * @return the target file
+     * @throws JSClientException when the content cannot be downloaded, completed segments are kept
+     */
+    public File downloadTo(File target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target file is not specified");
+        }
+        File partial = new File(target.getPath() + PART_SUFFIX);
+        File stateFile = new File(target.getPath() + STATE_SUFFIX);
+        transferred.set(0);
+        totalBytes = -1;
+
+        SegmentState state = partial.exists() ? SegmentState.load(stateFile) : null;
+        OperationResult<InputStream> probe = probe(state);
+        if (probe == null && state != null) {
+            // the saved segments are beyond the end of changed content
+            state = null;
+            probe = probe(null);
+        }
+        long size = state != null ? state.segmentSize : segmentSize;
+        try {
+            if (probe == null) {
+                stateFile.delete();
+                writeEmpty(partial);
+            } else if (probe.getResponseStatus() != Response.Status.PARTIAL_CONTENT.getStatusCode()) {
+                stateFile.delete();
+                downloadStream(probe, partial);
+            } else {
+                downloadSegments(probe, state, size, partial, stateFile);
+            }
+        } finally {
+            if (probe != null) {
+                probe.close();
+            }
+        }
+        if (target.exists() && !target.delete() || !partial.renameTo(target)) {
+            throw new JSClientException("Cannot move downloaded content to " + target);
+        }
+        stateFile.delete();
+        return target;
+    }
+
+    /**
+     * @return number of bytes written by the current or the last download
+     */
+    public long getTransferred() {
+        return transferred.get();
+    }
+
+    /**
+     * Requests the first missing segment.
+     *
+     * @return <code>null</code> when the range cannot be satisfied, which for the first segment means
+     * the content is empty
+     */
+    private OperationResult<InputStream> probe(SegmentState state) {
+        long size = state != null ? state.segmentSize : segmentSize;
+        long start = state != null ? state.firstMissing() * size : 0;
+        OperationResult<InputStream> probe;
+        try {
+            probe = requestWithRetries(start, start + size - 1, state != null ? state.validator : null);
+        } catch (JSClientWebException e) {
+            if (e.getStatus() == REQUESTED_RANGE_NOT_SATISFIABLE) {
+                return null;
+            }
+            throw e;
+        }
+        if (probe.getResponseStatus() == REQUESTED_RANGE_NOT_SATISFIABLE) {
+            String contentRange = header(probe, "Content-Range");
+            probe.close();
+            if (state == null && (contentRange == null || !EMPTY_CONTENT_RANGE.matcher(contentRange.trim()).matches())) {
+                throw new JSClientException("Unexpected Content-Range: " + contentRange);
+            }
+            return null;
+        }
+        return probe;
+    }
+
+    private void writeEmpty(File partial) {
+        totalBytes = 0;
+        try {
+            new FileOutputStream(partial).close();
+        } catch (IOException e) {
+            throw new JSClientException("Unable to write downloaded content to " + partial, e);
+        }
+        if (listener != null) {
+            listener.transferred(0, 0);
+        }
+    }
+
+    private void downloadSegments(OperationResult<InputStream> probe, SegmentState saved, long size,
+                                  File partial, File stateFile) {
+        long[] range = contentRange(probe);
+        String validator = validator(probe);
+        final SegmentState state = saved != null && saved.matches(range[2], size, validator)
+                ? saved
+                : new SegmentState(range[2], size, validator);
+        totalBytes = state.total;
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(partial, "rw");
+            if (file.length() != state.total) {
+                file.setLength(state.total);
+            }
+            FileChannel channel = file.getChannel();
+            transferred.set(state.completedBytes());
+            writeSegment(channel, probe, range[0], range[1]);
+            state.complete((int) (range[0] / size), stateFile);
+
+            List<Integer> missing = state.missing();
+            if (missing.isEmpty()) {
+                return;
+            }
+            downloadMissing(channel, state, missing, stateFile);
+        } catch (IOException e) {
+            throw new JSClientException("Unable to write downloaded content to " + partial, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while downloading to " + partial, e);
+        } finally {
+            close(file);
+        }
+    }
+
+    /**
+     * Downloads the segments by workers taking them from a shared queue. One worker is the calling thread,
+     * the others are started by the executor. Workers which did not start before the queue is drained are
+     * not waited for, so a busy executor only reduces the parallelism.
+     */
+    private void downloadMissing(FileChannel channel, SegmentState state, List<Integer> missing, File stateFile)
+            throws InterruptedException {
+        Queue<Integer> queue = new ConcurrentLinkedQueue<Integer>(missing);
+        AtomicReference<JSClientException> failure = new AtomicReference<JSClientException>();
+        List<SegmentWorker> workers = new ArrayList<SegmentWorker>();
+        if (executor != null) {
+            for (int i = 1; i < Math.min(parallelism, missing.size()); i++) {
+                SegmentWorker worker = new SegmentWorker(channel, state, queue, stateFile, failure);
+                try {
+                    executor.execute(worker);
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+                workers.add(worker);
+            }
+        }
+        new SegmentWorker(channel, state, queue, stateFile, failure).run();
+        for (SegmentWorker worker : workers) {
+            worker.await();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void downloadSegment(FileChannel channel, SegmentState state, int index, File stateFile) {
+        long start = index * state.segmentSize;
+        long end = Math.min(start + state.segmentSize, state.total) - 1;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                OperationResult<InputStream> result = requestWithRetries(start, end, state.validator);
+                try {
+                    if (result.getResponseStatus() != Response.Status.PARTIAL_CONTENT.getStatusCode()) {
+                        throw new JSClientException("Content changed or range is not supported anymore");
+                    }
+                    long[] range = contentRange(result);
+                    if (range[0] != start) {
+                        throw new JSClientException("Unexpected range " + range[0] + "-" + range[1]);
+                    }
+                    writeSegment(channel, result, start, end);
+                } finally {
+                    result.close();
+                }
+                state.complete(index, stateFile);
+                return;
+            } catch (IOException e) {
+                if (attempt >= maxRetries || !retryPolicy.isRetryable(e)) {
+                    throw new JSClientException("Unable to download bytes " + start + "-" + end, e);
+                }
+            }
+        }
+    }
+
+    private void downloadStream(OperationResult<InputStream> probe, File partial) {
+        totalBytes = contentLength(probe);
+        String validator = validator(probe);
+        RandomAccessFile file = null;
+        OperationResult<InputStream> current = probe;
+        try {
+            file = new RandomAccessFile(partial, "rw");
+            file.setLength(0);
+            FileChannel channel = file.getChannel();
+            long offset = 0;
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    ReadableByteChannel source = Channels.newChannel(content(current));
+                    long written;
+                    while ((written = write(channel, source, offset, Long.MAX_VALUE)) > 0) {
+                        offset += written;
+                    }
+                    break;
+                } catch (IOException e) {
+                    if (attempt >= maxRetries || !retryPolicy.isRetryable(e)) {
+                        throw new JSClientException("Unable to download content after " + offset + " bytes", e);
+                    }
+                }
+                if (current != probe) {
+                    current.close();
+                }
+                // If-Range makes the server send the whole content when it has changed
+                current = requestWithRetries(offset, -1, validator);
+                boolean resumed = current.getResponseStatus() == Response.Status.PARTIAL_CONTENT.getStatusCode()
+                        && contentRange(current)[0] == offset
+                        && (totalBytes < 0 || contentRange(current)[2] == totalBytes);
+                if (!resumed) {
+                    offset = 0;
+                    channel.truncate(0);
+                    transferred.set(0);
+                }
+            }
+        } catch (IOException e) {
+            throw new JSClientException("Unable to write downloaded content to " + partial, e);
+        } finally {
+            if (current != probe) {
+                current.close();
+            }
+            close(file);
+        }
+    }
+
+    private OperationResult<InputStream> requestWithRetries(long start, long end, String validator) {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        headers.putSingle("Range", "bytes=" + start + "-" + (end >= 0 ? String.valueOf(end) : ""));
+        if (validator != null) {
+            headers.putSingle("If-Range", validator);
+        }
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return request.execute(headers);
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !retryPolicy.isRetryable(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void writeSegment(FileChannel channel, OperationResult<InputStream> result, long start, long end)
+            throws IOException {
+        ReadableByteChannel source = Channels.newChannel(content(result));
+        long position = start;
+        try {
+            long written;
+            while (position <= end && (written = write(channel, source, position, end + 1)) > 0) {
+                position += written;
+            }
+            if (position <= end) {
+                throw new IOException("Segment " + start + "-" + end + " ended after " + (position - start) + " bytes");
+            }
+        } catch (IOException e) {
+            // the segment is requested again from its start
+            transferred.addAndGet(start - position);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of bytes written at the position, zero at the end of the content
+     */
+    private long write(FileChannel channel, ReadableByteChannel source, long position, long limit) throws IOException {
+        long written = channel.transferFrom(source, position, Math.min(WRITE_CHUNK, limit - position));
+        if (written > 0) {
+            long total = transferred.addAndGet(written);
+            if (listener != null) {
+                listener.transferred(total, totalBytes);
+            }
+        }
+        return written;
+    }
+
+    private InputStream content(OperationResult<InputStream> result) throws IOException {
+        InputStream content = result.getEntity();
+        if (content == null) {
+            throw new IOException("Response has no content");
+        }
+        return content;
+    }
+
+    private long[] contentRange(OperationResult<InputStream> result) {
+        String header = header(result, "Content-Range");
+        Matcher matcher = header != null ? CONTENT_RANGE.matcher(header.trim()) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new JSClientException("Unexpected Content-Range: " + header);
+        }
+        return new long[]{Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                Long.parseLong(matcher.group(3))};
+    }
+
+    private long contentLength(OperationResult<InputStream> result) {
+        String header = header(result, "Content-Length");
+        try {
+            return header != null ? Long.parseLong(header.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return strong entity tag or last modification date, which can be sent as <code>If-Range</code>
+     */
+    private String validator(OperationResult<InputStream> result) {
+        String etag = header(result, "ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return header(result, "Last-Modified");
+    }
+
+    private String header(OperationResult<InputStream> result, String name) {
+        return result.getResponse() != null ? result.getResponse().getHeaderString(name) : null;
+    }
+
+    private static void close(RandomAccessFile file) {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ignored) {
+                // content is written already
+            }
+        }
+    }
+
+    /**
+     * Takes segments from the queue until it is empty, the first failure is kept and reported
+     * after all segments are tried. The worker runs once, either started by the executor or skipped
+     * by the calling thread.
+     */
+    private class SegmentWorker implements Runnable {
+        private final FileChannel channel;
+        private final SegmentState state;
+        private final Queue<Integer> queue;
+        private final File stateFile;
+        private final AtomicReference<JSClientException> failure;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private SegmentWorker(FileChannel channel, SegmentState state, Queue<Integer> queue, File stateFile,
+                              AtomicReference<JSClientException> failure) {
+            this.channel = channel;
+            this.state = state;
+            this.queue = queue;
+            this.stateFile = stateFile;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Integer index;
+                while ((index = queue.poll()) != null) {
+                    try {
+                        downloadSegment(channel, state, index, stateFile);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e instanceof JSClientException
+                                ? (JSClientException) e
+                                : new JSClientException("Segment download failed", e));
+                    }
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        /**
+         * Waits until the worker is finished, a worker which has not started yet is skipped.
+         */
+        private void await() throws InterruptedException {
+            if (!claimed.compareAndSet(false, true)) {
+                finished.await();
+            }
+        }
+    }
+
+    /**
+     * Completed segments of a download, stored next to the partial file.
+     */
+    private static class SegmentState {
+        private final long total;
+        private final long segmentSize;
+        private final String validator;
+        private final boolean[] completed;
+
+        private SegmentState(long total, long segmentSize, String validator) {
+            this.total = total;
+            this.segmentSize = segmentSize;
+            this.validator = validator;
+            this.completed = new boolean[(int) ((total + segmentSize - 1) / segmentSize)];
+        }
+
+        private static SegmentState load(File file) {
+            if (!file.exists()) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try {
+                InputStream in = new FileInputStream(file);
+                try {
+                    properties.load(in);
+                } finally {
+                    in.close();
+                }
+                SegmentState state = new SegmentState(Long.parseLong(properties.getProperty("total")),
+                        Long.parseLong(properties.getProperty("segmentSize")), properties.getProperty("validator"));
+                String completed = properties.getProperty("completed", "");
+                for (int i = 0; i < completed.length() && i < state.completed.length; i++) {
+                    state.completed[i] = completed.charAt(i) == '1';
+                }
+                return state;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private boolean matches(long total, long segmentSize, String validator) {
+            return this.total == total && this.segmentSize == segmentSize
+                    && (this.validator == null ? validator == null : this.validator.equals(validator));
+        }
+
+        private synchronized int firstMissing() {
+            for (int i = 0; i < completed.length; i++) {
+                if (!completed[i]) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private synchronized List<Integer> missing() {
+            List<Integer> missing = new ArrayList<Integer>();
+            for (int i = 0; i < completed.length; i++) {
+                if (!completed[i]) {
+                    missing.add(i);
+                }
+            }
+            return missing;
+        }
+
+        private synchronized long completedBytes() {
+            long bytes = 0;
+            for (int i = 0; i < completed.length; i++) {
+                if (completed[i]) {
+                    bytes += Math.min(segmentSize, total - i * segmentSize);
+                }
+            }
+            return bytes;
+        }
+
+        private synchronized void complete(int index, File file) {
+            completed[index] = true;
+            Properties properties = new Properties();
+            properties.setProperty("total", String.valueOf(total));
+            properties.setProperty("segmentSize", String.valueOf(segmentSize));
+            if (validator != null) {
+                properties.setProperty("validator", validator);
+            }
+            StringBuilder flags = new StringBuilder(completed.length);
+            for (boolean segment : completed) {
+                flags.append(segment ? '1' : '0');
+            }
+            properties.setProperty("completed", flags.toString());
+            try {
+                OutputStream out = new FileOutputStream(file);
+                try {
+                    properties.store(out, null);
+                } finally {
+                    out.close();
+                }
+            } catch (IOException ignored) {
+                // the download goes on, only resuming it after a failure is affected
+            }
+        }
+    }
+}
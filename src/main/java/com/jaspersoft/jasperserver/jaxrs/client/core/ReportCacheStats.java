@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the report output cache counters.
+ */
+public class ReportCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long bytesServed;
+    private final int memoryEntries;
+    private final long memoryBytes;
+    private final int diskEntries;
+    private final long diskBytes;
+
+    public ReportCacheStats(long hits, long misses, long evictions, long bytesServed,
+                            int memoryEntries, long memoryBytes, int diskEntries, long diskBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.bytesServed = bytesServed;
+        this.memoryEntries = memoryEntries;
+        this.memoryBytes = memoryBytes;
+        this.diskEntries = diskEntries;
+        this.diskBytes = diskBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return size of outputs served from the cache instead of the server
+     */
+    public long getBytesServed() {
+        return bytesServed;
+    }
+
+    public int getMemoryEntries() {
+        return memoryEntries;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getDiskEntries() {
+        return diskEntries;
+    }
+
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportCacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", bytesServed=" + bytesServed +
+                ", memoryEntries=" + memoryEntries +
+                ", memoryBytes=" + memoryBytes +
+                ", diskEntries=" + diskEntries +
+                ", diskBytes=" + diskBytes +
+                '}';
+    }
+}
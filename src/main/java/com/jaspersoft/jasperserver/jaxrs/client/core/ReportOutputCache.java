@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.CachedOperationResult;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of report outputs keyed by a hash of the canonical request (user, report, parameters, format, pages,
+ * locale, time zone). Small outputs are kept on heap, outputs larger than {@link #setMaxMemoryEntrySize(long)}
+ * are stored in files of the disk directory. Both tiers are bounded by size and evict least recently
+ * used entries, entries expire after the time to live. The cache is shared by all sessions of a client
+ * when it is set with {@link RestClientConfiguration#setReportOutputCache(ReportOutputCache)}.
+ */
+public class ReportOutputCache {
+
+    private static final String FILE_SUFFIX = ".jrscache";
+
+    private final Tier memory = new Tier(64L * 1024 * 1024);
+    private final Tier disk = new Tier(1024L * 1024 * 1024);
+    private volatile long maxMemoryEntrySize = 1024 * 1024;
+    private volatile long timeToLive = TimeUnit.MINUTES.toMillis(10);
+    private volatile File directory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    /**
+     * @param maxMemorySize total size in bytes of outputs kept on heap
+     */
+    public ReportOutputCache setMaxMemorySize(long maxMemorySize) {
+        synchronized (this) {
+            memory.max = maxMemorySize;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxMemoryEntrySize outputs larger than this size in bytes are stored on disk, or are not cached
+     *                           if the disk tier is not enabled
+     */
+    public ReportOutputCache setMaxMemoryEntrySize(long maxMemoryEntrySize) {
+        this.maxMemoryEntrySize = maxMemoryEntrySize;
+        return this;
+    }
+
+    /**
+     * Enables the disk tier. Files left in the directory by previous runs are removed.
+     */
+    public ReportOutputCache setDirectory(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create cache directory " + directory);
+        }
+        File[] stale = directory.listFiles();
+        if (stale != null) {
+            for (File file : stale) {
+                if (file.getName().endsWith(FILE_SUFFIX)) {
+                    file.delete();
+                }
+            }
+        }
+        this.directory = directory;
+        return this;
+    }
+
+    /**
+     * @param maxDiskSize total size in bytes of outputs stored on disk
+     */
+    public ReportOutputCache setMaxDiskSize(long maxDiskSize) {
+        synchronized (this) {
+            disk.max = maxDiskSize;
+        }
+        return this;
+    }
+
+    /**
+     * @param timeToLive time in milliseconds after which a cached output expires, <code>0</code> keeps it
+     *                   until it is evicted or invalidated
+     */
+    public ReportOutputCache setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * @param user     name of the session user including the organization (<code>user|organization</code>), report
+     *                 output depends on data permissions of the user, so outputs are never shared between users
+     * @param locale   locale of the session the report is run in
+     * @return hash of the canonical form of the request. Parameters are sorted by name, order of values is kept.
+     */
+    public static String keyOf(String user, String reportUnitUri, String format, Map<String, List<String>> parameters,
+                               String pages, String locale, String timeZoneId) {
+        StringBuilder canonical = new StringBuilder();
+        append(canonical, user);
+        append(canonical, locale);
+        append(canonical, reportUnitUri);
+        append(canonical, format);
+        append(canonical, pages);
+        append(canonical, timeZoneId);
+        if (parameters != null) {
+            for (Map.Entry<String, List<String>> parameter : new TreeMap<String, List<String>>(parameters).entrySet()) {
+                append(canonical, parameter.getKey());
+                canonical.append(parameter.getValue().size()).append('#');
+                for (String value : parameter.getValue()) {
+                    append(canonical, value);
+                }
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes("UTF-8"));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return result serving the cached output or <code>null</code> if there is no valid entry
+     */
+    public OperationResult<InputStream> get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = memory.entries.get(key);
+            if (entry == null) {
+                entry = disk.entries.get(key);
+            }
+            if (entry != null && entry.isExpired()) {
+                remove(entry);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            try {
+                InputStream content = entry.open();
+                hits.incrementAndGet();
+                bytesServed.addAndGet(entry.size);
+                return new CachedOperationResult(content, entry.contentType);
+            } catch (IOException e) {
+                synchronized (this) {
+                    remove(entry);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Reads the output of successful result into the cache and closes the result.
+     *
+     * @return result serving the output, unsuccessful results are returned as is
+     */
+    public OperationResult<InputStream> put(String key, String reportUnitUri, OperationResult<InputStream> result) {
+        if (result.getResponseStatus() != 200) {
+            return result;
+        }
+        InputStream in = result.getEntity();
+        if (in == null) {
+            return result;
+        }
+        String contentType = result.getResponse().getMediaType() != null
+                ? result.getResponse().getMediaType().toString() : null;
+        try {
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                head.write(buffer, 0, read);
+                if (head.size() > maxMemoryEntrySize) {
+                    InputStream content = new SequenceInputStream(new ByteArrayInputStream(head.toByteArray()), in);
+                    File dir = directory;
+                    if (dir == null) {
+                        return new CachedOperationResult(content, contentType, result);
+                    }
+                    return storeOnDisk(dir, key, reportUnitUri, contentType, content, result);
+                }
+            }
+            result.close();
+            byte[] content = head.toByteArray();
+            synchronized (this) {
+                add(memory, new Entry(key, reportUnitUri, contentType, content, null, content.length, expiry()));
+            }
+            return new CachedOperationResult(new ByteArrayInputStream(content), contentType);
+        } catch (IOException e) {
+            result.close();
+            throw new JSClientException("Error while reading report output", e);
+        }
+    }
+
+    /**
+     * Removes all outputs of the report.
+     */
+    public synchronized void invalidate(String reportUnitUri) {
+        List<Entry> outdated = new ArrayList<Entry>();
+        for (Entry entry : memory.entries.values()) {
+            if (reportUnitUri.equals(entry.reportUnitUri)) {
+                outdated.add(entry);
+            }
+        }
+        for (Entry entry : disk.entries.values()) {
+            if (reportUnitUri.equals(entry.reportUnitUri)) {
+                outdated.add(entry);
+            }
+        }
+        for (Entry entry : outdated) {
+            remove(entry);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (Entry entry : new ArrayList<Entry>(disk.entries.values())) {
+            remove(entry);
+        }
+        memory.entries.clear();
+        memory.bytes = 0;
+    }
+
+    public synchronized ReportCacheStats getStats() {
+        return new ReportCacheStats(hits.get(), misses.get(), evictions.get(), bytesServed.get(),
+                memory.entries.size(), memory.bytes, disk.entries.size(), disk.bytes);
+    }
+
+    private OperationResult<InputStream> storeOnDisk(File dir, String key, String reportUnitUri, String contentType,
+                                                     InputStream content, OperationResult<InputStream> result) throws IOException {
+        File file = File.createTempFile("output-", FILE_SUFFIX, dir);
+        try {
+            FileTransferUtil.transfer(content, file);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        } finally {
+            result.close();
+        }
+        Entry entry = new Entry(key, reportUnitUri, contentType, null, file, file.length(), expiry());
+        // opened before the entry is added, so the output is served even if it is evicted at once
+        InputStream stream = entry.open();
+        synchronized (this) {
+            add(disk, entry);
+        }
+        return new CachedOperationResult(stream, contentType);
+    }
+
+    private long expiry() {
+        long ttl = timeToLive;
+        return ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+    }
+
+    private void add(Tier tier, Entry entry) {
+        Entry previous = memory.entries.get(entry.key);
+        if (previous == null) {
+            previous = disk.entries.get(entry.key);
+        }
+        if (previous != null) {
+            remove(previous);
+        }
+        tier.entries.put(entry.key, entry);
+        tier.bytes += entry.size;
+        Iterator<Entry> eldest = tier.entries.values().iterator();
+        while (tier.bytes > tier.max && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            tier.bytes -= evicted.size;
+            evicted.release();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(Entry entry) {
+        Tier tier = entry.file != null ? disk : memory;
+        if (tier.entries.get(entry.key) == entry) {
+            tier.entries.remove(entry.key);
+            tier.bytes -= entry.size;
+        }
+        entry.release();
+    }
+
+    private static void append(StringBuilder canonical, String part) {
+        if (part == null) {
+            canonical.append("-1:");
+        } else {
+            canonical.append(part.length()).append(':').append(part);
+        }
+    }
+
+    private static class Tier {
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+        private long bytes;
+        private long max;
+
+        private Tier(long max) {
+            this.max = max;
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String reportUnitUri;
+        private final String contentType;
+        private final byte[] content;
+        private final File file;
+        private final long size;
+        private final long expiresAt;
+        private int readers;
+        private boolean released;
+
+        private Entry(String key, String reportUnitUri, String contentType, byte[] content, File file,
+                      long size, long expiresAt) {
+            this.key = key;
+            this.reportUnitUri = reportUnitUri;
+            this.contentType = contentType;
+            this.content = content;
+            this.file = file;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        private InputStream open() throws IOException {
+            if (content != null) {
+                return new ByteArrayInputStream(content);
+            }
+            synchronized (this) {
+                if (released) {
+                    throw new IOException("Cache entry was released");
+                }
+                readers++;
+            }
+            return new FilterInputStream(new FileInputStream(file)) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!closed) {
+                            closed = true;
+                            closeReader();
+                        }
+                    }
+                }
+            };
+        }
+
+        /**
+         * Deletes the file at once or, if it is being read, when the last stream is closed.
+         */
+        private synchronized void release() {
+            released = true;
+            if (file != null && readers == 0) {
+                file.delete();
+            }
+        }
+
+        private synchronized void closeReader() {
+            readers--;
+            if (released && readers == 0) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -35,6 +35,12 @@ public interface RequestBuilder<ResponseType> {
     OperationResult<ResponseType> put(Object entity);
     OperationResult<ResponseType> post(Object entity);
 
+    //non-blocking
+    RequestFuture<OperationResult<ResponseType>> asyncGet();
+    RequestFuture<OperationResult<ResponseType>> asyncDelete();
+    RequestFuture<OperationResult<ResponseType>> asyncPut(Object entity);
+    RequestFuture<OperationResult<ResponseType>> asyncPost(Object entity);
+
     //common
     RequestBuilder<ResponseType> addParam(String name, String... values);
     RequestBuilder<ResponseType> addParams(MultivaluedMap<String, String> params);
@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Result of a non-blocking call. It is completed by the thread which receives the response,
+ * so no thread is parked while the request is in flight. Results can be transformed and
+ * chained with {@link #then(Callback)} and {@link #thenCompose(Callback)}, listeners are
+ * invoked by the completing thread or immediately if the future is already done.
+ *
+ * @param <T> type of the result
+ */
+public class RequestFuture<T> implements Future<T> {
+
+    private static final Log log = LogFactory.getLog(RequestFuture.class);
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final List<Runnable> listeners = new ArrayList<Runnable>();
+    private volatile boolean completed;
+    private volatile boolean cancelled;
+    private volatile T value;
+    private volatile Throwable failure;
+    private volatile Future<?> upstream;
+
+    public static <T> RequestFuture<T> completed(T value) {
+        RequestFuture<T> future = new RequestFuture<T>();
+        future.complete(value);
+        return future;
+    }
+
+    public static <T> RequestFuture<T> failed(Throwable failure) {
+        RequestFuture<T> future = new RequestFuture<T>();
+        future.fail(failure);
+        return future;
+    }
+
+    /**
+     * Combines futures into one which is completed with all results in the same order,
+     * or fails as soon as any of them fails.
+     */
+    public static <T> RequestFuture<List<T>> allOf(Collection<? extends RequestFuture<? extends T>> futures) {
+        final RequestFuture<List<T>> all = new RequestFuture<List<T>>();
+        final List<RequestFuture<? extends T>> sources = new ArrayList<RequestFuture<? extends T>>(futures);
+        if (sources.isEmpty()) {
+            all.complete(new ArrayList<T>());
+            return all;
+        }
+        final Object[] results = new Object[sources.size()];
+        final AtomicInteger remaining = new AtomicInteger(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            final int index = i;
+            final RequestFuture<? extends T> source = sources.get(i);
+            source.addListener(new Runnable() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void run() {
+                    if (source.failure != null) {
+                        all.fail(source.failure);
+                    } else {
+                        results[index] = source.value;
+                        if (remaining.decrementAndGet() == 0) {
+                            all.complete((List<T>) new ArrayList<Object>(Arrays.asList(results)));
+                        }
+                    }
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * @return <code>true</code> if this call completed the future
+     */
+    public boolean complete(T value) {
+        return finish(value, null, false);
+    }
+
+    /**
+     * @return <code>true</code> if this call completed the future
+     */
+    public boolean fail(Throwable failure) {
+        return finish(null, failure, false);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (finish(null, new CancellationException(), true)) {
+            Future<?> current = upstream;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Links the future to the operation producing its result, so cancellation is propagated to it.
+     */
+    protected void setUpstream(Future<?> upstream) {
+        this.upstream = upstream;
+        if (cancelled) {
+            upstream.cancel(true);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return completed;
+    }
+
+    public boolean isFailed() {
+        return completed && failure != null;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return report();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    /**
+     * Waits for the result. Unlike {@link #get()} the original runtime exception of the request
+     * (e.g. {@link com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException})
+     * is rethrown as is.
+     */
+    public T join() {
+        try {
+            return get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSClientException("Interrupted while waiting for the result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JSClientException(cause);
+        }
+    }
+
+    /**
+     * @return future completed with the result of <code>function</code> applied to the result of this future
+     */
+    public <R> RequestFuture<R> then(final Callback<T, R> function) {
+        final RequestFuture<R> next = new RequestFuture<R>();
+        next.setUpstream(this);
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (failure != null) {
+                    next.fail(failure);
+                    return;
+                }
+                try {
+                    next.complete(function.execute(value));
+                } catch (Throwable e) {
+                    next.fail(e);
+                }
+            }
+        });
+        return next;
+    }
+
+    /**
+     * @return future completed when the future returned by <code>function</code> is completed
+     */
+    public <R> RequestFuture<R> thenCompose(final Callback<T, RequestFuture<R>> function) {
+        final RequestFuture<R> next = new RequestFuture<R>();
+        next.setUpstream(this);
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (failure != null) {
+                    next.fail(failure);
+                    return;
+                }
+                final RequestFuture<R> inner;
+                try {
+                    inner = function.execute(value);
+                } catch (Throwable e) {
+                    next.fail(e);
+                    return;
+                }
+                next.setUpstream(inner);
+                inner.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (inner.failure != null) {
+                            next.fail(inner.failure);
+                        } else {
+                            next.complete(inner.value);
+                        }
+                    }
+                });
+            }
+        });
+        return next;
+    }
+
+    /**
+     * @return future completed with the result of this future or, if it fails, with the result
+     * of <code>function</code> applied to the failure
+     */
+    public RequestFuture<T> recover(final Callback<Throwable, T> function) {
+        final RequestFuture<T> next = new RequestFuture<T>();
+        next.setUpstream(this);
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (failure == null) {
+                    next.complete(value);
+                    return;
+                }
+                try {
+                    next.complete(function.execute(failure));
+                } catch (Throwable e) {
+                    next.fail(e);
+                }
+            }
+        });
+        return next;
+    }
+
+    public <R> RequestFuture<T> onSuccess(final Callback<T, R> callback) {
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (failure == null) {
+                    callback.execute(value);
+                }
+            }
+        });
+        return this;
+    }
+
+    public <R> RequestFuture<T> onFailure(final Callback<Throwable, R> callback) {
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (failure != null) {
+                    callback.execute(failure);
+                }
+            }
+        });
+        return this;
+    }
+
+    protected void addListener(Runnable listener) {
+        synchronized (this) {
+            if (!completed) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        runListener(listener);
+    }
+
+    private boolean finish(T value, Throwable failure, boolean cancel) {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (completed) {
+                return false;
+            }
+            this.value = value;
+            this.failure = failure;
+            this.cancelled = cancel;
+            this.completed = true;
+            toRun = new ArrayList<Runnable>(listeners);
+            listeners.clear();
+        }
+        done.countDown();
+        for (Runnable listener : toRun) {
+            runListener(listener);
+        }
+        return true;
+    }
+
+    private void runListener(Runnable listener) {
+        try {
+            listener.run();
+        } catch (RuntimeException e) {
+            // a broken user callback must not prevent other listeners from being notified
+            log.warn("Listener of the request failed", e);
+        }
+    }
+
+    private T report() throws ExecutionException {
+        if (cancelled) {
+            throw (CancellationException) failure;
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return value;
+    }
+}
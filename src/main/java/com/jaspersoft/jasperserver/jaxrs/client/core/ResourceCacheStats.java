@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the resource metadata cache counters.
+ */
+public class ResourceCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long validations;
+    private final long evictions;
+    private final long invalidations;
+    private final int entries;
+
+    public ResourceCacheStats(long hits, long misses, long validations, long evictions, long invalidations, int entries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.validations = validations;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.entries = entries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of expired descriptors which were reloaded with unchanged version
+     */
+    public long getValidations() {
+        return validations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceCacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", validations=" + validations +
+                ", evictions=" + evictions +
+                ", invalidations=" + invalidations +
+                ", entries=" + entries +
+                '}';
+    }
+}
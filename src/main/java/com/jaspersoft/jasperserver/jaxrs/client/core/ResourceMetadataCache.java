@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of resource descriptors returned by <code>details()</code> of a single resource. Descriptors are kept
+ * per user and request parameters, expire after the time to live and are evicted least recently used first.
+ * A reloaded descriptor with the same <code>version</code> and <code>updateDate</code> keeps the cached instance,
+ * a descriptor older than the cached one never replaces it. Writes of the resources service invalidate
+ * the written resource and its descendants. Cached descriptors are shared and must not be modified.
+ */
+public class ResourceMetadataCache {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private int maxEntries = 10000;
+    private volatile long timeToLive = TimeUnit.MINUTES.toMillis(1);
+    private long invalidationStamp;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public synchronized ResourceMetadataCache setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        evict();
+        return this;
+    }
+
+    /**
+     * @param timeToLive time in milliseconds after which a descriptor is reloaded from the server
+     */
+    public ResourceMetadataCache setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+
+    public static String keyOf(String user, String resourceUri, Map<String, List<String>> parameters) {
+        StringBuilder key = new StringBuilder();
+        key.append(user).append('\n').append(resourceUri);
+        if (parameters != null && !parameters.isEmpty()) {
+            key.append('\n').append(new TreeMap<String, List<String>>(parameters));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return valid descriptor or <code>null</code>
+     */
+    public synchronized ClientResource get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.resource;
+    }
+
+    /**
+     * @return stamp which should be passed to {@link #put(String, String, ClientResource, long)} of a descriptor
+     * loaded after this call
+     */
+    public synchronized long stamp() {
+        return invalidationStamp;
+    }
+
+    /**
+     * Stores the loaded descriptor unless an invalidation happened since the stamp was taken,
+     * because the descriptor could be loaded before a write.
+     *
+     * @return descriptor which should be returned to the caller
+     */
+    public synchronized ClientResource put(String key, String resourceUri, ClientResource resource, long stamp) {
+        if (resource == null || stamp != invalidationStamp) {
+            return resource;
+        }
+        long expiresAt = System.currentTimeMillis() + timeToLive;
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            int comparison = compareVersions(cached.resource, resource);
+            if (comparison >= 0) {
+                if (comparison == 0) {
+                    validations.incrementAndGet();
+                }
+                cached.expiresAt = expiresAt;
+                return cached.resource;
+            }
+        }
+        entries.put(key, new Entry(resourceUri, resource, expiresAt));
+        evict();
+        return resource;
+    }
+
+    /**
+     * Removes the resource and its descendants.
+     */
+    public synchronized void invalidate(String resourceUri) {
+        invalidationStamp++;
+        invalidations.incrementAndGet();
+        String descendants = resourceUri.endsWith("/") ? resourceUri : resourceUri + "/";
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            String uri = iterator.next().resourceUri;
+            if (uri.equals(resourceUri) || uri.startsWith(descendants)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationStamp++;
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public synchronized ResourceCacheStats getStats() {
+        return new ResourceCacheStats(hits.get(), misses.get(), validations.get(), evictions.get(),
+                invalidations.get(), entries.size());
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return positive number if the cached descriptor is newer, <code>0</code> if it is the same version
+     */
+    private static int compareVersions(ClientResource cached, ClientResource loaded) {
+        Integer cachedVersion = cached.getVersion();
+        Integer loadedVersion = loaded.getVersion();
+        if (cachedVersion != null && loadedVersion != null && !cachedVersion.equals(loadedVersion)) {
+            return cachedVersion.compareTo(loadedVersion);
+        }
+        String cachedDate = cached.getUpdateDate();
+        String loadedDate = loaded.getUpdateDate();
+        if (cachedVersion != null && cachedVersion.equals(loadedVersion)
+                && (cachedDate == null ? loadedDate == null : cachedDate.equals(loadedDate))) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static class Entry {
+        private final String resourceUri;
+        private final ClientResource resource;
+        private long expiresAt;
+
+        private Entry(String resourceUri, ClientResource resource, long expiresAt) {
+            this.resourceUri = resourceUri;
+            this.resource = resource;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -22,8 +22,10 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.AuthenticationType;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.ExecutorMode;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.JRSVersion;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RejectionPolicy;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -57,6 +59,30 @@ public class RestClientConfiguration {
     private Integer connectionTimeout;
     private Integer readTimeout;
     private TrustManager[] trustManagers;
+    private Boolean connectionPoolEnabled = false;
+    private Integer maxTotalConnections = 100;
+    private Integer maxConnectionsPerRoute = 50;
+    private Integer idleConnectionTimeout = 30000;
+    private Integer validateAfterInactivity = 2000;
+    private ExecutorMode executorMode = ExecutorMode.POOLED;
+    private Integer asyncCorePoolSize = 10;
+    private Integer asyncMaxPoolSize = 50;
+    private Integer asyncQueueCapacity = 1000;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+    private Integer callbackPoolSize = 0;
+    private AsyncExecutorFactory asyncExecutorFactory;
+    private Integer pollThreads = 1;
+    private Integer pollInitialDelay = 250;
+    private Integer pollMaxDelay = 5000;
+    private Integer pollTimeout = 0;
+    private Integer snapshotTtl = 300000;
+    private Boolean detectServerVersion = false;
+    private ReportOutputCache reportOutputCache;
+    private HttpCache httpCache;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private RetryPolicy retryPolicy;
+    private CircuitBreakers circuitBreakers;
+    private ResourceMetadataCache resourceMetadataCache;
 
     public RestClientConfiguration(String jasperReportsServerUrl) {
         this();
@@ -169,6 +195,99 @@ public class RestClientConfiguration {
                 log.info("There is no mime type for accept type or it isn't supported.", e);
             }
         }
+
+        String connectionPoolEnabled = properties.getProperty("connectionPoolEnabled");
+        if (isStringValid(connectionPoolEnabled) && BOOLEAN_PATTERN.matcher(connectionPoolEnabled).matches()) {
+            configuration.setConnectionPoolEnabled(Boolean.valueOf(connectionPoolEnabled));
+        }
+
+        String maxTotalConnections = properties.getProperty("maxTotalConnections");
+        if (isStringValid(maxTotalConnections) && NUMBER_PATTERN.matcher(maxTotalConnections).matches()) {
+            configuration.setMaxTotalConnections(Integer.valueOf(maxTotalConnections));
+        }
+
+        String maxConnectionsPerRoute = properties.getProperty("maxConnectionsPerRoute");
+        if (isStringValid(maxConnectionsPerRoute) && NUMBER_PATTERN.matcher(maxConnectionsPerRoute).matches()) {
+            configuration.setMaxConnectionsPerRoute(Integer.valueOf(maxConnectionsPerRoute));
+        }
+
+        String idleConnectionTimeout = properties.getProperty("idleConnectionTimeout");
+        if (isStringValid(idleConnectionTimeout) && NUMBER_PATTERN.matcher(idleConnectionTimeout).matches()) {
+            configuration.setIdleConnectionTimeout(Integer.valueOf(idleConnectionTimeout));
+        }
+
+        String validateAfterInactivity = properties.getProperty("validateAfterInactivity");
+        if (isStringValid(validateAfterInactivity) && NUMBER_PATTERN.matcher(validateAfterInactivity).matches()) {
+            configuration.setValidateAfterInactivity(Integer.valueOf(validateAfterInactivity));
+        }
+
+        String executorMode = properties.getProperty("executorMode");
+        if (isStringValid(executorMode)) {
+            try {
+                configuration.setExecutorMode(ExecutorMode.valueOf(executorMode.toUpperCase()));
+            } catch (Exception e) {
+                log.info("There is no executor mode or it isn't supported.", e);
+            }
+        }
+
+        String asyncCorePoolSize = properties.getProperty("asyncCorePoolSize");
+        if (isStringValid(asyncCorePoolSize) && NUMBER_PATTERN.matcher(asyncCorePoolSize).matches()) {
+            configuration.setAsyncCorePoolSize(Integer.valueOf(asyncCorePoolSize));
+        }
+
+        String asyncMaxPoolSize = properties.getProperty("asyncMaxPoolSize");
+        if (isStringValid(asyncMaxPoolSize) && NUMBER_PATTERN.matcher(asyncMaxPoolSize).matches()) {
+            configuration.setAsyncMaxPoolSize(Integer.valueOf(asyncMaxPoolSize));
+        }
+
+        String asyncQueueCapacity = properties.getProperty("asyncQueueCapacity");
+        if (isStringValid(asyncQueueCapacity) && NUMBER_PATTERN.matcher(asyncQueueCapacity).matches()) {
+            configuration.setAsyncQueueCapacity(Integer.valueOf(asyncQueueCapacity));
+        }
+
+        String rejectionPolicy = properties.getProperty("rejectionPolicy");
+        if (isStringValid(rejectionPolicy)) {
+            try {
+                configuration.setRejectionPolicy(RejectionPolicy.valueOf(rejectionPolicy.toUpperCase()));
+            } catch (Exception e) {
+                log.info("There is no rejection policy or it isn't supported.", e);
+            }
+        }
+
+        String callbackPoolSize = properties.getProperty("callbackPoolSize");
+        if (isStringValid(callbackPoolSize) && NUMBER_PATTERN.matcher(callbackPoolSize).matches()) {
+            configuration.setCallbackPoolSize(Integer.valueOf(callbackPoolSize));
+        }
+
+        String pollThreads = properties.getProperty("pollThreads");
+        if (isStringValid(pollThreads) && NUMBER_PATTERN.matcher(pollThreads).matches()) {
+            configuration.setPollThreads(Integer.valueOf(pollThreads));
+        }
+
+        String pollInitialDelay = properties.getProperty("pollInitialDelay");
+        if (isStringValid(pollInitialDelay) && NUMBER_PATTERN.matcher(pollInitialDelay).matches()) {
+            configuration.setPollInitialDelay(Integer.valueOf(pollInitialDelay));
+        }
+
+        String pollMaxDelay = properties.getProperty("pollMaxDelay");
+        if (isStringValid(pollMaxDelay) && NUMBER_PATTERN.matcher(pollMaxDelay).matches()) {
+            configuration.setPollMaxDelay(Integer.valueOf(pollMaxDelay));
+        }
+
+        String pollTimeout = properties.getProperty("pollTimeout");
+        if (isStringValid(pollTimeout) && NUMBER_PATTERN.matcher(pollTimeout).matches()) {
+            configuration.setPollTimeout(Integer.valueOf(pollTimeout));
+        }
+
+        String detectServerVersion = properties.getProperty("detectServerVersion");
+        if (isStringValid(detectServerVersion) && BOOLEAN_PATTERN.matcher(detectServerVersion).matches()) {
+            configuration.setDetectServerVersion(Boolean.valueOf(detectServerVersion));
+        }
+
+        String snapshotTtl = properties.getProperty("snapshotTtl");
+        if (isStringValid(snapshotTtl) && NUMBER_PATTERN.matcher(snapshotTtl).matches()) {
+            configuration.setSnapshotTtl(Integer.valueOf(snapshotTtl));
+        }
         return configuration;
     }
 
@@ -267,8 +386,25 @@ public class RestClientConfiguration {
         return jrsVersion;
     }
 
+    /**
+     * Sets version of the server and disables its detection.
+     */
     public RestClientConfiguration setJrsVersion(JRSVersion jrsVersion) {
         this.jrsVersion = jrsVersion;
+        this.detectServerVersion = false;
+        return this;
+    }
+
+    public Boolean getDetectServerVersion() {
+        return detectServerVersion;
+    }
+
+    /**
+     * @param detectServerVersion whether version of the server is requested once per client instead of
+     *                            using the configured one, disabled by default
+     */
+    public RestClientConfiguration setDetectServerVersion(Boolean detectServerVersion) {
+        this.detectServerVersion = detectServerVersion;
         return this;
     }
 
@@ -298,4 +434,268 @@ public class RestClientConfiguration {
         this.readTimeout = readTimeout;
         return this;
     }
+
+    public Boolean getConnectionPoolEnabled() {
+        return connectionPoolEnabled;
+    }
+
+    /**
+     * Switches the client to the Apache HTTP connector with a pool of keep-alive connections
+     * instead of the default <code>HttpURLConnection</code> based one.
+     */
+    public RestClientConfiguration setConnectionPoolEnabled(Boolean connectionPoolEnabled) {
+        this.connectionPoolEnabled = connectionPoolEnabled;
+        return this;
+    }
+
+    public Integer getMaxTotalConnections() {
+        return maxTotalConnections;
+    }
+
+    public RestClientConfiguration setMaxTotalConnections(Integer maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+        return this;
+    }
+
+    public Integer getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public RestClientConfiguration setMaxConnectionsPerRoute(Integer maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    public Integer getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    /**
+     * @param idleConnectionTimeout time in milliseconds after which an unused pooled connection is closed
+     */
+    public RestClientConfiguration setIdleConnectionTimeout(Integer idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        return this;
+    }
+
+    public Integer getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    /**
+     * @param validateAfterInactivity time in milliseconds of inactivity after which a pooled connection
+     *                                is checked for staleness before being reused
+     */
+    public RestClientConfiguration setValidateAfterInactivity(Integer validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+        return this;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    public RestClientConfiguration setExecutorMode(ExecutorMode executorMode) {
+        this.executorMode = executorMode;
+        return this;
+    }
+
+    public Integer getAsyncCorePoolSize() {
+        return asyncCorePoolSize;
+    }
+
+    /**
+     * @param asyncCorePoolSize number of threads which send asynchronous requests before tasks start queueing
+     */
+    public RestClientConfiguration setAsyncCorePoolSize(Integer asyncCorePoolSize) {
+        this.asyncCorePoolSize = asyncCorePoolSize;
+        return this;
+    }
+
+    public Integer getAsyncMaxPoolSize() {
+        return asyncMaxPoolSize;
+    }
+
+    /**
+     * @param asyncMaxPoolSize number of threads which send asynchronous requests when the queue is full
+     */
+    public RestClientConfiguration setAsyncMaxPoolSize(Integer asyncMaxPoolSize) {
+        this.asyncMaxPoolSize = asyncMaxPoolSize;
+        return this;
+    }
+
+    public Integer getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public RestClientConfiguration setAsyncQueueCapacity(Integer asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+        return this;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public RestClientConfiguration setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+        return this;
+    }
+
+    public Integer getCallbackPoolSize() {
+        return callbackPoolSize;
+    }
+
+    /**
+     * @param callbackPoolSize number of threads which run {@link RequestFuture} listeners, <code>0</code> runs
+     *                         them on the thread which received the response
+     */
+    public RestClientConfiguration setCallbackPoolSize(Integer callbackPoolSize) {
+        this.callbackPoolSize = callbackPoolSize;
+        return this;
+    }
+
+    public AsyncExecutorFactory getAsyncExecutorFactory() {
+        return asyncExecutorFactory;
+    }
+
+    /**
+     * Replaces executors built from this configuration with custom ones.
+     */
+    public RestClientConfiguration setAsyncExecutorFactory(AsyncExecutorFactory asyncExecutorFactory) {
+        this.asyncExecutorFactory = asyncExecutorFactory;
+        return this;
+    }
+
+    public Integer getPollThreads() {
+        return pollThreads;
+    }
+
+    /**
+     * @param pollThreads number of threads which schedule checks of pending report executions, exports and imports
+     */
+    public RestClientConfiguration setPollThreads(Integer pollThreads) {
+        this.pollThreads = pollThreads;
+        return this;
+    }
+
+    public Integer getPollInitialDelay() {
+        return pollInitialDelay;
+    }
+
+    /**
+     * @param pollInitialDelay delay in milliseconds between the first and the second check of a pending task,
+     *                         following delays grow exponentially
+     */
+    public RestClientConfiguration setPollInitialDelay(Integer pollInitialDelay) {
+        this.pollInitialDelay = pollInitialDelay;
+        return this;
+    }
+
+    public Integer getPollMaxDelay() {
+        return pollMaxDelay;
+    }
+
+    public RestClientConfiguration setPollMaxDelay(Integer pollMaxDelay) {
+        this.pollMaxDelay = pollMaxDelay;
+        return this;
+    }
+
+    public Integer getPollTimeout() {
+        return pollTimeout;
+    }
+
+    /**
+     * @param pollTimeout time in milliseconds after which waiting for a pending task fails, <code>0</code> waits forever
+     */
+    public RestClientConfiguration setPollTimeout(Integer pollTimeout) {
+        this.pollTimeout = pollTimeout;
+        return this;
+    }
+
+    public Integer getSnapshotTtl() {
+        return snapshotTtl;
+    }
+
+    /**
+     * @param snapshotTtl time in milliseconds after which snapshots of bundles and settings are reloaded
+     *                    in background, <code>0</code> keeps them until they are invalidated
+     */
+    public RestClientConfiguration setSnapshotTtl(Integer snapshotTtl) {
+        this.snapshotTtl = snapshotTtl;
+        return this;
+    }
+
+    public ReportOutputCache getReportOutputCache() {
+        return reportOutputCache;
+    }
+
+    /**
+     * Enables caching of report outputs, <code>null</code> disables it.
+     */
+    public RestClientConfiguration setReportOutputCache(ReportOutputCache reportOutputCache) {
+        this.reportOutputCache = reportOutputCache;
+        return this;
+    }
+
+    public ResourceMetadataCache getResourceMetadataCache() {
+        return resourceMetadataCache;
+    }
+
+    /**
+     * Enables caching of resource descriptors, <code>null</code> disables it.
+     */
+    public RestClientConfiguration setResourceMetadataCache(ResourceMetadataCache resourceMetadataCache) {
+        this.resourceMetadataCache = resourceMetadataCache;
+        return this;
+    }
+
+    public HttpCache getHttpCache() {
+        return httpCache;
+    }
+
+    /**
+     * Enables conditional requests for cached GET responses, <code>null</code> disables it.
+     * Must be set before the client is created.
+     */
+    public RestClientConfiguration setHttpCache(HttpCache httpCache) {
+        this.httpCache = httpCache;
+        return this;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Limits requests in flight to the server, <code>null</code> disables it.
+     */
+    public RestClientConfiguration setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Repeats requests failed with transient errors, <code>null</code> disables it.
+     */
+    public RestClientConfiguration setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    public CircuitBreakers getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Enables circuit breakers per endpoint family, <code>null</code> disables them.
+     */
+    public RestClientConfiguration setCircuitBreakers(CircuitBreakers circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+        return this;
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Decides whether and when {@link JerseyRequest} repeats a request which failed with a transient error:
+ * <code>502</code>, <code>503</code> or <code>504</code> status by default, or a connection failure. Only
+ * <code>GET</code>, <code>PUT</code> and <code>DELETE</code> requests are repeated unless the request is
+ * marked with {@link JerseyRequest#setIdempotent(boolean)}. Delays grow exponentially and are randomized,
+ * <code>Retry-After</code> of the response is honoured. Each call is limited by the number of attempts and
+ * by the time spent, all calls share a bucket of retry tokens: a retry takes a token and a successful call
+ * returns a part of it, so retries stop when most requests fail instead of multiplying the load.
+ * Set it with {@link RestClientConfiguration#setRetryPolicy(RetryPolicy)}.
+ */
+public class RetryPolicy {
+
+    private final Set<Integer> retryStatuses = Collections.synchronizedSet(new HashSet<Integer>(Arrays.asList(502, 503, 504)));
+    private final Random random = new Random();
+    private volatile int maxAttempts = 3;
+    private volatile long initialBackoff = 100;
+    private volatile long maxBackoff = 5000;
+    private volatile double multiplier = 2;
+    private volatile long maxRetryAfter = 30000;
+    private volatile long maxElapsed = 30000;
+
+    private final Object bucketLock = new Object();
+    private double maxTokens = 10;
+    private double tokenRatio = 0.1;
+    private double tokens = maxTokens;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    /**
+     * @param maxAttempts attempts of one call including the first one
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Attempts should be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @param initialBackoff delay in milliseconds before the first retry, it is multiplied for the next ones
+     * @param maxBackoff     upper bound of the delay in milliseconds
+     */
+    public RetryPolicy setBackoff(long initialBackoff, long maxBackoff) {
+        if (initialBackoff < 1 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException("Backoff should be positive and not greater than its maximum");
+        }
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    public RetryPolicy setMultiplier(double multiplier) {
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("Multiplier should not be less than 1");
+        }
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * @param maxRetryAfter longest <code>Retry-After</code> in milliseconds which is waited, the request is not
+     *                      repeated if the server asks to wait longer
+     */
+    public RetryPolicy setMaxRetryAfter(long maxRetryAfter) {
+        this.maxRetryAfter = maxRetryAfter;
+        return this;
+    }
+
+    /**
+     * @param maxElapsed milliseconds after the start of a call when it is not repeated anymore
+     */
+    public RetryPolicy setMaxElapsed(long maxElapsed) {
+        this.maxElapsed = maxElapsed;
+        return this;
+    }
+
+    public RetryPolicy addRetryStatus(int status) {
+        retryStatuses.add(status);
+        return this;
+    }
+
+    public RetryPolicy removeRetryStatus(int status) {
+        retryStatuses.remove(status);
+        return this;
+    }
+
+    /**
+     * @param maxTokens  size of the retry token bucket shared by all calls
+     * @param tokenRatio part of a token returned to the bucket by a successful call
+     */
+    public RetryPolicy setRetryBudget(double maxTokens, double tokenRatio) {
+        if (maxTokens < 1 || tokenRatio < 0) {
+            throw new IllegalArgumentException("Bucket should hold at least one token, ratio should not be negative");
+        }
+        synchronized (bucketLock) {
+            this.maxTokens = maxTokens;
+            this.tokenRatio = tokenRatio;
+            this.tokens = maxTokens;
+        }
+        return this;
+    }
+
+    /**
+     * Starts tracking attempts of one repeatable request.
+     */
+    public Call newCall() {
+        calls.incrementAndGet();
+        return new Call();
+    }
+
+    public RetryStats getStats() {
+        double available;
+        synchronized (bucketLock) {
+            available = tokens;
+        }
+        return new RetryStats(calls.get(), retries.get(), recovered.get(), exhausted.get(), throttled.get(), available);
+    }
+
+    /**
+     * @return <code>true</code> when a request failed with the exception may succeed if it is repeated:
+     * a connection failure or a response with one of the retry statuses
+     */
+    public boolean isRetryable(Throwable failure) {
+        if (failure instanceof JSClientWebException) {
+            return retryStatuses.contains(((JSClientWebException) failure).getStatus());
+        }
+        return isTransient(failure);
+    }
+
+    /**
+     * @return <code>true</code> for connection failures and timeouts
+     */
+    protected boolean isTransient(Throwable failure) {
+        Throwable cause = failure instanceof ProcessingException ? failure.getCause() : failure;
+        return cause instanceof IOException;
+    }
+
+    private boolean takeToken() {
+        synchronized (bucketLock) {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    private void returnToken() {
+        synchronized (bucketLock) {
+            tokens = Math.min(maxTokens, tokens + tokenRatio);
+        }
+    }
+
+    private long backoff(int retry) {
+        double delay = Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, retry - 1));
+        double factor;
+        synchronized (random) {
+            factor = 0.5 + 0.5 * random.nextDouble();
+        }
+        return Math.max((long) (delay * factor), 1);
+    }
+
+    /**
+     * @return milliseconds from <code>Retry-After</code> header, <code>-1</code> if it is missing or invalid
+     */
+    static long retryAfter(String header) {
+        if (header == null || header.trim().length() == 0) {
+            return -1;
+        }
+        String value = header.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(Long.parseLong(value), 0));
+        } catch (NumberFormatException ignored) {
+            // HTTP date
+        }
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return Math.max(format.parse(value).getTime() - System.currentTimeMillis(), 0);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Attempts of one request.
+     */
+    public class Call {
+        private final long start = System.nanoTime();
+        private int attempts = 1;
+
+        /**
+         * @return milliseconds to wait before the request is repeated or <code>-1</code> if the response
+         * is returned to the caller
+         */
+        public long retryDelay(Response response) {
+            if (!retryStatuses.contains(response.getStatus())) {
+                if (attempts > 1 && response.getStatus() < 400) {
+                    recovered.incrementAndGet();
+                }
+                if (response.getStatus() < 500) {
+                    returnToken();
+                }
+                return -1;
+            }
+            long retryAfter = retryAfter(response.getHeaderString("Retry-After"));
+            if (retryAfter > maxRetryAfter) {
+                exhausted.incrementAndGet();
+                return -1;
+            }
+            return next(retryAfter);
+        }
+
+        /**
+         * @return milliseconds to wait before the request is repeated or <code>-1</code> if the failure
+         * is thrown to the caller
+         */
+        public long retryDelay(Throwable failure) {
+            return isTransient(failure) ? next(-1) : -1;
+        }
+
+        private long next(long retryAfter) {
+            long delay = Math.max(backoff(attempts), retryAfter);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (attempts >= maxAttempts || elapsed + delay > maxElapsed) {
+                exhausted.incrementAndGet();
+                return -1;
+            }
+            if (!takeToken()) {
+                throttled.incrementAndGet();
+                return -1;
+            }
+            attempts++;
+            retries.incrementAndGet();
+            return delay;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+}
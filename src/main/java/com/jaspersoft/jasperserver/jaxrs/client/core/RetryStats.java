@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+/**
+ * Point-in-time snapshot of the retry policy counters.
+ */
+public class RetryStats {
+
+    private final long calls;
+    private final long retries;
+    private final long recovered;
+    private final long exhausted;
+    private final long throttled;
+    private final double tokens;
+
+    public RetryStats(long calls, long retries, long recovered, long exhausted, long throttled, double tokens) {
+        this.calls = calls;
+        this.retries = retries;
+        this.recovered = recovered;
+        this.exhausted = exhausted;
+        this.throttled = throttled;
+        this.tokens = tokens;
+    }
+
+    /**
+     * @return number of repeatable requests
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return number of calls which succeeded after a retry
+     */
+    public long getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * @return number of calls which failed after all attempts or time of the call were used
+     */
+    public long getExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * @return number of retries not done because the token bucket was empty
+     */
+    public long getThrottled() {
+        return throttled;
+    }
+
+    public double getTokens() {
+        return tokens;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStats{" +
+                "calls=" + calls +
+                ", retries=" + retries +
+                ", recovered=" + recovered +
+                ", exhausted=" + exhausted +
+                ", throttled=" + throttled +
+                ", tokens=" + tokens +
+                '}';
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.JRSVersion;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable description of the server detected once per client: version, edition and licensed features.
+ */
+public class ServerCapabilities {
+
+    private final String version;
+    private final String edition;
+    private final Set<String> features;
+    private final JRSVersion jrsVersion;
+
+    /**
+     * @param features features as returned by the server, separated by spaces or commas
+     */
+    public ServerCapabilities(String version, String edition, String features) {
+        this.version = version;
+        this.edition = edition;
+        Set<String> parsed = new LinkedHashSet<String>();
+        if (features != null) {
+            for (String feature : features.split("[\\s,]+")) {
+                if (feature.length() > 0) {
+                    parsed.add(feature);
+                }
+            }
+        }
+        this.features = Collections.unmodifiableSet(parsed);
+        this.jrsVersion = JRSVersion.forVersion(version);
+    }
+
+    /**
+     * @return version detected from the server if detection is enabled and succeeded,
+     * otherwise the configured one
+     */
+    public static JRSVersion jrsVersionOf(SessionStorage sessionStorage) {
+        RestClientConfiguration configuration = sessionStorage.getConfiguration();
+        if (Boolean.TRUE.equals(configuration.getDetectServerVersion())) {
+            ServerCapabilities capabilities = sessionStorage.getServerCapabilities();
+            if (capabilities != null && capabilities.getJrsVersion() != null) {
+                return capabilities.getJrsVersion();
+            }
+        }
+        return configuration.getJrsVersion();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getEdition() {
+        return edition;
+    }
+
+    public boolean isPro() {
+        return "PRO".equalsIgnoreCase(edition);
+    }
+
+    public Set<String> getFeatures() {
+        return features;
+    }
+
+    public boolean hasFeature(String feature) {
+        return features.contains(feature);
+    }
+
+    /**
+     * @return the latest known version which is not newer than the server, <code>null</code> if it is unknown
+     */
+    public JRSVersion getJrsVersion() {
+        return jrsVersion;
+    }
+
+    public boolean isAtLeast(JRSVersion required) {
+        return jrsVersion != null && jrsVersion.compareTo(required) >= 0;
+    }
+
+    /**
+     * @return unmodifiable map with <code>version</code>, <code>edition</code> and <code>features</code>
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        map.put("version", version);
+        map.put("edition", edition);
+        StringBuilder joined = new StringBuilder();
+        for (String feature : features) {
+            if (joined.length() > 0) {
+                joined.append(' ');
+            }
+            joined.append(feature);
+        }
+        map.put("features", joined.toString());
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerCapabilities" + asMap();
+    }
+}
@@ -64,10 +64,11 @@ public class Session extends AnonymousSession{
             storage.getCredentials().setPassword(null);
         } else {
             WebTarget target = storage.getRootTarget().path("/logout.html");
-            Response response = target.request().get();
+            Response response = storage.request(target).get();
             if (response.getStatus() >= 400) {
                 new DefaultErrorHandler().handleError(response);
             }
+            response.close();
         }
     }
 
@@ -19,27 +19,16 @@
  * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
  */
 
+
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionOutputFilter;
-import com.jaspersoft.jasperserver.jaxrs.client.providers.CustomRepresentationTypeProvider;
-import com.sun.jersey.multipart.impl.MultiPartWriter;
-import java.security.SecureRandom;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionStateFilter;
 import java.util.Locale;
 import java.util.TimeZone;
-import java.util.logging.Logger;
-import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSession;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
-import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
-import org.codehaus.jackson.map.DeserializationConfig;
-import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.filter.LoggingFilter;
-import org.glassfish.jersey.jackson.JacksonFeature;
-import org.slf4j.bridge.SLF4JBridgeHandler;
 
 
 public class SessionStorage {
@@ -49,11 +38,10 @@ public class SessionStorage {
 
     private TimeZone userTimeZone;
     private Locale userLocale;
-    private WebTarget rootTarget;
     private String sessionId;
 
-
-    private Client client;
+    private ClientTransport transport;
+    private boolean ownTransport;
 
     /**
      * @deprecated
@@ -83,85 +71,99 @@ public class SessionStorage {
         init();
     }
 
+    /**
+     * Creates session which reuses client and connections of the given transport.
+     */
+    public SessionStorage(ClientTransport transport, AuthenticationCredentials credentials, Locale userLocale, TimeZone userTimeZone) {
+        this.configuration = transport.getConfiguration();
+        this.transport = transport;
+        this.credentials = credentials;
+        this.userTimeZone = userTimeZone;
+        this.userLocale = userLocale;
+    }
+
 
     protected Client getRawClient() {
-        return client;
+        return transport.getClient();
     }
 
     protected WebTarget getConfiguredClient() {
         return configClient();
     }
 
-    private void initSSL(ClientBuilder clientBuilder) {
-        try {
-            SSLContext sslContext = SSLContext.getInstance("SSL");
-            HostnameVerifier hostnameVerifier = new HostnameVerifier() {
-                @Override
-                public boolean verify(String s, SSLSession sslSession) {
-                    return true;
-                }
-            };
-            sslContext.init(null, configuration.getTrustManagers(), new SecureRandom());
-
-            clientBuilder.sslContext(sslContext);
-            clientBuilder.hostnameVerifier(hostnameVerifier);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Unable inFolder init SSL context", e);
-        }
-    }
-
     private void init() {
-        ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+        transport = new ClientTransport(configuration);
+        ownTransport = true;
+    }
 
-        if (configuration.getJasperReportsServerUrl().startsWith("https")) {
-            initSSL(clientBuilder);
+    /**
+     * Creates standalone target with all providers and session cookie registered.
+     */
+    protected WebTarget configClient() {
+        WebTarget target = transport.configTarget();
+        if (sessionId != null) {
+            target.register(new SessionOutputFilter(sessionId));
         }
+        return target;
+    }
 
-        client = clientBuilder.build();
+    /**
+     * Builds invocation on shared target and binds it to this session.
+     */
+    public Invocation.Builder request(WebTarget target) {
+        Invocation.Builder request = target.request();
+        request.property(SessionStateFilter.SESSION_STORAGE_PROPERTY, this);
+        return request;
+    }
 
-        Integer connectionTimeout = configuration.getConnectionTimeout();
+    /**
+     * @return statistics of the keep-alive connection pool or <code>null</code> if pooling is disabled
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return transport.getConnectionPoolStats();
+    }
 
-        if (connectionTimeout != null) {
-            client.property(ClientProperties.CONNECT_TIMEOUT, connectionTimeout);
-        }
+    /**
+     * @return executor of asynchronous operations of this session
+     */
+    public AsyncExecutor getAsyncExecutor() {
+        return transport.getAsyncExecutor();
+    }
 
-        Integer readTimeout = configuration.getReadTimeout();
+    /**
+     * @return scheduler which waits for pending tasks of this session
+     */
+    public PollScheduler getPollScheduler() {
+        return transport.getPollScheduler();
+    }
 
-        if (readTimeout != null) {
-            client.property(ClientProperties.READ_TIMEOUT, readTimeout);
-        }
+    /**
+     * @return snapshots of bundles and settings shared by sessions of the client
+     */
+    public SnapshotCache getSnapshotCache() {
+        return transport.getSnapshotCache();
+    }
 
-        configClient();
+    /**
+     * @return capabilities of the server detected once per client, <code>null</code> if detection failed
+     */
+    public ServerCapabilities getServerCapabilities() {
+        return transport.getServerCapabilities(this);
     }
 
-    protected WebTarget configClient() {
-        JacksonJsonProvider customRepresentationTypeProvider = new CustomRepresentationTypeProvider()
-                .configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        rootTarget = client.target(configuration.getJasperReportsServerUrl());
-        rootTarget
-                .register(customRepresentationTypeProvider)
-                .register(JacksonFeature.class)
-                .register(MultiPartWriter.class);
-        if (sessionId != null) {
-            rootTarget.register(new SessionOutputFilter(sessionId));
-        }
-        if (configuration.getLogHttp()) {
-            rootTarget.register(initLoggingFilter());
+    /**
+     * Releases client and pooled connections if they are not shared with other sessions.
+     */
+    public void close() {
+        if (ownTransport) {
+            transport.close();
         }
-        return rootTarget;
     }
 
-    private LoggingFilter initLoggingFilter() {
-        Logger logger = Logger.getLogger(this.getClass().getName());
-        SLF4JBridgeHandler.removeHandlersForRootLogger();
-        SLF4JBridgeHandler.install();
-
-        return new LoggingFilter(logger,
-                configuration.getLogHttpEntity());
+    public ClientTransport getTransport() {
+        return transport;
     }
 
-
     public RestClientConfiguration getConfiguration() {
         return configuration;
     }
@@ -179,7 +181,7 @@ public class SessionStorage {
     }
 
     public WebTarget getRootTarget() {
-        return rootTarget;
+        return transport.getRootTarget();
     }
 
     public TimeZone getUserTimeZone() {
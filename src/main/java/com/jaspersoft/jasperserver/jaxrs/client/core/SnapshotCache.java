@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Client-wide snapshots of rarely changing server data, e.g. bundles and settings. The first reader of a key
+ * loads the value, concurrent readers wait for that load. Once the time to live is over readers still get
+ * the previous value while it is reloaded in background, a failed reload keeps it until the next attempt.
+ */
+public class SnapshotCache {
+
+    private static final Log log = LogFactory.getLog(SnapshotCache.class);
+
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<String, Snapshot>();
+    private final Executor refreshExecutor;
+    private volatile long timeToLive;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public SnapshotCache(RestClientConfiguration configuration, AsyncExecutor asyncExecutor) {
+        this(asyncExecutor != null ? asyncExecutor.getBackgroundExecutorService() : null,
+                configuration.getSnapshotTtl() != null ? configuration.getSnapshotTtl() : 300000);
+    }
+
+    /**
+     * @param refreshExecutor executor of background reloads and warm-up, <code>null</code> runs them
+     *                        in the calling thread. It should reject tasks when it is full instead of running
+     *                        them in the calling thread, a rejected reload is skipped and tried by a later reader
+     * @param timeToLive      time in milliseconds after which a snapshot is reloaded, <code>0</code>
+     *                        keeps it until it is invalidated
+     */
+    public SnapshotCache(Executor refreshExecutor, long timeToLive) {
+        this.refreshExecutor = refreshExecutor;
+        this.timeToLive = timeToLive;
+    }
+
+    public interface Loader<T> {
+        T load();
+    }
+
+    public SnapshotCache setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * @return snapshot of the key, loaded with the loader if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Loader<T> loader) {
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            Snapshot created = new Snapshot();
+            snapshot = snapshots.putIfAbsent(key, created);
+            if (snapshot == null) {
+                return (T) load(key, created, loader);
+            }
+        }
+        PollScheduler.await(snapshot.loaded);
+        hits.incrementAndGet();
+        if (snapshot.isExpired(timeToLive) && snapshot.refreshing.compareAndSet(false, true)) {
+            refresh(key, snapshot, loader);
+        }
+        return (T) snapshot.value;
+    }
+
+    /**
+     * Loads the snapshot on the refresh executor.
+     */
+    public <T> RequestFuture<T> getAsync(final String key, final Loader<T> loader) {
+        final RequestFuture<T> future = new RequestFuture<T>();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.complete(get(key, loader));
+                } catch (Throwable e) {
+                    future.fail(e);
+                }
+            }
+        };
+        if (refreshExecutor == null) {
+            task.run();
+        } else {
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                future.fail(e);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Removes snapshots whose key starts with the prefix.
+     */
+    public void invalidate(String prefix) {
+        Iterator<String> keys = snapshots.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of values loaded from the server, including background reloads
+     */
+    public long getLoads() {
+        return loads.get() + refreshes.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private Object load(String key, Snapshot snapshot, Loader<?> loader) {
+        try {
+            Object value = loader.load();
+            loads.incrementAndGet();
+            snapshot.set(value);
+            snapshot.loaded.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            snapshots.remove(key, snapshot);
+            snapshot.loaded.fail(e);
+            throw e;
+        }
+    }
+
+    private void refresh(final String key, final Snapshot snapshot, final Loader<?> loader) {
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Object value = loader.load();
+                    refreshes.incrementAndGet();
+                    if (snapshots.get(key) == snapshot) {
+                        snapshot.set(value);
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    snapshot.loadedAt = System.currentTimeMillis();
+                    log.warn("Unable to refresh snapshot " + key + ", previous value is kept", e);
+                } finally {
+                    snapshot.refreshing.set(false);
+                }
+            }
+        };
+        if (refreshExecutor == null) {
+            task.run();
+            return;
+        }
+        try {
+            refreshExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            snapshot.refreshing.set(false);
+        }
+    }
+
+    private static class Snapshot {
+        private final RequestFuture<Object> loaded = new RequestFuture<Object>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Object value;
+        private volatile long loadedAt;
+
+        private void set(Object value) {
+            this.value = value;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        private boolean isExpired(long timeToLive) {
+            return timeToLive > 0 && System.currentTimeMillis() - loadedAt >= timeToLive;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs non-blocking tasks with bounded concurrency. A task starts its requests and returns a future,
+ * it is counted as running until the future is completed. Running tasks may submit further tasks,
+ * e.g. a listed folder submits its subfolders, and {@link #run(Iterator)} returns when no task is
+ * running and none is pending. Tasks are started by the thread which called <code>run</code>,
+ * outside of the internal lock, so a task may block (e.g. on the concurrency limit of the client)
+ * without delaying completion of other tasks.
+ */
+public class TaskRunner {
+
+    private static final Log log = LogFactory.getLog(TaskRunner.class);
+
+    /**
+     * Unit of work of the runner.
+     */
+    public interface Task {
+
+        /**
+         * @return future completed when the task is finished, <code>null</code> if it finished synchronously.
+         * Failures of the future and exceptions thrown by this method end the task, they should be
+         * handled by the task itself; an exception thrown by this method is only logged.
+         */
+        RequestFuture<?> start();
+    }
+
+    private final int concurrency;
+    private final Object lock = new Object();
+    private final LinkedList<Task> pending = new LinkedList<Task>();
+    private int running;
+    private boolean stopped;
+
+    public TaskRunner(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency should be positive");
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Queues the task, it is started after the tasks submitted before it.
+     */
+    public void submit(Task task) {
+        submitAll(Collections.singletonList(task));
+    }
+
+    public void submitAll(Collection<? extends Task> tasks) {
+        synchronized (lock) {
+            if (!stopped) {
+                pending.addAll(tasks);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs the submitted tasks until all of them are finished.
+     */
+    public void run() throws InterruptedException {
+        run(Collections.<Task>emptyList().iterator());
+    }
+
+    /**
+     * Runs the submitted tasks and the tasks of the source until all of them are finished. The source
+     * is read lazily, only when no submitted task is pending, so it may generate tasks on the fly.
+     * If the calling thread is interrupted, the runner is stopped and the interruption is rethrown
+     * once the running tasks are finished or immediately.
+     */
+    public void run(Iterator<? extends Task> source) throws InterruptedException {
+        try {
+            while (true) {
+                Task next;
+                synchronized (lock) {
+                    while (!stopped && running >= concurrency) {
+                        lock.wait();
+                    }
+                    next = stopped ? null : pending.poll();
+                    if (next != null) {
+                        running++;
+                    }
+                }
+                if (next == null && !isStopped() && source.hasNext()) {
+                    next = source.next();
+                    synchronized (lock) {
+                        running++;
+                    }
+                }
+                if (next != null) {
+                    start(next);
+                    continue;
+                }
+                synchronized (lock) {
+                    if (running == 0 && (stopped || pending.isEmpty())) {
+                        return;
+                    }
+                    if (stopped || pending.isEmpty()) {
+                        lock.wait();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Drops pending tasks, tasks in progress are completed but no new tasks are started.
+     */
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+            pending.clear();
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isStopped() {
+        synchronized (lock) {
+            return stopped;
+        }
+    }
+
+    /**
+     * @return number of started tasks which are not finished yet
+     */
+    public int getRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    private void start(Task task) {
+        RequestFuture<?> future;
+        try {
+            future = task.start();
+        } catch (RuntimeException e) {
+            log.warn("Task " + task + " failed to start", e);
+            future = null;
+        }
+        if (future == null) {
+            finished();
+            return;
+        }
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                finished();
+            }
+        });
+    }
+
+    private void finished() {
+        synchronized (lock) {
+            running--;
+            lock.notifyAll();
+        }
+    }
+}
@@ -22,19 +22,50 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 public class ThreadPoolUtil {
 
-    private static final ExecutorService executorService = Executors.newCachedThreadPool();
+    private static volatile AsyncExecutor defaultExecutor;
 
-    public synchronized static void runAsynchronously(RequestExecution requestExecutionTask){
-        Future<?> future = executorService.submit(requestExecutionTask.getTask());
-        requestExecutionTask.setFuture(future);
+    /**
+     * Runs task on the executor of the client which owns the session.
+     */
+    public static void runAsynchronously(RequestExecution requestExecutionTask, SessionStorage sessionStorage) {
+        AsyncExecutor executor = sessionStorage != null ? sessionStorage.getAsyncExecutor() : null;
+        if (executor == null) {
+            executor = getDefaultExecutor();
+        }
+        executor.execute(requestExecutionTask);
     }
 
+    /**
+     * @deprecated tasks should be run on the executor of the session, use
+     * {@link #runAsynchronously(RequestExecution, SessionStorage)}
+     */
+    public static void runAsynchronously(RequestExecution requestExecutionTask) {
+        getDefaultExecutor().execute(requestExecutionTask);
+    }
+
+    /**
+     * @deprecated use {@link SessionStorage#getAsyncExecutor()}
+     */
     public static ExecutorService getExecutorService() {
-        return executorService;
+        return getDefaultExecutor().getExecutorService();
+    }
+
+    /**
+     * Bounded executor with default settings for tasks which are not bound to a session.
+     */
+    private static AsyncExecutor getDefaultExecutor() {
+        AsyncExecutor current = defaultExecutor;
+        if (current == null) {
+            synchronized (ThreadPoolUtil.class) {
+                current = defaultExecutor;
+                if (current == null) {
+                    defaultExecutor = current = new AsyncExecutor(new RestClientConfiguration());
+                }
+            }
+        }
+        return current;
     }
 }
@@ -33,4 +33,50 @@ public enum JRSVersion implements Comparable<JRSVersion> {
     v6_0_0,
     v6_0_1,
     v6_1_0;
+
+    /**
+     * @return the latest known version which is not newer than the given one, e.g. <code>v6_1_0</code>
+     * for "6.3.0", or <code>null</code> if the version cannot be parsed or is older than all known versions
+     */
+    public static JRSVersion forVersion(String version) {
+        int[] parsed = parse(version, "\\.");
+        if (parsed == null) {
+            return null;
+        }
+        JRSVersion found = null;
+        for (JRSVersion candidate : values()) {
+            if (compare(parse(candidate.name().substring(1), "_"), parsed) <= 0) {
+                found = candidate;
+            }
+        }
+        return found;
+    }
+
+    private static int[] parse(String version, String separator) {
+        if (version == null) {
+            return null;
+        }
+        String[] parts = version.trim().split(separator);
+        int[] numbers = new int[3];
+        for (int i = 0; i < numbers.length && i < parts.length; i++) {
+            int end = 0;
+            while (end < parts[i].length() && Character.isDigit(parts[i].charAt(end))) {
+                end++;
+            }
+            if (end == 0) {
+                return i == 0 ? null : numbers;
+            }
+            numbers[i] = Integer.parseInt(parts[i].substring(0, end));
+        }
+        return numbers;
+    }
+
+    private static int compare(int[] first, int[] second) {
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] != second[i]) {
+                return first[i] < second[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
 }
@@ -33,6 +33,7 @@ import java.util.List;
 public class JSClientWebException extends JSClientException {
 
     private List<ErrorDescriptor> errorDescriptors;
+    private int status;
 
     private void init(){
         errorDescriptors = new ArrayList<ErrorDescriptor>();
@@ -61,6 +62,17 @@ public class JSClientWebException extends JSClientException {
         this.errorDescriptors = errorDescriptors;
     }
 
+    /**
+     * @return HTTP status of the failed response, <code>0</code> if it is unknown
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
     public void addErrorDescriptor(ErrorDescriptor errorDescriptor){
         errorDescriptors.add(errorDescriptor);
     }
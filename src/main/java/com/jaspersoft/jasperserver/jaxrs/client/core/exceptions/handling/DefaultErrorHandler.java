@@ -64,8 +64,15 @@ public class DefaultErrorHandler implements ErrorHandler {
         if (response.hasEntity()) {
             response.bufferEntity();
         }
-        handleBodyError(response);
-        handleStatusCodeError(response, null);
+        try {
+            handleBodyError(response);
+            handleStatusCodeError(response, null);
+        } catch (JSClientWebException e) {
+            if (e.getStatus() == 0) {
+                e.setStatus(response.getStatus());
+            }
+            throw e;
+        }
     }
 
     protected <T> T readBody(Response response, Class<T> expectedType) {
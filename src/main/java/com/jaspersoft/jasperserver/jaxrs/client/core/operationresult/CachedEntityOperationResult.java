@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core.operationresult;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * Result with an entity which was not read from a response, e.g. it was served from
+ * {@link com.jaspersoft.jasperserver.jaxrs.client.core.ResourceMetadataCache}.
+ */
+public class CachedEntityOperationResult<T> extends OperationResult<T> {
+
+    @SuppressWarnings("unchecked")
+    public CachedEntityOperationResult(T entity) {
+        super(Response.ok().build(), (Class<? extends T>) entity.getClass(), false);
+        this.entity = entity;
+    }
+
+    @Override
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return <code>null</code>, the entity has no serialized form
+     */
+    @Override
+    public String getSerializedContent() {
+        return null;
+    }
+}
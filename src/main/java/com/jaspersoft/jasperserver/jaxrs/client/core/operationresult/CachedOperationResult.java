@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core.operationresult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.ws.rs.core.Response;
+
+/**
+ * Result whose content does not come from a live connection, e.g. it was served from
+ * {@link com.jaspersoft.jasperserver.jaxrs.client.core.ReportOutputCache}. The response
+ * only carries status and content type.
+ */
+public class CachedOperationResult extends OperationResult<InputStream> {
+
+    private final Closeable resource;
+
+    public CachedOperationResult(InputStream content, String contentType) {
+        this(content, contentType, null);
+    }
+
+    /**
+     * @param resource released together with the content, e.g. original result whose stream is passed through
+     */
+    public CachedOperationResult(InputStream content, String contentType, Closeable resource) {
+        super(Response.ok().type(contentType).build(), InputStream.class, false);
+        this.entity = content;
+        this.resource = resource;
+    }
+
+    @Override
+    public InputStream getEntity() {
+        return entity;
+    }
+
+    /**
+     * Reads the rest of the content as a string.
+     */
+    @Override
+    public String getSerializedContent() {
+        if (serializedContent == null) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = entity.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                serializedContent = out.toString("UTF-8");
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return serializedContent;
+    }
+
+    @Override
+    public void close() {
+        try {
+            entity.close();
+            if (resource != null) {
+                resource.close();
+            }
+        } catch (IOException ignored) {
+            // nothing to release
+        }
+    }
+}
@@ -21,10 +21,11 @@
 
 package com.jaspersoft.jasperserver.jaxrs.client.core.operationresult;
 
+import java.io.Closeable;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 
-public abstract class OperationResult<T> {
+public abstract class OperationResult<T> implements Closeable {
 
     protected Response response;
     protected Class<? extends T> entityClass;
@@ -33,9 +34,7 @@ public abstract class OperationResult<T> {
     protected String serializedContent;
 
     public OperationResult(Response response, Class<? extends T> entityClass) {
-        this.response = response;
-        response.bufferEntity();
-        this.entityClass = entityClass;
+        this(response, entityClass, true);
     }
 
     @SuppressWarnings("unchecked")
@@ -46,6 +45,17 @@ public abstract class OperationResult<T> {
         this.genericEntity = genericEntity;
     }
 
+    /**
+     * @param bufferEntity if <code>false</code> the entity is left in the connection and can be read only once
+     */
+    protected OperationResult(Response response, Class<? extends T> entityClass, boolean bufferEntity) {
+        this.response = response;
+        if (bufferEntity) {
+            response.bufferEntity();
+        }
+        this.entityClass = entityClass;
+    }
+
     public T getEntity() {
         try {
             if (entity == null) {
@@ -84,4 +94,13 @@ public abstract class OperationResult<T> {
     public int getResponseStatus() {
         return this.getResponse().getStatus();
     }
-}
\ No newline at end of file
+
+    /**
+     * Releases the connection of the response. Buffered results hold no connection, so it's
+     * required only for streamed content which was not read to the end.
+     */
+    @Override
+    public void close() {
+        response.close();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.core.operationresult;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.ws.rs.core.Response;
+
+/**
+ * Result of a request which returns binary content, e.g. a report output or an export archive.
+ * The entity is not buffered in memory, it is read directly from the connection, so it can be
+ * obtained only once. Closing the stream or the result releases the connection. Such results are returned
+ * by requests with {@link com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest#setStreaming(boolean)}.
+ */
+public class StreamingOperationResult extends OperationResult<InputStream> {
+
+    public StreamingOperationResult(Response response) {
+        super(response, InputStream.class, false);
+    }
+
+    @Override
+    public InputStream getEntity() {
+        try {
+            if (entity == null) {
+                entity = new ResponseInputStream(response.readEntity(InputStream.class));
+            }
+            return entity;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Buffers the content to read it as a string. Returns <code>null</code> if the stream was already taken
+     * with {@link #getEntity()}.
+     */
+    @Override
+    public String getSerializedContent() {
+        if (serializedContent == null && entity == null) {
+            try {
+                response.bufferEntity();
+                serializedContent = response.readEntity(String.class);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return serializedContent;
+    }
+
+    private class ResponseInputStream extends FilterInputStream {
+
+        private ResponseInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                response.close();
+            }
+        }
+    }
+}
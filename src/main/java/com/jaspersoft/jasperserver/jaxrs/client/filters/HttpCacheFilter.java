@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.filters;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.HttpCache;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+
+/**
+ * Client-wide filter which serves GET responses from {@link HttpCache}. Cached responses are revalidated
+ * with <code>If-None-Match</code> and <code>If-Modified-Since</code>, a <code>304 Not Modified</code> answer
+ * is replaced with the cached body. Entries are kept per user of the session, requests without session are
+ * not cached. A successful response to any other request except HEAD and OPTIONS invalidates cached
+ * responses of the written path, of its descendants and of its ancestors.
+ */
+public class HttpCacheFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String REST_PATH = "/rest_v2/";
+    private static final String KEY_PROPERTY = HttpCacheFilter.class.getName() + ".key";
+    private static final String PATH_PROPERTY = HttpCacheFilter.class.getName() + ".path";
+    private static final String ENTRY_PROPERTY = HttpCacheFilter.class.getName() + ".entry";
+    private static final String SERVED_PROPERTY = HttpCacheFilter.class.getName() + ".served";
+    private static final String WRITTEN_PROPERTY = HttpCacheFilter.class.getName() + ".written";
+
+    private final HttpCache cache;
+
+    public HttpCacheFilter(HttpCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+        String path = relativePath(requestContext.getUri().getRawPath());
+        if (path == null) {
+            return;
+        }
+        String rule = cache.findRule(path);
+        if (rule == null) {
+            return;
+        }
+        String method = requestContext.getMethod();
+        if (!HttpMethod.GET.equals(method)) {
+            if (!HttpMethod.HEAD.equals(method) && !HttpMethod.OPTIONS.equals(method)) {
+                // invalidated once the server accepted the write
+                requestContext.setProperty(WRITTEN_PROPERTY, path);
+            }
+            return;
+        }
+        Object storage = requestContext.getProperty(SessionStateFilter.SESSION_STORAGE_PROPERTY);
+        if (!(storage instanceof SessionStorage)) {
+            return;
+        }
+
+        String key = key((SessionStorage) storage, requestContext);
+        requestContext.setProperty(KEY_PROPERTY, key);
+        requestContext.setProperty(PATH_PROPERTY, path);
+        HttpCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.isFresh(cache.getMaxAge(rule))) {
+            cache.hit();
+            requestContext.setProperty(SERVED_PROPERTY, Boolean.TRUE);
+            requestContext.abortWith(entry.toResponse());
+            return;
+        }
+        requestContext.setProperty(ENTRY_PROPERTY, entry);
+        if (entry.getETag() != null) {
+            requestContext.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, entry.getETag());
+        }
+        if (entry.getLastModified() != null) {
+            requestContext.getHeaders().putSingle(HttpHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+        }
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+        String written = (String) requestContext.getProperty(WRITTEN_PROPERTY);
+        if (written != null) {
+            if (responseContext.getStatus() >= 200 && responseContext.getStatus() < 300) {
+                cache.invalidateWritten(written);
+            }
+            return;
+        }
+        String key = (String) requestContext.getProperty(KEY_PROPERTY);
+        if (key == null || requestContext.getProperty(SERVED_PROPERTY) != null) {
+            return;
+        }
+        HttpCache.Entry entry = (HttpCache.Entry) requestContext.getProperty(ENTRY_PROPERTY);
+        if (entry != null && responseContext.getStatus() == 304) {
+            cache.revalidated(entry);
+            responseContext.setStatus(200);
+            responseContext.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+                if (!responseContext.getHeaders().containsKey(header.getKey())) {
+                    responseContext.getHeaders().put(header.getKey(), header.getValue());
+                }
+            }
+            responseContext.setEntityStream(new ByteArrayInputStream(entry.getBody()));
+            return;
+        }
+        cache.miss();
+        if (responseContext.getStatus() != 200 || !responseContext.hasEntity() || !isStorable(responseContext)) {
+            return;
+        }
+
+        long maxEntrySize = cache.getMaxEntrySize();
+        if (responseContext.getLength() > maxEntrySize) {
+            return;
+        }
+        InputStream in = responseContext.getEntityStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+            if (body.size() > maxEntrySize) {
+                responseContext.setEntityStream(new SequenceInputStream(new ByteArrayInputStream(body.toByteArray()), in));
+                return;
+            }
+        }
+        in.close();
+        byte[] content = body.toByteArray();
+        cache.put(key, new HttpCache.Entry((String) requestContext.getProperty(PATH_PROPERTY),
+                responseContext.getHeaders(), content));
+        responseContext.setEntityStream(new ByteArrayInputStream(content));
+    }
+
+    private boolean isStorable(ClientResponseContext responseContext) {
+        String cacheControl = responseContext.getHeaderString(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.toLowerCase().contains("no-store")) {
+            return false;
+        }
+        return responseContext.getHeaderString(HttpHeaders.ETAG) != null
+                || responseContext.getHeaderString(HttpHeaders.LAST_MODIFIED) != null;
+    }
+
+    private String key(SessionStorage storage, ClientRequestContext requestContext) {
+        StringBuilder key = new StringBuilder();
+        if (storage.getCredentials() != null) {
+            key.append(storage.getCredentials().getUsername());
+        }
+        return key.append('\n').append(requestContext.getUri())
+                .append('\n').append(requestContext.getHeaderString(HttpHeaders.ACCEPT))
+                .append('\n').append(requestContext.getHeaderString(HttpHeaders.ACCEPT_LANGUAGE))
+                .toString();
+    }
+
+    private String relativePath(String path) {
+        int index = path != null ? path.indexOf(REST_PATH) : -1;
+        return index < 0 ? null : path.substring(index + REST_PATH.length());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.filters;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.CircuitBreaker;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ConcurrencyLimiter;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import java.io.IOException;
+
+/**
+ * Client-wide filter which marks the moment a request is sent. Permits taken for the request are passed
+ * as request properties, so the latency they measure does not include the wait for an executor thread
+ * or for the concurrency limit.
+ */
+public class RequestTimingFilter implements ClientRequestFilter {
+
+    public static final String LIMITER_PERMIT_PROPERTY = "com.jaspersoft.jasperserver.jaxrs.client.limiterPermit";
+    public static final String BREAKER_PERMIT_PROPERTY = "com.jaspersoft.jasperserver.jaxrs.client.breakerPermit";
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+        Object permit = requestContext.getProperty(LIMITER_PERMIT_PROPERTY);
+        if (permit instanceof ConcurrencyLimiter.Permit) {
+            ((ConcurrencyLimiter.Permit) permit).sent();
+        }
+        Object guard = requestContext.getProperty(BREAKER_PERMIT_PROPERTY);
+        if (guard instanceof CircuitBreaker.Permit) {
+            ((CircuitBreaker.Permit) guard).sent();
+        }
+    }
+}
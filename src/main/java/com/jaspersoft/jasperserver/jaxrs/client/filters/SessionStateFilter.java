@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2005 - 2014 Jaspersoft Corporation. All rights  reserved.
+ * http://www.jaspersoft.com.
+ *
+ * Unless you have purchased  a commercial license agreement from Jaspersoft,
+ * the following license terms  apply:
+ *
+ * This program is free software: you can redistribute it and/or  modify
+ * it under the terms of the GNU Affero General Public License  as
+ * published by the Free Software Foundation, either version 3 of  the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero  General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public  License
+ * along with this program.&nbsp; If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.jaspersoft.jasperserver.jaxrs.client.filters;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.AuthenticationType;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import java.io.IOException;
+
+/**
+ * Client-wide filter which applies per-session state (JSESSIONID cookie or basic credentials)
+ * to a request. The session is passed as the {@link #SESSION_STORAGE_PROPERTY} request property,
+ * so one configured client can be shared by all sessions.
+ */
+public class SessionStateFilter implements ClientRequestFilter {
+
+    public static final String SESSION_STORAGE_PROPERTY = "com.jaspersoft.jasperserver.jaxrs.client.sessionStorage";
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+        Object property = requestContext.getProperty(SESSION_STORAGE_PROPERTY);
+        if (!(property instanceof SessionStorage)) {
+            return;
+        }
+        SessionStorage storage = (SessionStorage) property;
+        if (storage.getSessionId() != null) {
+            new SessionOutputFilter(storage.getSessionId()).filter(requestContext);
+        } else if (storage.getCredentials() != null
+                && storage.getConfiguration().getAuthenticationType() == AuthenticationType.BASIC) {
+            new BasicAuthenticationFilter(storage.getCredentials()).filter(requestContext);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.bundles;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.serverInfo.ServerInfoService;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SnapshotCache;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import java.util.Locale;
@@ -81,6 +82,31 @@ public class BundlesServiceTest extends PowerMockTestCase {
     }
 
 
+    @Test
+    public void should_load_bundles_snapshot_once_per_locale() throws Exception {
+        //given
+        mockStatic(JerseyRequest.class);
+        when(JerseyRequest.buildRequest(eq(sessionStorageMock), any(GenericType.class), isA(String[].class), any(DefaultErrorHandler.class))).thenReturn(requestMock);
+        doReturn(Locale.GERMAN).when(sessionStorageMock).getUserLocale();
+        doReturn(new SnapshotCache(null, 0)).when(sessionStorageMock).getSnapshotCache();
+        doReturn(requestMock).when(requestMock).addParam(anyString(), anyString());
+        doReturn(requestMock).when(requestMock).addHeader(anyString(), anyString());
+        doReturn(requestMock).when(requestMock).setAccept(anyString());
+        doReturn(operationResultMock).when(requestMock).get();
+        JSONObject bundles = new JSONObject();
+        doReturn(bundles).when(operationResultMock).getEntity();
+        //when
+        Object first = new BundlesService(sessionStorageMock).allBundlesSnapshot();
+        Object second = new BundlesService(sessionStorageMock).allBundlesSnapshot();
+        new BundlesService(sessionStorageMock).forLocale("fr").allBundlesSnapshot();
+        //then
+        assertSame(first, bundles);
+        assertSame(second, bundles);
+        verify(requestMock, times(2)).get();
+        verify(requestMock).addHeader("Accept-Language", "de");
+        verify(requestMock).addHeader("Accept-Language", "fr");
+    }
+
     @Test
     public void should_return_proper_bundles_for_string_locale() throws Exception {
         //given
@@ -0,0 +1,159 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.exportservice;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link ExportArchiveReader}
+ */
+@SuppressWarnings("unchecked")
+public class ExportArchiveReaderTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        directory = File.createTempFile("export", "");
+        directory.delete();
+    }
+
+    @AfterMethod
+    public void after() {
+        delete(directory);
+    }
+
+    @Test
+    public void should_visit_entries_in_single_pass_and_release_connection() throws Exception {
+
+        // Given
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(new ByteArrayInputStream(zip("index.xml", "<export/>", "users/jasperadmin.xml", "<user/>",
+                "roles/ROLE_USER.xml", "<role/>"))).when(result).getEntity();
+        final List<String> visited = new ArrayList<String>();
+
+        // When
+        int count = ExportArchiveReader.read(result, new ExportEntryVisitor() {
+            @Override
+            public void visit(ZipEntry entry, InputStream content) throws IOException {
+                if (entry.getName().startsWith("users/")) {
+                    visited.add(entry.getName() + "=" + read(content));
+                    content.close();
+                } else {
+                    visited.add(entry.getName());
+                }
+            }
+        });
+
+        // Then
+        assertEquals(count, 3);
+        assertEquals(visited, Arrays.asList("index.xml", "users/jasperadmin.xml=<user/>", "roles/ROLE_USER.xml"));
+        verify(result).close();
+    }
+
+    @Test
+    public void should_extract_archive_into_directory() throws Exception {
+
+        // When
+        int files = new ExportArchiveReader(new ByteArrayInputStream(zip("index.xml", "<export/>",
+                "resources/public/report.xml", "<report/>"))).extractTo(directory);
+
+        // Then
+        assertEquals(files, 2);
+        assertEquals(read(new FileInputStream(new File(directory, "index.xml"))), "<export/>");
+        assertEquals(read(new FileInputStream(new File(directory, "resources/public/report.xml"))), "<report/>");
+    }
+
+    @Test
+    public void should_reject_entry_outside_of_directory() throws Exception {
+
+        // Given
+        ExportArchiveReader reader = new ExportArchiveReader(new ByteArrayInputStream(zip("../escaped.xml", "<x/>")));
+
+        // When
+        try {
+            reader.extractTo(directory);
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertEquals(e.getMessage(), "Entry is outside of the target directory: ../escaped.xml");
+            assertFalse(new File(directory.getParentFile(), "escaped.xml").exists());
+        }
+    }
+
+    @Test
+    public void should_rethrow_visitor_failure_with_its_message() throws Exception {
+
+        // Given
+        ExportArchiveReader reader = new ExportArchiveReader(new ByteArrayInputStream(zip("index.xml", "<export/>")));
+
+        // When
+        try {
+            reader.read(new ExportEntryVisitor() {
+                @Override
+                public void visit(ZipEntry entry, InputStream content) throws IOException {
+                    throw new IOException("Disk is full");
+                }
+            });
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertEquals(e.getMessage(), "Unable to process entry index.xml: Disk is full");
+        }
+    }
+
+    private static byte[] zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream(bytes);
+        for (int i = 0; i < entries.length; i += 2) {
+            zip.putNextEntry(new ZipEntry(entries[i]));
+            zip.write(entries[i + 1].getBytes("UTF-8"));
+            zip.closeEntry();
+        }
+        zip.close();
+        return bytes.toByteArray();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        in.close();
+        return out.toString("UTF-8");
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,126 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.importservice;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link ImportArchive}
+ */
+public class ImportArchiveTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        directory = File.createTempFile("catalog", "");
+        directory.delete();
+        new File(directory, "resources/public").mkdirs();
+        write(new File(directory, "index.xml"), "<export/>".getBytes("UTF-8"));
+        byte[] large = new byte[300 * 1024];
+        new Random(3).nextBytes(large);
+        write(new File(directory, "resources/public/report.data"), large);
+    }
+
+    @AfterMethod
+    public void after() {
+        delete(directory);
+    }
+
+    @Test
+    public void should_zip_directory_and_entries_while_reading() throws Exception {
+
+        // Given
+        ImportArchive archive = new ImportArchive()
+                .addDirectory(directory)
+                .addEntry("extra.txt", new ByteArrayInputStream("extra".getBytes("UTF-8")))
+                .pipeSize(1024);
+
+        // When
+        Map<String, byte[]> entries = unzip(archive.open());
+
+        // Then
+        assertEquals(entries.keySet().toString(), "[index.xml, resources/public/report.data, extra.txt]");
+        assertEquals(new String(entries.get("index.xml"), "UTF-8"), "<export/>");
+        assertEquals(entries.get("resources/public/report.data").length, 300 * 1024);
+        assertEquals(new String(entries.get("extra.txt"), "UTF-8"), "extra");
+    }
+
+    @Test
+    public void should_fail_stream_when_entry_cannot_be_read() throws Exception {
+
+        // Given
+        InputStream in = new ImportArchive()
+                .addFile("index.xml", new File(directory, "index.xml"))
+                .addFile("missing", new File(directory, "missing"))
+                .open();
+
+        // When
+        try {
+            unzip(in);
+            fail("Exception expected");
+        } catch (IOException e) {
+
+            // Then
+            assertTrue(e.getMessage().startsWith("Cannot build import archive"));
+        }
+    }
+
+    private Map<String, byte[]> unzip(InputStream in) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+        ZipInputStream zip = new ZipInputStream(in);
+        try {
+            ZipEntry entry;
+            byte[] buffer = new byte[4096];
+            while ((entry = zip.getNextEntry()) != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                int read;
+                while ((read = zip.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                entries.put(entry.getName(), out.toByteArray());
+            }
+            // drain the central directory, so a failure of the last entry is reported
+            while (in.read(buffer) != -1) {
+                // skip
+            }
+        } finally {
+            zip.close();
+        }
+        return entries;
+    }
+
+    private static void write(File file, byte[] content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -2,12 +2,15 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.importexport.import
 
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ProgressInputStream;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestBuilder;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.TransferListener;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.DefaultErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.dto.importexport.State;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -21,6 +24,7 @@ import org.testng.annotations.Test;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Field;
@@ -293,6 +297,39 @@ public class ImportTaskRequestAdapterTest extends PowerMockTestCase {
         inOrder.verify(requestStateDtoMock, times(1)).post(fileMock);
     }
 
+    @Test
+    public void should_send_archive_with_chunked_encoding_and_report_progress() throws Exception {
+
+        // Given
+        ImportTaskRequestAdapter requestAdapterSpy = PowerMockito.spy(new ImportTaskRequestAdapter(sessionStorageMock));
+        TransferListener listenerMock = mock(TransferListener.class);
+
+        PowerMockito.mockStatic(JerseyRequest.class);
+        PowerMockito.when(
+                buildRequest(
+                        eq(sessionStorageMock),
+                        eq(State.class),
+                        eq(new String[]{"import"}),
+                        any(DefaultErrorHandler.class)))
+                .thenReturn(requestStateDtoMock);
+
+        PowerMockito.doReturn(requestBuilderMock).when(requestStateDtoMock).setContentType("application/zip");
+        PowerMockito.doReturn(operationResultStateDtoMock).when(requestStateDtoMock).post(any(InputStream.class));
+
+        // When
+        OperationResult<State> retrieved = requestAdapterSpy
+                .streaming(1024)
+                .progress(listenerMock)
+                .create(new ByteArrayInputStream(new byte[10]));
+
+        // Then
+        Assert.assertSame(retrieved, operationResultStateDtoMock);
+        ArgumentCaptor<Object> entity = ArgumentCaptor.forClass(Object.class);
+        verify(requestStateDtoMock).setChunkedEncoding(1024);
+        verify(requestStateDtoMock).post(entity.capture());
+        assertTrue(entity.getValue() instanceof ProgressInputStream);
+    }
+
     @AfterMethod
     public void before() {
         reset(sessionStorageMock, requestStateDtoMock, operationResultStateDtoMock, callbackMock,
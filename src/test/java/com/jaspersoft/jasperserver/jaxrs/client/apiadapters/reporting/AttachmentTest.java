@@ -1,8 +1,14 @@
 package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 public class AttachmentTest {
 
@@ -27,4 +33,28 @@ public class AttachmentTest {
         assertSame(attachment.getMimeType(), "someType");
         assertSame(attachment.getName(), "name");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_read_content_from_file() throws Exception {
+
+        /* Given */
+        File file = File.createTempFile("attachment", ".bin");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[]{1, 2, 3});
+        out.close();
+        Attachment attachment = new Attachment();
+
+        /* When */
+        attachment.setFile(file);
+
+        /* Then */
+        try {
+            assertTrue(Arrays.equals(attachment.getContent(), new byte[]{1, 2, 3}));
+            InputStream stream = attachment.getContentStream();
+            assertEquals(stream.read(), 1);
+            stream.close();
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting;
 import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestExecution;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
@@ -12,6 +13,8 @@ import com.jaspersoft.jasperserver.jaxrs.client.dto.reports.ReportExecutionStatu
 import org.apache.commons.io.IOUtils;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
@@ -19,11 +22,15 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest.buildRequest;
@@ -43,8 +50,10 @@ import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
 * Unit tests for {@link ExportExecutionRequestBuilder}
@@ -422,6 +431,11 @@ public class ExportExecutionRequestBuilderTest extends PowerMockTestCase {
 
     }
 
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void should_throw_exception_when_spill_threshold_is_negative() {
+        new ExportExecutionRequestBuilder(sessionStorageMock, "requestId", "exportId").spillThreshold(-1);
+    }
+
     @Test
     public void should_throw_exception_when_cannot_read_stream() throws FileNotFoundException {
 
@@ -436,9 +450,14 @@ public class ExportExecutionRequestBuilderTest extends PowerMockTestCase {
         PowerMockito.doReturn(resultMock).when(stringJerseyRequestMock).get();
         PowerMockito.doReturn("____").when(resultMock).getEntity();
 
+        PowerMockito.when(buildRequest(eq(sessionStorageMock),
+                eq(InputStream.class),
+                any(String[].class))).thenReturn(streamJerseyRequestMock);
+        PowerMockito.doReturn(RequestFuture.completed(streamedResultMock)).when(streamJerseyRequestMock).asyncGet();
+
         ExportExecutionRequestBuilder builderSpy = spy(new ExportExecutionRequestBuilder(sessionStorageMock, requestId, exportId));
+        PowerMockito.doReturn(RequestFuture.completed(statusEntityMock)).when(builderSpy).awaitCompletion();
 
-        PowerMockito.doReturn(streamedResultMock).when(builderSpy).attachment(anyString());
         PowerMockito.doReturn(new InputStream() {
             @Override
             public int read() throws IOException {
@@ -451,10 +470,123 @@ public class ExportExecutionRequestBuilderTest extends PowerMockTestCase {
 
         try {
             builderSpy.htmlReport(descriptor);
+            fail();
         } catch (Exception e) {
             assertTrue(instanceOf(JSClientException.class).matches(e));
-            assertEquals(e.getMessage(), "Error while reading thumbnail content");
+            assertEquals(e.getMessage(), "Error while reading attachment content");
+        }
+    }
+
+    @Test
+    public void should_fetch_attachments_in_parallel_and_spill_large_ones_to_file() throws Exception {
+
+        String requestId = "requestId";
+        String exportId = "exportId";
+
+        mockStatic(JerseyRequest.class);
+        PowerMockito.when(buildRequest(eq(sessionStorageMock),
+                eq(String.class),
+                eq(new String[]{"reportExecutions", requestId, "exports", exportId, "outputResource"}))).thenReturn(stringJerseyRequestMock);
+        PowerMockito.doReturn(resultMock).when(stringJerseyRequestMock).get();
+        PowerMockito.doReturn("<html/>").when(resultMock).getEntity();
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        final AtomicInteger requested = new AtomicInteger();
+        PowerMockito.when(buildRequest(eq(sessionStorageMock),
+                eq(InputStream.class),
+                any(String[].class))).thenAnswer(new Answer<JerseyRequest<InputStream>>() {
+            @Override
+            public JerseyRequest<InputStream> answer(InvocationOnMock invocation) throws Throwable {
+                String[] path = (String[]) invocation.getArguments()[2];
+                final String name = path[path.length - 1];
+                JerseyRequest<InputStream> request = Mockito.mock(JerseyRequest.class);
+                final RequestFuture<OperationResult<InputStream>> future = new RequestFuture<OperationResult<InputStream>>();
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        OperationResult<InputStream> result = Mockito.mock(OperationResult.class);
+                        doReturn(new ByteArrayInputStream(name.getBytes())).when(result).getEntity();
+                        future.complete(result);
+                    }
+                });
+                doReturn(future).when(request).asyncGet();
+                requested.incrementAndGet();
+                return request;
+            }
+        });
+
+        ExportExecutionRequestBuilder builderSpy = spy(new ExportExecutionRequestBuilder(sessionStorageMock, requestId, exportId))
+                .attachmentsParallelism(3)
+                .spillThreshold(16);
+        PowerMockito.doReturn(RequestFuture.completed(statusEntityMock)).when(builderSpy).awaitCompletion();
+
+        List<AttachmentDescriptor> descriptors = new ArrayList<AttachmentDescriptor>();
+        for (String name : Arrays.asList("img_0_0_1.png", "img_0_0_2_with_long_name.png", "img_0_0_3.png")) {
+            AttachmentDescriptor attachmentDescriptor = new AttachmentDescriptor();
+            attachmentDescriptor.setFileName(name);
+            descriptors.add(attachmentDescriptor);
         }
+        ExportDescriptor descriptor = new ExportDescriptor();
+        descriptor.setAttachments(descriptors);
+
+        try {
+            HtmlReport report = builderSpy.htmlReport(descriptor);
+
+            List<Attachment> attachments = report.getAttachments();
+            assertEquals(attachments.size(), 3);
+            assertEquals(requested.get(), 3);
+            for (int i = 0; i < attachments.size(); i++) {
+                Attachment attachment = attachments.get(i);
+                assertEquals(attachment.getName(), descriptors.get(i).getFileName());
+                assertEquals(new String(attachment.getContent()), attachment.getName());
+            }
+            assertNull(attachments.get(0).getFile());
+            assertNotNull(attachments.get(1).getFile());
+            assertTrue(attachments.get(1).getFile().delete());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_compose_html_report_from_async_requests_when_export_is_ready() {
+
+        String requestId = "requestId";
+        String exportId = "exportId";
+
+        mockStatic(JerseyRequest.class);
+        PowerMockito.when(buildRequest(eq(sessionStorageMock),
+                eq(String.class),
+                eq(new String[]{"reportExecutions", requestId, "exports", exportId, "outputResource"}))).thenReturn(stringJerseyRequestMock);
+        PowerMockito.doReturn(RequestFuture.completed(resultMock)).when(stringJerseyRequestMock).asyncGet();
+        PowerMockito.doReturn("<html/>").when(resultMock).getEntity();
+        PowerMockito.when(buildRequest(eq(sessionStorageMock),
+                eq(InputStream.class),
+                eq(new String[]{"reportExecutions", requestId, "exports", exportId, "attachments", "img.png"}))).thenReturn(streamJerseyRequestMock);
+        PowerMockito.doReturn(RequestFuture.completed(streamedResultMock)).when(streamJerseyRequestMock).asyncGet();
+        PowerMockito.doReturn(new ByteArrayInputStream("png".getBytes())).when(streamedResultMock).getEntity();
+
+        ExportExecutionRequestBuilder builderSpy = spy(new ExportExecutionRequestBuilder(sessionStorageMock, requestId, exportId));
+        RequestFuture<ReportExecutionStatusEntity> completion = new RequestFuture<ReportExecutionStatusEntity>();
+        PowerMockito.doReturn(completion).when(builderSpy).awaitCompletion();
+
+        AttachmentDescriptor attachmentDescriptor = new AttachmentDescriptor();
+        attachmentDescriptor.setFileName("img.png");
+        ExportDescriptor descriptor = new ExportDescriptor();
+        descriptor.setId("html");
+        descriptor.setAttachments(Arrays.asList(attachmentDescriptor));
+
+        RequestFuture<HtmlReport> future = builderSpy.asyncHtmlReport(descriptor);
+        assertTrue(!future.isDone());
+        Mockito.verify(stringJerseyRequestMock, times(0)).asyncGet();
+
+        completion.complete(statusEntityMock);
+
+        HtmlReport report = future.join();
+        assertEquals(report.getHtml(), "<html/>");
+        assertEquals(report.getAttachments().size(), 1);
+        assertEquals(new String(report.getAttachments().get(0).getContent()), "png");
+        Mockito.verify(streamedResultMock).close();
     }
 
     @AfterMethod
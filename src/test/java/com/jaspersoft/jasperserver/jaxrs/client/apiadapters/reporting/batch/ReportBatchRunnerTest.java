@@ -0,0 +1,198 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.batch;
+
+import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.reporting.ReportOutputFormat;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ReportBatchRunner}
+ */
+@SuppressWarnings("unchecked")
+public class ReportBatchRunnerTest {
+
+    private ExecutorService server;
+
+    @BeforeMethod
+    public void before() {
+        server = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterMethod
+    public void after() {
+        server.shutdownNow();
+    }
+
+    @Test
+    public void should_run_all_tasks_with_bounded_concurrency() {
+
+        // Given
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        LinkedBlockingQueue<ReportOutput> queue = new LinkedBlockingQueue<ReportOutput>();
+        ReportBatchRunner runner = new ReportBatchRunner(mock(SessionStorage.class)) {
+            @Override
+            protected RequestFuture<OperationResult<InputStream>> execute(final ReportTask task) {
+                final RequestFuture<OperationResult<InputStream>> future = new RequestFuture<OperationResult<InputStream>>();
+                maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                server.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        sleep(5);
+                        inFlight.decrementAndGet();
+                        future.complete(result(task.getId()));
+                    }
+                });
+                return future;
+            }
+        }.concurrency(3).sink(new QueueReportSink(queue));
+
+        // When
+        BatchStats stats = runner.run(tasks(10));
+
+        // Then
+        assertEquals(stats.getSucceeded(), 10L);
+        assertEquals(stats.getRunning(), 0);
+        assertEquals(queue.size(), 10);
+        assertTrue(maxInFlight.get() <= 3);
+        assertEquals(new String(queue.peek().getContent()), queue.peek().getTask().getId());
+    }
+
+    @Test
+    public void should_isolate_failed_tasks() {
+
+        // Given
+        final JSClientException failure = new JSClientException("failed");
+        LinkedBlockingQueue<ReportOutput> queue = new LinkedBlockingQueue<ReportOutput>();
+        ReportBatchRunner runner = new ReportBatchRunner(mock(SessionStorage.class)) {
+            @Override
+            protected RequestFuture<OperationResult<InputStream>> execute(ReportTask task) {
+                if (task.getId().equals("task-1")) {
+                    throw failure;
+                }
+                return RequestFuture.completed(result(task.getId()));
+            }
+        }.sink(new QueueReportSink(queue));
+
+        // When
+        BatchStats stats = runner.run(tasks(3));
+
+        // Then
+        assertEquals(stats.getSucceeded(), 2L);
+        assertEquals(stats.getFailed(), 1L);
+        int failedOutputs = 0;
+        for (ReportOutput output : queue) {
+            if (output.isFailed()) {
+                failedOutputs++;
+                assertEquals(output.getTask().getId(), "task-1");
+                assertEquals(output.getFailure(), failure);
+            }
+        }
+        assertEquals(failedOutputs, 1);
+    }
+
+    @Test
+    public void should_skip_completed_tasks_and_record_progress() throws IOException {
+
+        // Given
+        File journal = File.createTempFile("batch", ".progress");
+        FileBatchProgress progress = new FileBatchProgress(journal);
+        progress.completed("task-0");
+        progress.close();
+        final List<String> executed = new ArrayList<String>();
+        ReportBatchRunner runner = new ReportBatchRunner(mock(SessionStorage.class)) {
+            @Override
+            protected RequestFuture<OperationResult<InputStream>> execute(ReportTask task) {
+                executed.add(task.getId());
+                return RequestFuture.completed(result(task.getId()));
+            }
+        }.sink(new QueueReportSink(new LinkedBlockingQueue<ReportOutput>()));
+
+        // When
+        FileBatchProgress resumed = new FileBatchProgress(journal);
+        BatchStats stats = runner.progress(resumed).run(tasks(3));
+        resumed.close();
+
+        // Then
+        assertEquals(executed, Arrays.asList("task-1", "task-2"));
+        assertEquals(stats.getSkipped(), 1L);
+        FileBatchProgress reloaded = new FileBatchProgress(journal);
+        assertEquals(reloaded.getCompletedCount(), 3);
+        reloaded.close();
+        journal.delete();
+    }
+
+    @Test
+    public void should_close_result_after_writing_to_sink() throws IOException {
+
+        // Given
+        final OperationResult<InputStream> result = result("task-0");
+        File directory = File.createTempFile("batch", "");
+        directory.delete();
+        FileReportSink sink = new FileReportSink(directory);
+        ReportBatchRunner runner = new ReportBatchRunner(mock(SessionStorage.class)) {
+            @Override
+            protected RequestFuture<OperationResult<InputStream>> execute(ReportTask task) {
+                return RequestFuture.completed(result);
+            }
+        }.sink(sink);
+        ReportTask task = new ReportTask("task-0", "/public/report", ReportOutputFormat.PDF);
+
+        // When
+        runner.run(Arrays.asList(task));
+
+        // Then
+        verify(result).close();
+        File output = sink.getFile(task);
+        assertEquals(output.getName(), "task-0.pdf");
+        assertEquals(output.length(), 6L);
+        assertFalse(new File(directory, "task-0.pdf.part").exists());
+        output.delete();
+        directory.delete();
+    }
+
+    private static List<ReportTask> tasks(int count) {
+        List<ReportTask> tasks = new ArrayList<ReportTask>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ReportTask("task-" + i, "/public/report", ReportOutputFormat.PDF).parameter("id", String.valueOf(i)));
+        }
+        return tasks;
+    }
+
+    private static OperationResult<InputStream> result(String content) {
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(new ByteArrayInputStream(content.getBytes())).when(result).getEntity();
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.core.Callback;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.ws.rs.core.Response;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link ResourceSearchIterator}
+ */
+@SuppressWarnings("unchecked")
+public class ResourceSearchIteratorTest {
+
+    private List<Integer> requestedOffsets;
+    private LinkedList<RequestFuture<OperationResult<ClientResourceListWrapper>>> pages;
+    private Callback<Integer, RequestFuture<OperationResult<ClientResourceListWrapper>>> loader;
+
+    @BeforeMethod
+    public void before() {
+        requestedOffsets = new ArrayList<Integer>();
+        pages = new LinkedList<RequestFuture<OperationResult<ClientResourceListWrapper>>>();
+        loader = new Callback<Integer, RequestFuture<OperationResult<ClientResourceListWrapper>>>() {
+            @Override
+            public RequestFuture<OperationResult<ClientResourceListWrapper>> execute(Integer offset) {
+                requestedOffsets.add(offset);
+                return pages.removeFirst();
+            }
+        };
+    }
+
+    @Test
+    public void should_iterate_over_all_pages_and_prefetch_next_page() {
+
+        // Given
+        ClientResourceLookup first = lookup(), second = lookup(), third = lookup();
+        pages.add(RequestFuture.completed(page(200, null, null, first, second)));
+        pages.add(RequestFuture.completed(page(200, null, null, third)));
+        ResourceSearchIterator iterator = new ResourceSearchIterator(2, 0, loader);
+
+        // When
+        assertSame(iterator.next(), first);
+
+        // Then
+        assertEquals(requestedOffsets, Arrays.asList(0, 2));
+        assertSame(iterator.next(), second);
+        assertSame(iterator.next(), third);
+        assertFalse(iterator.hasNext());
+        assertEquals(requestedOffsets, Arrays.asList(0, 2));
+        assertEquals(iterator.getPageCount(), 2);
+    }
+
+    @Test
+    public void should_follow_next_offset_and_stop_at_total_count() {
+
+        // Given
+        pages.add(RequestFuture.completed(page(200, "3", "5", lookup(), lookup())));
+        pages.add(RequestFuture.completed(page(200, null, "7", lookup())));
+        ResourceSearchIterator iterator = new ResourceSearchIterator(2, 0, loader);
+
+        // When
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+
+        // Then
+        assertEquals(count, 3);
+        assertEquals(requestedOffsets, Arrays.asList(0, 5));
+        assertEquals(iterator.getTotalCount(), Integer.valueOf(3));
+    }
+
+    @Test
+    public void should_stop_when_no_content_is_returned() {
+
+        // Given
+        pages.add(RequestFuture.completed(page(200, null, null, lookup(), lookup())));
+        pages.add(RequestFuture.completed(page(204, null, null)));
+        ResourceSearchIterator iterator = new ResourceSearchIterator(2, 10, loader);
+
+        // When
+        iterator.next();
+        iterator.next();
+
+        // Then
+        assertFalse(iterator.hasNext());
+        assertEquals(requestedOffsets, Arrays.asList(10, 12));
+        try {
+            iterator.next();
+            fail("Exception expected");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void should_cancel_prefetched_page_on_close() {
+
+        // Given
+        RequestFuture<OperationResult<ClientResourceListWrapper>> prefetched = new RequestFuture<OperationResult<ClientResourceListWrapper>>();
+        pages.add(RequestFuture.completed(page(200, null, null, lookup(), lookup())));
+        pages.add(prefetched);
+        ResourceSearchIterator iterator = new ResourceSearchIterator(2, 0, loader);
+        iterator.next();
+
+        // When
+        iterator.close();
+
+        // Then
+        assertTrue(prefetched.isCancelled());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void should_rethrow_failure_of_page_request() {
+
+        // Given
+        JSClientException failure = new JSClientException("boom");
+        pages.add(RequestFuture.<OperationResult<ClientResourceListWrapper>>failed(failure));
+        ResourceSearchIterator iterator = new ResourceSearchIterator(2, 0, loader);
+
+        // When
+        try {
+            iterator.hasNext();
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertSame(e, failure);
+        }
+    }
+
+    private OperationResult<ClientResourceListWrapper> page(int status, String totalCount, String nextOffset,
+                                                            ClientResourceLookup... lookups) {
+        Response response = mock(Response.class);
+        doReturn(status).when(response).getStatus();
+        doReturn(totalCount).when(response).getHeaderString(ResourceSearchIterator.TOTAL_COUNT_HEADER);
+        doReturn(nextOffset).when(response).getHeaderString(ResourceSearchIterator.NEXT_OFFSET_HEADER);
+        ClientResourceListWrapper wrapper = mock(ClientResourceListWrapper.class);
+        doReturn(Arrays.asList(lookups)).when(wrapper).getResourceLookups();
+        OperationResult<ClientResourceListWrapper> result = mock(OperationResult.class);
+        doReturn(response).when(result).getResponse();
+        doReturn(status).when(result).getResponseStatus();
+        doReturn(wrapper).when(result).getEntity();
+        return result;
+    }
+
+    private ClientResourceLookup lookup() {
+        return mock(ClientResourceLookup.class);
+    }
+}
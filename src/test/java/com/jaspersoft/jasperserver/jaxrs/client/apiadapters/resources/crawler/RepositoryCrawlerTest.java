@@ -0,0 +1,201 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.crawler;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceListWrapper;
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RepositoryCrawler}
+ */
+@SuppressWarnings("unchecked")
+public class RepositoryCrawlerTest {
+
+    private ExecutorService server;
+    private Map<String, List<ClientResourceLookup>> tree;
+    private RecordingVisitor visitor;
+
+    @BeforeMethod
+    public void before() {
+        server = Executors.newFixedThreadPool(8);
+        visitor = new RecordingVisitor();
+        tree = new HashMap<String, List<ClientResourceLookup>>();
+        tree.put("/root", Arrays.asList(lookup("/root/a", "folder"), lookup("/root/b", "folder"),
+                lookup("/root/report", "reportUnit")));
+        tree.put("/root/a", Arrays.asList(lookup("/root/a/1", "file"), lookup("/root/a/2", "file"),
+                lookup("/root/a/3", "reportUnit")));
+        tree.put("/root/b", Arrays.asList(lookup("/root/b/c", "folder")));
+        tree.put("/root/b/c", Collections.<ClientResourceLookup>emptyList());
+    }
+
+    @AfterMethod
+    public void after() {
+        server.shutdownNow();
+    }
+
+    @Test
+    public void should_crawl_tree_by_pages_with_bounded_concurrency() {
+
+        // Given
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        RepositoryCrawler crawler = new TestCrawler() {
+            @Override
+            protected RequestFuture<OperationResult<ClientResourceListWrapper>> searchFolder(String folderUri, int offset) {
+                maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                return later(super.searchFolder(folderUri, offset), inFlight);
+            }
+        }.concurrency(2).pageSize(2).enrich("reportUnit").visitor(visitor);
+
+        // When
+        CrawlStats stats = crawler.crawl("/root");
+
+        // Then
+        assertEquals(visitor.visited.size(), 7);
+        assertTrue(visitor.visited.containsAll(Arrays.asList("/root/a/3", "/root/b/c", "/root/report")));
+        assertEquals(visitor.details.size(), 2);
+        assertEquals(stats.getFolders(), 4L);
+        assertEquals(stats.getResources(), 7L);
+        assertEquals(stats.getDetails(), 2L);
+        assertEquals(stats.getRunning(), 0);
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void should_report_failed_folder_and_continue() {
+
+        // Given
+        RepositoryCrawler crawler = new TestCrawler() {
+            @Override
+            protected RequestFuture<OperationResult<ClientResourceListWrapper>> searchFolder(String folderUri, int offset) {
+                if (folderUri.equals("/root/a")) {
+                    return RequestFuture.failed(new JSClientException("Access denied"));
+                }
+                return super.searchFolder(folderUri, offset);
+            }
+        }.visitor(visitor);
+
+        // When
+        CrawlStats stats = crawler.crawl("/root");
+
+        // Then
+        assertEquals(visitor.failed, Arrays.asList("/root/a"));
+        assertEquals(stats.getFailed(), 1L);
+        assertEquals(visitor.visited.size(), 4);
+    }
+
+    @Test
+    public void should_not_list_folders_deeper_than_max_depth() {
+
+        // Given
+        RepositoryCrawler crawler = new TestCrawler().maxDepth(0).visitor(visitor);
+
+        // When
+        CrawlStats stats = crawler.crawl("/root");
+
+        // Then
+        assertEquals(stats.getFolders(), 1L);
+        assertEquals(visitor.visited.size(), 3);
+    }
+
+    private <T> RequestFuture<T> later(final RequestFuture<T> source, final AtomicInteger inFlight) {
+        final RequestFuture<T> future = new RequestFuture<T>();
+        server.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                future.complete(source.join());
+            }
+        });
+        return future;
+    }
+
+    private ClientResourceLookup lookup(String uri, String type) {
+        ClientResourceLookup lookup = mock(ClientResourceLookup.class);
+        doReturn(uri).when(lookup).getUri();
+        doReturn(type).when(lookup).getResourceType();
+        return lookup;
+    }
+
+    private class TestCrawler extends RepositoryCrawler {
+
+        private TestCrawler() {
+            super(mock(SessionStorage.class));
+        }
+
+        @Override
+        protected RequestFuture<OperationResult<ClientResourceListWrapper>> searchFolder(String folderUri, int offset) {
+            List<ClientResourceLookup> children = tree.get(folderUri);
+            List<ClientResourceLookup> page = children.subList(Math.min(offset, children.size()),
+                    Math.min(offset + getPageSize(), children.size()));
+            Response response = mock(Response.class);
+            OperationResult<ClientResourceListWrapper> result = mock(OperationResult.class);
+            doReturn(response).when(result).getResponse();
+            if (page.isEmpty()) {
+                doReturn(204).when(result).getResponseStatus();
+            } else {
+                ClientResourceListWrapper wrapper = mock(ClientResourceListWrapper.class);
+                doReturn(new ArrayList<ClientResourceLookup>(page)).when(wrapper).getResourceLookups();
+                doReturn(200).when(result).getResponseStatus();
+                doReturn(wrapper).when(result).getEntity();
+            }
+            return RequestFuture.completed(result);
+        }
+
+        @Override
+        protected RequestFuture<OperationResult<ClientResource>> loadDetails(String resourceUri) {
+            ClientResource resource = mock(ClientResource.class);
+            doReturn(resourceUri).when(resource).getUri();
+            OperationResult<ClientResource> result = mock(OperationResult.class);
+            doReturn(resource).when(result).getEntity();
+            return RequestFuture.completed(result);
+        }
+    }
+
+    private static class RecordingVisitor implements RepositoryVisitor {
+        private final List<String> visited = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> details = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void visit(ClientResourceLookup lookup) {
+            visited.add(lookup.getUri());
+        }
+
+        @Override
+        public void visitDetails(ClientResource resource) {
+            details.add(resource.getUri());
+        }
+
+        @Override
+        public void failed(String uri, Exception cause) {
+            failed.add(uri);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResourceLookup;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RepositoryIndexSync}
+ */
+public class RepositoryIndexSyncTest {
+
+    @Test
+    public void should_rebuild_index_which_was_never_synchronized() {
+
+        // Given
+        RepositoryIndex index = new RepositoryIndex();
+        index.put("/deleted", "file", 1);
+        TestSync sync = new TestSync(
+                lookup("/public/a", "file", 1, "2016-01-01 10:00:00"),
+                lookup("/public/b", "folder", 2, "2016-01-03 10:00:00"));
+
+        // When
+        int indexed = sync.sync(index);
+
+        // Then
+        assertEquals(indexed, 2);
+        assertFalse(index.contains("/deleted"));
+        assertEquals(index.getWatermark(), "2016-01-03T10:00:00");
+        assertEquals(sync.sortedByUpdateDate, Arrays.asList(false));
+    }
+
+    @Test
+    public void should_read_only_resources_changed_since_watermark() {
+
+        // Given
+        RepositoryIndex index = new RepositoryIndex();
+        index.put("/public/a", "file", 1);
+        index.setWatermark("2016-01-03T10:00:00");
+        TestSync sync = new TestSync(
+                lookup("/public/c", "file", 1, "2016-01-05T10:00:00"),
+                lookup("/public/a", "file", 2, "2016-01-04T10:00:00"),
+                lookup("/public/b", "file", 2, "2016-01-03T10:00:00"),
+                lookup("/public/old", "file", 1, "2016-01-01T10:00:00"),
+                lookup("/public/older", "file", 1, "2015-12-01T10:00:00"));
+
+        // When
+        int updated = sync.sync(index);
+
+        // Then
+        assertEquals(updated, 3);
+        assertEquals(index.getVersion("/public/a"), Integer.valueOf(2));
+        assertTrue(index.contains("/public/c"));
+        assertFalse(index.contains("/public/old"));
+        assertEquals(sync.read, 4);
+        assertEquals(index.getWatermark(), "2016-01-05T10:00:00");
+        assertEquals(sync.sortedByUpdateDate, Arrays.asList(true));
+    }
+
+    private ClientResourceLookup lookup(String uri, String type, Integer version, String updateDate) {
+        ClientResourceLookup lookup = mock(ClientResourceLookup.class);
+        doReturn(uri).when(lookup).getUri();
+        doReturn(type).when(lookup).getResourceType();
+        doReturn(version).when(lookup).getVersion();
+        doReturn(updateDate).when(lookup).getUpdateDate();
+        return lookup;
+    }
+
+    private static class TestSync extends RepositoryIndexSync {
+        private final List<ClientResourceLookup> lookups;
+        private final List<Boolean> sortedByUpdateDate = new ArrayList<Boolean>();
+        private int read;
+
+        private TestSync(ClientResourceLookup... lookups) {
+            super(mock(SessionStorage.class));
+            this.lookups = Arrays.asList(lookups);
+        }
+
+        @Override
+        protected Iterator<ClientResourceLookup> lookups(boolean byUpdateDate) {
+            sortedByUpdateDate.add(byUpdateDate);
+            final Iterator<ClientResourceLookup> iterator = lookups.iterator();
+            return new Iterator<ClientResourceLookup>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public ClientResourceLookup next() {
+                    read++;
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
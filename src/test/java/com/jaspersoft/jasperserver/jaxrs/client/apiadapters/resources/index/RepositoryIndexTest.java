@@ -0,0 +1,142 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.index;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RepositoryIndex}
+ */
+public class RepositoryIndexTest {
+
+    private RepositoryIndex index;
+
+    @BeforeMethod
+    public void before() {
+        index = new RepositoryIndex();
+    }
+
+    @Test
+    public void should_find_indexed_resources() {
+
+        // Given
+        index.put("/public/samples/reports/AllAccounts", "reportUnit", 3);
+        index.put("/public/samples/reports", "folder", null);
+        index.put("/public/samples/resources/logo", "file", 1);
+
+        // Then
+        assertEquals(index.size(), 3);
+        assertEquals(index.get("/public/samples/reports/AllAccounts"),
+                new IndexEntry("/public/samples/reports/AllAccounts", "reportUnit", 3));
+        assertEquals(index.getType("/public/samples/reports"), "folder");
+        assertNull(index.getVersion("/public/samples/reports"));
+        assertEquals(index.getVersion("/public/samples/resources/logo"), Integer.valueOf(1));
+        assertFalse(index.contains("/public/samples"));
+        assertFalse(index.contains("/public/samples/reports/All"));
+        assertFalse(index.contains("/public/samples/reports/AllAccounts/more"));
+        assertNull(index.get("/other"));
+    }
+
+    @Test
+    public void should_replace_type_and_version() {
+
+        // Given
+        index.put("/public/report", "reportUnit", 1);
+
+        // When
+        index.put("/public/report", "reportUnit", 2);
+
+        // Then
+        assertEquals(index.size(), 1);
+        assertEquals(index.getVersion("/public/report"), Integer.valueOf(2));
+    }
+
+    @Test
+    public void should_remove_resource_with_descendants() {
+
+        // Given
+        index.put("/public/a", "folder", 0);
+        index.put("/public/a/b", "folder", 0);
+        index.put("/public/a/b/c", "file", 0);
+        index.put("/public/ab", "file", 0);
+        index.put("/public/x/y", "file", 0);
+
+        // When
+        int removed = index.remove("/public/a");
+
+        // Then
+        assertEquals(removed, 3);
+        assertEquals(index.size(), 2);
+        assertFalse(index.contains("/public/a/b/c"));
+        assertTrue(index.contains("/public/ab"));
+        assertTrue(index.contains("/public/x/y"));
+        assertEquals(index.remove("/public/x"), 1);
+        assertEquals(index.remove("/missing"), 0);
+        assertTrue(index.contains("/public/ab"));
+    }
+
+    @Test
+    public void should_match_map_for_random_content() {
+
+        // Given
+        Random random = new Random(7);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 5000; i++) {
+            String uri = "/f" + random.nextInt(5) + "/g" + random.nextInt(20) + "/h" + random.nextInt(50);
+            if (random.nextInt(10) == 0) {
+                uri = uri.substring(0, uri.lastIndexOf('/'));
+            }
+            expected.put(uri, i);
+            index.put(uri, "file", i);
+        }
+        for (int i = 0; i < 20; i++) {
+            String folder = "/f" + random.nextInt(5) + "/g" + random.nextInt(20);
+            index.remove(folder);
+            for (String uri : expected.keySet().toArray(new String[0])) {
+                if (uri.equals(folder) || uri.startsWith(folder + "/")) {
+                    expected.remove(uri);
+                }
+            }
+        }
+
+        // Then
+        assertEquals(index.size(), expected.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(index.getVersion(entry.getKey()), entry.getValue(), entry.getKey());
+        }
+    }
+
+    @Test
+    public void should_save_and_load_index() throws Exception {
+
+        // Given
+        File file = File.createTempFile("repository", ".idx");
+        index.put("/public/samples/reports/AllAccounts", "reportUnit", 3);
+        index.put("/public/samples/resources/logo", "file", null);
+        index.setWatermark("2016-02-01T10:00:00");
+
+        // When
+        try {
+            index.save(file);
+            RepositoryIndex loaded = RepositoryIndex.load(file);
+
+            // Then
+            assertEquals(loaded.size(), 2);
+            assertEquals(loaded.getWatermark(), "2016-02-01T10:00:00");
+            assertEquals(loaded.get("/public/samples/reports/AllAccounts"), index.get("/public/samples/reports/AllAccounts"));
+            assertEquals(loaded.get("/public/samples/resources/logo"), index.get("/public/samples/resources/logo"));
+            loaded.put("/public/samples/other", "file", 1);
+            assertEquals(loaded.size(), 3);
+        } finally {
+            file.delete();
+        }
+    }
+}
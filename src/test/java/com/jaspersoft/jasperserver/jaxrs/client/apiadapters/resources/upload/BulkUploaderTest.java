@@ -0,0 +1,264 @@
+package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.upload;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientFile;
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import com.jaspersoft.jasperserver.jaxrs.client.core.RequestFuture;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.AccessDeniedException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.BadRequestException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.InternalServerErrorException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ResourceNotFoundException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link BulkUploader}
+ */
+@SuppressWarnings("unchecked")
+public class BulkUploaderTest {
+
+    private ExecutorService server;
+    private File root;
+    private RecordingListener listener;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        server = Executors.newFixedThreadPool(8);
+        listener = new RecordingListener();
+        root = File.createTempFile("upload", "");
+        root.delete();
+        write(new File(root, "a.jrxml"), 10);
+        write(new File(root, "logo.PNG"), 20);
+        write(new File(root, "notes.unknown"), 5);
+        write(new File(root, ".hidden"), 5);
+        write(new File(root, "sub/b.jrxml"), 30);
+        write(new File(root, "sub/deep/c.css"), 40);
+    }
+
+    @AfterMethod
+    public void after() {
+        server.shutdownNow();
+        delete(root);
+    }
+
+    @Test
+    public void should_create_missing_folders_once_and_upload_files_with_bounded_concurrency() {
+
+        // Given
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        TestUploader uploader = new TestUploader() {
+            @Override
+            protected RequestFuture<OperationResult<ClientFile>> uploadFile(String folderUri, File file,
+                                                                           ClientFile.FileType fileType) {
+                maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                return later(super.uploadFile(folderUri, file, fileType), inFlight);
+            }
+        };
+        uploader.concurrency(2).listener(listener);
+
+        // When
+        UploadStats stats = uploader.upload(root, "/target");
+
+        // Then
+        assertEquals(uploader.lookups, Arrays.asList("/target", "/target/sub"));
+        assertEquals(uploader.created, Arrays.asList("/target/sub", "/target/sub/deep"));
+        assertEquals(new HashSet<String>(uploader.uploaded), new HashSet<String>(Arrays.asList(
+                "/target/a.jrxml:jrxml", "/target/logo.PNG:img", "/target/sub/b.jrxml:jrxml", "/target/sub/deep/c.css:css")));
+        assertTrue(maxInFlight.get() <= 2);
+        assertEquals(stats.getFiles(), 4L);
+        assertEquals(stats.getBytes(), 100L);
+        assertEquals(stats.getFolders(), 3L);
+        assertEquals(stats.getCreatedFolders(), 2L);
+        assertEquals(stats.getSkipped(), 1L);
+        assertEquals(stats.getFailed(), 0L);
+        assertEquals(stats.getRunning(), 0);
+        assertEquals(listener.uploaded.size(), 4);
+        assertEquals(listener.folders.size(), 3);
+    }
+
+    @Test
+    public void should_not_look_up_ready_folders_again() {
+
+        // Given
+        TestUploader uploader = new TestUploader();
+        uploader.defaultFileType(ClientFile.FileType.txt);
+        uploader.upload(root, "/target");
+        uploader.lookups.clear();
+        uploader.created.clear();
+
+        // When
+        UploadStats stats = uploader.upload(root, "/target");
+
+        // Then
+        assertTrue(uploader.lookups.isEmpty());
+        assertTrue(uploader.created.isEmpty());
+        assertEquals(stats.getFiles(), 5L);
+        assertEquals(stats.getSkipped(), 0L);
+    }
+
+    @Test
+    public void should_report_failed_uploads_without_repeating_them() {
+
+        // Given
+        final List<String> attempts = Collections.synchronizedList(new ArrayList<String>());
+        TestUploader uploader = new TestUploader() {
+            @Override
+            protected RequestFuture<OperationResult<ClientFile>> uploadFile(String folderUri, File file,
+                                                                           ClientFile.FileType fileType) {
+                attempts.add(file.getName());
+                if (file.getName().equals("a.jrxml")) {
+                    return RequestFuture.failed(new InternalServerErrorException("Busy"));
+                }
+                if (file.getName().equals("b.jrxml")) {
+                    throw new BadRequestException("Invalid");
+                }
+                return super.uploadFile(folderUri, file, fileType);
+            }
+        };
+        uploader.listener(listener);
+
+        // When
+        UploadStats stats = uploader.upload(root, "/target");
+
+        // Then
+        assertEquals(attempts.size(), 4);
+        assertEquals(stats.getFiles(), 2L);
+        assertEquals(stats.getFailed(), 2L);
+        assertEquals(new HashSet<String>(listener.failed), new HashSet<String>(Arrays.asList("a.jrxml", "b.jrxml")));
+        assertEquals(stats.getRunning(), 0);
+    }
+
+    @Test
+    public void should_fail_files_of_failed_folder() {
+
+        // Given
+        TestUploader uploader = new TestUploader() {
+            @Override
+            protected RequestFuture<OperationResult<ClientResource>> createFolder(String folderUri, String label) {
+                return RequestFuture.failed(new AccessDeniedException("Denied"));
+            }
+        };
+        uploader.listener(listener);
+
+        // When
+        UploadStats stats = uploader.upload(root, "/target");
+
+        // Then
+        assertEquals(stats.getFiles(), 2L);
+        assertEquals(stats.getFailed(), 3L);
+        assertEquals(listener.failed, Arrays.asList("sub"));
+    }
+
+    private <T> RequestFuture<T> later(final RequestFuture<T> source, final AtomicInteger inFlight) {
+        final RequestFuture<T> future = new RequestFuture<T>();
+        server.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                future.complete(source.join());
+            }
+        });
+        return future;
+    }
+
+    private static <T> RequestFuture<OperationResult<T>> completed() {
+        OperationResult<T> result = mock(OperationResult.class);
+        return RequestFuture.completed(result);
+    }
+
+    private static void write(File file, int size) throws IOException {
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[size]);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private class TestUploader extends BulkUploader {
+        private final List<String> lookups = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> created = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> uploaded = Collections.synchronizedList(new ArrayList<String>());
+
+        private TestUploader() {
+            super(mock(SessionStorage.class));
+        }
+
+        @Override
+        protected RequestFuture<OperationResult<ClientResource>> lookupFolder(String folderUri) {
+            lookups.add(folderUri);
+            if (!folderUri.equals("/target")) {
+                return RequestFuture.failed(new ResourceNotFoundException());
+            }
+            return completed();
+        }
+
+        @Override
+        protected RequestFuture<OperationResult<ClientResource>> createFolder(String folderUri, String label) {
+            created.add(folderUri);
+            return completed();
+        }
+
+        @Override
+        protected RequestFuture<OperationResult<ClientFile>> uploadFile(String folderUri, File file,
+                                                                       ClientFile.FileType fileType) {
+            uploaded.add(folderUri + "/" + file.getName() + ":" + fileType);
+            return completed();
+        }
+    }
+
+    private static class RecordingListener implements UploadListener {
+        private final List<String> folders = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> uploaded = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void folderReady(File directory, String folderUri) {
+            folders.add(folderUri);
+        }
+
+        @Override
+        public void uploaded(File file, String folderUri) {
+            uploaded.add(file.getName());
+        }
+
+        @Override
+        public void failed(File file, Exception cause) {
+            failed.add(file.getName());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.jaspersoft.jasperserver.jaxrs.client.apiadapters.serverInfo;
 
 import com.jaspersoft.jasperserver.jaxrs.client.core.JerseyRequest;
 import com.jaspersoft.jasperserver.jaxrs.client.core.RequestBuilder;
+import com.jaspersoft.jasperserver.jaxrs.client.core.ServerCapabilities;
 import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.dto.serverinfo.ServerInfo;
@@ -19,7 +20,9 @@ import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 @PrepareForTest({JerseyRequest.class, ServerInfoService.class})
 public class ServerInfoServiceTest extends PowerMockTestCase {
@@ -61,6 +64,25 @@ public class ServerInfoServiceTest extends PowerMockTestCase {
         assertSame(retrieved, operationResultMock);
     }
 
+    @Test
+    public void should_return_capabilities() throws Exception {
+        OperationResult<String> versionResult = Mockito.mock(OperationResult.class);
+        OperationResult<String> editionResult = Mockito.mock(OperationResult.class);
+        OperationResult<String> featuresResult = Mockito.mock(OperationResult.class);
+        PowerMockito.doReturn(versionResult).when(service).version();
+        PowerMockito.doReturn(editionResult).when(service).edition();
+        PowerMockito.doReturn(featuresResult).when(service).features();
+        PowerMockito.doReturn("6.1.0").when(versionResult).getEntity();
+        PowerMockito.doReturn("PRO").when(editionResult).getEntity();
+        PowerMockito.doReturn("Fusion AHD").when(featuresResult).getEntity();
+
+        ServerCapabilities capabilities = service.capabilities();
+
+        assertEquals(capabilities.getVersion(), "6.1.0");
+        assertTrue(capabilities.isPro());
+        assertTrue(capabilities.hasFeature("AHD"));
+    }
+
     @Test
     public void should_return_proper_date_format_pattern() throws Exception {
 
@@ -0,0 +1,277 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.ExecutorMode;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RejectionPolicy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link AsyncExecutor}
+ */
+public class AsyncExecutorTest {
+
+    private ExecutorService pool;
+
+    @AfterMethod
+    public void after() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_build_bounded_pool_from_configuration() {
+
+        // Given
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setAsyncCorePoolSize(2)
+                .setAsyncMaxPoolSize(4)
+                .setAsyncQueueCapacity(8);
+
+        // When
+        pool = new DefaultAsyncExecutorFactory().createRequestExecutor(configuration);
+
+        // Then
+        assertTrue(pool instanceof ThreadPoolExecutor);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+        assertEquals(executor.getCorePoolSize(), 2);
+        assertEquals(executor.getMaximumPoolSize(), 4);
+        assertEquals(executor.getQueue().remainingCapacity(), 8);
+        assertNull(new DefaultAsyncExecutorFactory().createCallbackExecutor(configuration));
+    }
+
+    @Test
+    public void should_fall_back_to_pool_when_virtual_threads_are_not_available() {
+
+        // Given
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setExecutorMode(ExecutorMode.VIRTUAL_THREADS);
+        DefaultAsyncExecutorFactory factory = new DefaultAsyncExecutorFactory() {
+            @Override
+            protected ExecutorService newVirtualThreadPerTaskExecutor() {
+                return null;
+            }
+        };
+
+        // When
+        pool = factory.createRequestExecutor(configuration);
+
+        // Then
+        assertTrue(pool instanceof ThreadPoolExecutor);
+    }
+
+    @Test
+    public void should_use_custom_factory() {
+
+        // Given
+        final ExecutorService custom = mock(ExecutorService.class);
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setAsyncExecutorFactory(new AsyncExecutorFactory() {
+                    @Override
+                    public ExecutorService createRequestExecutor(RestClientConfiguration configuration) {
+                        return custom;
+                    }
+
+                    @Override
+                    public Executor createCallbackExecutor(RestClientConfiguration configuration) {
+                        return null;
+                    }
+                });
+
+        // When
+        AsyncExecutor asyncExecutor = new AsyncExecutor(configuration);
+        asyncExecutor.shutdown();
+
+        // Then
+        verify(custom).shutdown();
+    }
+
+    @Test
+    public void should_run_task_and_count_it() throws Exception {
+
+        // Given
+        pool = new DefaultAsyncExecutorFactory().newBoundedPool("test-", 1, 1, 1);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(pool, null, RejectionPolicy.ABORT);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        RequestExecution execution = new RequestExecution(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        });
+
+        // When
+        asyncExecutor.execute(execution);
+        started.await(5, TimeUnit.SECONDS);
+
+        // Then
+        assertNotNull(execution.getFuture());
+        assertEquals(asyncExecutor.getStats().getActive(), 1);
+        release.countDown();
+        execution.getFuture().get(5, TimeUnit.SECONDS);
+        // the future is completed inside the task, counters are updated right after it
+        long deadline = System.currentTimeMillis() + 5000;
+        while (asyncExecutor.getStats().getCompleted() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(asyncExecutor.getStats().getActive(), 0);
+        assertEquals(asyncExecutor.getStats().getCompleted(), 1L);
+    }
+
+    @Test
+    public void should_reject_task_when_queue_is_full() throws Exception {
+
+        // Given
+        pool = new DefaultAsyncExecutorFactory().newBoundedPool("test-", 1, 1, 1);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(pool, null, RejectionPolicy.ABORT);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        };
+        asyncExecutor.execute(new RequestExecution(blocking));
+        started.await(5, TimeUnit.SECONDS);
+        asyncExecutor.execute(new RequestExecution(blocking));
+
+        // When
+        try {
+            asyncExecutor.execute(new RequestExecution(blocking));
+            fail("Task should be rejected");
+        } catch (RejectedExecutionException e) {
+
+            // Then
+            assertEquals(asyncExecutor.getStats().getRejected(), 1L);
+            assertEquals(asyncExecutor.getStats().getQueued(), 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void should_run_rejected_task_in_caller_thread() throws Exception {
+
+        // Given
+        pool = new DefaultAsyncExecutorFactory().newBoundedPool("test-", 1, 1, 1);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(pool, null, RejectionPolicy.CALLER_RUNS);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                await(release);
+            }
+        };
+        asyncExecutor.execute(new RequestExecution(blocking));
+        asyncExecutor.execute(new RequestExecution(blocking));
+        final AtomicReference<Thread> runner = new AtomicReference<Thread>();
+
+        // When
+        RequestExecution execution = new RequestExecution(new Runnable() {
+            @Override
+            public void run() {
+                runner.set(Thread.currentThread());
+            }
+        });
+        asyncExecutor.execute(execution);
+        release.countDown();
+
+        // Then
+        assertSame(runner.get(), Thread.currentThread());
+        assertTrue(execution.getFuture().isDone());
+        assertEquals(asyncExecutor.getStats().getRejected(), 1L);
+    }
+
+    @Test
+    public void should_never_run_background_task_in_caller_thread() throws Exception {
+
+        // Given
+        pool = new DefaultAsyncExecutorFactory().newBoundedPool("test-", 1, 1, 1);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(pool, null, RejectionPolicy.CALLER_RUNS);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                await(release);
+            }
+        };
+        asyncExecutor.execute(new RequestExecution(blocking));
+        asyncExecutor.execute(new RequestExecution(blocking));
+        final AtomicReference<Thread> runner = new AtomicReference<Thread>();
+
+        // When
+        try {
+            asyncExecutor.getBackgroundExecutorService().execute(new Runnable() {
+                @Override
+                public void run() {
+                    runner.set(Thread.currentThread());
+                }
+            });
+            fail("Task should be rejected");
+        } catch (RejectedExecutionException e) {
+
+            // Then
+            assertNull(runner.get());
+            assertEquals(asyncExecutor.getStats().getRejected(), 1L);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void should_run_callback_on_callback_executor() {
+
+        // Given
+        Executor callbackExecutor = mock(Executor.class);
+        Runnable callback = mock(Runnable.class);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(mock(ExecutorService.class), callbackExecutor, RejectionPolicy.ABORT);
+
+        // When
+        asyncExecutor.executeCallback(callback);
+
+        // Then
+        verify(callbackExecutor).execute(callback);
+    }
+
+    @Test
+    public void should_run_callback_in_current_thread_without_callback_executor() {
+
+        // Given
+        Runnable callback = mock(Runnable.class);
+        AsyncExecutor asyncExecutor = new AsyncExecutor(mock(ExecutorService.class), null, RejectionPolicy.ABORT);
+
+        // When
+        asyncExecutor.executeCallback(callback);
+
+        // Then
+        verify(callback).run();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.CircuitState;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.CircuitBreakerOpenException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link CircuitBreaker} and {@link CircuitBreakers}
+ */
+public class CircuitBreakerTest {
+
+    private CircuitBreakers circuitBreakers;
+    private List<String> transitions;
+
+    @BeforeMethod
+    public void before() {
+        transitions = new ArrayList<String>();
+        circuitBreakers = new CircuitBreakers()
+                .setMinimumCalls(4)
+                .setFailureRateThreshold(0.5)
+                .setOpenDuration(20)
+                .setHalfOpenProbes(2)
+                .addListener(new CircuitBreakerListener() {
+                    @Override
+                    public void stateChanged(String endpoint, CircuitState from, CircuitState to) {
+                        transitions.add(endpoint + ":" + from + "->" + to);
+                    }
+                });
+    }
+
+    @Test
+    public void should_open_circuit_and_fail_fast() {
+
+        // Given
+        CircuitBreaker breaker = circuitBreakers.get("reportExecutions");
+
+        // When
+        breaker.acquire().release(false);
+        breaker.acquire().release(true);
+        breaker.acquire().release(false);
+        breaker.acquire().release(true);
+
+        // Then
+        assertEquals(breaker.getState(), CircuitState.OPEN);
+        try {
+            breaker.acquire();
+            fail("Exception expected");
+        } catch (CircuitBreakerOpenException e) {
+            assertEquals(e.getEndpoint(), "reportExecutions");
+        }
+        assertEquals(breaker.getStats().getRejected(), 1L);
+        assertEquals(circuitBreakers.get("resources").getState(), CircuitState.CLOSED);
+        assertEquals(transitions, Arrays.asList("reportExecutions:CLOSED->OPEN"));
+    }
+
+    @Test
+    public void should_close_circuit_after_successful_probes() throws Exception {
+
+        // Given
+        CircuitBreaker breaker = open(circuitBreakers.get("jobs"));
+        Thread.sleep(30);
+
+        // When
+        CircuitBreaker.Permit first = breaker.acquire();
+        CircuitBreaker.Permit second = breaker.acquire();
+        try {
+            breaker.acquire();
+            fail("Only two probes are allowed");
+        } catch (CircuitBreakerOpenException expected) {
+            // probes are in flight
+        }
+        first.release(false);
+        second.release(false);
+
+        // Then
+        assertEquals(breaker.getState(), CircuitState.CLOSED);
+        assertEquals(transitions, Arrays.asList("jobs:CLOSED->OPEN", "jobs:OPEN->HALF_OPEN", "jobs:HALF_OPEN->CLOSED"));
+    }
+
+    @Test
+    public void should_open_circuit_again_when_probe_fails() throws Exception {
+
+        // Given
+        CircuitBreaker breaker = open(circuitBreakers.get("reports"));
+        Thread.sleep(30);
+
+        // When
+        breaker.acquire().release(true);
+
+        // Then
+        assertEquals(breaker.getState(), CircuitState.OPEN);
+        assertEquals(transitions.get(transitions.size() - 1), "reports:HALF_OPEN->OPEN");
+    }
+
+    @Test
+    public void should_open_circuit_on_slow_calls() throws Exception {
+
+        // Given
+        CircuitBreaker breaker = circuitBreakers.setSlowCallThreshold(1, 0.5).get("thumbnails");
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            CircuitBreaker.Permit permit = breaker.acquire();
+            Thread.sleep(5);
+            permit.release(false);
+        }
+
+        // Then
+        assertEquals(breaker.getState(), CircuitState.OPEN);
+        assertEquals(breaker.getStats().getSlowCalls(), 4L);
+    }
+
+    @Test
+    public void should_not_count_slow_report_calls_unless_family_duration_is_set() throws Exception {
+
+        // Given
+        circuitBreakers.setSlowCallThreshold(1, 0.5).setSlowCallDuration("reportExecutions", 2);
+        CircuitBreaker reports = circuitBreakers.get("reports");
+        CircuitBreaker executions = circuitBreakers.get("reportExecutions");
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            CircuitBreaker.Permit report = reports.acquire();
+            CircuitBreaker.Permit execution = executions.acquire();
+            Thread.sleep(5);
+            report.release(false);
+            execution.release(false);
+        }
+
+        // Then
+        assertEquals(reports.getState(), CircuitState.CLOSED);
+        assertEquals(reports.getStats().getSlowCalls(), 0L);
+        assertEquals(executions.getState(), CircuitState.OPEN);
+    }
+
+    @Test
+    public void should_measure_slow_call_from_sending() throws Exception {
+
+        // Given
+        CircuitBreaker breaker = circuitBreakers.setSlowCallThreshold(20, 0.5).get("thumbnails");
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            CircuitBreaker.Permit permit = breaker.acquire();
+            Thread.sleep(25);
+            permit.sent();
+            permit.release(false);
+        }
+
+        // Then
+        assertEquals(breaker.getState(), CircuitState.CLOSED);
+        assertEquals(breaker.getStats().getSlowCalls(), 0L);
+    }
+
+    @Test
+    public void should_derive_endpoint_family_from_path() {
+        assertEquals(CircuitBreakers.endpointOf(new String[]{"reportExecutions", "id", "exports"}), "reportExecutions");
+        assertEquals(CircuitBreakers.endpointOf(new String[]{"/permissions/public"}), "permissions");
+        assertEquals(CircuitBreakers.endpointOf(new String[]{"export", "id", "state"}), CircuitBreakers.IMPORT_EXPORT);
+        assertEquals(CircuitBreakers.endpointOf(new String[]{"import"}), CircuitBreakers.IMPORT_EXPORT);
+        assertNull(CircuitBreakers.endpointOf(new String[0]));
+    }
+
+    private CircuitBreaker open(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire().release(true);
+        }
+        assertEquals(breaker.getState(), CircuitState.OPEN);
+        return breaker;
+    }
+}
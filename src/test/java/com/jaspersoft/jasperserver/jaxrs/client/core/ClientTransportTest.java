@@ -0,0 +1,231 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionStateFilter;
+import com.sun.jersey.multipart.impl.MultiPartWriter;
+import java.security.SecureRandom;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.glassfish.jersey.filter.LoggingFilter;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link com.jaspersoft.jasperserver.jaxrs.client.core.ClientTransport}
+ */
+@PrepareForTest({ClientTransport.class,
+        SSLContext.class,
+        ClientBuilder.class,
+        Client.class,
+        WebTarget.class})
+public class ClientTransportTest extends PowerMockTestCase {
+
+    @Mock
+    private ClientBuilder builderMock;
+    @Mock
+    private RestClientConfiguration configurationMock;
+    @Mock
+    private SSLContext ctxMock;
+    @Mock
+    private Client clientMock;
+    @Mock
+    private WebTarget targetMock;
+
+    @BeforeMethod
+    public void before() {
+        initMocks(this);
+    }
+
+    @Test
+    public void should_init_ssl() {
+
+        // Given
+        mockStatic(ClientBuilder.class);
+        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
+        doReturn("https://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(10000).when(configurationMock).getConnectionTimeout();
+        doReturn(8000).when(configurationMock).getReadTimeout();
+        doReturn(clientMock).when(builderMock).build();
+        doReturn(targetMock).when(clientMock).target("http://54.83.98.156/jasperserver-pro");
+
+        // When
+        try {
+            new ClientTransport(configurationMock);
+        } catch (Exception e) {
+            assertNotNull(e);
+        }
+    }
+
+
+    @Test
+    public void should_invoke_init_method_with_default_configuration() throws Exception {
+        // Given
+        mockStatic(ClientBuilder.class);
+        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
+        doReturn("http://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(clientMock).when(builderMock).build();
+        doReturn(null).when(configurationMock).getConnectionTimeout();
+        doReturn(null).when(configurationMock).getReadTimeout();
+        doReturn(targetMock).when(clientMock).target(anyString());
+        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
+        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
+        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
+        doReturn(false).when(configurationMock).getLogHttp();
+
+        // When
+        ClientTransport transport = new ClientTransport(configurationMock);
+
+        // Then
+        assertEquals(transport.getConfiguration(), configurationMock);
+        assertEquals(transport.getClient(), clientMock);
+        assertEquals(transport.getRootTarget(), targetMock);
+        verify(configurationMock, times(2)).getJasperReportsServerUrl();
+        verify(builderMock).build();
+        verify(configurationMock).getConnectionTimeout();
+        verify(configurationMock).getReadTimeout();
+        verify(clientMock).target("http://54.83.98.156/jasperserver-pro");
+        verify(targetMock).register(JacksonFeature.class);
+        verify(targetMock, times(1)).register(isA(JacksonJsonProvider.class));
+        verify(targetMock).register(MultiPartWriter.class);
+        verify(configurationMock).getLogHttp();
+        verify(targetMock, never()).register(LoggingFilter.class);
+        verify(targetMock).register(isA(SessionStateFilter.class));
+        assertNull(transport.getConnectionPoolStats());
+    }
+
+
+    @Test
+    public void should_invoke_init_method_with_custom_configuration() throws Exception {
+
+        //  Given
+        mockStatic(ClientBuilder.class);
+        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
+        doReturn("http://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(clientMock).when(builderMock).build();
+        doReturn(1000).when(configurationMock).getConnectionTimeout();
+        doReturn(clientMock).when(clientMock).property("jersey.config.client.connectTimeout", 1000);
+        doReturn(200).when(configurationMock).getReadTimeout();
+        doReturn(clientMock).when(clientMock).property("jersey.config.client.readTimeout", 200);
+        doReturn(targetMock).when(clientMock).target(anyString());
+        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
+        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
+        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
+        doReturn(true).when(configurationMock).getLogHttp();
+        doReturn(targetMock).when(targetMock).register(any(LoggingFilter.class));
+
+        // When
+        ClientTransport transport = new ClientTransport(configurationMock);
+
+        // Then
+        assertEquals(transport.getConfiguration(), configurationMock);
+        assertEquals(transport.getClient(), clientMock);
+        assertEquals(transport.getRootTarget(), targetMock);
+        verify(configurationMock, times(2)).getJasperReportsServerUrl();
+        verify(builderMock).build();
+        verify(configurationMock).getConnectionTimeout();
+        verify(configurationMock).getReadTimeout();
+        verify(clientMock).property("jersey.config.client.connectTimeout", 1000);
+        verify(clientMock).property("jersey.config.client.readTimeout", 200);
+        verify(clientMock).target("http://54.83.98.156/jasperserver-pro");
+        verify(targetMock).register(JacksonFeature.class);
+        verify(targetMock, times(1)).register(isA(JacksonJsonProvider.class));
+        verify(targetMock).register(MultiPartWriter.class);
+        verify(configurationMock).getLogHttp();
+        verify(targetMock).register(isA(LoggingFilter.class));
+        verify(targetMock).register(isA(SessionStateFilter.class));
+    }
+
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void should_throw_an_exception_when_unable_to_init_SSL_context() throws Exception {
+
+        // Given
+        TrustManager[] managers = new TrustManager[]{
+                new X509TrustManager() {
+                    @Override
+                    public void checkClientTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
+                    }
+
+                    @Override
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return null;
+                    }
+
+                    @Override
+                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
+                    }
+                }};
+
+        mockStatic(ClientBuilder.class, SSLContext.class);
+        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
+        when(SSLContext.getInstance("SSL")).thenReturn(ctxMock);
+
+        when(ctxMock, "init", null, managers, new SecureRandom()).thenThrow(new RuntimeException());
+
+        doReturn("https://abc").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(managers).when(configurationMock).getTrustManagers();
+        doReturn(100L).when(configurationMock).getReadTimeout();
+
+        // When
+        new ClientTransport(configurationMock);
+
+        // Then throw an exception
+    }
+
+
+    @Test
+    public void should_close_client_only_once() throws Exception {
+
+        // Given
+        mockStatic(ClientBuilder.class);
+        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
+        doReturn("http://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(clientMock).when(builderMock).build();
+        doReturn(targetMock).when(clientMock).target(anyString());
+        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
+        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
+        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
+        doReturn(false).when(configurationMock).getLogHttp();
+        ClientTransport transport = new ClientTransport(configurationMock);
+
+        // When
+        transport.close();
+        transport.close();
+
+        // Then
+        assertTrue(transport.isClosed());
+        verify(clientMock, times(1)).close();
+    }
+
+    @AfterMethod
+    public void after() {
+        reset(builderMock, configurationMock, ctxMock, clientMock, targetMock);
+    }
+}
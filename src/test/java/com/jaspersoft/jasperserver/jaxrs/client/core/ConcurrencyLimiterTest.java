@@ -0,0 +1,201 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ConcurrencyLimitExceededException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link ConcurrencyLimiter}
+ */
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void should_grow_limit_while_it_is_used() {
+
+        // Given, latencies of sub-microsecond calls are noise and must not signal overload
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(2).setMaxLimit(3).setLatencyTolerance(1000);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            ConcurrencyLimiter.Permit first = limiter.acquire();
+            ConcurrencyLimiter.Permit second = limiter.acquire();
+            first.release(false);
+            second.release(false);
+        }
+
+        // Then
+        assertEquals(limiter.getLimit(), 3);
+        assertEquals(limiter.getStats().getInFlight(), 0);
+        assertEquals(limiter.getStats().getAccepted(), 40L);
+    }
+
+    @Test
+    public void should_decrease_limit_once_per_overload() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(10).setBackoffRatio(0.5);
+        ConcurrencyLimiter.Permit first = limiter.acquire();
+        ConcurrencyLimiter.Permit second = limiter.acquire();
+
+        // When
+        first.release(true);
+        second.release(true);
+        limiter.acquire().release(true);
+
+        // Then
+        assertEquals(limiter.getLimit(), 2);
+        assertEquals(limiter.getStats().getOverloads(), 3L);
+    }
+
+    @Test
+    public void should_reject_request_when_queue_is_full() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1).setMaxQueueSize(0);
+        limiter.acquire();
+
+        // When
+        try {
+            limiter.acquire();
+            fail("Exception expected");
+        } catch (ConcurrencyLimitExceededException e) {
+
+            // Then
+            assertEquals(limiter.getStats().getRejected(), 1L);
+            assertEquals(limiter.getStats().getInFlight(), 1);
+        }
+    }
+
+    @Test
+    public void should_reject_request_after_queue_wait() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1).setMaxQueueWait(20);
+        limiter.acquire();
+
+        // When
+        try {
+            limiter.acquire();
+            fail("Exception expected");
+        } catch (ConcurrencyLimitExceededException e) {
+
+            // Then
+            assertEquals(limiter.getStats().getRejected(), 1L);
+            assertEquals(limiter.getStats().getQueued(), 0);
+        }
+    }
+
+    @Test
+    public void should_pass_queued_request_when_permit_is_released() throws Exception {
+
+        // Given
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1);
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        final AtomicReference<ConcurrencyLimiter.Permit> queued = new AtomicReference<ConcurrencyLimiter.Permit>();
+        final CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiting = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queued.set(limiter.acquire());
+                acquired.countDown();
+            }
+        });
+        waiting.start();
+        while (limiter.getStats().getQueued() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        Thread.sleep(20);
+        permit.cancel();
+
+        // Then
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get());
+        assertEquals(limiter.getStats().getInFlight(), 1);
+        assertTrue(limiter.getStats().getMaxQueueWait() >= 10);
+    }
+
+    @Test
+    public void should_grant_queued_async_request_by_releasing_thread() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1);
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        RequestFuture<ConcurrencyLimiter.Permit> queued = limiter.acquireAsync();
+        assertFalse(queued.isDone());
+        assertEquals(limiter.getStats().getQueued(), 1);
+
+        // When
+        permit.release(false);
+
+        // Then
+        assertTrue(queued.isDone());
+        assertNotNull(queued.join());
+        assertEquals(limiter.getStats().getInFlight(), 1);
+        assertEquals(limiter.getStats().getQueued(), 0);
+    }
+
+    @Test
+    public void should_fail_async_request_when_queue_is_full() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1).setMaxQueueSize(0);
+        limiter.acquire();
+
+        // When
+        RequestFuture<ConcurrencyLimiter.Permit> rejected = limiter.acquireAsync();
+
+        // Then
+        assertTrue(rejected.isFailed());
+        assertEquals(limiter.getStats().getRejected(), 1L);
+    }
+
+    @Test
+    public void should_skip_cancelled_async_request() {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1);
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        RequestFuture<ConcurrencyLimiter.Permit> cancelled = limiter.acquireAsync();
+        RequestFuture<ConcurrencyLimiter.Permit> next = limiter.acquireAsync();
+
+        // When
+        cancelled.cancel(false);
+        permit.release(false);
+
+        // Then
+        assertTrue(next.isDone());
+        assertEquals(limiter.getStats().getInFlight(), 1);
+    }
+
+    @Test
+    public void should_reject_async_request_after_queue_wait_without_release() throws Exception {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1).setMaxQueueWait(20);
+        limiter.acquire();
+
+        // When
+        RequestFuture<ConcurrencyLimiter.Permit> queued = limiter.acquireAsync();
+
+        // Then
+        try {
+            queued.get(5, TimeUnit.SECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConcurrencyLimitExceededException);
+        }
+        assertEquals(limiter.getStats().getQueued(), 0);
+        assertEquals(limiter.getStats().getRejected(), 1L);
+    }
+}
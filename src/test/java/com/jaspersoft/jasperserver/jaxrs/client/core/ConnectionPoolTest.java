@@ -0,0 +1,51 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+/**
+ * Unit tests for {@link ConnectionPool}
+ */
+public class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeMethod
+    public void before() {
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro")
+                .setMaxTotalConnections(40)
+                .setMaxConnectionsPerRoute(20)
+                .setValidateAfterInactivity(1000)
+                .setIdleConnectionTimeout(5000);
+        pool = new ConnectionPool(configuration, null, null);
+    }
+
+    @Test
+    public void should_apply_limits_from_configuration() {
+        assertEquals(pool.getConnectionManager().getMaxTotal(), 40);
+        assertEquals(pool.getConnectionManager().getDefaultMaxPerRoute(), 20);
+        assertEquals(pool.getConnectionManager().getValidateAfterInactivity(), 1000);
+    }
+
+    @Test
+    public void should_return_empty_stats_for_unused_pool() {
+        // When
+        ConnectionPoolStats stats = pool.getStats();
+
+        // Then
+        assertNotNull(stats);
+        assertEquals(stats.getLeased(), 0);
+        assertEquals(stats.getPending(), 0);
+        assertEquals(stats.getAvailable(), 0);
+        assertEquals(stats.getMax(), 40);
+    }
+
+    @AfterMethod
+    public void after() {
+        pool.close();
+    }
+}
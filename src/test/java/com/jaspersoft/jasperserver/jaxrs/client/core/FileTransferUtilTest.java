@@ -0,0 +1,110 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link FileTransferUtil}
+ */
+@SuppressWarnings("unchecked")
+public class FileTransferUtilTest {
+
+    private File target;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        target = File.createTempFile("transfer", ".bin");
+    }
+
+    @AfterMethod
+    public void after() {
+        target.delete();
+    }
+
+    @Test
+    public void should_write_content_to_file_and_close_result() throws Exception {
+
+        // Given
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(1).nextBytes(content);
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(new ByteArrayInputStream(content)).when(result).getEntity();
+
+        // When
+        File written = FileTransferUtil.writeToFile(result, target);
+
+        // Then
+        assertSame(written, target);
+        assertTrue(Arrays.equals(read(target), content));
+        verify(result).close();
+    }
+
+    @Test
+    public void should_remove_partial_file_when_transfer_fails() {
+
+        // Given
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        }).when(result).getEntity();
+
+        // When
+        try {
+            FileTransferUtil.writeToFile(result, target);
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertFalse(target.exists());
+            verify(result).close();
+        }
+    }
+
+    @Test(expectedExceptions = JSClientException.class)
+    public void should_fail_when_result_has_no_content() {
+        FileTransferUtil.writeToFile(mock(OperationResult.class), target);
+    }
+
+    @Test
+    public void should_return_number_of_written_bytes() throws Exception {
+        assertEquals(FileTransferUtil.transfer(new ByteArrayInputStream(new byte[100]), target), 100L);
+        assertEquals(target.length(), 100L);
+    }
+
+    private byte[] read(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        FileInputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+}
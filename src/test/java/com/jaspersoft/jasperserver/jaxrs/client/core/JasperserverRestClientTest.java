@@ -29,7 +29,6 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -38,8 +37,10 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.verifyNew;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 import static org.powermock.api.support.membermodification.MemberMatcher.field;
 import static org.powermock.api.support.membermodification.MemberMatcher.method;
@@ -61,6 +62,8 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
     @Mock
     private SessionStorage sessionStorageMock;
     @Mock
+    private ClientTransport transportMock;
+    @Mock
     private Session sessionMock;
     @Mock
     AnonymousSession anonymousSessionMock;
@@ -82,9 +85,12 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
     final String LOCALE = "de";
 
     @BeforeMethod
-    public void before() {
+    public void before() throws Exception {
         initMocks(this);
         suppress(method(SessionStorage.class, "init"));
+        whenNew(ClientTransport.class)
+                .withArguments(configurationMock)
+                .thenReturn(transportMock);
     }
 
     @Test(testName = "JasperserverRestClient_constructor")
@@ -170,7 +176,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -198,7 +204,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -225,7 +231,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -253,7 +259,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -281,7 +287,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -309,7 +315,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -338,7 +344,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -366,7 +372,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -394,7 +400,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
 
         whenNew(Session.class)
@@ -421,7 +427,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         doReturn(credentialsMock).when(sessionStorageMock).getCredentials();
         doReturn(rootTargetMock).when(sessionStorageMock).getRootTarget();
@@ -431,7 +437,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(TimeZone.getDefault()).when(sessionStorageMock).getUserTimeZone();
         doReturn(Locale.getDefault()).when(sessionStorageMock).getUserLocale();
         doReturn(webTargetMock).when(rootTargetMock).path(anyString());
-        doReturn(webTargetMock).when(webTargetMock).property(anyString(), anyBoolean());
         doReturn(invocationBuilderMock).when(webTargetMock).request();
         doReturn(responseMock).when(invocationBuilderMock).post(any(Entity.class));
         doReturn(location).when(responseMock).getLocation();
@@ -439,7 +444,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(new HashMap<String, NewCookie>() {{
             put("JSESSIONID", new NewCookie(new Cookie("JSESSIONID", "AC0C233ED7E9BE5DD0D4A286E6C8BBAE")));
         }}).when(responseMock).getCookies();
-        doReturn(rootTargetMock).when(rootTargetMock).register(any(SessionOutputFilter.class));
 
         // When
         Session session = client.authenticate(USER_NAME, PASSWORD);
@@ -452,13 +456,14 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(sessionStorageMock).getCredentials();
         verify(rootTargetMock, never()).register(isA(BasicAuthenticationFilter.class));
         verify(rootTargetMock).path("/j_spring_security_check");
-        verify(webTargetMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
+        verify(invocationBuilderMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
         verify(webTargetMock).request();
         verify(invocationBuilderMock).post(Entity.entity(any(Form.class), MediaType.APPLICATION_FORM_URLENCODED_TYPE));
         verify(responseMock).getLocation();
         verify(responseMock).getCookies();
         verify(sessionStorageMock).setSessionId("AC0C233ED7E9BE5DD0D4A286E6C8BBAE");
-        verify(rootTargetMock).register(isA(SessionOutputFilter.class));
+        verify(rootTargetMock, never()).register(isA(SessionOutputFilter.class));
+        verify(responseMock).close();
     }
 
     @Test
@@ -473,7 +478,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         whenNew(Form.class)
                 .withNoArguments()
@@ -486,7 +491,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(TimeZone.getTimeZone(TIME_ZONE)).when(sessionStorageMock).getUserTimeZone();
         doReturn(Locale.getDefault()).when(sessionStorageMock).getUserLocale();
         doReturn(webTargetMock).when(rootTargetMock).path(anyString());
-        doReturn(webTargetMock).when(webTargetMock).property(anyString(), anyBoolean());
         doReturn(invocationBuilderMock).when(webTargetMock).request();
         doReturn(responseMock).when(invocationBuilderMock).post(any(Entity.class));
         doReturn(location).when(responseMock).getLocation();
@@ -494,7 +498,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(new HashMap<String, NewCookie>() {{
             put("JSESSIONID", new NewCookie(new Cookie("JSESSIONID", "AC0C233ED7E9BE5DD0D4A286E6C8BBAE")));
         }}).when(responseMock).getCookies();
-        doReturn(rootTargetMock).when(rootTargetMock).register(any(SessionOutputFilter.class));
 
         // When
         Session session = client.authenticate(USER_NAME, PASSWORD, TIME_ZONE);
@@ -507,7 +510,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(sessionStorageMock).getCredentials();
         verify(rootTargetMock, never()).register(isA(BasicAuthenticationFilter.class));
         verify(rootTargetMock).path("/j_spring_security_check");
-        verify(webTargetMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
+        verify(invocationBuilderMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
         verify(webTargetMock).request();
         verify(formSpy).param("j_username", USER_NAME);
         verify(formSpy).param("j_password", PASSWORD);
@@ -516,7 +519,8 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(responseMock).getLocation();
         verify(responseMock).getCookies();
         verify(sessionStorageMock).setSessionId("AC0C233ED7E9BE5DD0D4A286E6C8BBAE");
-        verify(rootTargetMock).register(isA(SessionOutputFilter.class));
+        verify(rootTargetMock, never()).register(isA(SessionOutputFilter.class));
+        verify(responseMock).close();
     }
 
     @Test
@@ -532,7 +536,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         whenNew(Form.class)
                 .withNoArguments()
@@ -545,7 +549,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(TimeZone.getTimeZone(TIME_ZONE)).when(sessionStorageMock).getUserTimeZone();
         doReturn(locale).when(sessionStorageMock).getUserLocale();
         doReturn(webTargetMock).when(rootTargetMock).path(anyString());
-        doReturn(webTargetMock).when(webTargetMock).property(anyString(), anyBoolean());
         doReturn(invocationBuilderMock).when(webTargetMock).request();
         doReturn(responseMock).when(invocationBuilderMock).post(any(Entity.class));
         doReturn(location).when(responseMock).getLocation();
@@ -553,7 +556,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(new HashMap<String, NewCookie>() {{
             put("JSESSIONID", new NewCookie(new Cookie("JSESSIONID", "AC0C233ED7E9BE5DD0D4A286E6C8BBAE")));
         }}).when(responseMock).getCookies();
-        doReturn(rootTargetMock).when(rootTargetMock).register(any(SessionOutputFilter.class));
 
         // When
         Session session = client.authenticate(USER_NAME, PASSWORD, "de", TIME_ZONE);
@@ -566,7 +568,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(sessionStorageMock).getCredentials();
         verify(rootTargetMock, never()).register(isA(BasicAuthenticationFilter.class));
         verify(rootTargetMock).path("/j_spring_security_check");
-        verify(webTargetMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
+        verify(invocationBuilderMock).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
         verify(webTargetMock).request();
         verify(formSpy).param("j_username", USER_NAME);
         verify(formSpy).param("j_password", PASSWORD);
@@ -576,7 +578,8 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(responseMock).getLocation();
         verify(responseMock).getCookies();
         verify(sessionStorageMock).setSessionId("AC0C233ED7E9BE5DD0D4A286E6C8BBAE");
-        verify(rootTargetMock).register(isA(SessionOutputFilter.class));
+        verify(rootTargetMock, never()).register(isA(SessionOutputFilter.class));
+        verify(responseMock).close();
     }
 
     @Test(expectedExceptions = ResourceNotFoundException.class)
@@ -592,7 +595,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         whenNew(Form.class)
                 .withNoArguments()
@@ -609,7 +612,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(TimeZone.getTimeZone(TIME_ZONE)).when(sessionStorageMock).getUserTimeZone();
         doReturn(locale).when(sessionStorageMock).getUserLocale();
         doReturn(webTargetMock).when(rootTargetMock).path(anyString());
-        doReturn(webTargetMock).when(webTargetMock).property(anyString(), anyBoolean());
         doReturn(invocationBuilderMock).when(webTargetMock).request();
         doReturn(responseMock).when(invocationBuilderMock).post(any(Entity.class));
         doReturn(location).when(responseMock).getLocation();
@@ -636,7 +638,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         whenNew(Form.class)
                 .withNoArguments()
@@ -653,7 +655,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(TimeZone.getTimeZone(TIME_ZONE)).when(sessionStorageMock).getUserTimeZone();
         doReturn(locale).when(sessionStorageMock).getUserLocale();
         doReturn(webTargetMock).when(rootTargetMock).path(anyString());
-        doReturn(webTargetMock).when(webTargetMock).property(anyString(), anyBoolean());
         doReturn(invocationBuilderMock).when(webTargetMock).request();
         doReturn(responseMock).when(invocationBuilderMock).post(any(Entity.class));
         doReturn(location).when(responseMock).getLocation();
@@ -677,7 +678,7 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
                 .thenReturn(credentialsMock);
 
         whenNew(SessionStorage.class)
-                .withArguments(eq(configurationMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
+                .withArguments(eq(transportMock), eq(credentialsMock), any(Locale.class), any(TimeZone.class))
                 .thenReturn(sessionStorageMock);
         doReturn(credentialsMock).when(sessionStorageMock).getCredentials();
         doReturn(rootTargetMock).when(sessionStorageMock).getRootTarget();
@@ -685,7 +686,6 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         doReturn(USER_NAME).when(credentialsMock).getUsername();
         doReturn(PASSWORD).when(credentialsMock).getPassword();
         doReturn(TimeZone.getDefault()).when(sessionStorageMock).getUserTimeZone();
-        doReturn(rootTargetMock).when(rootTargetMock).register(isA(BasicAuthenticationFilter.class));
 
         // When
         Session session = client.authenticate(USER_NAME, PASSWORD);
@@ -696,9 +696,9 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         verify(sessionStorageMock).getRootTarget();
         verify(configurationMock).getAuthenticationType();
         verify(sessionStorageMock).getCredentials();
-        verify(rootTargetMock).register(isA(BasicAuthenticationFilter.class));
+        verify(rootTargetMock, never()).register(isA(BasicAuthenticationFilter.class));
         verify(rootTargetMock, never()).path("/j_spring_security_check");
-        verify(webTargetMock, never()).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
+        verify(invocationBuilderMock, never()).property(ClientProperties.FOLLOW_REDIRECTS, Boolean.FALSE);
         verify(webTargetMock, never()).request();
         verify(invocationBuilderMock, never()).post(Entity.entity(any(Form.class), MediaType.APPLICATION_FORM_URLENCODED_TYPE));
         verify(rootTargetMock, never()).register(isA(SessionOutputFilter.class));
@@ -724,9 +724,56 @@ public class JasperserverRestClientTest extends PowerMockTestCase {
         assertEquals(retrieved, anonymousSessionMock);
     }
 
+    @Test
+    public void should_share_one_transport_between_sessions() throws Exception {
+
+        // Given
+        doReturn("url").when(configurationMock).getJasperReportsServerUrl();
+        final JasperserverRestClient client = new JasperserverRestClient(configurationMock);
+
+        // When
+        ClientTransport first = client.getTransport();
+        ClientTransport second = client.getTransport();
+
+        // Then
+        assertEquals(first, transportMock);
+        assertEquals(second, transportMock);
+        verifyNew(ClientTransport.class, times(1)).withArguments(configurationMock);
+    }
+
+    @Test
+    public void should_close_shared_transport() throws Exception {
+
+        // Given
+        doReturn("url").when(configurationMock).getJasperReportsServerUrl();
+        final JasperserverRestClient client = new JasperserverRestClient(configurationMock);
+        client.getTransport();
+
+        // When
+        client.close();
+
+        // Then
+        verify(transportMock).close();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void should_not_create_session_after_client_was_closed() throws Exception {
+
+        // Given
+        doReturn("url").when(configurationMock).getJasperReportsServerUrl();
+        doReturn(true).when(transportMock).isClosed();
+        final JasperserverRestClient client = new JasperserverRestClient(configurationMock);
+
+        // When
+        client.getAnonymousSession();
+
+        // Then
+        // an exception should be thrown
+    }
+
     @AfterMethod
     public void after() {
-        reset(configurationMock, credentialsMock,
+        reset(configurationMock, credentialsMock, transportMock,
                 sessionStorageMock, sessionMock,
                 anonymousSessionMock, webTargetMock,
                 rootTargetMock, invocationBuilderMock,
@@ -1,14 +1,27 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.CircuitState;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.CircuitBreakerOpenException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ConcurrencyLimitExceededException;
 import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.handling.ErrorHandler;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.NullEntityOperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResultFactoryImpl;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.StreamingOperationResult;
 import com.jaspersoft.jasperserver.jaxrs.client.providers.CustomRepresentationTypeProvider;
 import com.sun.jersey.multipart.impl.MultiPartWriter;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -18,6 +31,8 @@ import org.glassfish.jersey.jackson.JacksonFeature;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
@@ -25,12 +40,14 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.doAnswer;
 import static org.powermock.api.mockito.PowerMockito.doReturn;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.spy;
@@ -40,6 +57,8 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * Unit tests for {@link JerseyRequest}
@@ -248,6 +267,251 @@ public class JerseyRequestTest extends PowerMockTestCase {
         assertNotEquals(Whitebox.getInternalState(retrieved, "acceptType"), MediaType.APPLICATION_XML);
     }
 
+    @Test
+    public void should_stream_binary_content_only_when_requested() throws Exception {
+
+        // Given
+        Response responseMock = mock(Response.class);
+        doReturn(200).when(responseMock).getStatus();
+        doReturn(true).when(responseMock).hasEntity();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.TRUE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<InputStream> jerseyRequestSpy = spy(new JerseyRequest<InputStream>(sessionStorage, InputStream.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(responseMock).when(builder).get();
+        Mockito.doReturn(operationResult).when(operationResultFactory).getOperationResult(responseMock, InputStream.class);
+
+        // When
+        OperationResult<InputStream> buffered = jerseyRequestSpy.get();
+        OperationResult<InputStream> streamed = jerseyRequestSpy.setStreaming(true).get();
+
+        // Then
+        assertSame(buffered, operationResult);
+        assertTrue(streamed instanceof StreamingOperationResult);
+        verify(responseMock, times(0)).bufferEntity();
+    }
+
+    @Test
+    public void should_release_concurrency_limit_and_decrease_it_on_server_error() throws Exception {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(10);
+        Response responseMock = mock(Response.class);
+        doReturn(503).when(responseMock).getStatus();
+        doReturn(limiter).when(clientConfiguration).getConcurrencyLimiter();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(responseMock).when(builder).get();
+
+        // When
+        jerseyRequestSpy.get();
+
+        // Then
+        assertEquals(limiter.getStats().getInFlight(), 0);
+        assertEquals(limiter.getStats().getAccepted(), 1L);
+        assertEquals(limiter.getLimit(), 9);
+    }
+
+    @Test
+    public void should_fail_future_of_async_request_rejected_by_concurrency_limit() throws Exception {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(1).setMinLimit(1).setMaxQueueSize(0);
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        doReturn(limiter).when(clientConfiguration).getConcurrencyLimiter();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+
+        // When
+        RequestFuture<OperationResult<Class>> retrieved = jerseyRequestSpy.asyncGet();
+
+        // Then
+        try {
+            retrieved.join();
+            fail("Exception expected");
+        } catch (ConcurrencyLimitExceededException e) {
+            verify(builder, times(0)).async();
+            assertEquals(limiter.getStats().getRejected(), 1L);
+        } finally {
+            permit.release(false);
+        }
+    }
+
+    @Test
+    public void should_repeat_idempotent_request_after_transient_error() throws Exception {
+
+        // Given
+        RetryPolicy retryPolicy = new RetryPolicy().setBackoff(1, 1);
+        Response unavailable = mock(Response.class);
+        Response ok = mock(Response.class);
+        doReturn(503).when(unavailable).getStatus();
+        doReturn(200).when(ok).getStatus();
+        doReturn(retryPolicy).when(clientConfiguration).getRetryPolicy();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.TRUE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(unavailable).doReturn(ok).when(builder).get();
+        Mockito.doReturn(operationResult).when(operationResultFactory).getOperationResult(ok, Class.class);
+
+        // When
+        OperationResult<Class> retrieved = jerseyRequestSpy.get();
+
+        // Then
+        assertSame(retrieved, operationResult);
+        verify(builder, times(2)).get();
+        verify(unavailable).close();
+        assertEquals(retryPolicy.getStats().getRecovered(), 1L);
+    }
+
+    @Test
+    public void should_override_method_once_for_each_repeated_request() throws Exception {
+
+        // Given
+        Invocation.Builder repeated = mock(Invocation.Builder.class);
+        Response unavailable = mock(Response.class);
+        Response ok = mock(Response.class);
+        doReturn(503).when(unavailable).getStatus();
+        doReturn(200).when(ok).getStatus();
+        doReturn(new RetryPolicy().setBackoff(1, 1)).when(clientConfiguration).getRetryPolicy();
+        doReturn(Boolean.TRUE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        final Iterator<Invocation.Builder> builders = Arrays.asList(builder, repeated).iterator();
+        doAnswer(new Answer<Invocation.Builder>() {
+            @Override
+            public Invocation.Builder answer(InvocationOnMock invocation) {
+                return builders.next();
+            }
+        }).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(unavailable).when(builder).post((Entity<?>) anyObject());
+        Mockito.doReturn(ok).when(repeated).post((Entity<?>) anyObject());
+
+        // When
+        jerseyRequestSpy.put(dummyEntity);
+
+        // Then
+        verify(builder, times(1)).header("X-HTTP-Method-Override", "PUT");
+        verify(repeated, times(1)).header("X-HTTP-Method-Override", "PUT");
+    }
+
+    @Test
+    public void should_not_repeat_post_unless_it_is_idempotent() throws Exception {
+
+        // Given
+        Response unavailable = mock(Response.class);
+        doReturn(503).when(unavailable).getStatus();
+        doReturn(new RetryPolicy().setBackoff(1, 1)).when(clientConfiguration).getRetryPolicy();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(unavailable).when(builder).post((Entity<?>) anyObject());
+
+        // When
+        jerseyRequestSpy.post(dummyEntity);
+        jerseyRequestSpy.setIdempotent(true).post(dummyEntity);
+
+        // Then
+        verify(builder, times(4)).post((Entity<?>) anyObject());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_release_permit_of_repeated_async_request_on_cancel() throws Exception {
+
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter().setInitialLimit(10);
+        final Response unavailable = mock(Response.class);
+        doReturn(503).when(unavailable).getStatus();
+        doReturn(limiter).when(clientConfiguration).getConcurrencyLimiter();
+        doReturn(new RetryPolicy().setBackoff(1, 1)).when(clientConfiguration).getRetryPolicy();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        JerseyRequest<Class> jerseyRequestSpy = spy(new JerseyRequest<Class>(sessionStorage, Class.class));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        AsyncInvoker invoker = mock(AsyncInvoker.class);
+        Mockito.doReturn(invoker).when(builder).async();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch repeated = new CountDownLatch(1);
+        doAnswer(new Answer<Future<Response>>() {
+            @Override
+            public Future<Response> answer(InvocationOnMock invocation) {
+                if (attempts.incrementAndGet() == 1) {
+                    ((InvocationCallback<Response>) invocation.getArguments()[0]).completed(unavailable);
+                } else {
+                    repeated.countDown();
+                }
+                return mock(Future.class);
+            }
+        }).when(invoker).get(any(InvocationCallback.class));
+        RequestFuture<OperationResult<Class>> retrieved = jerseyRequestSpy.asyncGet();
+        assertTrue(repeated.await(5, TimeUnit.SECONDS));
+        assertEquals(limiter.getStats().getInFlight(), 1);
+
+        // When
+        retrieved.cancel(true);
+
+        // Then
+        assertEquals(limiter.getStats().getInFlight(), 0);
+        assertEquals(attempts.get(), 2);
+    }
+
+    @Test
+    public void should_fail_fast_when_circuit_of_endpoint_is_open() throws Exception {
+
+        // Given
+        CircuitBreakers circuitBreakers = new CircuitBreakers().setMinimumCalls(1);
+        Response unavailable = mock(Response.class);
+        doReturn(503).when(unavailable).getStatus();
+        doReturn(circuitBreakers).when(clientConfiguration).getCircuitBreakers();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getHandleErrors();
+        JerseyRequest<Class> jerseyRequestSpy = spy(JerseyRequest.buildRequest(sessionStorage, Class.class,
+                new String[]{"reportExecutions", "id"}));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+        Mockito.doReturn(unavailable).when(builder).get();
+        jerseyRequestSpy.get();
+
+        // When
+        try {
+            jerseyRequestSpy.get();
+            fail("Exception expected");
+        } catch (CircuitBreakerOpenException e) {
+
+            // Then
+            verify(builder, times(1)).get();
+            assertEquals(circuitBreakers.get("reportExecutions").getState(), CircuitState.OPEN);
+        }
+    }
+
+    @Test
+    public void should_fail_future_of_async_request_when_circuit_is_open() throws Exception {
+
+        // Given
+        CircuitBreakers circuitBreakers = new CircuitBreakers().setMinimumCalls(1);
+        circuitBreakers.get("reportExecutions").acquire().release(true);
+        doReturn(circuitBreakers).when(clientConfiguration).getCircuitBreakers();
+        doReturn(Boolean.FALSE).when(clientConfiguration).getRestrictedHttpMethods();
+        JerseyRequest<Class> jerseyRequestSpy = spy(JerseyRequest.buildRequest(sessionStorage, Class.class,
+                new String[]{"reportExecutions", "id"}));
+        doReturn(builder).when(jerseyRequestSpy, "buildRequest");
+
+        // When
+        RequestFuture<OperationResult<Class>> retrieved = jerseyRequestSpy.asyncGet();
+
+        // Then
+        try {
+            retrieved.join();
+            fail("Exception expected");
+        } catch (CircuitBreakerOpenException e) {
+            verify(builder, times(0)).async();
+            assertEquals(e.getEndpoint(), "reportExecutions");
+        }
+    }
+
     @AfterMethod
     public void tearDown() {
         reset(sessionStorage, dummyErrorHandler, expected, webTarget, clientConfiguration,
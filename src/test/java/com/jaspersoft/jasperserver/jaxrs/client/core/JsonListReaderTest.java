@@ -0,0 +1,153 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlElement;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link JsonListReader}
+ */
+public class JsonListReaderTest {
+
+    @Test
+    public void should_read_elements_of_named_array_and_skip_other_fields() {
+
+        // Given
+        TrackingStream stream = new TrackingStream("{\"_links\":{\"self\":[1,2]},\"other\":[{\"item_name\":\"x\"}]," +
+                "\"item\":[{\"item_name\":\"a\",\"size\":1,\"unknown\":{\"deep\":[]}},{\"item_name\":\"b\",\"size\":2}],\"total\":2}");
+        JsonListReader<Item> reader = new JsonListReader<Item>(stream, Item.class, "item");
+
+        // When
+        List<Item> items = new ArrayList<Item>();
+        while (reader.hasNext()) {
+            items.add(reader.next());
+        }
+
+        // Then
+        assertEquals(items.size(), 2);
+        assertEquals(items.get(0).getName(), "a");
+        assertEquals(items.get(1).getSize(), 2);
+        assertEquals(reader.getCount(), 2);
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    public void should_read_first_array_when_field_name_is_not_set() {
+
+        // Given
+        JsonListReader<Item> reader = new JsonListReader<Item>(
+                new TrackingStream("{\"total\":1,\"item\":[{\"item_name\":\"a\"}]}"), Item.class, null);
+
+        // When
+        Item item = reader.next();
+
+        // Then
+        assertEquals(item.getName(), "a");
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void should_read_root_array() {
+        JsonListReader<Item> reader = new JsonListReader<Item>(
+                new TrackingStream("[{\"item_name\":\"a\"},{\"item_name\":\"b\"}]"), Item.class, null);
+        assertEquals(reader.forEach(new Callback<Item, Void>() {
+            @Override
+            public Void execute(Item data) {
+                return null;
+            }
+        }), 2);
+    }
+
+    @Test
+    public void should_return_empty_list_for_missing_content() {
+        assertFalse(new JsonListReader<Item>(null, Item.class, "item").hasNext());
+        assertFalse(new JsonListReader<Item>(new TrackingStream("{}"), Item.class, "item").hasNext());
+        assertFalse(new JsonListReader<Item>(new TrackingStream("{\"item\":[]}"), Item.class, "item").hasNext());
+    }
+
+    @Test
+    public void should_pass_elements_to_consumer_and_close_stream() {
+
+        // Given
+        TrackingStream stream = new TrackingStream("{\"item\":[{\"item_name\":\"a\"},{\"item_name\":\"b\"},{\"item_name\":\"c\"}]}");
+        final List<String> names = new ArrayList<String>();
+
+        // When
+        int passed = new JsonListReader<Item>(stream, Item.class, "item").forEach(new Callback<Item, Void>() {
+            @Override
+            public Void execute(Item data) {
+                names.add(data.getName());
+                return null;
+            }
+        });
+
+        // Then
+        assertEquals(passed, 3);
+        assertEquals(names.toString(), "[a, b, c]");
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    public void should_close_stream_when_content_is_malformed() {
+
+        // Given
+        TrackingStream stream = new TrackingStream("{\"item\":[{\"item_name\":\"a\"},{\"item_name\":");
+        JsonListReader<Item> reader = new JsonListReader<Item>(stream, Item.class, "item");
+        reader.next();
+
+        // When
+        try {
+            reader.next();
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertTrue(stream.closed);
+        }
+    }
+
+    public static class Item {
+        private String name;
+        private int size;
+
+        @XmlElement(name = "item_name")
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    private static class TrackingStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        private TrackingStream(String content) {
+            super(content.getBytes());
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
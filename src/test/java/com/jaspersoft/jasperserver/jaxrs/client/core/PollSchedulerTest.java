@@ -0,0 +1,274 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link PollScheduler}
+ */
+public class PollSchedulerTest {
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checkExecutor;
+
+    @BeforeMethod
+    public void before() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        checkExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterMethod
+    public void after() {
+        scheduler.shutdownNow();
+        checkExecutor.shutdownNow();
+    }
+
+    @Test
+    public void should_complete_when_task_is_finished() {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 1, 10, 0);
+        final AtomicInteger checks = new AtomicInteger();
+
+        // When
+        RequestFuture<String> future = pollScheduler.poll(new PollScheduler.Poll<String>() {
+            @Override
+            public String check() {
+                return checks.incrementAndGet() < 3 ? null : "finished";
+            }
+        });
+
+        // Then
+        assertEquals(future.join(), "finished");
+        assertEquals(checks.get(), 3);
+    }
+
+    @Test
+    public void should_run_checks_on_check_executor() {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 1, 10, 0);
+        final AtomicReference<String> threadName = new AtomicReference<String>();
+        final Thread caller = Thread.currentThread();
+
+        // When
+        pollScheduler.poll(new PollScheduler.Poll<Thread>() {
+            @Override
+            public Thread check() {
+                return Thread.currentThread();
+            }
+        }).onSuccess(new Callback<Thread, Void>() {
+            @Override
+            public Void execute(Thread data) {
+                threadName.set(data.getName());
+                return null;
+            }
+        }).join();
+
+        // Then
+        assertTrue(threadName.get().startsWith("pool-"));
+        assertTrue(!threadName.get().equals(caller.getName()));
+    }
+
+    @Test
+    public void should_fail_with_exception_of_check() {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, null, 1, 10, 0);
+        final JSClientException failure = new JSClientException("failed");
+
+        // When
+        try {
+            pollScheduler.poll(new PollScheduler.Poll<String>() {
+                @Override
+                public String check() {
+                    throw failure;
+                }
+            }).join();
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertSame(e, failure);
+        }
+    }
+
+    @Test(expectedExceptions = JSClientException.class, expectedExceptionsMessageRegExp = ".*within 50 ms")
+    public void should_fail_when_deadline_is_exceeded() {
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 5, 10, 0);
+        pollScheduler.poll(new PollScheduler.Poll<String>() {
+            @Override
+            public String check() {
+                return null;
+            }
+        }, 50).join();
+    }
+
+    @Test
+    public void should_stop_polling_when_cancelled() throws Exception {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 1, 5, 0);
+        final AtomicInteger checks = new AtomicInteger();
+        final CountDownLatch polled = new CountDownLatch(3);
+        RequestFuture<String> future = pollScheduler.poll(new PollScheduler.Poll<String>() {
+            @Override
+            public String check() {
+                checks.incrementAndGet();
+                polled.countDown();
+                return null;
+            }
+        });
+        assertTrue(polled.await(5, TimeUnit.SECONDS));
+
+        // When
+        future.cancel(true);
+        Thread.sleep(50);
+        int afterCancel = checks.get();
+        Thread.sleep(50);
+
+        // Then
+        assertTrue(future.isCancelled());
+        assertEquals(checks.get(), afterCancel);
+        assertEquals(pollScheduler.getPending(), 0);
+    }
+
+    @Test
+    public void should_cancel_task_and_keep_interrupt_status_when_waiting_thread_is_interrupted() {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 10, 10, 0);
+        RequestFuture<String> future = pollScheduler.poll(new PollScheduler.Poll<String>() {
+            @Override
+            public String check() {
+                return null;
+            }
+        });
+        Thread.currentThread().interrupt();
+
+        // When
+        try {
+            PollScheduler.await(future);
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertTrue(Thread.interrupted());
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    @Test
+    public void should_fail_when_scheduler_is_shut_down() {
+
+        // Given
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 1, 10, 0);
+        pollScheduler.shutdown();
+
+        // When
+        RequestFuture<String> future = pollScheduler.poll(new PollScheduler.Poll<String>() {
+            @Override
+            public String check() {
+                return "finished";
+            }
+        });
+
+        // Then
+        assertTrue(future.isFailed());
+    }
+
+    @Test
+    public void should_postpone_check_rejected_by_full_executor_instead_of_running_it_on_scheduler() throws Exception {
+
+        // Given
+        final AtomicInteger rejections = new AtomicInteger();
+        Executor fullOnce = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (rejections.getAndIncrement() == 0) {
+                    throw new RejectedExecutionException();
+                }
+                checkExecutor.execute(command);
+            }
+        };
+        PollScheduler pollScheduler = new PollScheduler(scheduler, fullOnce, 1, 10, 0);
+        Thread schedulerThread = scheduler.submit(new Callable<Thread>() {
+            @Override
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        }).get();
+
+        // When
+        Thread thread = pollScheduler.poll(new PollScheduler.Poll<Thread>() {
+            @Override
+            public Thread check() {
+                return Thread.currentThread();
+            }
+        }).join();
+
+        // Then
+        assertEquals(rejections.get(), 2);
+        assertNotSame(thread, schedulerThread);
+    }
+
+    @Test
+    public void should_run_scheduled_task_once_executor_accepts_it() {
+
+        // Given
+        final AtomicInteger rejections = new AtomicInteger();
+        Executor fullTwice = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (rejections.getAndIncrement() < 2) {
+                    throw new RejectedExecutionException();
+                }
+                checkExecutor.execute(command);
+            }
+        };
+        PollScheduler pollScheduler = new PollScheduler(scheduler, fullTwice, 1, 10, 0);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // When
+        pollScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, 1).join();
+
+        // Then
+        assertEquals(runs.get(), 1);
+        assertEquals(rejections.get(), 3);
+    }
+
+    @Test(expectedExceptions = RejectedExecutionException.class)
+    public void should_fail_scheduled_task_when_executor_is_shut_down() {
+        PollScheduler pollScheduler = new PollScheduler(scheduler, checkExecutor, 1, 10, 0);
+        checkExecutor.shutdown();
+
+        pollScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 1).join();
+    }
+}
@@ -0,0 +1,41 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link ProgressInputStream}
+ */
+public class ProgressInputStreamTest {
+
+    @Test
+    public void should_report_progress_by_steps_and_at_the_end() throws Exception {
+
+        // Given
+        final List<Long> reported = new ArrayList<Long>();
+        ProgressInputStream in = new ProgressInputStream(new ByteArrayInputStream(new byte[250]), 250,
+                new TransferListener() {
+                    @Override
+                    public void transferred(long transferredBytes, long totalBytes) {
+                        assertEquals(totalBytes, 250L);
+                        reported.add(transferredBytes);
+                    }
+                }, 100);
+
+        // When
+        byte[] buffer = new byte[60];
+        while (in.read(buffer) != -1) {
+            // read everything
+        }
+        in.read();
+
+        // Then
+        assertEquals(reported, Arrays.asList(120L, 240L, 250L));
+        assertEquals(in.getTransferred(), 250L);
+    }
+}
@@ -0,0 +1,257 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ResourceNotFoundException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link RangeDownloader}
+ */
+public class RangeDownloaderTest {
+
+    private byte[] content;
+    private File target;
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        content = new byte[10 * 1000 + 7];
+        new Random(3).nextBytes(content);
+        target = File.createTempFile("download", ".bin");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterMethod
+    public void after() {
+        executor.shutdownNow();
+        target.delete();
+        new File(target.getPath() + RangeDownloader.PART_SUFFIX).delete();
+        new File(target.getPath() + RangeDownloader.STATE_SUFFIX).delete();
+    }
+
+    @Test
+    public void should_download_segments_in_parallel_and_retry_broken_segment() throws Exception {
+
+        // Given
+        FakeServer server = new FakeServer(true);
+        server.breakOnce.add("bytes=3000-3999");
+        RangeDownloader downloader = new RangeDownloader(server, executor, null).parallelism(3).segmentSize(1000);
+
+        // When
+        File downloaded = downloader.downloadTo(target);
+
+        // Then
+        assertTrue(Arrays.equals(read(downloaded), content));
+        assertEquals(server.requested.size(), 12);
+        assertEquals(downloader.getTransferred(), (long) content.length);
+        assertFalse(new File(target.getPath() + RangeDownloader.STATE_SUFFIX).exists());
+        assertFalse(new File(target.getPath() + RangeDownloader.PART_SUFFIX).exists());
+    }
+
+    @Test
+    public void should_resume_only_missing_segments() throws Exception {
+
+        // Given
+        FakeServer failing = new FakeServer(true);
+        failing.alwaysBroken.add("bytes=5000-5999");
+        try {
+            new RangeDownloader(failing, executor, null).parallelism(2).segmentSize(1000).retries(0).downloadTo(target);
+            fail("Exception expected");
+        } catch (JSClientException expected) {
+            assertTrue(new File(target.getPath() + RangeDownloader.STATE_SUFFIX).exists());
+        }
+        FakeServer server = new FakeServer(true);
+
+        // When
+        new RangeDownloader(server).segmentSize(1000).downloadTo(target);
+
+        // Then
+        assertTrue(Arrays.equals(read(target), content));
+        assertEquals(server.requested, Collections.singletonList("bytes=5000-5999"));
+    }
+
+    @Test
+    public void should_resume_single_stream_by_offset() throws Exception {
+
+        // Given
+        FakeServer server = new FakeServer(false);
+        server.breakOnce.add(null);
+
+        // When
+        new RangeDownloader(server).segmentSize(1000).downloadTo(target);
+
+        // Then
+        assertTrue(Arrays.equals(read(target), content));
+        assertEquals(server.requested, Arrays.asList("bytes=0-999", "bytes=" + content.length / 2 + "-"));
+    }
+
+    @Test
+    public void should_resume_single_stream_only_for_the_same_version() throws Exception {
+
+        // Given
+        FakeServer server = new FakeServer(false);
+        server.breakOnce.add(null);
+
+        // When
+        new RangeDownloader(server).segmentSize(1000).downloadTo(target);
+
+        // Then
+        assertEquals(server.validators, Arrays.asList(null, "\"v1\""));
+    }
+
+    @Test
+    public void should_write_empty_file_when_first_range_is_not_satisfiable() throws Exception {
+
+        // Given
+        content = new byte[0];
+        FakeServer server = new FakeServer(true);
+
+        // When
+        File downloaded = new RangeDownloader(server).segmentSize(1000).downloadTo(target);
+
+        // Then
+        assertTrue(downloaded.exists());
+        assertEquals(downloaded.length(), 0L);
+        assertEquals(server.requested, Collections.singletonList("bytes=0-999"));
+        assertFalse(new File(target.getPath() + RangeDownloader.PART_SUFFIX).exists());
+    }
+
+    @Test
+    public void should_not_repeat_request_failed_with_client_error() throws Exception {
+
+        // Given
+        FakeServer server = new FakeServer(true);
+        server.missing = true;
+
+        // When
+        try {
+            new RangeDownloader(server).segmentSize(1000).retries(3).downloadTo(target);
+            fail("Exception expected");
+        } catch (ResourceNotFoundException expected) {
+
+            // Then
+            assertEquals(server.requested, Collections.singletonList("bytes=0-999"));
+        }
+    }
+
+    /**
+     * Serves the content, responds to ranges when they are supported and breaks connections in the middle.
+     */
+    private class FakeServer implements Callback<MultivaluedMap<String, String>, OperationResult<InputStream>> {
+        private final boolean ranges;
+        private final Set<String> breakOnce = Collections.synchronizedSet(new HashSet<String>());
+        private final Set<String> alwaysBroken = new HashSet<String>();
+        private final List<String> requested = new CopyOnWriteArrayList<String>();
+        private final List<String> validators = new CopyOnWriteArrayList<String>();
+        private volatile boolean missing;
+
+        private FakeServer(boolean ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public OperationResult<InputStream> execute(MultivaluedMap<String, String> headers) {
+            String range = headers.getFirst("Range");
+            requested.add(range);
+            validators.add(headers.getFirst("If-Range"));
+            if (missing) {
+                ResourceNotFoundException notFound = new ResourceNotFoundException();
+                notFound.setStatus(404);
+                throw notFound;
+            }
+            int start = 0;
+            int end = content.length - 1;
+            Response response = mock(Response.class);
+            OperationResult<InputStream> result = mock(OperationResult.class);
+            doReturn(response).when(result).getResponse();
+            doReturn("\"v1\"").when(response).getHeaderString("ETag");
+            if (ranges && content.length == 0) {
+                doReturn(416).when(result).getResponseStatus();
+                doReturn("bytes */0").when(response).getHeaderString("Content-Range");
+                return result;
+            }
+            boolean partial = ranges || range.endsWith("-") && !range.equals("bytes=0-999");
+            if (partial) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                start = Integer.parseInt(bounds[0]);
+                end = bounds.length > 1 ? Math.min(Integer.parseInt(bounds[1]), end) : end;
+                doReturn(206).when(result).getResponseStatus();
+                doReturn("bytes " + start + "-" + end + "/" + content.length).when(response).getHeaderString("Content-Range");
+            } else {
+                doReturn(200).when(result).getResponseStatus();
+            }
+            InputStream body = new ByteArrayInputStream(content, start, end - start + 1);
+            boolean broken = alwaysBroken.contains(range) || breakOnce.remove(range) || !partial && breakOnce.remove(null);
+            doReturn(broken ? new BrokenStream(body, (end - start + 1) / 2) : body).when(result).getEntity();
+            return result;
+        }
+    }
+
+    private static class BrokenStream extends InputStream {
+        private final InputStream content;
+        private int available;
+
+        private BrokenStream(InputStream content, int available) {
+            this.content = content;
+            this.available = available;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (available == 0) {
+                throw new IOException("Connection reset");
+            }
+            int read = content.read(buffer, offset, Math.min(length, available));
+            available -= read;
+            return read;
+        }
+    }
+
+    private byte[] read(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        FileInputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,249 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.operationresult.OperationResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ReportOutputCache}
+ */
+@SuppressWarnings("unchecked")
+public class ReportOutputCacheTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void before() throws IOException {
+        directory = File.createTempFile("cache", "");
+        directory.delete();
+    }
+
+    @AfterMethod
+    public void after() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void should_build_key_independent_of_parameter_order() {
+
+        // Given
+        Map<String, List<String>> first = new LinkedHashMap<String, List<String>>();
+        first.put("country", Arrays.asList("USA", "Mexico"));
+        first.put("year", Arrays.asList("2015"));
+        Map<String, List<String>> second = new LinkedHashMap<String, List<String>>();
+        second.put("year", Arrays.asList("2015"));
+        second.put("country", Arrays.asList("USA", "Mexico"));
+        Map<String, List<String>> reordered = new LinkedHashMap<String, List<String>>();
+        reordered.put("year", Arrays.asList("2015"));
+        reordered.put("country", Arrays.asList("Mexico", "USA"));
+
+        // When
+        String key = ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", first, "1-2", "en_US", "UTC");
+
+        // Then
+        assertEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", second, "1-2", "en_US", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", reordered, "1-2", "en_US", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "xls", first, "1-2", "en_US", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", first, null, "en_US", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("joeuser|organization_1", "/reports/sales", "pdf", first, "1-2", "en_US", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", first, "1-2", "de_DE", "UTC"), key);
+        assertNotEquals(ReportOutputCache.keyOf("jasperadmin", "/reports/sales", "pdf", first, "1-2", "en_US", "Europe/Berlin"), key);
+    }
+
+    @Test
+    public void should_serve_output_from_memory() throws Exception {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache();
+        OperationResult<InputStream> result = result(new byte[]{1, 2, 3});
+
+        // When
+        OperationResult<InputStream> stored = cache.put("key", "/reports/sales", result);
+        OperationResult<InputStream> cached = cache.get("key");
+
+        // Then
+        verify(result).close();
+        assertEquals(read(stored.getEntity()), new byte[]{1, 2, 3});
+        assertEquals(read(cached.getEntity()), new byte[]{1, 2, 3});
+        assertEquals(cached.getResponse().getMediaType(), MediaType.valueOf("application/pdf"));
+        ReportCacheStats stats = cache.getStats();
+        assertEquals(stats.getHits(), 1L);
+        assertEquals(stats.getMemoryEntries(), 1);
+        assertEquals(stats.getMemoryBytes(), 3L);
+        assertEquals(stats.getBytesServed(), 3L);
+    }
+
+    @Test
+    public void should_store_large_output_on_disk() throws Exception {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache().setMaxMemoryEntrySize(10).setDirectory(directory);
+        byte[] content = new byte[20000];
+        Arrays.fill(content, (byte) 7);
+
+        // When
+        OperationResult<InputStream> stored = cache.put("key", "/reports/sales", result(content));
+        OperationResult<InputStream> cached = cache.get("key");
+
+        // Then
+        assertEquals(read(stored.getEntity()), content);
+        assertEquals(read(cached.getEntity()), content);
+        stored.close();
+        cached.close();
+        assertEquals(cache.getStats().getDiskEntries(), 1);
+        assertEquals(cache.getStats().getDiskBytes(), 20000L);
+        assertEquals(cache.getStats().getMemoryEntries(), 0);
+        assertEquals(directory.listFiles().length, 1);
+    }
+
+    @Test
+    public void should_pass_large_output_through_without_disk_tier() throws Exception {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache().setMaxMemoryEntrySize(10);
+        byte[] content = new byte[20000];
+        OperationResult<InputStream> result = result(content);
+
+        // When
+        OperationResult<InputStream> stored = cache.put("key", "/reports/sales", result);
+
+        // Then
+        assertEquals(read(stored.getEntity()), content);
+        stored.close();
+        verify(result).close();
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void should_evict_least_recently_used_output() {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache().setMaxMemorySize(10);
+        cache.put("first", "/reports/first", result(new byte[4]));
+        cache.put("second", "/reports/second", result(new byte[4]));
+        cache.get("first");
+
+        // When
+        cache.put("third", "/reports/third", result(new byte[4]));
+
+        // Then
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+        assertEquals(cache.getStats().getEvictions(), 1L);
+        assertEquals(cache.getStats().getMemoryBytes(), 8L);
+    }
+
+    @Test
+    public void should_expire_output() throws Exception {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache().setTimeToLive(1);
+        cache.put("key", "/reports/sales", result(new byte[4]));
+
+        // When
+        Thread.sleep(20);
+
+        // Then
+        assertNull(cache.get("key"));
+        assertEquals(cache.getStats().getMisses(), 1L);
+        assertEquals(cache.getStats().getMemoryEntries(), 0);
+    }
+
+    @Test
+    public void should_invalidate_outputs_of_report() {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache().setMaxMemoryEntrySize(2).setDirectory(directory);
+        cache.put("small", "/reports/sales", result(new byte[1])).close();
+        cache.put("large", "/reports/sales", result(new byte[10])).close();
+        cache.put("other", "/reports/other", result(new byte[1])).close();
+
+        // When
+        cache.invalidate("/reports/sales");
+
+        // Then
+        assertNull(cache.get("small"));
+        assertNull(cache.get("large"));
+        assertNotNull(cache.get("other"));
+        assertEquals(directory.listFiles().length, 0);
+    }
+
+    @Test
+    public void should_not_cache_unsuccessful_result() {
+
+        // Given
+        ReportOutputCache cache = new ReportOutputCache();
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(404).when(result).getResponseStatus();
+
+        // When
+        OperationResult<InputStream> returned = cache.put("key", "/reports/sales", result);
+
+        // Then
+        assertSame(returned, result);
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void should_remove_stale_files_when_directory_is_set() throws Exception {
+
+        // Given
+        directory.mkdirs();
+        File stale = new File(directory, "output-1.jrscache");
+        assertTrue(stale.createNewFile());
+
+        // When
+        new ReportOutputCache().setDirectory(directory);
+
+        // Then
+        assertFalse(stale.exists());
+    }
+
+    private OperationResult<InputStream> result(byte[] content) {
+        OperationResult<InputStream> result = mock(OperationResult.class);
+        doReturn(200).when(result).getResponseStatus();
+        doReturn(Response.ok().type("application/pdf").build()).when(result).getResponse();
+        doReturn(new ByteArrayInputStream(content)).when(result).getEntity();
+        return result;
+    }
+
+    private byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,219 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RequestFuture}
+ */
+public class RequestFutureTest {
+
+    @Test
+    public void should_return_value_when_completed() throws Exception {
+
+        // Given
+        RequestFuture<String> future = new RequestFuture<String>();
+
+        // When
+        boolean completed = future.complete("value");
+
+        // Then
+        assertTrue(completed);
+        assertTrue(future.isDone());
+        assertFalse(future.isFailed());
+        assertEquals(future.get(), "value");
+        assertFalse(future.complete("other"));
+        assertEquals(future.join(), "value");
+    }
+
+    @Test
+    public void should_transform_result() {
+
+        // Given
+        RequestFuture<Integer> future = new RequestFuture<Integer>();
+
+        // When
+        RequestFuture<String> transformed = future.then(new Callback<Integer, String>() {
+            @Override
+            public String execute(Integer data) {
+                return "#" + data;
+            }
+        });
+        future.complete(5);
+
+        // Then
+        assertEquals(transformed.join(), "#5");
+    }
+
+    @Test
+    public void should_chain_futures() {
+
+        // Given
+        final RequestFuture<String> inner = new RequestFuture<String>();
+        RequestFuture<Integer> future = RequestFuture.completed(1);
+
+        // When
+        RequestFuture<String> chained = future.thenCompose(new Callback<Integer, RequestFuture<String>>() {
+            @Override
+            public RequestFuture<String> execute(Integer data) {
+                return inner;
+            }
+        });
+
+        // Then
+        assertFalse(chained.isDone());
+        inner.complete("done");
+        assertEquals(chained.join(), "done");
+    }
+
+    @Test
+    public void should_rethrow_original_runtime_exception_on_join() {
+
+        // Given
+        JSClientException failure = new JSClientException("boom");
+        RequestFuture<String> future = RequestFuture.failed(failure);
+
+        // When
+        try {
+            future.then(new Callback<String, String>() {
+                @Override
+                public String execute(String data) {
+                    return data;
+                }
+            }).join();
+        } catch (JSClientException e) {
+
+            // Then
+            assertSame(e, failure);
+            return;
+        }
+        throw new AssertionError("Exception expected");
+    }
+
+    @Test(expectedExceptions = ExecutionException.class)
+    public void should_wrap_failure_on_get() throws Exception {
+        RequestFuture.failed(new IllegalStateException()).get();
+    }
+
+    @Test
+    public void should_recover_from_failure() {
+
+        // Given
+        RequestFuture<String> future = RequestFuture.failed(new IllegalStateException("boom"));
+
+        // When
+        RequestFuture<String> recovered = future.recover(new Callback<Throwable, String>() {
+            @Override
+            public String execute(Throwable data) {
+                return data.getMessage();
+            }
+        });
+
+        // Then
+        assertEquals(recovered.join(), "boom");
+    }
+
+    @Test
+    public void should_combine_results_in_order() {
+
+        // Given
+        RequestFuture<String> first = new RequestFuture<String>();
+        RequestFuture<String> second = new RequestFuture<String>();
+
+        // When
+        RequestFuture<List<String>> all = RequestFuture.allOf(Arrays.asList(first, second));
+        second.complete("b");
+        assertFalse(all.isDone());
+        first.complete("a");
+
+        // Then
+        assertEquals(all.join(), Arrays.asList("a", "b"));
+    }
+
+    @Test
+    public void should_fail_combined_future_when_any_fails() {
+
+        // Given
+        RequestFuture<String> first = new RequestFuture<String>();
+        RequestFuture<String> second = new RequestFuture<String>();
+        RequestFuture<List<String>> all = RequestFuture.allOf(Arrays.asList(first, second));
+
+        // When
+        second.fail(new IllegalStateException());
+
+        // Then
+        assertTrue(all.isFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_propagate_cancellation_upstream() {
+
+        // Given
+        Future<Object> upstream = mock(Future.class);
+        RequestFuture<String> future = new RequestFuture<String>();
+        future.setUpstream(upstream);
+        RequestFuture<String> next = future.then(new Callback<String, String>() {
+            @Override
+            public String execute(String data) {
+                return data;
+            }
+        });
+
+        // When
+        boolean cancelled = next.cancel(true);
+
+        // Then
+        assertTrue(cancelled);
+        assertTrue(next.isCancelled());
+        assertTrue(future.isCancelled());
+        verify(upstream).cancel(true);
+    }
+
+    @Test(expectedExceptions = CancellationException.class)
+    public void should_throw_cancellation_exception_on_get() throws Exception {
+        RequestFuture<String> future = new RequestFuture<String>();
+        future.cancel(false);
+        future.get();
+    }
+
+    @Test(expectedExceptions = TimeoutException.class)
+    public void should_time_out() throws Exception {
+        new RequestFuture<String>().get(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void should_notify_listeners_after_completion() {
+
+        // Given
+        final AtomicReference<String> received = new AtomicReference<String>();
+        RequestFuture<String> future = RequestFuture.completed("value");
+
+        // When
+        future.onSuccess(new Callback<String, Object>() {
+            @Override
+            public Object execute(String data) {
+                received.set(data);
+                return null;
+            }
+        });
+
+        // Then
+        assertEquals(received.get(), "value");
+    }
+}
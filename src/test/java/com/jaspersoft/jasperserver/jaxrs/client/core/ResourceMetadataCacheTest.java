@@ -0,0 +1,156 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.dto.resources.ClientResource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Unit tests for {@link ResourceMetadataCache}
+ */
+public class ResourceMetadataCacheTest {
+
+    private ResourceMetadataCache cache;
+
+    @BeforeMethod
+    public void before() {
+        cache = new ResourceMetadataCache();
+    }
+
+    @Test
+    public void should_return_cached_descriptor() {
+
+        // Given
+        ClientResource resource = resource(1, "2016-01-01T10:00:00");
+        cache.put("key", "/public/report", resource, cache.stamp());
+
+        // When
+        ClientResource retrieved = cache.get("key");
+
+        // Then
+        assertSame(retrieved, resource);
+        assertNull(cache.get("other"));
+        assertEquals(cache.getStats().getHits(), 1L);
+        assertEquals(cache.getStats().getMisses(), 1L);
+    }
+
+    @Test
+    public void should_keep_cached_instance_when_reloaded_descriptor_has_same_version() {
+
+        // Given
+        ClientResource cached = resource(1, "2016-01-01T10:00:00");
+        cache.setTimeToLive(0).put("key", "/public/report", cached, cache.stamp());
+        assertNull(cache.get("key"));
+
+        // When
+        ClientResource stored = cache.put("key", "/public/report", resource(1, "2016-01-01T10:00:00"), cache.stamp());
+
+        // Then
+        assertSame(stored, cached);
+        assertEquals(cache.getStats().getValidations(), 1L);
+    }
+
+    @Test
+    public void should_replace_descriptor_with_newer_version_only() {
+
+        // Given
+        ClientResource cached = resource(2, "2016-01-02T10:00:00");
+        cache.put("key", "/public/report", cached, cache.stamp());
+        ClientResource newer = resource(3, "2016-01-03T10:00:00");
+
+        // When
+        ClientResource storedOlder = cache.put("key", "/public/report", resource(1, "2016-01-01T10:00:00"), cache.stamp());
+        ClientResource storedNewer = cache.put("key", "/public/report", newer, cache.stamp());
+
+        // Then
+        assertSame(storedOlder, cached);
+        assertSame(storedNewer, newer);
+        assertSame(cache.get("key"), newer);
+    }
+
+    @Test
+    public void should_not_store_descriptor_loaded_before_invalidation() {
+
+        // Given
+        long stamp = cache.stamp();
+        cache.invalidate("/public/report");
+        ClientResource resource = resource(1, "2016-01-01T10:00:00");
+
+        // When
+        ClientResource stored = cache.put("key", "/public/report", resource, stamp);
+
+        // Then
+        assertSame(stored, resource);
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void should_invalidate_resource_and_descendants() {
+
+        // Given
+        long stamp = cache.stamp();
+        cache.put("folder", "/public/folder", resource(1, null), stamp);
+        cache.put("child", "/public/folder/report", resource(1, null), stamp);
+        cache.put("sibling", "/public/folder2", resource(1, null), stamp);
+
+        // When
+        cache.invalidate("/public/folder");
+
+        // Then
+        assertNull(cache.get("folder"));
+        assertNull(cache.get("child"));
+        assertEquals(cache.getStats().getEntries(), 1);
+        assertEquals(cache.getStats().getInvalidations(), 1L);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_descriptor() {
+
+        // Given
+        cache.setMaxEntries(2);
+        long stamp = cache.stamp();
+        cache.put("first", "/public/first", resource(1, null), stamp);
+        cache.put("second", "/public/second", resource(1, null), stamp);
+        cache.get("first");
+
+        // When
+        cache.put("third", "/public/third", resource(1, null), stamp);
+
+        // Then
+        assertNull(cache.get("second"));
+        assertEquals(cache.getStats().getEntries(), 2);
+        assertEquals(cache.getStats().getEvictions(), 1L);
+    }
+
+    @Test
+    public void should_build_key_from_user_uri_and_parameters() {
+
+        // Given
+        Map<String, List<String>> expanded = Collections.singletonMap("expanded", Arrays.asList("true"));
+
+        // Then
+        assertEquals(ResourceMetadataCache.keyOf("jasperadmin", "/public", null),
+                ResourceMetadataCache.keyOf("jasperadmin", "/public", Collections.<String, List<String>>emptyMap()));
+        assertNotEquals(ResourceMetadataCache.keyOf("jasperadmin", "/public", null),
+                ResourceMetadataCache.keyOf("joeuser", "/public", null));
+        assertNotEquals(ResourceMetadataCache.keyOf("jasperadmin", "/public", null),
+                ResourceMetadataCache.keyOf("jasperadmin", "/public", expanded));
+    }
+
+    private ClientResource resource(Integer version, String updateDate) {
+        ClientResource resource = mock(ClientResource.class);
+        doReturn(version).when(resource).getVersion();
+        doReturn(updateDate).when(resource).getUpdateDate();
+        return resource;
+    }
+}
@@ -1,8 +1,10 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.AuthenticationType;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.ExecutorMode;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.JRSVersion;
 import com.jaspersoft.jasperserver.jaxrs.client.core.enums.MimeType;
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.RejectionPolicy;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -458,6 +460,112 @@ public class RestClientConfigurationTest extends PowerMockTestCase {
     }
 
 
+    @Test(testName = "loadProperties")
+    public void should_load_connection_pool_configuration_from_properties() {
+        // Given
+        Properties properties = new Properties() {{
+            setProperty("url", "http://localhost:8080/jasperserver-pro/");
+            setProperty("connectionPoolEnabled", "true");
+            setProperty("maxTotalConnections", "400");
+            setProperty("maxConnectionsPerRoute", "200");
+            setProperty("idleConnectionTimeout", "60000");
+            setProperty("validateAfterInactivity", "500");
+        }};
+
+        // When
+        RestClientConfiguration configuration = RestClientConfiguration.loadConfiguration(properties);
+
+        // Then
+        assertTrue(configuration.getConnectionPoolEnabled());
+        assertEquals(configuration.getMaxTotalConnections(), Integer.valueOf(400));
+        assertEquals(configuration.getMaxConnectionsPerRoute(), Integer.valueOf(200));
+        assertEquals(configuration.getIdleConnectionTimeout(), Integer.valueOf(60000));
+        assertEquals(configuration.getValidateAfterInactivity(), Integer.valueOf(500));
+    }
+
+    @Test(testName = "getConnectionPoolEnabled")
+    public void should_disable_connection_pool_by_default() {
+        // Given
+        RestClientConfiguration config = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/");
+        // Then
+        assertFalse(config.getConnectionPoolEnabled());
+        assertNotNull(config.getMaxTotalConnections());
+        assertNotNull(config.getMaxConnectionsPerRoute());
+        assertNotNull(config.getIdleConnectionTimeout());
+        assertNotNull(config.getValidateAfterInactivity());
+    }
+
+    @Test(testName = "loadProperties")
+    public void should_load_async_executor_configuration_from_properties() {
+        // Given
+        Properties properties = new Properties() {{
+            setProperty("url", "http://localhost:8080/jasperserver-pro/");
+            setProperty("executorMode", "virtual_threads");
+            setProperty("asyncCorePoolSize", "4");
+            setProperty("asyncMaxPoolSize", "8");
+            setProperty("asyncQueueCapacity", "16");
+            setProperty("rejectionPolicy", "abort");
+            setProperty("callbackPoolSize", "2");
+        }};
+
+        // When
+        RestClientConfiguration configuration = RestClientConfiguration.loadConfiguration(properties);
+
+        // Then
+        assertEquals(configuration.getExecutorMode(), ExecutorMode.VIRTUAL_THREADS);
+        assertEquals(configuration.getAsyncCorePoolSize(), Integer.valueOf(4));
+        assertEquals(configuration.getAsyncMaxPoolSize(), Integer.valueOf(8));
+        assertEquals(configuration.getAsyncQueueCapacity(), Integer.valueOf(16));
+        assertEquals(configuration.getRejectionPolicy(), RejectionPolicy.ABORT);
+        assertEquals(configuration.getCallbackPoolSize(), Integer.valueOf(2));
+    }
+
+    @Test(testName = "loadProperties")
+    public void should_load_poll_scheduler_configuration_from_properties() {
+        // Given
+        Properties properties = new Properties() {{
+            setProperty("url", "http://localhost:8080/jasperserver-pro/");
+            setProperty("pollThreads", "2");
+            setProperty("pollInitialDelay", "100");
+            setProperty("pollMaxDelay", "2000");
+            setProperty("pollTimeout", "60000");
+            setProperty("snapshotTtl", "30000");
+        }};
+
+        // When
+        RestClientConfiguration configuration = RestClientConfiguration.loadConfiguration(properties);
+
+        // Then
+        assertEquals(configuration.getPollThreads(), Integer.valueOf(2));
+        assertEquals(configuration.getPollInitialDelay(), Integer.valueOf(100));
+        assertEquals(configuration.getPollMaxDelay(), Integer.valueOf(2000));
+        assertEquals(configuration.getPollTimeout(), Integer.valueOf(60000));
+        assertEquals(configuration.getSnapshotTtl(), Integer.valueOf(30000));
+    }
+
+    @Test(testName = "setJrsVersion")
+    public void should_disable_version_detection_when_version_is_set() {
+        // Given
+        RestClientConfiguration config = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/");
+        assertFalse(config.getDetectServerVersion());
+        config.setDetectServerVersion(true);
+        // When
+        config.setJrsVersion(JRSVersion.v6_1_0);
+        // Then
+        assertFalse(config.getDetectServerVersion());
+    }
+
+    @Test(testName = "getExecutorMode")
+    public void should_use_bounded_pool_by_default() {
+        // Given
+        RestClientConfiguration config = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/");
+        // Then
+        assertEquals(config.getExecutorMode(), ExecutorMode.POOLED);
+        assertEquals(config.getRejectionPolicy(), RejectionPolicy.CALLER_RUNS);
+        assertNotNull(config.getAsyncQueueCapacity());
+        assertNull(config.getAsyncExecutorFactory());
+    }
+
     @Test(testName = "getAuthenticationType")
     public void should_return_not_null_default_value_of_authenticationType_field() throws Exception {
         // Given
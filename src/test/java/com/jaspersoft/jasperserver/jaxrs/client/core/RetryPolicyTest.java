@@ -0,0 +1,156 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientWebException;
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.ResourceNotFoundException;
+import java.net.SocketException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RetryPolicy}
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void should_retry_transient_status_with_growing_backoff() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().setMaxAttempts(3).setBackoff(100, 1000);
+        RetryPolicy.Call call = policy.newCall();
+
+        // When
+        long first = call.retryDelay(response(503, null));
+        long second = call.retryDelay(response(502, null));
+        long done = call.retryDelay(response(200, null));
+
+        // Then
+        assertTrue(first >= 50 && first <= 100, "first delay " + first);
+        assertTrue(second >= 100 && second <= 200, "second delay " + second);
+        assertEquals(done, -1L);
+        assertEquals(policy.getStats().getRetries(), 2L);
+        assertEquals(policy.getStats().getRecovered(), 1L);
+    }
+
+    @Test
+    public void should_not_count_error_after_retry_as_recovered() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().setBackoff(1, 1);
+        RetryPolicy.Call call = policy.newCall();
+
+        // When
+        call.retryDelay(response(503, null));
+        long done = call.retryDelay(response(500, null));
+
+        // Then
+        assertEquals(done, -1L);
+        assertEquals(policy.getStats().getRetries(), 1L);
+        assertEquals(policy.getStats().getRecovered(), 0L);
+    }
+
+    @Test
+    public void should_stop_after_max_attempts() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().setMaxAttempts(2);
+        RetryPolicy.Call call = policy.newCall();
+
+        // When
+        call.retryDelay(response(504, null));
+        long delay = call.retryDelay(response(504, null));
+
+        // Then
+        assertEquals(delay, -1L);
+        assertEquals(call.getAttempts(), 2);
+        assertEquals(policy.getStats().getExhausted(), 1L);
+    }
+
+    @Test
+    public void should_honour_retry_after() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().setMaxRetryAfter(5000).setMaxElapsed(60000);
+
+        // When
+        long delay = policy.newCall().retryDelay(response(503, "2"));
+        long tooLong = policy.newCall().retryDelay(response(503, "10"));
+
+        // Then
+        assertEquals(delay, 2000L);
+        assertEquals(tooLong, -1L);
+    }
+
+    @Test
+    public void should_parse_retry_after_date() {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        long delay = RetryPolicy.retryAfter(format.format(new Date(System.currentTimeMillis() + 60000)));
+        assertTrue(delay > 55000 && delay <= 60000, "delay " + delay);
+        assertEquals(RetryPolicy.retryAfter("soon"), -1L);
+    }
+
+    @Test
+    public void should_retry_connection_failures_only() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy();
+
+        // Then
+        assertTrue(policy.newCall().retryDelay(new ProcessingException(new SocketException("Connection reset"))) > 0);
+        assertEquals(policy.newCall().retryDelay(new IllegalStateException()), -1L);
+    }
+
+    @Test
+    public void should_classify_failed_responses_by_retry_statuses() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().addRetryStatus(429);
+        JSClientWebException throttled = new JSClientWebException("Too Many Requests");
+        throttled.setStatus(429);
+        ResourceNotFoundException missing = new ResourceNotFoundException();
+        missing.setStatus(404);
+
+        // Then
+        assertTrue(policy.isRetryable(throttled));
+        assertTrue(policy.isRetryable(new ProcessingException(new SocketException("Connection reset"))));
+        assertFalse(policy.isRetryable(missing));
+        assertFalse(policy.isRetryable(new JSClientWebException("Requested Range Not Satisfiable")));
+    }
+
+    @Test
+    public void should_throttle_retries_when_bucket_is_empty() {
+
+        // Given
+        RetryPolicy policy = new RetryPolicy().setRetryBudget(1, 0.5);
+        policy.newCall().retryDelay(response(503, null));
+
+        // When
+        long throttled = policy.newCall().retryDelay(response(503, null));
+        policy.newCall().retryDelay(response(200, null));
+        policy.newCall().retryDelay(response(200, null));
+        long allowed = policy.newCall().retryDelay(response(503, null));
+
+        // Then
+        assertEquals(throttled, -1L);
+        assertTrue(allowed > 0);
+        assertEquals(policy.getStats().getThrottled(), 1L);
+    }
+
+    private Response response(int status, String retryAfter) {
+        Response response = mock(Response.class);
+        doReturn(status).when(response).getStatus();
+        doReturn(retryAfter).when(response).getHeaderString("Retry-After");
+        return response;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.enums.JRSVersion;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ServerCapabilities}
+ */
+public class ServerCapabilitiesTest {
+
+    @Test
+    public void should_map_server_version_to_latest_known_version() {
+        assertEquals(JRSVersion.forVersion("6.1.0"), JRSVersion.v6_1_0);
+        assertEquals(JRSVersion.forVersion("6.3.0"), JRSVersion.v6_1_0);
+        assertEquals(JRSVersion.forVersion("5.6"), JRSVersion.v5_5_0);
+        assertEquals(JRSVersion.forVersion("5.6.1-SNAPSHOT"), JRSVersion.v5_6_1);
+        assertNull(JRSVersion.forVersion("4.5.0"));
+        assertNull(JRSVersion.forVersion("unknown"));
+    }
+
+    @Test
+    public void should_parse_edition_and_features() {
+
+        // When
+        ServerCapabilities capabilities = new ServerCapabilities("6.0.1", "PRO", "Fusion AHD EXP DB AUD ANA MT");
+
+        // Then
+        assertTrue(capabilities.isPro());
+        assertTrue(capabilities.hasFeature("AHD"));
+        assertFalse(capabilities.hasFeature("XYZ"));
+        assertEquals(capabilities.getFeatures().size(), 7);
+        assertTrue(capabilities.isAtLeast(JRSVersion.v6_0_0));
+        assertFalse(capabilities.isAtLeast(JRSVersion.v6_1_0));
+        assertEquals(capabilities.asMap().get("version"), "6.0.1");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void should_be_immutable() {
+        new ServerCapabilities("6.0.1", "CE", null).getFeatures().add("AHD");
+    }
+
+    @Test
+    public void should_prefer_detected_version() {
+
+        // Given
+        SessionStorage sessionStorage = mock(SessionStorage.class);
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setDetectServerVersion(true);
+        doReturn(configuration).when(sessionStorage).getConfiguration();
+        doReturn(new ServerCapabilities("6.1.0", "PRO", "")).when(sessionStorage).getServerCapabilities();
+
+        // When
+        JRSVersion version = ServerCapabilities.jrsVersionOf(sessionStorage);
+
+        // Then
+        assertEquals(version, JRSVersion.v6_1_0);
+    }
+
+    @Test
+    public void should_use_configured_version_when_detection_is_disabled() {
+
+        // Given
+        SessionStorage sessionStorage = mock(SessionStorage.class);
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setJrsVersion(JRSVersion.v5_0_0);
+        doReturn(configuration).when(sessionStorage).getConfiguration();
+
+        // When
+        JRSVersion version = ServerCapabilities.jrsVersionOf(sessionStorage);
+
+        // Then
+        assertEquals(version, JRSVersion.v5_0_0);
+        verify(sessionStorage, never()).getServerCapabilities();
+    }
+
+    @Test
+    public void should_fall_back_to_configured_version_when_detection_failed() {
+
+        // Given
+        SessionStorage sessionStorage = mock(SessionStorage.class);
+        RestClientConfiguration configuration = new RestClientConfiguration("http://localhost:8080/jasperserver-pro/")
+                .setDetectServerVersion(true);
+        doReturn(configuration).when(sessionStorage).getConfiguration();
+
+        // When
+        JRSVersion version = ServerCapabilities.jrsVersionOf(sessionStorage);
+
+        // Then
+        assertEquals(version, JRSVersion.v5_5_0);
+    }
+}
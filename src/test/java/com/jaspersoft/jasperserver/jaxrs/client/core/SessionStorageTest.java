@@ -1,6 +1,7 @@
 package com.jaspersoft.jasperserver.jaxrs.client.core;
 
 import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionOutputFilter;
+import com.jaspersoft.jasperserver.jaxrs.client.filters.SessionStateFilter;
 import com.sun.jersey.multipart.impl.MultiPartWriter;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
@@ -69,6 +70,8 @@ public class SessionStorageTest extends PowerMockTestCase {
     @Mock
     private Client clientMock;
     @Mock
+    private ClientTransport transportMock;
+    @Mock
     private WebTarget targetMock;
     @Mock
     private Invocation.Builder invocationBuilderMock;
@@ -86,140 +89,91 @@ public class SessionStorageTest extends PowerMockTestCase {
     }
 
     @Test
-    public void should_init_ssl() {
+    public void should_return_client_without_configuration() throws Exception {
 
-        // Given
-        mockStatic(ClientBuilder.class);
-        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
-        doReturn("https://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
-        doReturn(10000).when(configurationMock).getConnectionTimeout();
-        doReturn(8000).when(configurationMock).getReadTimeout();
-        doReturn(clientMock).when(builderMock).build();
-        doReturn(targetMock).when(clientMock).target("http://54.83.98.156/jasperserver-pro");
+        //  Given
+        suppress(method(SessionStorage.class, "init"));
+        doReturn("http").when(configurationMock).getJasperReportsServerUrl();
+        SessionStorage sessionStorage = Mockito.spy(new SessionStorage(configurationMock, credentialsMock, null, null));
+        Whitebox.setInternalState(sessionStorage, "transport", transportMock);
+        doReturn(clientMock).when(transportMock).getClient();
 
         // When
-        try {
-            new SessionStorage(configurationMock, credentialsMock, null, null);
-        } catch (Exception e) {
-            assertNotNull(e);
-        }
-    }
-
-    @Test
-    public void should_invoke_init_method_with_default_configuration() throws Exception {
-        // Given
-        mockStatic(ClientBuilder.class);
-        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
-        doReturn("http://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
-        doReturn(clientMock).when(builderMock).build();
-        doReturn(null).when(configurationMock).getConnectionTimeout();
-        doReturn(null).when(configurationMock).getReadTimeout();
-        doReturn(targetMock).when(clientMock).target(anyString());
-        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
-        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
-        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
-        doReturn(false).when(configurationMock).getLogHttp();
 
         // When
-        SessionStorage sessionStorage = new SessionStorage(configurationMock, credentialsMock, null, null);
+        Client configuredClient = sessionStorage.getRawClient();
 
         // Then
-        assertEquals(Whitebox.getInternalState(sessionStorage, "configuration"), configurationMock);
-        assertEquals(Whitebox.getInternalState(sessionStorage, "credentials"), credentialsMock);
-        verify(configurationMock, times(2)).getJasperReportsServerUrl();
-        verify(builderMock).build();
-        verify(configurationMock).getConnectionTimeout();
-        verify(configurationMock).getReadTimeout();
-        verify(clientMock).target("http://54.83.98.156/jasperserver-pro");
-        verify(targetMock).register(JacksonFeature.class);
-        verify(targetMock, times(1)).register(isA(JacksonJsonProvider.class));
-        verify(targetMock).register(MultiPartWriter.class);
-        verify(configurationMock).getLogHttp();
-        verify(targetMock, never()).register(LoggingFilter.class);
+        assertEquals(configuredClient, clientMock);
     }
 
     @Test
-    public void should_invoke_init_method_with_custom_configuration() throws Exception {
+    public void should_return_client_with_configuration() throws Exception {
 
         //  Given
-        mockStatic(ClientBuilder.class);
-        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
-        doReturn("http://54.83.98.156/jasperserver-pro").when(configurationMock).getJasperReportsServerUrl();
-        doReturn(clientMock).when(builderMock).build();
-        doReturn(1000).when(configurationMock).getConnectionTimeout();
-        doReturn(clientMock).when(clientMock).property("jersey.config.client.connectTimeout", 1000);
-        doReturn(200).when(configurationMock).getReadTimeout();
-        doReturn(clientMock).when(clientMock).property("jersey.config.client.readTimeout", 200);
-        doReturn(targetMock).when(clientMock).target(anyString());
-        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
-        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
-        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
-        doReturn(true).when(configurationMock).getLogHttp();
-        doReturn(targetMock).when(targetMock).register(any(LoggingFilter.class));
+        suppress(method(SessionStorage.class, "init"));
+        doReturn("http").when(configurationMock).getJasperReportsServerUrl();
+        SessionStorage sessionStorage = Mockito.spy(new SessionStorage(configurationMock, credentialsMock, null, null));
+        Whitebox.setInternalState(sessionStorage, "transport", transportMock);
+        Whitebox.setInternalState(sessionStorage, "sessionId", "sessionId");
+        doReturn(targetMock).when(transportMock).configTarget();
+        doReturn(targetMock).when(targetMock).register(any(SessionOutputFilter.class));
 
         // When
-        SessionStorage sessionStorage = new SessionStorage(configurationMock, credentialsMock, null, null);
+        WebTarget configuredClient = sessionStorage.getConfiguredClient();
 
         // Then
-        assertEquals(Whitebox.getInternalState(sessionStorage, "configuration"), configurationMock);
-        assertEquals(Whitebox.getInternalState(sessionStorage, "credentials"), credentialsMock);
-        verify(configurationMock, times(2)).getJasperReportsServerUrl();
-        verify(builderMock).build();
-        verify(configurationMock).getConnectionTimeout();
-        verify(configurationMock).getReadTimeout();
-        verify(clientMock).property("jersey.config.client.connectTimeout", 1000);
-        verify(clientMock).property("jersey.config.client.readTimeout", 200);
-        verify(clientMock).target("http://54.83.98.156/jasperserver-pro");
-        verify(targetMock).register(JacksonFeature.class);
-        verify(targetMock, times(1)).register(isA(JacksonJsonProvider.class));
-        verify(targetMock).register(MultiPartWriter.class);
-        verify(configurationMock).getLogHttp();
-        verify(targetMock).register(isA(LoggingFilter.class));
+        assertEquals(configuredClient, targetMock);
+        verify(targetMock).register(isA(SessionOutputFilter.class));
     }
 
     @Test
-    public void should_return_client_without_configuration() throws Exception {
+    public void should_create_session_storage_on_shared_transport() {
 
-        //  Given
-        suppress(method(SessionStorage.class, "init"));
-        doReturn("http").when(configurationMock).getJasperReportsServerUrl();
-        SessionStorage sessionStorage = Mockito.spy(new SessionStorage(configurationMock, credentialsMock, null, null));
-        when(sessionStorage.getRawClient()).thenReturn(clientMock);
-
-        // When
+        // Given
+        doReturn(configurationMock).when(transportMock).getConfiguration();
+        doReturn(targetMock).when(transportMock).getRootTarget();
+        doReturn(clientMock).when(transportMock).getClient();
 
         // When
-        Client configuredClient = sessionStorage.getRawClient();
+        SessionStorage sessionStorage = new SessionStorage(transportMock, credentialsMock, Locale.GERMAN, TimeZone.getTimeZone("UTC"));
 
         // Then
-        assertEquals(configuredClient, clientMock);
+        assertEquals(sessionStorage.getConfiguration(), configurationMock);
+        assertEquals(sessionStorage.getTransport(), transportMock);
+        assertEquals(sessionStorage.getRootTarget(), targetMock);
+        assertEquals(sessionStorage.getRawClient(), clientMock);
+        assertEquals(sessionStorage.getUserLocale(), Locale.GERMAN);
     }
 
     @Test
-    public void should_return_client_with_configuration() throws Exception {
+    public void should_not_close_shared_transport() {
 
-        //  Given
-        suppress(method(SessionStorage.class, "init"));
-        doReturn("http").when(configurationMock).getJasperReportsServerUrl();
-        SessionStorage sessionStorage = Mockito.spy(new SessionStorage(configurationMock, credentialsMock, null, null));
-        Whitebox.setInternalState(sessionStorage, "client", clientMock);
-        Whitebox.setInternalState(sessionStorage, "sessionId", "sessionId");
-        doReturn(targetMock).when(clientMock).target(anyString());
-        doReturn(targetMock).when(targetMock).register(JacksonFeature.class);
-        doReturn(targetMock).when(targetMock).register(MultiPartWriter.class);
-        doReturn(targetMock).when(targetMock).register(any(JacksonJsonProvider.class));
-        doReturn(targetMock).when(targetMock).register(any(SessionOutputFilter.class));
-        doReturn(true).when(configurationMock).getLogHttp();
-        doReturn(targetMock).when(targetMock).register(any(LoggingFilter.class));
-        when(sessionStorage.getConfiguredClient()).thenReturn(targetMock);
+        // Given
+        doReturn(configurationMock).when(transportMock).getConfiguration();
+        SessionStorage sessionStorage = new SessionStorage(transportMock, credentialsMock, null, null);
 
         // When
+        sessionStorage.close();
+
+        // Then
+        verify(transportMock, never()).close();
+    }
+
+    @Test
+    public void should_bind_request_to_session() {
+
+        // Given
+        doReturn(configurationMock).when(transportMock).getConfiguration();
+        doReturn(invocationBuilderMock).when(targetMock).request();
+        SessionStorage sessionStorage = new SessionStorage(transportMock, credentialsMock, null, null);
 
         // When
-        WebTarget configuredClient = sessionStorage.getConfiguredClient();
+        Invocation.Builder retrieved = sessionStorage.request(targetMock);
 
         // Then
-        assertEquals(configuredClient, targetMock);
+        assertEquals(retrieved, invocationBuilderMock);
+        verify(invocationBuilderMock).property(SessionStateFilter.SESSION_STORAGE_PROPERTY, sessionStorage);
     }
 
     @Test
@@ -341,42 +295,6 @@ public class SessionStorageTest extends PowerMockTestCase {
         assertEquals(sessionStorage.getUserLocale(), locale);
     }
 
-    @Test(expectedExceptions = RuntimeException.class)
-    public void should_throw_an_exception_when_unable_to_init_SSL_context() throws Exception {
-
-        // Given
-        TrustManager[] managers = new TrustManager[]{
-                new X509TrustManager() {
-                    @Override
-                    public void checkClientTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
-                    }
-
-                    @Override
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
-
-                    @Override
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                    }
-                }};
-
-        mockStatic(ClientBuilder.class, SSLContext.class);
-        when(ClientBuilder.newBuilder()).thenReturn(builderMock);
-        when(SSLContext.getInstance("SSL")).thenReturn(ctxMock);
-
-        when(ctxMock, "init", null, managers, new SecureRandom()).thenThrow(new RuntimeException());
-
-        doReturn("https://abc").when(configurationMock).getJasperReportsServerUrl();
-        doReturn(managers).when(configurationMock).getTrustManagers();
-        doReturn(100L).when(configurationMock).getReadTimeout();
-
-        // When
-        new SessionStorage(configurationMock, credentialsMock, null, null);
-
-        // Then throw an exception
-    }
-
     @Test
     public void should_set_and_get_state_for_object() {
 
@@ -387,7 +305,8 @@ public class SessionStorageTest extends PowerMockTestCase {
         SessionStorage sessionStorage = new SessionStorage(configurationMock, credentialsMock, null, null);
 
         // When
-        setInternalState(sessionStorage, "rootTarget", targetMock);
+        setInternalState(sessionStorage, "transport", transportMock);
+        doReturn(targetMock).when(transportMock).getRootTarget();
         setInternalState(sessionStorage, "sessionId", "sessionId");
         // Then
         assertNotNull(sessionStorage.getConfiguration());
@@ -414,7 +333,8 @@ public class SessionStorageTest extends PowerMockTestCase {
 
     @AfterMethod
     public void after() {
-        reset(builderMock, configurationMock, credentialsMock, invocationBuilderMock, responseMock, ctxMock, clientMock, targetMock);
+        reset(builderMock, configurationMock, credentialsMock, invocationBuilderMock, responseMock, ctxMock, clientMock, targetMock,
+                transportMock);
     }
 
 }
\ No newline at end of file
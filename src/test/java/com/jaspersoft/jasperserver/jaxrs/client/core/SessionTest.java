@@ -75,7 +75,7 @@ public class SessionTest {
         doReturn(AuthenticationType.SPRING).when(configurationMock).getAuthenticationType();
         doReturn(targetMock).when(storageMock).getRootTarget();
         doReturn(targetMock).when(targetMock).path(anyString());
-        doReturn(builderMock).when(targetMock).request();
+        doReturn(builderMock).when(storageMock).request(targetMock);
         doReturn(responseMock).when(builderMock).get();
         doReturn(200).when(responseMock).getStatus();
         // When
@@ -85,9 +85,10 @@ public class SessionTest {
         verify(storageMock).getConfiguration();
         verify(storageMock).getRootTarget();
         verify(targetMock).path(anyString());
-        verify(targetMock).request();
+        verify(storageMock).request(targetMock);
         verify(builderMock).get();
         verify(responseMock).getStatus();
+        verify(responseMock).close();
     }
 
     @Test
@@ -107,7 +108,7 @@ public class SessionTest {
         verify(credentialsMock).setUsername(null);
         verify(storageMock, never()).getRootTarget();
         verify(targetMock, never()).path(anyString());
-        verify(targetMock, never()).request();
+        verify(storageMock, never()).request(targetMock);
         verify(builderMock, never()).get();
         verify(responseMock, never()).getStatus();
     }
@@ -118,7 +119,7 @@ public class SessionTest {
         doReturn(configurationMock).when(storageMock).getConfiguration();
         doReturn(targetMock).when(storageMock).getRootTarget();
         doReturn(targetMock).when(targetMock).path(anyString());
-        doReturn(builderMock).when(targetMock).request();
+        doReturn(builderMock).when(storageMock).request(targetMock);
         doReturn(responseMock).when(builderMock).get();
         doReturn(statusTypeMock).when(responseMock).getStatusInfo();
         doReturn("phrase_").when(statusTypeMock).getReasonPhrase();
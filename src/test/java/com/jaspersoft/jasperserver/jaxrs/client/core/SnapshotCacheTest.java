@@ -0,0 +1,235 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.exceptions.JSClientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link SnapshotCache}
+ */
+public class SnapshotCacheTest {
+
+    private ExecutorService pool;
+
+    @BeforeMethod
+    public void before() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterMethod
+    public void after() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void should_load_value_once_for_concurrent_readers() throws Exception {
+
+        // Given
+        final SnapshotCache cache = new SnapshotCache(pool, 0);
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final SnapshotCache.Loader<String> loader = new SnapshotCache.Loader<String>() {
+            @Override
+            public String load() {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            }
+        };
+        List<Future<String>> readers = new ArrayList<Future<String>>();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            readers.add(pool.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return cache.get("key", loader);
+                }
+            }));
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        for (Future<String> reader : readers) {
+            assertEquals(reader.get(5, TimeUnit.SECONDS), "value");
+        }
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getHits(), 3L);
+    }
+
+    @Test
+    public void should_return_previous_value_while_refreshing() throws Exception {
+
+        // Given
+        SnapshotCache cache = new SnapshotCache(pool, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger version = new AtomicInteger();
+        SnapshotCache.Loader<Integer> loader = new SnapshotCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                if (version.get() > 0) {
+                    await(release);
+                }
+                return version.incrementAndGet();
+            }
+        };
+        cache.get("key", loader);
+        Thread.sleep(10);
+
+        // When
+        Integer stale = cache.get("key", loader);
+        release.countDown();
+
+        // Then
+        assertEquals(stale, Integer.valueOf(1));
+        for (int i = 0; i < 100 && cache.getRefreshes() == 0; i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(10);
+        assertEquals(cache.get("key", loader), Integer.valueOf(2));
+    }
+
+    @Test
+    public void should_skip_refresh_rejected_by_executor() throws Exception {
+
+        // Given
+        Executor full = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        SnapshotCache cache = new SnapshotCache(full, 1);
+        final AtomicInteger loads = new AtomicInteger();
+        SnapshotCache.Loader<Integer> loader = new SnapshotCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                return loads.incrementAndGet();
+            }
+        };
+        cache.get("key", loader);
+        Thread.sleep(5);
+
+        // When
+        Integer value = cache.get("key", loader);
+
+        // Then
+        assertEquals(value, Integer.valueOf(1));
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getRefreshes(), 0L);
+    }
+
+    @Test
+    public void should_keep_value_when_refresh_fails() throws Exception {
+
+        // Given
+        SnapshotCache cache = new SnapshotCache(null, 1);
+        final AtomicInteger calls = new AtomicInteger();
+        SnapshotCache.Loader<String> loader = new SnapshotCache.Loader<String>() {
+            @Override
+            public String load() {
+                if (calls.incrementAndGet() > 1) {
+                    throw new JSClientException("Server is not available");
+                }
+                return "value";
+            }
+        };
+        cache.get("key", loader);
+        Thread.sleep(10);
+
+        // When
+        String value = cache.get("key", loader);
+
+        // Then
+        assertEquals(value, "value");
+        assertEquals(cache.getFailures(), 1L);
+    }
+
+    @Test
+    public void should_not_keep_failed_first_load() {
+
+        // Given
+        SnapshotCache cache = new SnapshotCache(null, 0);
+
+        // When
+        try {
+            cache.get("key", new SnapshotCache.Loader<String>() {
+                @Override
+                public String load() {
+                    throw new JSClientException("Server is not available");
+                }
+            });
+            fail("Exception expected");
+        } catch (JSClientException e) {
+
+            // Then
+            assertEquals(cache.size(), 0);
+        }
+    }
+
+    @Test
+    public void should_invalidate_by_prefix() {
+
+        // Given
+        SnapshotCache cache = new SnapshotCache(null, 0);
+        final AtomicInteger loads = new AtomicInteger();
+        SnapshotCache.Loader<Integer> loader = new SnapshotCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                return loads.incrementAndGet();
+            }
+        };
+        cache.get("settings:en:request", loader);
+        cache.get("bundles:en:", loader);
+
+        // When
+        cache.invalidate("settings:");
+
+        // Then
+        assertEquals(cache.get("settings:en:request", loader), Integer.valueOf(3));
+        assertEquals(cache.get("bundles:en:", loader), Integer.valueOf(2));
+    }
+
+    @Test
+    public void should_load_asynchronously() {
+
+        // Given
+        SnapshotCache cache = new SnapshotCache(pool, 0);
+
+        // When
+        RequestFuture<String> future = cache.getAsync("key", new SnapshotCache.Loader<String>() {
+            @Override
+            public String load() {
+                return "value";
+            }
+        });
+
+        // Then
+        assertEquals(future.join(), "value");
+        assertEquals(cache.getLoads(), 1L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link TaskRunner}
+ */
+public class TaskRunnerTest {
+
+    private ExecutorService pool;
+
+    @BeforeMethod
+    public void before() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterMethod
+    public void after() {
+        pool.shutdownNow();
+    }
+
+    @Test(timeOut = 10000)
+    public void should_run_submitted_and_discovered_tasks_with_bounded_concurrency() throws Exception {
+
+        // Given
+        final TaskRunner runner = new TaskRunner(2);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+        final List<TaskRunner.Task> children = new ArrayList<TaskRunner.Task>();
+        for (int i = 0; i < 5; i++) {
+            children.add(delayedTask(inFlight, maxInFlight, finished, null));
+        }
+        runner.submit(delayedTask(inFlight, maxInFlight, finished, new Runnable() {
+            @Override
+            public void run() {
+                runner.submitAll(children);
+            }
+        }));
+
+        // When
+        runner.run(Arrays.asList(delayedTask(inFlight, maxInFlight, finished, null),
+                delayedTask(inFlight, maxInFlight, finished, null)).iterator());
+
+        // Then
+        assertEquals(finished.get(), 8);
+        assertTrue(maxInFlight.get() <= 2);
+        assertEquals(runner.getRunning(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void should_start_task_without_holding_the_lock() throws Exception {
+
+        // Given
+        final TaskRunner runner = new TaskRunner(1);
+        final AtomicInteger observed = new AtomicInteger(-1);
+        runner.submit(new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                Future<Integer> running = pool.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return runner.getRunning();
+                    }
+                });
+                try {
+                    observed.set(running.get(5, TimeUnit.SECONDS));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return RequestFuture.completed(null);
+            }
+        });
+
+        // When
+        runner.run();
+
+        // Then
+        assertEquals(observed.get(), 1);
+    }
+
+    @Test(timeOut = 10000)
+    public void should_count_failed_start_as_finished() throws Exception {
+
+        // Given
+        TaskRunner runner = new TaskRunner(1);
+        final AtomicInteger started = new AtomicInteger();
+        TaskRunner.Task failing = new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                started.incrementAndGet();
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        // When
+        runner.run(Arrays.asList(failing, failing).iterator());
+
+        // Then
+        assertEquals(started.get(), 2);
+        assertEquals(runner.getRunning(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void should_drop_pending_tasks_when_stopped() throws Exception {
+
+        // Given
+        final TaskRunner runner = new TaskRunner(1);
+        final AtomicInteger started = new AtomicInteger();
+        TaskRunner.Task stopping = new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                started.incrementAndGet();
+                runner.stop();
+                return null;
+            }
+        };
+        runner.submitAll(Arrays.asList(stopping, stopping, stopping));
+
+        // When
+        runner.run();
+
+        // Then
+        assertEquals(started.get(), 1);
+    }
+
+    private TaskRunner.Task delayedTask(final AtomicInteger inFlight, final AtomicInteger maxInFlight,
+                                        final AtomicInteger finished, final Runnable onCompletion) {
+        return new TaskRunner.Task() {
+            @Override
+            public RequestFuture<?> start() {
+                final RequestFuture<Void> future = new RequestFuture<Void>();
+                int current = inFlight.incrementAndGet();
+                int max;
+                while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {
+                    // retry
+                }
+                pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        if (onCompletion != null) {
+                            onCompletion.run();
+                        }
+                        inFlight.decrementAndGet();
+                        finished.incrementAndGet();
+                        future.complete(null);
+                    }
+                });
+                return future;
+            }
+        };
+    }
+}
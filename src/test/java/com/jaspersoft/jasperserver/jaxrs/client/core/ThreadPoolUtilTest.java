@@ -66,6 +66,21 @@ public class ThreadPoolUtilTest extends PowerMockTestCase {
         verify(serviceMock).submit(runnableMock);
     }
 
+    @Test(priority = 1)
+    public void should_run_task_on_executor_of_session() {
+
+        /* Given */
+        SessionStorage storageMock = Mockito.mock(SessionStorage.class);
+        AsyncExecutor executorMock = Mockito.mock(AsyncExecutor.class);
+        PowerMockito.doReturn(executorMock).when(storageMock).getAsyncExecutor();
+
+        /* When */
+        ThreadPoolUtil.runAsynchronously(executionTaskMock, storageMock);
+
+        /* Then */
+        verify(executorMock).execute(executionTaskMock);
+    }
+
     @Test(priority = 2, enabled = true) // priority needs to avoid crash during execution of Reflection operations
     public void magic() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Constructor<ThreadPoolUtil> constructor = ThreadPoolUtil.class.getDeclaredConstructor();
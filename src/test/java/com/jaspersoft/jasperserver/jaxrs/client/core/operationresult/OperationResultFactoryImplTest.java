@@ -6,6 +6,7 @@ import com.jaspersoft.jasperserver.dto.resources.ClientSecureMondrianConnection;
 import com.jaspersoft.jasperserver.dto.thumbnails.ResourceThumbnail;
 import com.jaspersoft.jasperserver.jaxrs.client.apiadapters.resources.ResourcesTypeResolverUtil;
 import com.jaspersoft.jasperserver.dto.thumbnails.ResourceThumbnailsListWrapper;
+import java.io.InputStream;
 import javax.ws.rs.core.Response;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
@@ -157,6 +158,36 @@ public class OperationResultFactoryImplTest extends PowerMockTestCase {
         Assert.assertTrue(instanceOf(ClientSecureMondrianConnection.class).matches(operationResult.getEntity()));
     }
 
+    @Test
+    public void should_buffer_binary_content_unless_streaming_is_requested() {
+
+        /** Given **/
+        Mockito.when(responseMock.hasEntity()).thenReturn(true);
+        Mockito.when(responseMock.getStatus()).thenReturn(200);
+
+        /** When **/
+        OperationResult<InputStream> operationResult = new OperationResultFactoryImpl().getOperationResult(responseMock, InputStream.class);
+
+        /** Then **/
+        Assert.assertTrue(instanceOf(WithEntityOperationResult.class).matches(operationResult));
+        Mockito.verify(responseMock).bufferEntity();
+    }
+
+    @Test
+    public void should_buffer_binary_content_of_error_response() {
+
+        /** Given **/
+        Mockito.when(responseMock.hasEntity()).thenReturn(true);
+        Mockito.when(responseMock.getStatus()).thenReturn(500);
+
+        /** When **/
+        OperationResult<InputStream> operationResult = new OperationResultFactoryImpl().getOperationResult(responseMock, InputStream.class);
+
+        /** Then **/
+        Assert.assertTrue(instanceOf(WithEntityOperationResult.class).matches(operationResult));
+        Mockito.verify(responseMock).bufferEntity();
+    }
+
     @AfterMethod
     public void after() {
         responseMock = null;
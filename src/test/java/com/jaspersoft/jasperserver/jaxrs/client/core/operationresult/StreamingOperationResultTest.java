@@ -0,0 +1,89 @@
+package com.jaspersoft.jasperserver.jaxrs.client.core.operationresult;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import javax.ws.rs.core.Response;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.doReturn;
+
+/**
+ * Unit tests for {@link StreamingOperationResult}
+ */
+@PrepareForTest(Response.class)
+public class StreamingOperationResultTest extends PowerMockTestCase {
+
+    private Response responseMock;
+
+    @BeforeMethod
+    public void before() {
+        responseMock = Mockito.mock(Response.class);
+    }
+
+    @Test
+    public void should_not_buffer_entity() {
+
+        // When
+        new StreamingOperationResult(responseMock);
+
+        // Then
+        verify(responseMock, never()).bufferEntity();
+    }
+
+    @Test
+    public void should_read_stream_once_and_release_connection_on_close() throws Exception {
+
+        // Given
+        doReturn(new ByteArrayInputStream(new byte[]{1, 2, 3})).when(responseMock).readEntity(InputStream.class);
+        StreamingOperationResult operationResult = new StreamingOperationResult(responseMock);
+
+        // When
+        InputStream entity = operationResult.getEntity();
+
+        // Then
+        Assert.assertSame(operationResult.getEntity(), entity);
+        Assert.assertEquals(entity.read(), 1);
+        entity.close();
+        verify(responseMock, times(1)).readEntity(InputStream.class);
+        verify(responseMock).close();
+    }
+
+    @Test
+    public void should_buffer_entity_to_return_serialized_content() {
+
+        // Given
+        doReturn("content").when(responseMock).readEntity(String.class);
+        StreamingOperationResult operationResult = new StreamingOperationResult(responseMock);
+
+        // When
+        String retrieved = operationResult.getSerializedContent();
+
+        // Then
+        Assert.assertEquals(retrieved, "content");
+        verify(responseMock).bufferEntity();
+    }
+
+    @Test
+    public void should_not_return_serialized_content_when_stream_is_taken() {
+
+        // Given
+        doReturn(new ByteArrayInputStream(new byte[0])).when(responseMock).readEntity(InputStream.class);
+        StreamingOperationResult operationResult = new StreamingOperationResult(responseMock);
+        operationResult.getEntity();
+
+        // When
+        String retrieved = operationResult.getSerializedContent();
+
+        // Then
+        Assert.assertNull(retrieved);
+        verify(responseMock, never()).readEntity(String.class);
+    }
+}
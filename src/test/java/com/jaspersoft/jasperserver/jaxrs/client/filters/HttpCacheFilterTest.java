@@ -0,0 +1,277 @@
+package com.jaspersoft.jasperserver.jaxrs.client.filters;
+
+import com.jaspersoft.jasperserver.jaxrs.client.core.AuthenticationCredentials;
+import com.jaspersoft.jasperserver.jaxrs.client.core.HttpCache;
+import com.jaspersoft.jasperserver.jaxrs.client.core.SessionStorage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Unit tests for {@link HttpCacheFilter}
+ */
+public class HttpCacheFilterTest {
+
+    private static final String URL = "http://localhost:8080/jasperserver-pro/rest_v2/resources/public/report";
+
+    private HttpCache cache;
+    private HttpCacheFilter filter;
+    private SessionStorage storage;
+
+    @BeforeMethod
+    public void before() {
+        cache = new HttpCache();
+        filter = new HttpCacheFilter(cache);
+        storage = mock(SessionStorage.class);
+        doReturn(new AuthenticationCredentials("jasperadmin", "jasperadmin")).when(storage).getCredentials();
+    }
+
+    @Test
+    public void should_store_response_with_validator() throws Exception {
+
+        // Given
+        ClientRequestContext request = request("GET", URL);
+        ClientResponseContext response = response(200, "\"v1\"", "content");
+
+        // When
+        filter.filter(request);
+        filter.filter(request, response);
+
+        // Then
+        assertEquals(read(response.getEntityStream()), "content");
+        assertEquals(cache.getStats().getEntries(), 1);
+        assertEquals(cache.getStats().getBytes(), 7L);
+        assertEquals(cache.getStats().getMisses(), 1L);
+    }
+
+    @Test
+    public void should_revalidate_and_serve_body_on_not_modified() throws Exception {
+
+        // Given
+        ClientRequestContext first = request("GET", URL);
+        filter.filter(first);
+        filter.filter(first, response(200, "\"v1\"", "content"));
+        ClientRequestContext second = request("GET", URL);
+        ClientResponseContext notModified = response(304, "\"v1\"", "");
+
+        // When
+        filter.filter(second);
+        filter.filter(second, notModified);
+
+        // Then
+        assertEquals(second.getHeaders().getFirst("If-None-Match"), "\"v1\"");
+        verify(notModified).setStatus(200);
+        assertEquals(read(notModified.getEntityStream()), "content");
+        assertEquals(cache.getStats().getRevalidations(), 1L);
+        assertEquals(cache.getStats().getHitRatio(), 0.5);
+    }
+
+    @Test
+    public void should_serve_fresh_response_without_request() throws Exception {
+
+        // Given
+        cache.addRule("resources", 60000);
+        ClientRequestContext first = request("GET", URL);
+        filter.filter(first);
+        filter.filter(first, response(200, "\"v1\"", "content"));
+        ClientRequestContext second = request("GET", URL);
+
+        // When
+        filter.filter(second);
+
+        // Then
+        verify(second).abortWith(any(Response.class));
+        assertEquals(cache.getStats().getHits(), 1L);
+    }
+
+    @Test
+    public void should_keep_entries_per_user() throws Exception {
+
+        // Given
+        ClientRequestContext first = request("GET", URL);
+        filter.filter(first);
+        filter.filter(first, response(200, "\"v1\"", "content"));
+        doReturn(new AuthenticationCredentials("joeuser", "joeuser")).when(storage).getCredentials();
+        ClientRequestContext second = request("GET", URL);
+
+        // When
+        filter.filter(second);
+
+        // Then
+        assertNull(second.getHeaders().getFirst("If-None-Match"));
+    }
+
+    @Test
+    public void should_invalidate_written_path_after_successful_write() throws Exception {
+
+        // Given
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        cache.put("report", new HttpCache.Entry("resources/public/report", headers, new byte[1]));
+        cache.put("folder", new HttpCache.Entry("resources/public", headers, new byte[1]));
+        cache.put("search", new HttpCache.Entry("resources", headers, new byte[1]));
+        cache.put("other", new HttpCache.Entry("resources/public/other", headers, new byte[1]));
+        ClientRequestContext put = request("PUT", URL);
+
+        // When
+        filter.filter(put);
+        assertEquals(cache.getStats().getEntries(), 4);
+        filter.filter(put, response(200, "\"v2\"", ""));
+
+        // Then
+        assertNull(cache.get("report"));
+        assertNull(cache.get("folder"));
+        assertNull(cache.get("search"));
+        assertNotNull(cache.get("other"));
+    }
+
+    @Test
+    public void should_keep_entries_after_failed_write() throws Exception {
+
+        // Given
+        ClientRequestContext get = request("GET", URL);
+        filter.filter(get);
+        filter.filter(get, response(200, "\"v1\"", "content"));
+        ClientRequestContext put = request("PUT", URL);
+
+        // When
+        filter.filter(put);
+        filter.filter(put, response(409, null, ""));
+
+        // Then
+        assertEquals(cache.getStats().getEntries(), 1);
+    }
+
+    @Test
+    public void should_not_cache_path_without_rule() throws Exception {
+
+        // Given
+        ClientRequestContext request = request("GET", "http://localhost:8080/jasperserver-pro/rest_v2/users");
+        ClientResponseContext response = response(200, "\"v1\"", "content");
+
+        // When
+        filter.filter(request);
+        filter.filter(request, response);
+
+        // Then
+        verify(response, never()).setEntityStream(any(InputStream.class));
+        assertEquals(cache.getStats().getEntries(), 0);
+    }
+
+    @Test
+    public void should_not_store_large_response() throws Exception {
+
+        // Given
+        cache.setMaxEntrySize(3);
+        ClientRequestContext request = request("GET", URL);
+        ClientResponseContext response = response(200, "\"v1\"", "content");
+
+        // When
+        filter.filter(request);
+        filter.filter(request, response);
+
+        // Then
+        assertEquals(read(response.getEntityStream()), "content");
+        assertEquals(cache.getStats().getEntries(), 0);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_entry() {
+
+        // Given
+        cache.setMaxSize(10);
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        cache.put("first", new HttpCache.Entry("resources/first", headers, new byte[4]));
+        cache.put("second", new HttpCache.Entry("resources/second", headers, new byte[4]));
+        cache.get("first");
+
+        // When
+        cache.put("third", new HttpCache.Entry("resources/third", headers, new byte[4]));
+
+        // Then
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals(cache.getStats().getEvictions(), 1L);
+    }
+
+    private ClientRequestContext request(String method, String uri) {
+        ClientRequestContext request = mock(ClientRequestContext.class);
+        final Map<String, Object> properties = new HashMap<String, Object>();
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<String, Object>();
+        properties.put(SessionStateFilter.SESSION_STORAGE_PROPERTY, storage);
+        doReturn(method).when(request).getMethod();
+        doReturn(URI.create(uri)).when(request).getUri();
+        doReturn(headers).when(request).getHeaders();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return properties.get(invocation.getArguments()[0]);
+            }
+        }).when(request).getProperty(anyString());
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return properties.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+            }
+        }).when(request).setProperty(anyString(), any());
+        return request;
+    }
+
+    private ClientResponseContext response(int status, String etag, String body) {
+        final ClientResponseContext response = mock(ClientResponseContext.class);
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        headers.putSingle("ETag", etag);
+        headers.putSingle("Content-Type", "application/json");
+        final InputStream[] entity = {new ByteArrayInputStream(body.getBytes())};
+        doReturn(status).when(response).getStatus();
+        doReturn(headers).when(response).getHeaders();
+        doReturn(etag).when(response).getHeaderString("ETag");
+        doReturn(-1).when(response).getLength();
+        doReturn(body.length() > 0).when(response).hasEntity();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return entity[0];
+            }
+        }).when(response).getEntityStream();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                entity[0] = (InputStream) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(response).setEntityStream(any(InputStream.class));
+        return response;
+    }
+
+    private String read(InputStream in) throws IOException {
+        StringBuilder content = new StringBuilder();
+        int read;
+        while ((read = in.read()) != -1) {
+            content.append((char) read);
+        }
+        return content.toString();
+    }
+}